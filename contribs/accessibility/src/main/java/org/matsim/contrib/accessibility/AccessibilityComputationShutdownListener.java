@@ -23,7 +23,6 @@ import java.io.File;
 import java.util.*;
 import java.util.concurrent.*;
 
-import com.google.common.collect.Iterables;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.BasicLocation;
@@ -129,50 +128,30 @@ final class AccessibilityComputationShutdownListener implements ShutdownListener
 				Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> aggregatedOrigins = calculator.getAggregatedMeasurePoints();
 				Map<Id<? extends BasicLocation>, AggregationObject> aggregatedOpportunities = calculator.getAgregatedOpportunities();
 
-				Collection<Id<? extends BasicLocation>> aggregatedOriginIds = new LinkedList<>();
-				for (Id<? extends BasicLocation> nodeId : aggregatedOrigins.keySet()) {
-					aggregatedOriginIds.add(nodeId);
-				}
+				List<Id<? extends BasicLocation>> aggregatedOriginIds = new ArrayList<>(aggregatedOrigins.keySet());
 
 				LOG.info("Iterating over all aggregated measuring points...");
+				ProgressBar progressBar = new ProgressBar(aggregatedOrigins.size());
 
 				if (acg.isUseParallelization()) {
 					int numberOfProcessors = Runtime.getRuntime().availableProcessors();
 					LOG.info("There are " + numberOfProcessors + " available processors.");
 
-					final int partitionSize = (int) ((double) aggregatedOrigins.size() / numberOfProcessors) + 1;
-					LOG.info("Size of partitions = " + partitionSize);
-					Iterable<List<Id<? extends BasicLocation>>> partitions = Iterables.partition(aggregatedOriginIds, partitionSize);
-
-					ProgressBar progressBar = new ProgressBar(aggregatedOrigins.size());
-
-					ExecutorService service = Executors.newFixedThreadPool(numberOfProcessors);
-					List<Callable<Void>> tasks = new ArrayList<>();
-					for (final List<Id<? extends BasicLocation>> partition : partitions) {
-						tasks.add(() -> {
-							try {
-								compute(mode, departureTime, aggregatedOpportunities, aggregatedOrigins, partition, progressBar);
-							} catch (Exception e) {
-								throw new RuntimeException(e);
-							}
-							return null;
-						});
-					}
+					// The origins are split recursively; idle workers steal the pending halves, so origin nodes with expensive trees do not
+					// hold up a whole partition. Each worker thread uses its own copy of the calculator.
+					ThreadLocal<AccessibilityContributionCalculator> workerCalculators = ThreadLocal.withInitial(calculator::duplicate);
+					int minTaskSize = Math.max(1, aggregatedOriginIds.size() / (numberOfProcessors * 16));
+
+					ForkJoinPool pool = new ForkJoinPool(numberOfProcessors);
 					try {
-						List<Future<Void>> futures = service.invokeAll(tasks);
-						for (Future<Void> future : futures) {
-							future.get();
-						}
-					} catch (InterruptedException e) {
-						throw new RuntimeException(e);
-					} catch (ExecutionException e) {
-						throw new RuntimeException(e);
+						pool.invoke(new ComputeTask(mode, departureTime, aggregatedOpportunities, aggregatedOrigins, aggregatedOriginIds,
+							0, aggregatedOriginIds.size(), minTaskSize, workerCalculators, progressBar));
+					} finally {
+						pool.shutdown();
 					}
-					service.shutdown();
 				} else {
 					LOG.info("Performing the computation without parallelization.");
-					ProgressBar progressBar = new ProgressBar(aggregatedOrigins.size());
-					compute(mode, departureTime, aggregatedOpportunities, aggregatedOrigins, aggregatedOriginIds, progressBar);
+					compute(calculator, mode, departureTime, aggregatedOpportunities, aggregatedOrigins, aggregatedOriginIds, progressBar);
 				}
 
 			}
@@ -183,16 +162,52 @@ final class AccessibilityComputationShutdownListener implements ShutdownListener
 	}
 
 
-	private void compute(String mode, Double departureTime, Map<Id<? extends BasicLocation>, AggregationObject> aggregatedOpportunities,
-						 Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> aggregatedOrigins,
-						 Collection<Id<? extends BasicLocation>> subsetOfNodes, ProgressBar progressBar) {
+	private final class ComputeTask extends RecursiveAction {
+		private final String mode;
+		private final Double departureTime;
+		private final Map<Id<? extends BasicLocation>, AggregationObject> aggregatedOpportunities;
+		private final Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> aggregatedOrigins;
+		private final List<Id<? extends BasicLocation>> originIds;
+		private final int from;
+		private final int to;
+		private final int minTaskSize;
+		private final ThreadLocal<AccessibilityContributionCalculator> workerCalculators;
+		private final ProgressBar progressBar;
+
+		ComputeTask(String mode, Double departureTime, Map<Id<? extends BasicLocation>, AggregationObject> aggregatedOpportunities,
+					Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> aggregatedOrigins, List<Id<? extends BasicLocation>> originIds,
+					int from, int to, int minTaskSize, ThreadLocal<AccessibilityContributionCalculator> workerCalculators, ProgressBar progressBar) {
+			this.mode = mode;
+			this.departureTime = departureTime;
+			this.aggregatedOpportunities = aggregatedOpportunities;
+			this.aggregatedOrigins = aggregatedOrigins;
+			this.originIds = originIds;
+			this.from = from;
+			this.to = to;
+			this.minTaskSize = minTaskSize;
+			this.workerCalculators = workerCalculators;
+			this.progressBar = progressBar;
+		}
 
-		AccessibilityContributionCalculator calculator;
-		if (acg.isUseParallelization()) {
-			calculator = calculators.get(mode).duplicate();
-		} else {
-			calculator = calculators.get(mode);
+		@Override
+		protected void compute() {
+			if (to - from <= minTaskSize) {
+				AccessibilityComputationShutdownListener.this.compute(workerCalculators.get(), mode, departureTime, aggregatedOpportunities,
+					aggregatedOrigins, originIds.subList(from, to), progressBar);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(
+				new ComputeTask(mode, departureTime, aggregatedOpportunities, aggregatedOrigins, originIds, from, mid, minTaskSize, workerCalculators, progressBar),
+				new ComputeTask(mode, departureTime, aggregatedOpportunities, aggregatedOrigins, originIds, mid, to, minTaskSize, workerCalculators, progressBar));
 		}
+	}
+
+
+	private void compute(AccessibilityContributionCalculator calculator, String mode, Double departureTime,
+						 Map<Id<? extends BasicLocation>, AggregationObject> aggregatedOpportunities,
+						 Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> aggregatedOrigins,
+						 Collection<Id<? extends BasicLocation>> subsetOfNodes, ProgressBar progressBar) {
 
 		// Go through all nodes that have a measuring point assigned
 		for (Id<? extends BasicLocation> fromNodeId : subsetOfNodes) {
@@ -63,6 +63,9 @@ public final class AccessibilityConfigGroup extends ReflectiveConfigGroup{
 	private static final String USE_PARALLELIZATION = "useParallelization";
 	private boolean useParallelization = true;
 
+	private static final String USE_CONTRACTION_HIERARCHIES = "useContractionHierarchies";
+	private boolean useContractionHierarchies = false;
+
 //	private static final String ACCESSIBILITY_DESTINATION_SAMPLING_RATE = "accessibilityDestinationSamplingRate";
 //	private Double accessibilityDestinationSamplingRate;
 
@@ -141,6 +144,9 @@ public final class AccessibilityConfigGroup extends ReflectiveConfigGroup{
 
 		map.put(ACCESSIBILITY_MEASURE_TYPE, "defines type of measure for accessibility computation.");
 
+		map.put(USE_CONTRACTION_HIERARCHIES, "if true, least-cost trees for network modes are computed on a contraction hierarchy, " +
+				"which is much faster for many measuring points. Link disutilities are then evaluated at the departure time for the whole trip. Default: false");
+
 		map.put(USING_CUSTOM_BOUNDING_BOX, "true if custom bounding box should be used for accessibility computation (otherwise e.g. extent of network will be used)");
 		map.put(BOUNDING_BOX_BOTTOM,"custom bounding box parameters for accessibility computation (if enabled)");
 
@@ -277,6 +283,15 @@ public final class AccessibilityConfigGroup extends ReflectiveConfigGroup{
 		this.useParallelization = useParallelization;
 		return this;
 	}
+	@StringGetter(USE_CONTRACTION_HIERARCHIES)
+	public boolean isUseContractionHierarchies() {
+		return useContractionHierarchies;
+	}
+	@StringSetter(USE_CONTRACTION_HIERARCHIES)
+	public AccessibilityConfigGroup setUseContractionHierarchies(Boolean useContractionHierarchies) {
+		this.useContractionHierarchies = useContractionHierarchies;
+		return this;
+	}
     @StringGetter(WEIGHT_EXPONENT)
     public double getWeightExponent() {
     	return weightExponent;
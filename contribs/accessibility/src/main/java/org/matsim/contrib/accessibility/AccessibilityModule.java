@@ -199,13 +199,13 @@ public final class AccessibilityModule extends AbstractModule {
 					// freespeed car, special case
 					final TravelDisutilityFactory travelDisutilityFactory = travelDisutilityFactories.get(TransportMode.car);
 					Gbl.assertNotNull(travelDisutilityFactory);
-					calculator = new NetworkModeAccessibilityExpContributionCalculator(mode, new FreeSpeedTravelTime(), travelDisutilityFactory, scenario);
+					calculator = createNetworkModeCalculator(mode, new FreeSpeedTravelTime(), travelDisutilityFactory);
 				} else if ( config.routing().getNetworkModes().contains( mode ) ) {
 					final TravelTime nwModeTravelTime = travelTimes.get(mode);
 					Gbl.assertNotNull(nwModeTravelTime);
 					final TravelDisutilityFactory nwModeTravelDisutility = travelDisutilityFactories.get(mode);
 					Gbl.assertNotNull( nwModeTravelDisutility );
-					calculator = new NetworkModeAccessibilityExpContributionCalculator(mode, nwModeTravelTime, nwModeTravelDisutility, scenario);
+					calculator = createNetworkModeCalculator(mode, nwModeTravelTime, nwModeTravelDisutility);
 				} else if ( TransportMode.pt.equals( mode ) ){
 					calculator = new SwissRailRaptorAccessibilityContributionCalculator(mode, config.scoring(), scenario, tripRouter);
 				} else if ( Modes4Accessibility.estimatedDrt.name().equals( mode )) {
@@ -268,5 +268,14 @@ public final class AccessibilityModule extends AbstractModule {
 
 			return accessibilityShutdownListener;
 		}
+
+		private AccessibilityContributionCalculator createNetworkModeCalculator(String mode, TravelTime travelTime,
+																				TravelDisutilityFactory travelDisutilityFactory) {
+			AccessibilityConfigGroup acg = ConfigUtils.addOrGetModule(scenario.getConfig(), AccessibilityConfigGroup.class);
+			if (acg.isUseContractionHierarchies()) {
+				return new CHNetworkModeAccessibilityExpContributionCalculator(mode, travelTime, travelDisutilityFactory, scenario);
+			}
+			return new NetworkModeAccessibilityExpContributionCalculator(mode, travelTime, travelDisutilityFactory, scenario);
+		}
 	}
 }
@@ -0,0 +1,248 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.accessibility;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.BasicLocation;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.TransportMode;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.contrib.accessibility.utils.*;
+import org.matsim.core.config.groups.ScoringConfigGroup;
+import org.matsim.core.gbl.Gbl;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.network.algorithms.TransportModeNetworkFilter;
+import org.matsim.core.router.costcalculators.TravelDisutilityFactory;
+import org.matsim.core.router.speedy.*;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.facilities.ActivityFacilities;
+import org.matsim.facilities.ActivityFacility;
+import org.matsim.vehicles.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Same accessibility contributions as {@link NetworkModeAccessibilityExpContributionCalculator}, but the least-cost tree from each origin
+ * node is computed by a one-to-all sweep over a contraction hierarchy of the mode's sub-network.
+ * <p>
+ * The hierarchy is built once per mode and re-customized with the link disutilities at the departure time.  Opportunities are aggregated
+ * to their nearest nodes into primitive arrays, and the sum over all destinations is computed only once per origin node; measuring points
+ * assigned to the same node only differ in their access part, which is a factor of each destination term.
+ * <p>
+ * In contrast to {@link NetworkModeAccessibilityExpContributionCalculator}, link disutilities are evaluated at the departure time for the
+ * whole tree, not at the time the link is entered.  Destinations not reachable from the origin node do not contribute.
+ *
+ * @see AccessibilityConfigGroup#isUseContractionHierarchies()
+ */
+final class CHNetworkModeAccessibilityExpContributionCalculator implements AccessibilityContributionCalculator {
+	private static final Logger LOG = LogManager.getLogger(CHNetworkModeAccessibilityExpContributionCalculator.class);
+
+	private final String mode;
+	private final TravelDisutilityFactory travelDisutilityFactory;
+	private final TravelTime travelTime;
+	private final Scenario scenario;
+
+	private final TravelDisutility travelDisutility;
+	private final ScoringConfigGroup scoringConfigGroup;
+
+	private final double betaWalkTT;
+	private final double walkSpeed_m_s;
+
+	/**
+	 * State shared between this calculator and its duplicates.
+	 */
+	private SharedData shared;
+
+	private CHLeastCostPathTree tree;
+	private Node fromNode;
+	private double expSumOfNode;
+
+	CHNetworkModeAccessibilityExpContributionCalculator(String mode, final TravelTime travelTime, final TravelDisutilityFactory travelDisutilityFactory, Scenario scenario) {
+		this.mode = mode;
+		this.travelTime = travelTime;
+		this.travelDisutilityFactory = travelDisutilityFactory;
+		this.scenario = scenario;
+
+		Gbl.assertNotNull(travelDisutilityFactory);
+		this.travelDisutility = travelDisutilityFactory.createTravelDisutility(travelTime);
+
+		this.scoringConfigGroup = scenario.getConfig().scoring();
+		this.betaWalkTT = scoringConfigGroup.getModes().get(TransportMode.walk).getMarginalUtilityOfTraveling() - scoringConfigGroup.getPerforming_utils_hr();
+		this.walkSpeed_m_s = scenario.getConfig().routing().getTeleportedModeSpeeds().get(TransportMode.walk);
+	}
+
+
+	@Override
+	public void initialize(ActivityFacilities measuringPoints, ActivityFacilities opportunities) {
+		LOG.info("Initializing calculator for mode " + mode + "...");
+		if (this.shared != null) {
+			// initialize is called once per departure time; the hierarchy only depends on the network
+			this.shared = new SharedData(shared.subNetwork, shared.chGraph, measuringPoints, opportunities, scenario);
+		} else {
+			Network subNetwork = NetworkUtils.createNetwork(scenario.getConfig().network());
+			TransportModeNetworkFilter filter = new TransportModeNetworkFilter(scenario.getNetwork());
+			filter.filter(subNetwork, Set.of(mode.equals(Modes4Accessibility.freespeed.name()) ? TransportMode.car : mode));
+			if (subNetwork.getNodes().isEmpty()) {
+				throw new RuntimeException("Network has 0 nodes for mode " + mode + ". Something is wrong.");
+			}
+			LOG.info("Sub-network for mode " + mode + " has " + subNetwork.getNodes().size() + " nodes.");
+
+			SpeedyGraph graph = SpeedyGraphBuilder.build(subNetwork);
+			LOG.info("Building contraction hierarchy for mode " + mode + "...");
+			InertialFlowCutter.NDOrderResult order = new InertialFlowCutter(graph).computeOrderWithBatches();
+			CHGraph chGraph = new CHBuilder(graph, travelDisutility).withTimeDependence(false)
+					.buildWithOrderParallel(order, scenario.getConfig().global().getNumberOfThreads());
+			this.shared = new SharedData(subNetwork, chGraph, measuringPoints, opportunities, scenario);
+		}
+		this.tree = new CHLeastCostPathTree(shared.chGraph, travelTime, travelDisutility);
+		this.shared.initDestinations(tree);
+	}
+
+
+	@Override
+	public void notifyNewOriginNode(Id<? extends BasicLocation> fromNodeId, Double departureTime) {
+		shared.customize(travelDisutility, departureTime);
+
+		this.fromNode = shared.subNetwork.getNodes().get(fromNodeId);
+		tree.calculate(fromNode, departureTime, null, null);
+
+		double beta = scoringConfigGroup.getBrainExpBeta();
+		int[] destinationNodes = shared.destinationNodes;
+		double[] destinationSums = shared.destinationSums;
+		double sum = 0.;
+		for (int i = 0; i < destinationNodes.length; i++) {
+			int node = destinationNodes[i];
+			if (tree.getTime(node).isDefined()) {
+				sum += Math.exp(-beta * tree.getCost(node)) * destinationSums[i];
+			}
+		}
+		this.expSumOfNode = sum;
+	}
+
+
+	@Override
+	public double computeContributionOfOpportunity(ActivityFacility origin,
+			Map<Id<? extends BasicLocation>, AggregationObject> aggregatedOpportunities, Double departureTime) {
+
+		Link nearestLink = NetworkUtils.getNearestLinkExactly(shared.subNetwork, origin.getCoord());
+		Distances distance = NetworkUtil.getDistances2NodeViaGivenLink(origin.getCoord(), nearestLink, fromNode);
+		double walkTravelTimeMeasuringPoint2Road_h = distance.getDistancePoint2Intersection() / (this.walkSpeed_m_s * 3600);
+		double walkUtilityMeasuringPoint2Road = (walkTravelTimeMeasuringPoint2Road_h * betaWalkTT);
+
+		double distanceFraction = distance.getDistanceIntersection2Node() / nearestLink.getLength();
+		double congestedCarUtilityRoad2Node = -travelDisutility.getLinkTravelDisutility(nearestLink, departureTime, null, null) * distanceFraction;
+
+		double modeSpecificConstant = AccessibilityUtils.getModeSpecificConstantForAccessibilities(mode, scoringConfigGroup);
+
+		// exp(a+b) = exp(a) * exp(b): the destination part has been summed up per origin node
+		return Math.exp(scoringConfigGroup.getBrainExpBeta() * (walkUtilityMeasuringPoint2Road + modeSpecificConstant + congestedCarUtilityRoad2Node))
+				* expSumOfNode;
+	}
+
+
+	@Override
+	public CHNetworkModeAccessibilityExpContributionCalculator duplicate() {
+		CHNetworkModeAccessibilityExpContributionCalculator calculator =
+				new CHNetworkModeAccessibilityExpContributionCalculator(this.mode, this.travelTime, this.travelDisutilityFactory, this.scenario);
+		calculator.shared = this.shared;
+		if (this.shared != null) {
+			calculator.tree = new CHLeastCostPathTree(shared.chGraph, calculator.travelTime, calculator.travelDisutility);
+		}
+		return calculator;
+	}
+
+
+	@Override
+	public Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> getAggregatedMeasurePoints() {
+		return shared.aggregatedMeasurePoints;
+	}
+
+
+	@Override
+	public Map<Id<? extends BasicLocation>, AggregationObject> getAgregatedOpportunities() {
+		return shared.aggregatedOpportunities;
+	}
+
+
+	private static final class SharedData {
+		private final Network subNetwork;
+		private final CHGraph chGraph;
+		private final Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> aggregatedMeasurePoints;
+		private final Map<Id<? extends BasicLocation>, AggregationObject> aggregatedOpportunities;
+
+		private int[] destinationNodes;
+		private double[] destinationSums;
+
+		private double customizedFor = Double.NaN;
+
+		SharedData(Network subNetwork, CHGraph chGraph, ActivityFacilities measuringPoints, ActivityFacilities opportunities, Scenario scenario) {
+			this.subNetwork = subNetwork;
+			this.chGraph = chGraph;
+			this.aggregatedMeasurePoints = AccessibilityUtils.aggregateMeasurePointsWithSameNearestNode(measuringPoints, subNetwork);
+			this.aggregatedOpportunities = AccessibilityUtils.aggregateOpportunitiesWithSameNearestNode(opportunities, subNetwork, scenario.getConfig());
+		}
+
+		void initDestinations(CHLeastCostPathTree tree) {
+			int n = aggregatedOpportunities.size();
+			destinationNodes = new int[n];
+			destinationSums = new double[n];
+			int i = 0;
+			for (AggregationObject destination : aggregatedOpportunities.values()) {
+				destinationNodes[i] = tree.getNodeIndex((Node) destination.getNearestBasicLocation());
+				destinationSums[i] = destination.getSum();
+				i++;
+			}
+		}
+
+		/**
+		 * Sets the edge weights to the link disutilities at the given departure time, unless this was already done.
+		 */
+		synchronized void customize(TravelDisutility travelDisutility, double departureTime) {
+			if (customizedFor == departureTime) {
+				return;
+			}
+			new CHCustomizer().customize(chGraph, new DisutilityAtTime(travelDisutility, departureTime));
+			customizedFor = departureTime;
+		}
+	}
+
+	/**
+	 * Exposes the link disutilities at a fixed time as minimum disutilities, which is what {@link CHCustomizer} uses as edge weights.
+	 */
+	private record DisutilityAtTime(TravelDisutility delegate, double time) implements TravelDisutility {
+		@Override
+		public double getLinkTravelDisutility(Link link, double time, Person person, Vehicle vehicle) {
+			return delegate.getLinkTravelDisutility(link, this.time, person, vehicle);
+		}
+
+		@Override
+		public double getLinkMinimumTravelDisutility(Link link) {
+			return delegate.getLinkTravelDisutility(link, time, null, null);
+		}
+	}
+}
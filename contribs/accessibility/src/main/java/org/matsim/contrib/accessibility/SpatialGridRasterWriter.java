@@ -0,0 +1,93 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.accessibility;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Writes grids as binary ESRI float grid, i.e. a {@code .flt} file with 32-bit little-endian values, row by row from north to south, and
+ * a {@code .hdr} file with the extent.  This format can be opened directly by GIS tools (e.g. QGIS via GDAL).  The values are written
+ * one row at a time, so no dense copy of the grid is needed.  Cells without value ({@code NaN}) are written as {@link #NO_DATA}.
+ *
+ * @see SpatialGridTableWriter for the plain text format
+ */
+public final class SpatialGridRasterWriter {
+
+	public static final float NO_DATA = -9999f;
+
+	/**
+	 * @param fileName name of the {@code .flt} file; the header is written next to it
+	 */
+	public void write(TiledSpatialGrid grid, String fileName) {
+		int rows = grid.getNumRows();
+		write(fileName, grid.getNumCols(), rows, grid.getXmin(), grid.getYmin(), grid.getResolution(),
+				(col, rowFromTop) -> grid.getValueByIndex(col, rows - 1 - rowFromTop));
+	}
+
+	/**
+	 * @param fileName name of the {@code .flt} file; the header is written next to it
+	 */
+	public void write(SpatialGrid grid, String fileName) {
+		// the matrix of the spatial grid is already mirrored, i.e. the first row is the northernmost one
+		double[][] matrix = grid.getMatrix();
+		write(fileName, grid.getNumCols(0), grid.getNumRows(), grid.getXmin(), grid.getYmin(), grid.getResolution(),
+				(col, rowFromTop) -> matrix[rowFromTop][col]);
+	}
+
+	private static void write(String fileName, int cols, int rows, double xllCorner, double yllCorner, double cellSize, CellValues values) {
+		Path dataFile = Path.of(fileName);
+		String name = dataFile.getFileName().toString();
+		Path headerFile = dataFile.resolveSibling((name.endsWith(".flt") ? name.substring(0, name.length() - 4) : name) + ".hdr");
+
+		try {
+			try (BufferedWriter writer = Files.newBufferedWriter(headerFile)) {
+				writer.write(String.format(Locale.US, "ncols %d%nnrows %d%nxllcorner %s%nyllcorner %s%ncellsize %s%nNODATA_value %s%nbyteorder LSBFIRST%n",
+						cols, rows, xllCorner, yllCorner, cellSize, NO_DATA));
+			}
+
+			ByteBuffer row = ByteBuffer.allocate(cols * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			try (OutputStream out = Files.newOutputStream(dataFile)) {
+				for (int r = 0; r < rows; r++) {
+					row.clear();
+					for (int c = 0; c < cols; c++) {
+						double value = values.get(c, r);
+						row.putFloat(Double.isNaN(value) ? NO_DATA : (float) value);
+					}
+					out.write(row.array(), 0, row.position());
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@FunctionalInterface
+	private interface CellValues {
+		double get(int col, int rowFromTop);
+	}
+}
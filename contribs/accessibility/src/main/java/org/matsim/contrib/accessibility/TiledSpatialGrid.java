@@ -0,0 +1,225 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.accessibility;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.contrib.matrixbasedptrouter.utils.BoundingBox;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Grid of values for a study area, with the same cell layout as {@link SpatialGrid}, but stored in square tiles of
+ * {@link #TILE_SIZE} x {@link #TILE_SIZE} cells.  Tiles are only allocated once a value is set in them, so large sparse areas (e.g. a
+ * country at 100m) do not need one huge contiguous array.  Cells without a value are {@code NaN}.
+ * <p>
+ * Rows are counted from {@code ymin} upwards, i.e. not mirrored as in {@link SpatialGrid}.  Setting values is safe from several threads
+ * as long as each tile is written by one thread only, see {@link #addToValues(Collection, Function, ToDoubleFunction)}.
+ *
+ * @see SpatialGridRasterWriter
+ */
+public final class TiledSpatialGrid {
+
+	public static final int TILE_SIZE = 256;
+	private static final int TILE_SHIFT = 8;
+	private static final int TILE_MASK = TILE_SIZE - 1;
+
+	private final double minX;
+	private final double minY;
+	private final double maxX;
+	private final double maxY;
+	private final double resolution;
+
+	private final int numCols;
+	private final int numRows;
+	private final int numTilesX;
+
+	private final AtomicReferenceArray<double[]> tiles;
+
+	/**
+	 * @param resolution cell size. E.g. (xmax-xmin)/resolution = number of cells in x direction
+	 */
+	public TiledSpatialGrid(double xmin, double ymin, double xmax, double ymax, double resolution) {
+		this.minX = xmin;
+		this.minY = ymin;
+		this.maxX = xmax;
+		this.maxY = ymax;
+		this.resolution = resolution;
+		this.numCols = (int) Math.ceil((maxX - minX) / resolution) + 1;
+		this.numRows = (int) Math.ceil((maxY - minY) / resolution) + 1;
+		this.numTilesX = (numCols + TILE_MASK) >> TILE_SHIFT;
+		int numTilesY = (numRows + TILE_MASK) >> TILE_SHIFT;
+		this.tiles = new AtomicReferenceArray<>(Math.multiplyExact(numTilesX, numTilesY));
+	}
+
+	public TiledSpatialGrid(BoundingBox bbox, double resolution) {
+		this(bbox.getXMin(), bbox.getYMin(), bbox.getXMax(), bbox.getYMax(), resolution);
+	}
+
+	public double getXmin() {
+		return minX;
+	}
+
+	public double getYmin() {
+		return minY;
+	}
+
+	public double getXmax() {
+		return maxX;
+	}
+
+	public double getYmax() {
+		return maxY;
+	}
+
+	public double getResolution() {
+		return resolution;
+	}
+
+	public int getNumRows() {
+		return numRows;
+	}
+
+	public int getNumCols() {
+		return numCols;
+	}
+
+	public int getNumAllocatedTiles() {
+		int n = 0;
+		for (int i = 0; i < tiles.length(); i++) {
+			if (tiles.get(i) != null) {
+				n++;
+			}
+		}
+		return n;
+	}
+
+	public boolean isInBounds(double x, double y) {
+		return (x >= minX && x <= maxX && y >= minY && y <= maxY);
+	}
+
+	public boolean isInBounds(Coord coord) {
+		return isInBounds(coord.getX(), coord.getY());
+	}
+
+	public int getColumn(double x) {
+		return (int) Math.floor((x - minX) / resolution);
+	}
+
+	/**
+	 * @return the row of the y coordinate, counted from ymin
+	 */
+	public int getRow(double y) {
+		return (int) Math.floor((y - minY) / resolution);
+	}
+
+	public double getValue(double x, double y) {
+		if (!isInBounds(x, y)) {
+			return Double.NaN;
+		}
+		return getValueByIndex(getColumn(x), getRow(y));
+	}
+
+	public double getValue(Coord coord) {
+		return getValue(coord.getX(), coord.getY());
+	}
+
+	public double getValueByIndex(int col, int row) {
+		double[] tile = tiles.get(tileIndex(col, row));
+		return tile == null ? Double.NaN : tile[cellIndex(col, row)];
+	}
+
+	/**
+	 * @return true if the point lies in the bounds of the study area, false otherwise
+	 */
+	public boolean setValue(double value, double x, double y) {
+		if (!isInBounds(x, y)) {
+			return false;
+		}
+		int col = getColumn(x);
+		int row = getRow(y);
+		getOrCreateTile(tileIndex(col, row))[cellIndex(col, row)] = value;
+		return true;
+	}
+
+	/**
+	 * Adds the value to the cell; cells without value are set to the value.
+	 *
+	 * @return true if the point lies in the bounds of the study area, false otherwise
+	 */
+	public boolean addToValue(double value, double x, double y) {
+		if (!isInBounds(x, y)) {
+			return false;
+		}
+		int col = getColumn(x);
+		int row = getRow(y);
+		double[] tile = getOrCreateTile(tileIndex(col, row));
+		int cell = cellIndex(col, row);
+		tile[cell] = Double.isNaN(tile[cell]) ? value : tile[cell] + value;
+		return true;
+	}
+
+	public boolean addToValue(double value, Coord coord) {
+		return addToValue(value, coord.getX(), coord.getY());
+	}
+
+	/**
+	 * Adds the values of all items to the cells at their coordinates.  Items are grouped by tile first, and the tiles are aggregated in
+	 * parallel, each by one thread.  Items outside the bounds are ignored.
+	 */
+	public <T> void addToValues(Collection<T> items, Function<T, Coord> coord, ToDoubleFunction<T> value) {
+		Map<Integer, List<T>> itemsByTile = new HashMap<>();
+		for (T item : items) {
+			Coord c = coord.apply(item);
+			if (isInBounds(c)) {
+				itemsByTile.computeIfAbsent(tileIndex(getColumn(c.getX()), getRow(c.getY())), k -> new ArrayList<>()).add(item);
+			}
+		}
+		itemsByTile.values().parallelStream().forEach(tileItems -> {
+			for (T item : tileItems) {
+				addToValue(value.applyAsDouble(item), coord.apply(item));
+			}
+		});
+	}
+
+	private double[] getOrCreateTile(int tileIndex) {
+		double[] tile = tiles.get(tileIndex);
+		if (tile == null) {
+			double[] newTile = new double[TILE_SIZE * TILE_SIZE];
+			Arrays.fill(newTile, Double.NaN);
+			if (tiles.compareAndSet(tileIndex, null, newTile)) {
+				tile = newTile;
+			} else {
+				tile = tiles.get(tileIndex);
+			}
+		}
+		return tile;
+	}
+
+	private int tileIndex(int col, int row) {
+		return (row >> TILE_SHIFT) * numTilesX + (col >> TILE_SHIFT);
+	}
+
+	private static int cellIndex(int col, int row) {
+		return ((row & TILE_MASK) << TILE_SHIFT) | (col & TILE_MASK);
+	}
+}
@@ -0,0 +1,83 @@
+package org.matsim.contrib.accessibility.grid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.contrib.accessibility.SpatialGridRasterWriter;
+import org.matsim.contrib.accessibility.TiledSpatialGrid;
+import org.matsim.testcases.MatsimTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TiledSpatialGridTest {
+
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	void testTilesAreAllocatedLazily() {
+		TiledSpatialGrid grid = new TiledSpatialGrid(0, 0, 100_000, 100_000, 100);
+		Assertions.assertEquals(1001, grid.getNumCols());
+		Assertions.assertEquals(1001, grid.getNumRows());
+		Assertions.assertEquals(0, grid.getNumAllocatedTiles());
+		Assertions.assertTrue(Double.isNaN(grid.getValue(50_000, 50_000)));
+
+		Assertions.assertTrue(grid.addToValue(1., 50_000, 50_000));
+		Assertions.assertTrue(grid.addToValue(2., 50_050, 50_050));
+		Assertions.assertFalse(grid.addToValue(1., -1, 50_000));
+
+		Assertions.assertEquals(1, grid.getNumAllocatedTiles());
+		Assertions.assertEquals(3., grid.getValue(50_000, 50_000), MatsimTestUtils.EPSILON);
+		Assertions.assertTrue(Double.isNaN(grid.getValue(50_100, 50_000)));
+	}
+
+	@Test
+	void testParallelAggregation() {
+		List<Coord> coords = new ArrayList<>();
+		for (int i = 0; i < 100_000; i++) {
+			coords.add(new Coord((i * 7_919L) % 60_000, (i * 104_729L) % 60_000));
+		}
+
+		TiledSpatialGrid expected = new TiledSpatialGrid(0, 0, 60_000, 60_000, 100);
+		for (Coord coord : coords) {
+			expected.addToValue(1., coord);
+		}
+
+		TiledSpatialGrid actual = new TiledSpatialGrid(0, 0, 60_000, 60_000, 100);
+		actual.addToValues(coords, c -> c, c -> 1.);
+
+		for (int col = 0; col < expected.getNumCols(); col++) {
+			for (int row = 0; row < expected.getNumRows(); row++) {
+				Assertions.assertEquals(expected.getValueByIndex(col, row), actual.getValueByIndex(col, row), 0.);
+			}
+		}
+	}
+
+	@Test
+	void testRasterWriter() throws IOException {
+		TiledSpatialGrid grid = new TiledSpatialGrid(0, 0, 300, 200, 100);
+		grid.setValue(1., 0, 0);
+		grid.setValue(2., 300, 200);
+
+		String fileName = utils.getOutputDirectory() + "grid.flt";
+		new SpatialGridRasterWriter().write(grid, fileName);
+
+		List<String> header = Files.readAllLines(Path.of(utils.getOutputDirectory() + "grid.hdr"));
+		Assertions.assertEquals("ncols 4", header.get(0));
+		Assertions.assertEquals("nrows 3", header.get(1));
+
+		ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(Path.of(fileName))).order(ByteOrder.LITTLE_ENDIAN);
+		Assertions.assertEquals(4 * 3 * Float.BYTES, data.capacity());
+		// the first row is the northernmost one
+		Assertions.assertEquals(2f, data.getFloat(3 * Float.BYTES));
+		Assertions.assertEquals(1f, data.getFloat((2 * 4) * Float.BYTES));
+		Assertions.assertEquals(SpatialGridRasterWriter.NO_DATA, data.getFloat(0));
+	}
+}
@@ -196,6 +196,37 @@ public class AccessibilityIntegrationTest {
 	}
 
 
+	@Test
+	void testWithBoundingBoxUsingContractionHierarchies() {
+		final Config config = createTestConfig();
+
+		double min = 0.; // Values for bounding box usually come from a config file
+		double max = 200.;
+
+		AccessibilityConfigGroup acg = ConfigUtils.addOrGetModule(config, AccessibilityConfigGroup.class) ;
+		acg.setAreaOfAccessibilityComputation(AreaOfAccesssibilityComputation.fromBoundingBox);
+		acg.setBoundingBoxBottom(min);
+		acg.setBoundingBoxTop(max);
+		acg.setBoundingBoxLeft(min);
+		acg.setBoundingBoxRight(max);
+		acg.setUseContractionHierarchies(true);
+		// with contraction hierarchies, congested travel times are evaluated at the departure time, so only compare freespeed
+		acg.setComputingAccessibilityForMode(Modes4Accessibility.car, false);
+
+		config.routing().setRoutingRandomness(0.);
+
+		final Scenario sc = createTestScenario(config);
+
+		Controler controler = new Controler(sc);
+
+		final AccessibilityModule module = new AccessibilityModule();
+		final ResultsComparator resultsComparator = new ResultsComparator(false);
+		module.addFacilityDataExchangeListener(resultsComparator);
+		controler.addOverridingModule(module);
+		controler.run();
+	}
+
+
 	@Test
 	void testWithBoundingBoxUsingOpportunityWeights() {
 		final Config config = createTestConfig();
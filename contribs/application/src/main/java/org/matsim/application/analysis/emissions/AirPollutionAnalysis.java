@@ -46,7 +46,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
-import java.text.NumberFormat;
 import java.util.*;
 
 @CommandLine.Command(
@@ -145,7 +144,7 @@ public class AirPollutionAnalysis implements MATSimAppCommand {
 
 		writeTotal(filteredNetwork, emissionsEventHandler);
 
-		writeRaster(filteredNetwork, config, emissionsEventHandler);
+		writeRaster(filteredNetwork, emissionsEventHandler);
 		writeAvroRaster(filteredNetwork, config, emissionsEventHandler);
 
 		writeTimeDependentAvroRaster(filteredNetwork, config, emissionsEventHandler);
@@ -155,14 +154,8 @@ public class AirPollutionAnalysis implements MATSimAppCommand {
 	}
 
 	private Config prepareConfig() {
-		Config config = co.loadConfig(input.getRunDirectory());
-
-		config.vehicles().setVehiclesFile(ApplicationUtils.matchInput("vehicles", input.getRunDirectory()).toAbsolutePath().toString());
-		config.network().setInputFile(ApplicationUtils.matchInput("network", input.getRunDirectory()).toAbsolutePath().toString());
-		config.transit().setTransitScheduleFile(ApplicationUtils.matchInput("transitSchedule", input.getRunDirectory()).toAbsolutePath().toString());
-		config.transit().setVehiclesFile(ApplicationUtils.matchInput("transitVehicles", input.getRunDirectory()).toAbsolutePath().toString());
-		config.plans().setInputFile(null);
-		config.facilities().setInputFile(null);
+		Config config = EmissionAnalysisUtils.prepareConfig(co, input.getRunDirectory());
+
 		config.eventsManager().setNumberOfThreads(null);
 		config.eventsManager().setEstimatedNumberOfEvents(null);
 		config.global().setNumberOfThreads(1);
@@ -233,53 +226,9 @@ public class AirPollutionAnalysis implements MATSimAppCommand {
 
 		log.info("Writing output...");
 
-		NumberFormat nf = NumberFormat.getInstance(Locale.US);
-		nf.setMaximumFractionDigits(4);
-		nf.setGroupingUsed(false);
-
-		CSVPrinter absolute = new CSVPrinter(Files.newBufferedWriter(output.getPath("emissions_per_link.csv")), CSVFormat.DEFAULT);
-		CSVPrinter perMeter = new CSVPrinter(Files.newBufferedWriter(output.getPath("emissions_per_link_per_m.csv")), CSVFormat.DEFAULT);
-
-		absolute.print("linkId");
-		perMeter.print("linkId");
-
-		for (Pollutant pollutant : Pollutant.values()) {
-			absolute.print(pollutant);
-			perMeter.print(pollutant + " [g/m]");
-		}
-
-		absolute.println();
-		perMeter.println();
-
 		Map<Id<Link>, Map<Pollutant, Double>> link2pollutants = emissionsEventHandler.getLink2pollutants();
-
-		for (Id<Link> linkId : link2pollutants.keySet()) {
-
-			// Link might be filtered
-			if (!network.getLinks().containsKey(linkId))
-				continue;
-
-			absolute.print(linkId);
-			perMeter.print(linkId);
-
-			for (Pollutant pollutant : Pollutant.values()) {
-				double emissionValue = 0.;
-				if (link2pollutants.get(linkId).get(pollutant) != null) {
-					emissionValue = link2pollutants.get(linkId).get(pollutant);
-				}
-				absolute.print(nf.format(emissionValue * sample.getUpscaleFactor()));
-
-				Link link = network.getLinks().get(linkId);
-				double emissionPerM = emissionValue / link.getLength();
-				perMeter.print(nf.format(emissionPerM * sample.getUpscaleFactor()));
-			}
-
-			absolute.println();
-			perMeter.println();
-		}
-
-		absolute.close();
-		perMeter.close();
+		EmissionAnalysisUtils.writePerLink(output.getPath("emissions_per_link.csv"), link2pollutants, network, sample.getUpscaleFactor(), false);
+		EmissionAnalysisUtils.writePerLink(output.getPath("emissions_per_link_per_m.csv"), link2pollutants, network, sample.getUpscaleFactor(), true);
 	}
 
 	/**
@@ -323,11 +272,7 @@ public class AirPollutionAnalysis implements MATSimAppCommand {
 	 */
 	private void writeAvroRaster(Network network, Config config, EmissionsOnLinkEventHandler emissionsEventHandler) {
 
-		String crs = ProjectionUtils.getCRS(network);
-		if (crs == null)
-			crs = config.network().getInputCRS();
-		if (crs == null)
-			crs = config.global().getCoordinateSystem();
+		String crs = EmissionAnalysisUtils.getCrs(network, config);
 
 		Map<Pollutant, Raster> rasterMap = FastEmissionGridAnalyzer.processHandlerEmissions(emissionsEventHandler.getLink2pollutants(), network, gridSize, 20);
 		List<Integer> xLength = rasterMap.values().stream().map(Raster::getXLength).distinct().toList();
@@ -367,9 +312,8 @@ public class AirPollutionAnalysis implements MATSimAppCommand {
 			DatumWriter<XYTData> datumWriter = new SpecificDatumWriter<>(XYTData.class);
 			try (DataFileWriter<XYTData> dataFileWriter = new DataFileWriter<>(datumWriter)) {
 				dataFileWriter.setCodec(CodecFactory.deflateCodec(9));
-				String fileName = output.getPath("emissions_grid_per_day.%s", "avro").toString();
-				fileName = fileName.replace("emissions_grid_per_day", pollutant + "_" + "emissions_grid_per_day");
-				dataFileWriter.create(avroData.getSchema(), IOUtils.getOutputStream(IOUtils.getFileUrl(fileName), false));
+				Path path = EmissionAnalysisUtils.getPollutantPath(output, "emissions_grid_per_day.%s", "avro", pollutant);
+				dataFileWriter.create(avroData.getSchema(), IOUtils.getOutputStream(IOUtils.getFileUrl(path.toString()), false));
 				dataFileWriter.append(avroData);
 			} catch (IOException e) {
 				throw new UncheckedIOException(e);
@@ -382,58 +326,14 @@ public class AirPollutionAnalysis implements MATSimAppCommand {
 	 * Creates the data for the XY-Time plot. The time is fixed and the data is summarized over the run.
 	 * Currently only the CO2_Total Values is printed because Simwrapper can handle only one value.
 	 */
-	private void writeRaster(Network network, Config config, EmissionsOnLinkEventHandler emissionsEventHandler) {
-
-		Map<Pollutant, Raster> rasterMap = FastEmissionGridAnalyzer.processHandlerEmissions(emissionsEventHandler.getLink2pollutants(), network, gridSize, 20);
+	private void writeRaster(Network network, EmissionsOnLinkEventHandler emissionsEventHandler) {
 
-		List<Integer> xLength = rasterMap.values().stream().map(Raster::getXLength).distinct().toList();
-		List<Integer> yLength = rasterMap.values().stream().map(Raster::getYLength).distinct().toList();
-
-		Raster raster = rasterMap.values().stream().findFirst().orElseThrow();
-
-		String fileName = output.getPath("emissions_grid_per_day.%s", "csv").toString();
-		fileName = fileName.replace("emissions_grid_per_day", Pollutant.CO2_TOTAL + "_" + "emissions_grid_per_day");
-
-		try (CSVPrinter printer = new CSVPrinter(Files.newBufferedWriter(Path.of(fileName)),
-			CSVFormat.DEFAULT.builder().setCommentMarker('#').build())) {
-
-			String crs = ProjectionUtils.getCRS(network);
-			if (crs == null)
-				crs = config.network().getInputCRS();
-			if (crs == null)
-				crs = config.global().getCoordinateSystem();
-
-			// print coordinate system
-//			printer.printComment(crs);
-
-			// print header
-			printer.print("time");
-			printer.print("x");
-			printer.print("y");
-
-			printer.print("value");
-
-			printer.println();
-
-			for (int xi = 0; xi < xLength.get(0); xi++) {
-				for (int yi = 0; yi < yLength.get(0); yi++) {
-
-					Coord coord = raster.getCoordForIndex(xi, yi);
-					double value = rasterMap.get(Pollutant.CO2_TOTAL).getValueByIndex(xi, yi) * sample.getUpscaleFactor();
-
-					if (value == 0)
-						continue;
-
-					printer.print(0.0);
-					printer.print(coord.getX());
-					printer.print(coord.getY());
-
-					printer.print(value);
-
-					printer.println();
-				}
-			}
+		TimeBinMap<Map<Pollutant, Raster>> timeBinMap = new TimeBinMap<>(86400);
+		timeBinMap.getTimeBin(0).setValue(FastEmissionGridAnalyzer.processHandlerEmissions(emissionsEventHandler.getLink2pollutants(), network, gridSize, 20));
 
+		try {
+			EmissionAnalysisUtils.writeRaster(EmissionAnalysisUtils.getPollutantPath(output, "emissions_grid_per_day.%s", "csv", Pollutant.CO2_TOTAL),
+				null, timeBinMap, Pollutant.CO2_TOTAL, sample.getUpscaleFactor());
 		} catch (IOException e) {
 			log.error("Error writing results", e);
 		}
@@ -443,73 +343,19 @@ public class AirPollutionAnalysis implements MATSimAppCommand {
 
 		TimeBinMap<Map<Pollutant, Raster>> timeBinMap = FastEmissionGridAnalyzer.processHandlerEmissionsPerTimeBin(emissionsEventHandler.getTimeBins(), network, gridSize, 20);
 
-		Map<Pollutant, Raster> firstBin = timeBinMap.getTimeBin(timeBinMap.getStartTime()).getValue();
-
-		List<Integer> xLength = firstBin.values().stream().map(Raster::getXLength).distinct().toList();
-		List<Integer> yLength = firstBin.values().stream().map(Raster::getYLength).distinct().toList();
-
-		Raster raster = firstBin.values().stream().findFirst().orElseThrow();
-
-		String fileName = output.getPath("emissions_grid_per_hour.%s", "csv").toString();
-		fileName = fileName.replace("emissions_grid_per_hour", Pollutant.CO2_TOTAL + "_" + "emissions_grid_per_hour");
-
-		try (CSVPrinter printer = new CSVPrinter(IOUtils.getBufferedWriter(fileName),
-			CSVFormat.DEFAULT.builder().setCommentMarker('#').build())) {
-
-			String crs = ProjectionUtils.getCRS(network);
-			if (crs == null)
-				crs = config.network().getInputCRS();
-			if (crs == null)
-				crs = config.global().getCoordinateSystem();
-
-			// print coordinate system
-			printer.printComment(crs);
-
-			// print header
-			printer.print("time");
-			printer.print("x");
-			printer.print("y");
-
-			printer.print("value");
-
-			printer.println();
-
-			for (int xi = 0; xi < xLength.get(0); xi++) {
-				for (int yi = 0; yi < yLength.get(0); yi++) {
-					for (TimeBinMap.TimeBin<Map<Pollutant, Raster>> timeBin : timeBinMap.getTimeBins()) {
-
-						Coord coord = raster.getCoordForIndex(xi, yi);
-						double value = timeBin.getValue().get(Pollutant.CO2_TOTAL).getValueByIndex(xi, yi) * sample.getUpscaleFactor();
-
-						if (value == 0)
-							continue;
-
-						printer.print(timeBin.getStartTime());
-						printer.print(coord.getX());
-						printer.print(coord.getY());
-
-						printer.print(value);
-
-						printer.println();
-					}
-				}
-			}
-
+		try {
+			EmissionAnalysisUtils.writeRaster(EmissionAnalysisUtils.getPollutantPath(output, "emissions_grid_per_hour.%s", "csv", Pollutant.CO2_TOTAL),
+				EmissionAnalysisUtils.getCrs(network, config), timeBinMap, Pollutant.CO2_TOTAL, sample.getUpscaleFactor());
 		} catch (IOException e) {
 			log.error("Error writing results", e);
 		}
-
 	}
 
 	private void writeTimeDependentAvroRaster(Network network, Config config, EmissionsOnLinkEventHandler emissionsEventHandler) {
 
 		TimeBinMap<Map<Pollutant, Raster>> timeBinMap = FastEmissionGridAnalyzer.processHandlerEmissionsPerTimeBin(emissionsEventHandler.getTimeBins(), network, gridSize, 20);
 
-		String crs = ProjectionUtils.getCRS(network);
-		if (crs == null)
-			crs = config.network().getInputCRS();
-		if (crs == null)
-			crs = config.global().getCoordinateSystem();
+		String crs = EmissionAnalysisUtils.getCrs(network, config);
 
 		Map<Pollutant, Raster> rasterMap = FastEmissionGridAnalyzer.processHandlerEmissions(emissionsEventHandler.getLink2pollutants(), network, gridSize, 20);
 		List<Integer> xLength = rasterMap.values().stream().map(Raster::getXLength).distinct().toList();
@@ -557,9 +403,8 @@ public class AirPollutionAnalysis implements MATSimAppCommand {
 			DatumWriter<XYTData> datumWriter = new SpecificDatumWriter<>(XYTData.class);
 			try (DataFileWriter<XYTData> dataFileWriter = new DataFileWriter<>(datumWriter)) {
 				dataFileWriter.setCodec(CodecFactory.deflateCodec(9));
-				String fileName = output.getPath("emissions_grid_per_hour.%s", "avro").toString();
-				fileName = fileName.replace("emissions_grid_per_hour", pollutant + "_" + "emissions_grid_per_hour");
-				dataFileWriter.create(avroData.getSchema(), IOUtils.getOutputStream(IOUtils.getFileUrl(fileName), false));
+				Path path = EmissionAnalysisUtils.getPollutantPath(output, "emissions_grid_per_hour.%s", "avro", pollutant);
+				dataFileWriter.create(avroData.getSchema(), IOUtils.getOutputStream(IOUtils.getFileUrl(path.toString()), false));
 				dataFileWriter.append(avroData);
 			} catch (IOException e) {
 				throw new UncheckedIOException(e);
@@ -0,0 +1,151 @@
+package org.matsim.application.analysis.emissions;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.application.ApplicationUtils;
+import org.matsim.application.options.ConfigOptions;
+import org.matsim.application.options.OutputOptions;
+import org.matsim.contrib.analysis.time.TimeBinMap;
+import org.matsim.contrib.emissions.Pollutant;
+import org.matsim.contrib.emissions.analysis.Raster;
+import org.matsim.core.config.Config;
+import org.matsim.core.scenario.ProjectionUtils;
+import org.matsim.core.utils.io.IOUtils;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Input and output handling shared by the emission analysis commands.
+ */
+final class EmissionAnalysisUtils {
+
+	private EmissionAnalysisUtils() {
+	}
+
+	/**
+	 * Loads the config of a run and points it to the output files needed for the emission calculation. Plans and facilities are not loaded.
+	 */
+	static Config prepareConfig(ConfigOptions co, Path runDirectory) {
+		Config config = co.loadConfig(runDirectory);
+
+		config.vehicles().setVehiclesFile(ApplicationUtils.matchInput("vehicles", runDirectory).toAbsolutePath().toString());
+		config.network().setInputFile(ApplicationUtils.matchInput("network", runDirectory).toAbsolutePath().toString());
+		config.transit().setTransitScheduleFile(ApplicationUtils.matchInput("transitSchedule", runDirectory).toAbsolutePath().toString());
+		config.transit().setVehiclesFile(ApplicationUtils.matchInput("transitVehicles", runDirectory).toAbsolutePath().toString());
+		config.plans().setInputFile(null);
+		config.facilities().setInputFile(null);
+
+		return config;
+	}
+
+	/**
+	 * CRS of the network, falling back to the one in the config.
+	 */
+	static String getCrs(Network network, Config config) {
+		String crs = ProjectionUtils.getCRS(network);
+		if (crs == null)
+			crs = config.network().getInputCRS();
+		if (crs == null)
+			crs = config.global().getCoordinateSystem();
+		return crs;
+	}
+
+	/**
+	 * Output path of a per-pollutant file, i.e. the configured output of {@code name} with the pollutant as prefix of the file name.
+	 */
+	static Path getPollutantPath(OutputOptions output, String name, String placeholder, Pollutant pollutant) {
+		Path path = output.getPath(name, placeholder);
+		return path.resolveSibling(pollutant + "_" + path.getFileName());
+	}
+
+	static NumberFormat createNumberFormat() {
+		NumberFormat nf = NumberFormat.getInstance(Locale.US);
+		nf.setMaximumFractionDigits(4);
+		nf.setGroupingUsed(false);
+		return nf;
+	}
+
+	/**
+	 * Writes the emissions of each link contained in the network, either absolute or per meter of link length.
+	 */
+	static void writePerLink(Path file, Map<Id<Link>, Map<Pollutant, Double>> link2pollutants, Network network,
+							 double upscaleFactor, boolean perMeter) throws IOException {
+
+		NumberFormat nf = createNumberFormat();
+
+		try (CSVPrinter printer = new CSVPrinter(IOUtils.getBufferedWriter(file.toString()), CSVFormat.DEFAULT)) {
+
+			printer.print("linkId");
+			for (Pollutant pollutant : Pollutant.values()) {
+				printer.print(perMeter ? pollutant + " [g/m]" : pollutant);
+			}
+			printer.println();
+
+			for (Map.Entry<Id<Link>, Map<Pollutant, Double>> e : link2pollutants.entrySet()) {
+
+				// Link might be filtered
+				Link link = network.getLinks().get(e.getKey());
+				if (link == null)
+					continue;
+
+				printer.print(e.getKey());
+				for (Pollutant pollutant : Pollutant.values()) {
+					double value = e.getValue().getOrDefault(pollutant, 0.) * upscaleFactor;
+					printer.print(nf.format(perMeter ? value / link.getLength() : value));
+				}
+				printer.println();
+			}
+		}
+	}
+
+	/**
+	 * Writes the non-zero raster cells of one pollutant for the XY-Time plot. All rasters are expected to have the same dimensions.
+	 *
+	 * @param crs written as comment, if not null
+	 */
+	static void writeRaster(Path file, @Nullable String crs, TimeBinMap<Map<Pollutant, Raster>> timeBinMap, Pollutant pollutant,
+							double upscaleFactor) throws IOException {
+
+		Raster first = timeBinMap.getTimeBins().stream()
+			.filter(TimeBinMap.TimeBin::hasValue)
+			.map(bin -> bin.getValue().get(pollutant))
+			.filter(r -> r != null)
+			.findFirst().orElseThrow();
+
+		try (CSVPrinter printer = new CSVPrinter(IOUtils.getBufferedWriter(file.toString()),
+			CSVFormat.DEFAULT.builder().setCommentMarker('#').build())) {
+
+			if (crs != null)
+				printer.printComment(crs);
+
+			printer.printRecord("time", "x", "y", "value");
+
+			for (int xi = 0; xi < first.getXLength(); xi++) {
+				for (int yi = 0; yi < first.getYLength(); yi++) {
+
+					Coord coord = first.getCoordForIndex(xi, yi);
+
+					for (TimeBinMap.TimeBin<Map<Pollutant, Raster>> timeBin : timeBinMap.getTimeBins()) {
+						if (!timeBin.hasValue() || !timeBin.getValue().containsKey(pollutant))
+							continue;
+
+						double value = timeBin.getValue().get(pollutant).getValueByIndex(xi, yi) * upscaleFactor;
+						if (value == 0)
+							continue;
+
+						printer.printRecord(timeBin.getStartTime(), coord.getX(), coord.getY(), value);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package org.matsim.application.analysis.emissions;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.application.ApplicationUtils;
+import org.matsim.application.CommandSpec;
+import org.matsim.application.MATSimAppCommand;
+import org.matsim.application.options.*;
+import org.matsim.contrib.analysis.time.TimeBinMap;
+import org.matsim.contrib.emissions.ParallelEmissionsCalculator;
+import org.matsim.contrib.emissions.Pollutant;
+import org.matsim.contrib.emissions.analysis.EmissionsByPollutant;
+import org.matsim.contrib.emissions.analysis.FastEmissionGridAnalyzer;
+import org.matsim.contrib.emissions.analysis.Raster;
+import org.matsim.core.config.Config;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.core.utils.io.IOUtils;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.text.NumberFormat;
+import java.util.*;
+
+/**
+ * Offline emission calculation for the events of a run, using several threads.
+ * In contrast to {@link AirPollutionAnalysis}, only the emission aggregates (per link and per time bin) are produced, and emission events
+ * are only written if requested (and then not sorted by time).
+ */
+@CommandLine.Command(
+	name = "offline-emissions", description = "Multithreaded offline emission calculation with aggregated output.",
+	mixinStandardHelpOptions = true, showDefaultValues = true
+)
+@CommandSpec(requireRunDirectory = true,
+	produces = {
+		"emissions_per_link.csv",
+		"emissions_per_link_per_time_bin.csv",
+		"emissions_grid_per_time_bin.%s",
+		"emission_events.xml.gz"
+	}
+)
+public class OfflineEmissionsAnalysis implements MATSimAppCommand {
+
+	private static final Logger log = LogManager.getLogger(OfflineEmissionsAnalysis.class);
+
+	@CommandLine.Mixin
+	private final InputOptions input = InputOptions.ofCommand(OfflineEmissionsAnalysis.class);
+	@CommandLine.Mixin
+	private final OutputOptions output = OutputOptions.ofCommand(OfflineEmissionsAnalysis.class);
+
+	@CommandLine.Mixin
+	private final ConfigOptions co = new ConfigOptions();
+
+	@CommandLine.Mixin
+	private SampleOptions sample;
+
+	@CommandLine.Option(names = "--threads", description = "Number of threads for the emission calculation", defaultValue = "4")
+	private int numberOfThreads;
+
+	@CommandLine.Option(names = "--time-bin-size", description = "Time bin size in seconds", defaultValue = "3600")
+	private double timeBinSize;
+
+	@CommandLine.Option(names = "--end-time", description = "Emissions after this time are not aggregated", defaultValue = "86400")
+	private double endTime;
+
+	@CommandLine.Option(names = "--grid-size", description = "Grid size in meter", defaultValue = "100")
+	private double gridSize;
+
+	@CommandLine.Option(names = "--write-events", description = "Also write the (unsorted) emission events", defaultValue = "false")
+	private boolean writeEvents;
+
+	public static void main(String[] args) {
+		new OfflineEmissionsAnalysis().execute(args);
+	}
+
+	@Override
+	public Integer call() throws Exception {
+
+		Config config = EmissionAnalysisUtils.prepareConfig(co, input.getRunDirectory());
+		Scenario scenario = ScenarioUtils.loadScenario(config);
+
+		String eventsFile = ApplicationUtils.matchInput("events", input.getRunDirectory()).toString();
+
+		ParallelEmissionsCalculator calculator = new ParallelEmissionsCalculator(scenario, numberOfThreads, timeBinSize, endTime);
+		if (writeEvents)
+			calculator.setEmissionEventsFile(output.getPath("emission_events.xml.gz").toString());
+
+		calculator.run(eventsFile);
+
+		writePerLink(calculator.getLink2pollutants(), scenario.getNetwork());
+		writePerTimeBin(calculator.getTimeBins());
+		writeRaster(scenario.getNetwork(), config, calculator.getTimeBins());
+
+		return 0;
+	}
+
+	private void writePerLink(Map<Id<Link>, Map<Pollutant, Double>> link2pollutants, Network network) throws IOException {
+		log.info("Writing emissions per link...");
+		EmissionAnalysisUtils.writePerLink(output.getPath("emissions_per_link.csv"), link2pollutants, network, sample.getUpscaleFactor(), false);
+	}
+
+	private void writePerTimeBin(TimeBinMap<Map<Id<Link>, EmissionsByPollutant>> timeBins) throws IOException {
+
+		log.info("Writing emissions per link and time bin...");
+		NumberFormat nf = EmissionAnalysisUtils.createNumberFormat();
+
+		try (CSVPrinter printer = new CSVPrinter(IOUtils.getBufferedWriter(output.getPath("emissions_per_link_per_time_bin.csv").toString()), CSVFormat.DEFAULT)) {
+
+			printer.print("time");
+			printer.print("linkId");
+			for (Pollutant pollutant : Pollutant.values()) {
+				printer.print(pollutant);
+			}
+			printer.println();
+
+			for (TimeBinMap.TimeBin<Map<Id<Link>, EmissionsByPollutant>> timeBin : timeBins.getTimeBins()) {
+				if (!timeBin.hasValue())
+					continue;
+
+				for (Map.Entry<Id<Link>, EmissionsByPollutant> e : timeBin.getValue().entrySet()) {
+					printer.print(timeBin.getStartTime());
+					printer.print(e.getKey());
+					for (Pollutant pollutant : Pollutant.values()) {
+						printer.print(nf.format(e.getValue().getEmissions().getOrDefault(pollutant, 0.) * sample.getUpscaleFactor()));
+					}
+					printer.println();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the {@link Pollutant#CO2_TOTAL} raster per time bin.
+	 */
+	private void writeRaster(Network network, Config config, TimeBinMap<Map<Id<Link>, EmissionsByPollutant>> timeBins) throws IOException {
+
+		if (timeBins.getTimeBins().isEmpty()) {
+			log.warn("No emissions were calculated, no raster is written");
+			return;
+		}
+
+		TimeBinMap<Map<Pollutant, Raster>> timeBinMap = FastEmissionGridAnalyzer.processHandlerEmissionsPerTimeBin(timeBins, network, gridSize, 20);
+
+		EmissionAnalysisUtils.writeRaster(EmissionAnalysisUtils.getPollutantPath(output, "emissions_grid_per_time_bin.%s", "csv", Pollutant.CO2_TOTAL),
+			EmissionAnalysisUtils.getCrs(network, config), timeBinMap, Pollutant.CO2_TOTAL, sample.getUpscaleFactor());
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.common.histogram;
+
+import java.util.Arrays;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Fixed-size histogram of non-negative values with a bounded relative error (similar to HdrHistogram). Values are
+ * first expressed in multiples of {@code resolution}. Values below {@code 2^precisionBits} resolution units are
+ * counted exactly; larger values fall into logarithmically growing bins, each power of 2 being split into
+ * {@code 2^(precisionBits - 1)} equal sub-bins. The relative error is thus below {@code 2^(1 - precisionBits)},
+ * e.g. below 1.6% for {@code precisionBits = 7}, with about 3700 bins covering the whole {@code long} range.
+ * <p>
+ * Count, sum (mean), min and max are tracked exactly. The memory footprint does not depend on the number of values
+ * added, which makes the histogram suitable for online aggregation of large streams of values.
+ */
+public class LogLinearHistogram extends AbstractHistogram<Double> {
+	private final double resolution;
+	private final int precisionBits;
+	private final int linearBinCount;
+	private final int subBinCount;
+
+	private double sum = 0;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	public LogLinearHistogram(double resolution, int precisionBits) {
+		super(binCount(precisionBits));
+		Preconditions.checkArgument(resolution > 0, "resolution must be positive");
+		this.resolution = resolution;
+		this.precisionBits = precisionBits;
+		this.linearBinCount = 1 << precisionBits;
+		this.subBinCount = linearBinCount >> 1;
+	}
+
+	private static int binCount(int precisionBits) {
+		Preconditions.checkArgument(precisionBits >= 1 && precisionBits <= 20, "precisionBits must be in [1, 20]");
+		int linearBinCount = 1 << precisionBits;
+		return linearBinCount + (Long.SIZE - 1 - precisionBits) * (linearBinCount >> 1);
+	}
+
+	@Override
+	public void addValue(double value) {
+		Preconditions.checkArgument(value >= 0, "Negative value: %s", value);
+		increment(getBinIdx((long)(value / resolution)));
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Adds all values of another histogram with the same resolution and precision.
+	 */
+	public void add(LogLinearHistogram other) {
+		Preconditions.checkArgument(other.resolution == resolution && other.precisionBits == precisionBits,
+				"Incompatible histograms");
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+		totalCount += other.totalCount;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	private int getBinIdx(long units) {
+		if (units < linearBinCount) {
+			return (int)units;
+		}
+		int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(units)) - (precisionBits - 1);
+		int subBin = (int)(units >>> shift) - subBinCount;
+		return linearBinCount + (shift - 1) * subBinCount + subBin;
+	}
+
+	private long getBinLowerBoundUnits(int idx) {
+		if (idx < linearBinCount) {
+			return idx;
+		}
+		int shift = (idx - linearBinCount) / subBinCount + 1;
+		long subBin = (idx - linearBinCount) % subBinCount + subBinCount;
+		return subBin << shift;
+	}
+
+	private long getBinWidthUnits(int idx) {
+		return idx < linearBinCount ? 1 : 1L << ((idx - linearBinCount) / subBinCount + 1);
+	}
+
+	/**
+	 * @return lower bound of the bin
+	 */
+	@Override
+	public Double getBin(int idx) {
+		return getBinLowerBoundUnits(idx) * resolution;
+	}
+
+	public double getSum() {
+		return sum;
+	}
+
+	public double getMean() {
+		return totalCount == 0 ? Double.NaN : sum / totalCount;
+	}
+
+	public double getMin() {
+		return totalCount == 0 ? Double.NaN : min;
+	}
+
+	public double getMax() {
+		return totalCount == 0 ? Double.NaN : max;
+	}
+
+	/**
+	 * @param quantile in [0, 1]
+	 * @return estimate of the value at the given quantile (the middle of the respective bin, clamped to [min, max])
+	 */
+	public double getValueAtQuantile(double quantile) {
+		Preconditions.checkArgument(quantile >= 0 && quantile <= 1, "quantile must be in [0, 1]");
+		if (totalCount == 0) {
+			return Double.NaN;
+		}
+
+		long rank = Math.max(1, (long)Math.ceil(quantile * totalCount));
+		long cumulativeCount = 0;
+		for (int i = 0; i < counts.length; i++) {
+			cumulativeCount += counts[i];
+			if (cumulativeCount >= rank) {
+				double midpoint = (getBinLowerBoundUnits(i) + (getBinWidthUnits(i) - 1) / 2.0) * resolution;
+				return Math.max(min, Math.min(max, midpoint));
+			}
+		}
+		return max;
+	}
+
+	public void clear() {
+		Arrays.fill(counts, 0);
+		totalCount = 0;
+		sum = 0;
+		min = Double.POSITIVE_INFINITY;
+		max = Double.NEGATIVE_INFINITY;
+	}
+}
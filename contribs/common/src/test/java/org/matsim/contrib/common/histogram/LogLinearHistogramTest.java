@@ -0,0 +1,93 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.common.histogram;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+public class LogLinearHistogramTest {
+	@Test
+	void empty() {
+		var histogram = new LogLinearHistogram(1, 7);
+		assertThat(histogram.getTotalCount()).isZero();
+		assertThat(histogram.getMean()).isNaN();
+		assertThat(histogram.getValueAtQuantile(0.5)).isNaN();
+	}
+
+	@Test
+	void smallValues_exact() {
+		var histogram = new LogLinearHistogram(1, 7);
+		for (int v = 1; v <= 100; v++) {
+			histogram.addValue(v);
+		}
+		assertThat(histogram.getTotalCount()).isEqualTo(100);
+		assertThat(histogram.getMean()).isEqualTo(50.5);
+		assertThat(histogram.getMin()).isEqualTo(1);
+		assertThat(histogram.getMax()).isEqualTo(100);
+		assertThat(histogram.getValueAtQuantile(0.5)).isEqualTo(50);
+		assertThat(histogram.getValueAtQuantile(0.95)).isEqualTo(95);
+		assertThat(histogram.getValueAtQuantile(1)).isEqualTo(100);
+	}
+
+	@Test
+	void largeValues_boundedRelativeError() {
+		var histogram = new LogLinearHistogram(1, 7);
+		for (int v = 1; v <= 100_000; v++) {
+			histogram.addValue(v);
+		}
+		assertThat(histogram.getBinCount()).isLessThan(4000);
+		assertThat(histogram.getValueAtQuantile(0.5)).isCloseTo(50_000, within(50_000 * 0.016));
+		assertThat(histogram.getValueAtQuantile(0.99)).isCloseTo(99_000, within(99_000 * 0.016));
+		assertThat(histogram.getMax()).isEqualTo(100_000);
+	}
+
+	@Test
+	void binBoundsAreContiguous() {
+		var histogram = new LogLinearHistogram(0.5, 3);
+		for (int i = 1; i < histogram.getBinCount(); i++) {
+			assertThat(histogram.getBin(i)).isGreaterThan(histogram.getBin(i - 1));
+		}
+		histogram.addValue(1000);
+		int nonEmpty = 0;
+		for (int i = 0; i < histogram.getBinCount(); i++) {
+			if (histogram.getCount(i) > 0) {
+				assertThat(histogram.getBin(i)).isLessThanOrEqualTo(1000.);
+				assertThat(i + 1 == histogram.getBinCount() || histogram.getBin(i + 1) > 1000.).isTrue();
+				nonEmpty++;
+			}
+		}
+		assertThat(nonEmpty).isEqualTo(1);
+	}
+
+	@Test
+	void merge() {
+		var a = new LogLinearHistogram(1, 7);
+		var b = new LogLinearHistogram(1, 7);
+		a.addValue(10);
+		b.addValue(30);
+		a.add(b);
+		assertThat(a.getTotalCount()).isEqualTo(2);
+		assertThat(a.getMean()).isEqualTo(20);
+		assertThat(a.getMax()).isEqualTo(30);
+	}
+}
@@ -0,0 +1,209 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.extension.benchmark.replay;
+
+import java.util.*;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.drt.extension.benchmark.replay.OptimizerInputSnapshot.*;
+import org.matsim.contrib.drt.optimizer.VehicleEntry;
+import org.matsim.contrib.drt.passenger.AcceptedDrtRequest;
+import org.matsim.contrib.drt.passenger.DrtRequest;
+import org.matsim.contrib.drt.passenger.events.DrtRequestSubmittedEvent;
+import org.matsim.contrib.drt.passenger.events.DrtRequestSubmittedEventHandler;
+import org.matsim.contrib.drt.schedule.DrtStopTask;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.contrib.dvrp.fleet.Fleet;
+import org.matsim.contrib.dvrp.load.DvrpLoadType;
+import org.matsim.core.controler.OutputDirectoryHierarchy;
+import org.matsim.core.events.MobsimScopeEventHandler;
+import org.matsim.core.mobsim.framework.events.MobsimAfterSimStepEvent;
+import org.matsim.core.mobsim.framework.events.MobsimBeforeCleanupEvent;
+import org.matsim.core.mobsim.framework.listeners.MobsimAfterSimStepListener;
+import org.matsim.core.mobsim.framework.listeners.MobsimBeforeCleanupListener;
+import org.matsim.core.router.util.TravelTime;
+
+/**
+ * Records {@link OptimizerInputSnapshot}s during a simulation.
+ * <p>
+ * At each of the given recording times, the state of the fleet is captured with the {@link VehicleEntry.EntryFactory}
+ * used by the optimizer, together with the current link travel times. All requests submitted within the following
+ * {@code requestWindow} seconds are then added as the requests to be inserted, and the snapshot is written to
+ * {@code ITERS/it.N/N.<mode>_optimizer_inputs_<time>.bin.gz}. A window that is still open at the end of the simulation is
+ * written with the requests submitted so far.
+ * <p>
+ * Unplanned requests are recorded from {@link DrtRequestSubmittedEvent}s, which do not carry {@code maxPickupDelay},
+ * {@code lateDiversionThreshold} and {@code allowRejection}; these are set to their defaults. Requests that are
+ * already in the schedules are recorded with their complete constraints.
+ */
+public class DrtOptimizerInputRecorder implements MobsimAfterSimStepListener, MobsimBeforeCleanupListener,
+	DrtRequestSubmittedEventHandler, MobsimScopeEventHandler {
+	private static final Logger log = LogManager.getLogger(DrtOptimizerInputRecorder.class);
+
+	private final String mode;
+	private final Fleet fleet;
+	private final VehicleEntry.EntryFactory entryFactory;
+	private final Network network;
+	private final TravelTime travelTime;
+	private final DvrpLoadType loadType;
+	private final OutputDirectoryHierarchy outputDirectoryHierarchy;
+	private final int iteration;
+	private final Queue<Double> recordingTimes;
+	private final double requestWindow;
+
+	private double windowEnd = Double.NaN;
+	private double snapshotTime;
+	private List<LinkTravelTime> linkTravelTimes;
+	private List<RecordedVehicle> vehicles;
+	private final List<RecordedRequest> requests = new ArrayList<>();
+
+	public DrtOptimizerInputRecorder(String mode, Fleet fleet, VehicleEntry.EntryFactory entryFactory, Network network,
+									 TravelTime travelTime, DvrpLoadType loadType, OutputDirectoryHierarchy outputDirectoryHierarchy, int iteration,
+									 Collection<Double> recordingTimes, double requestWindow) {
+		this.mode = mode;
+		this.fleet = fleet;
+		this.entryFactory = entryFactory;
+		this.network = network;
+		this.travelTime = travelTime;
+		this.loadType = loadType;
+		this.outputDirectoryHierarchy = outputDirectoryHierarchy;
+		this.iteration = iteration;
+		this.recordingTimes = new PriorityQueue<>(recordingTimes);
+		this.requestWindow = requestWindow;
+	}
+
+	@Override
+	public void notifyMobsimAfterSimStep(@SuppressWarnings("rawtypes") MobsimAfterSimStepEvent e) {
+		double now = e.getSimulationTime();
+		if (isRecording() && now >= windowEnd) {
+			writeSnapshot();
+		}
+		if (!isRecording() && !recordingTimes.isEmpty() && now >= recordingTimes.peek()) {
+			recordingTimes.poll();
+			startRecording(now);
+		}
+	}
+
+	@Override
+	public void notifyMobsimBeforeCleanup(@SuppressWarnings("rawtypes") MobsimBeforeCleanupEvent e) {
+		// the simulation may end before the request window is over
+		if (isRecording()) {
+			writeSnapshot();
+		}
+	}
+
+	@Override
+	public void handleEvent(DrtRequestSubmittedEvent event) {
+		if (isRecording() && event.getMode().equals(mode)) {
+			requests.add(new RecordedRequest(event.getRequestId().toString(), event.getTime(),
+				event.getEarliestDepartureTime(), event.getLatestDropoffTime() - event.getEarliestDepartureTime(),
+				event.getMaxRideDuration(), event.getLatestPickupTime() - event.getEarliestDepartureTime(),
+				Double.POSITIVE_INFINITY, 0, false,
+				event.getPersonIds().stream().map(Object::toString).toList(), event.getFromLinkId().toString(),
+				event.getToLinkId().toString(), event.getSerializedLoad()));
+		}
+	}
+
+	private boolean isRecording() {
+		return !Double.isNaN(windowEnd);
+	}
+
+	private void startRecording(double now) {
+		snapshotTime = now;
+		windowEnd = now + requestWindow;
+
+		// the optimizer creates the entries for the next time step
+		double entryTime = now + 1;
+		vehicles = new ArrayList<>();
+		for (DvrpVehicle vehicle : fleet.getVehicles().values()) {
+			VehicleEntry entry = entryFactory.create(vehicle, entryTime);
+			if (entry != null) {
+				vehicles.add(recordVehicle(entry));
+			}
+		}
+
+		linkTravelTimes = new ArrayList<>(network.getLinks().size());
+		for (Link link : network.getLinks().values()) {
+			linkTravelTimes.add(new LinkTravelTime(link.getId().toString(),
+				(float)travelTime.getLinkTravelTime(link, entryTime, null, null)));
+		}
+	}
+
+	private void writeSnapshot() {
+		var snapshot = new OptimizerInputSnapshot(mode, snapshotTime, linkTravelTimes, List.copyOf(requests),
+			vehicles);
+		String file = outputDirectoryHierarchy.getIterationFilename(iteration,
+			mode + "_optimizer_inputs_" + (int)snapshotTime + ".bin.gz");
+		snapshot.write(file);
+		log.info("Recorded {} requests and {} vehicles at time {} to {}", requests.size(), vehicles.size(),
+			snapshotTime, file);
+
+		windowEnd = Double.NaN;
+		requests.clear();
+		vehicles = null;
+		linkTravelTimes = null;
+	}
+
+	private RecordedVehicle recordVehicle(VehicleEntry entry) {
+		DvrpVehicle vehicle = entry.vehicle;
+		RecordedStop startStop = entry.start.task
+			.filter(DrtStopTask.class::isInstance)
+			.map(task -> {
+				DrtStopTask stopTask = (DrtStopTask)task;
+				return recordStop(stopTask, stopTask.calcLatestArrivalTime(), stopTask.calcLatestDepartureTime(),
+					loadType.serialize(entry.start.occupancy));
+			})
+			.orElse(null);
+
+		List<RecordedStop> stops = entry.stops.stream()
+			.map(s -> recordStop(s.getTask(), s.getLatestArrivalTime(), s.getLatestDepartureTime(),
+				loadType.serialize(s.getOutgoingOccupancy())))
+			.toList();
+
+		double[] slackTimes = new double[entry.stops.size() + 2];
+		slackTimes[0] = entry.getStartSlackTime();
+		for (int i = 0; i <= entry.stops.size(); i++) {
+			slackTimes[i + 1] = entry.getSlackTime(i);
+		}
+
+		double[] precedingStayTimes = new double[entry.stops.size()];
+		for (int i = 0; i < precedingStayTimes.length; i++) {
+			precedingStayTimes[i] = entry.getPrecedingStayTime(i);
+		}
+
+		return new RecordedVehicle(vehicle.getId().toString(), vehicle.getStartLink().getId().toString(),
+			loadType.serialize(vehicle.getCapacity()), vehicle.getServiceBeginTime(), vehicle.getServiceEndTime(),
+			entry.start.link.getId().toString(), entry.start.time, loadType.serialize(entry.start.occupancy),
+			startStop, stops, slackTimes, precedingStayTimes, entry.createTime);
+	}
+
+	private RecordedStop recordStop(DrtStopTask task, double latestArrivalTime, double latestDepartureTime,
+									String outgoingOccupancy) {
+		return new RecordedStop(task.getLink().getId().toString(), task.getBeginTime(), task.getEndTime(),
+			latestArrivalTime, latestDepartureTime, outgoingOccupancy,
+			task.getPickupRequests().values().stream().map(this::recordAcceptedRequest).toList(),
+			task.getDropoffRequests().values().stream().map(this::recordAcceptedRequest).toList());
+	}
+
+	private RecordedAcceptedRequest recordAcceptedRequest(AcceptedDrtRequest accepted) {
+		DrtRequest request = accepted.getRequest();
+		var constraints = request.getConstraints();
+		var recordedRequest = new RecordedRequest(request.getId().toString(), request.getSubmissionTime(),
+			request.getEarliestStartTime(), constraints.maxTravelDuration(), constraints.maxRideDuration(),
+			constraints.maxWaitDuration(), constraints.maxPickupDelay(), constraints.lateDiversionThreshold(),
+			constraints.allowRejection(), request.getPassengerIds().stream().map(Object::toString).toList(),
+			request.getFromLink().getId().toString(), request.getToLink().getId().toString(),
+			request.getLoad() == null ? null : loadType.serialize(request.getLoad()));
+		var timing = accepted.getRequestTiming();
+		return new RecordedAcceptedRequest(recordedRequest, accepted.getEarliestStartTime(),
+			accepted.getLatestStartTime(), accepted.getLatestArrivalTime(), accepted.getMaxRideDuration(),
+			accepted.getPickupDuration(), accepted.getDropoffDuration(),
+			timing.getPlannedPickupTime().orElse(Double.NEGATIVE_INFINITY),
+			timing.getPlannedDropoffTime().orElse(Double.NEGATIVE_INFINITY));
+	}
+}
@@ -0,0 +1,50 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.extension.benchmark.replay;
+
+import java.util.List;
+
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.drt.optimizer.VehicleEntry;
+import org.matsim.contrib.dvrp.fleet.Fleet;
+import org.matsim.contrib.dvrp.load.DvrpLoadType;
+import org.matsim.contrib.dvrp.run.AbstractDvrpModeQSimModule;
+import org.matsim.core.controler.IterationCounter;
+import org.matsim.core.controler.OutputDirectoryHierarchy;
+import org.matsim.core.router.util.TravelTime;
+
+import com.google.inject.Singleton;
+
+/**
+ * Installs a {@link DrtOptimizerInputRecorder} for the given mode. Add it with
+ * {@code controler.addOverridingQSimModule(new DrtOptimizerInputRecordingModule(mode, times, window))}.
+ */
+public class DrtOptimizerInputRecordingModule extends AbstractDvrpModeQSimModule {
+	private final List<Double> recordingTimes;
+	private final double requestWindow;
+
+	/**
+	 * @param recordingTimes simulation times at which the fleet state is captured
+	 * @param requestWindow  duration (in seconds) during which the submitted requests are collected after each
+	 *                       recording time
+	 */
+	public DrtOptimizerInputRecordingModule(String mode, List<Double> recordingTimes, double requestWindow) {
+		super(mode);
+		this.recordingTimes = List.copyOf(recordingTimes);
+		this.requestWindow = requestWindow;
+	}
+
+	@Override
+	protected void configureQSim() {
+		bindModal(DrtOptimizerInputRecorder.class).toProvider(modalProvider(
+			getter -> new DrtOptimizerInputRecorder(getMode(), getter.getModal(Fleet.class),
+				getter.getModal(VehicleEntry.EntryFactory.class), getter.getModal(Network.class),
+				getter.getModal(TravelTime.class), getter.getModal(DvrpLoadType.class),
+				getter.get(OutputDirectoryHierarchy.class), getter.get(IterationCounter.class).getIterationNumber(),
+				recordingTimes, requestWindow))).in(Singleton.class);
+		addModalQSimComponentBinding().to(modalKey(DrtOptimizerInputRecorder.class));
+		addMobsimScopeEventHandlerBinding().to(modalKey(DrtOptimizerInputRecorder.class));
+	}
+}
@@ -0,0 +1,283 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.extension.benchmark.replay;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.contrib.common.histogram.LogLinearHistogram;
+import org.matsim.contrib.drt.extension.benchmark.replay.OptimizerInputSnapshot.*;
+import org.matsim.contrib.drt.optimizer.StopWaypoint;
+import org.matsim.contrib.drt.optimizer.StopWaypointImpl;
+import org.matsim.contrib.drt.optimizer.VehicleEntry;
+import org.matsim.contrib.drt.optimizer.Waypoint;
+import org.matsim.contrib.drt.optimizer.constraints.DrtRouteConstraints;
+import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearch;
+import org.matsim.contrib.drt.optimizer.insertion.InsertionWithDetourData;
+import org.matsim.contrib.drt.passenger.AcceptedDrtRequest;
+import org.matsim.contrib.drt.passenger.DrtRequest;
+import org.matsim.contrib.drt.schedule.DefaultDrtStopTask;
+import org.matsim.contrib.drt.schedule.DrtStopTask;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicleImpl;
+import org.matsim.contrib.dvrp.fleet.ImmutableDvrpVehicleSpecification;
+import org.matsim.contrib.dvrp.load.DvrpLoadType;
+import org.matsim.contrib.dvrp.optimizer.Request;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.core.trafficmonitoring.FreeSpeedTravelTime;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Replays a recorded {@link OptimizerInputSnapshot} against any {@link DrtInsertionSearch}, so that insertion search
+ * implementations and settings can be compared on identical inputs without running a simulation.
+ * <p>
+ * Each recorded request is searched independently against the recorded fleet state (i.e. found insertions are not
+ * scheduled). For every search, the latency and the bytes allocated by the calling thread are measured; the
+ * latter does not cover allocations made by helper threads (e.g. parallel routing in the extensive search).
+ * <p>
+ * Usage:
+ * <pre>
+ * var replay = InsertionSearchReplay.create(OptimizerInputSnapshot.read(file), network, loadType);
+ * // build the search with replay.getTravelTime()
+ * var result = replay.run("selective", search, 3, 10);
+ * </pre>
+ */
+public final class InsertionSearchReplay {
+	private static final Logger log = LogManager.getLogger(InsertionSearchReplay.class);
+
+	public static InsertionSearchReplay create(OptimizerInputSnapshot snapshot, Network network,
+											   DvrpLoadType loadType) {
+		return new InsertionSearchReplay(snapshot, network, loadType);
+	}
+
+	/**
+	 * Result of replaying all requests {@code measuredRounds} times.
+	 *
+	 * @param latencyNanos      latency of single searches
+	 * @param allocatedBytes    bytes allocated by the calling thread per search ({@code NaN} if not supported by the
+	 *                          JVM)
+	 * @param solved            number of requests for which an insertion was found
+	 * @param totalTimeLoss     sum of the time losses of all found insertions
+	 * @param selectedVehicles  vehicle selected for each solved request
+	 */
+	public record Result(
+		String name,
+		int requests,
+		LogLinearHistogram latencyNanos,
+		double allocatedBytes,
+		int solved,
+		double totalTimeLoss,
+		Map<Id<Request>, Id<DvrpVehicle>> selectedVehicles
+	) {
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT,
+				"%s: %d requests, solved %d, total time loss %.1f s, latency [us] mean %.1f p50 %.1f p95 %.1f p99 %.1f max %.1f, allocated %.0f B/request",
+				name, requests, solved, totalTimeLoss, latencyNanos.getMean() / 1e3,
+				latencyNanos.getValueAtQuantile(0.5) / 1e3, latencyNanos.getValueAtQuantile(0.95) / 1e3,
+				latencyNanos.getValueAtQuantile(0.99) / 1e3, latencyNanos.getMax() / 1e3, allocatedBytes);
+		}
+	}
+
+	private final OptimizerInputSnapshot snapshot;
+	private final Network network;
+	private final DvrpLoadType loadType;
+	private final Map<String, DrtRequest> requestsById = new HashMap<>();
+	private final Map<String, AcceptedDrtRequest> acceptedRequestsById = new HashMap<>();
+
+	private final List<DrtRequest> requests;
+	private final Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries = new LinkedHashMap<>();
+	private final TravelTime travelTime;
+
+	private InsertionSearchReplay(OptimizerInputSnapshot snapshot, Network network, DvrpLoadType loadType) {
+		this.snapshot = snapshot;
+		this.network = network;
+		this.loadType = loadType;
+
+		requests = snapshot.requests().stream().map(this::materialiseRequest).toList();
+		for (RecordedVehicle recordedVehicle : snapshot.vehicles()) {
+			VehicleEntry entry = materialiseVehicle(recordedVehicle);
+			vehicleEntries.put(entry.vehicle.getId(), entry);
+		}
+
+		Map<Id<Link>, Double> linkTravelTimes = new HashMap<>();
+		for (LinkTravelTime ltt : snapshot.linkTravelTimes()) {
+			linkTravelTimes.put(Id.createLinkId(ltt.linkId()), (double)ltt.travelTime());
+		}
+		var freeSpeedTravelTime = new FreeSpeedTravelTime();
+		travelTime = (link, time, person, vehicle) -> {
+			Double recorded = linkTravelTimes.get(link.getId());
+			return recorded != null ? recorded : freeSpeedTravelTime.getLinkTravelTime(link, time, person, vehicle);
+		};
+	}
+
+	public List<DrtRequest> getRequests() {
+		return requests;
+	}
+
+	public Map<Id<DvrpVehicle>, VehicleEntry> getVehicleEntries() {
+		return Collections.unmodifiableMap(vehicleEntries);
+	}
+
+	/**
+	 * Link travel times at the recording time (free speed travel time for links not in the snapshot). The recorded
+	 * travel times are used regardless of the time of day.
+	 */
+	public TravelTime getTravelTime() {
+		return travelTime;
+	}
+
+	public double getTime() {
+		return snapshot.time();
+	}
+
+	public Result run(String name, DrtInsertionSearch search, int warmupRounds, int measuredRounds) {
+		Preconditions.checkArgument(measuredRounds > 0, "at least one measured round is required");
+		Collection<VehicleEntry> entries = vehicleEntries.values();
+		for (int round = 0; round < warmupRounds; round++) {
+			for (DrtRequest request : requests) {
+				search.findBestInsertion(request, entries);
+			}
+		}
+
+		var threadBean = ManagementFactory.getThreadMXBean();
+		var allocationBean = threadBean instanceof com.sun.management.ThreadMXBean bean
+			&& bean.isThreadAllocatedMemorySupported() ? bean : null;
+		if (allocationBean != null && !allocationBean.isThreadAllocatedMemoryEnabled()) {
+			allocationBean.setThreadAllocatedMemoryEnabled(true);
+		}
+
+		var latencyNanos = new LogLinearHistogram(1, 7);
+		long allocatedBytes = 0;
+		int solved = 0;
+		double totalTimeLoss = 0;
+		Map<Id<Request>, Id<DvrpVehicle>> selectedVehicles = new LinkedHashMap<>();
+
+		for (int round = 0; round < measuredRounds; round++) {
+			for (DrtRequest request : requests) {
+				long bytesBefore = allocationBean == null ? 0 : allocationBean.getCurrentThreadAllocatedBytes();
+				long start = System.nanoTime();
+				Optional<InsertionWithDetourData> insertion = search.findBestInsertion(request, entries);
+				latencyNanos.addValue(System.nanoTime() - start);
+				if (allocationBean != null) {
+					allocatedBytes += allocationBean.getCurrentThreadAllocatedBytes() - bytesBefore;
+				}
+
+				// quality is deterministic, so it is collected only once
+				if (round == 0 && insertion.isPresent()) {
+					solved++;
+					totalTimeLoss += insertion.get().detourTimeInfo.getTotalTimeLoss();
+					selectedVehicles.put(request.getId(), insertion.get().insertion.vehicleEntry.vehicle.getId());
+				}
+			}
+		}
+
+		int searches = measuredRounds * requests.size();
+		var result = new Result(name, requests.size(), latencyNanos,
+			allocationBean == null || searches == 0 ? Double.NaN : (double)allocatedBytes / searches, solved,
+			totalTimeLoss, selectedVehicles);
+		log.info(result);
+		return result;
+	}
+
+	/**
+	 * Summarises the differences in solution quality between two results of the same snapshot.
+	 */
+	public static String compare(Result baseline, Result candidate) {
+		int differentVehicles = 0;
+		for (var e : baseline.selectedVehicles().entrySet()) {
+			if (!e.getValue().equals(candidate.selectedVehicles().get(e.getKey()))) {
+				differentVehicles++;
+			}
+		}
+		int onlyCandidate = (int)candidate.selectedVehicles()
+			.keySet()
+			.stream()
+			.filter(id -> !baseline.selectedVehicles().containsKey(id))
+			.count();
+
+		return String.format(Locale.ROOT,
+			"%s vs %s: solved %d vs %d, total time loss %.1f vs %.1f s, p50 latency %.1f vs %.1f us, "
+				+ "%d requests assigned to a different vehicle (or unsolved), %d solved only by %s", baseline.name(),
+			candidate.name(), baseline.solved(), candidate.solved(), baseline.totalTimeLoss(),
+			candidate.totalTimeLoss(), baseline.latencyNanos().getValueAtQuantile(0.5) / 1e3,
+			candidate.latencyNanos().getValueAtQuantile(0.5) / 1e3, differentVehicles, onlyCandidate,
+			candidate.name());
+	}
+
+	// ---------------------------------------------------------------- materialisation
+
+	private Link link(String linkId) {
+		return Preconditions.checkNotNull(network.getLinks().get(Id.createLinkId(linkId)),
+			"Link %s not found in the network", linkId);
+	}
+
+	private DrtRequest materialiseRequest(RecordedRequest r) {
+		return requestsById.computeIfAbsent(r.id(), id -> DrtRequest.newBuilder()
+			.id(Id.create(id, Request.class))
+			.submissionTime(r.submissionTime())
+			.earliestDepartureTime(r.earliestDepartureTime())
+			.constraints(new DrtRouteConstraints(r.maxTravelDuration(), r.maxRideDuration(), r.maxWaitDuration(),
+				r.maxPickupDelay(), r.lateDiversionThreshold(), r.allowRejection()))
+			.passengerIds(r.passengerIds().stream().map(p -> Id.create(p, Person.class)).toList())
+			.mode(snapshot.mode())
+			.fromLink(link(r.fromLinkId()))
+			.toLink(link(r.toLinkId()))
+			.load(r.load() == null ? null : loadType.deserialize(r.load()))
+			.build());
+	}
+
+	private AcceptedDrtRequest materialiseAcceptedRequest(RecordedAcceptedRequest r) {
+		return acceptedRequestsById.computeIfAbsent(r.request().id(), id -> AcceptedDrtRequest.newBuilder()
+			.request(materialiseRequest(r.request()))
+			.earliestStartTime(r.earliestStartTime())
+			.latestStartTime(r.latestStartTime())
+			.latestArrivalTime(r.latestArrivalTime())
+			.maxRideDuration(r.maxRideDuration())
+			.pickupDuration(r.pickupDuration())
+			.dropoffDuration(r.dropoffDuration())
+			.plannedPickupTime(r.plannedPickupTime())
+			.plannedDropoffTime(r.plannedDropoffTime())
+			.build());
+	}
+
+	private DrtStopTask materialiseStopTask(RecordedStop s) {
+		var task = new DefaultDrtStopTask(s.beginTime(), s.endTime(), link(s.linkId()));
+		s.pickups().forEach(r -> task.addPickupRequest(materialiseAcceptedRequest(r)));
+		s.dropoffs().forEach(r -> task.addDropoffRequest(materialiseAcceptedRequest(r)));
+		return task;
+	}
+
+	private VehicleEntry materialiseVehicle(RecordedVehicle v) {
+		DvrpVehicle vehicle = new DvrpVehicleImpl(ImmutableDvrpVehicleSpecification.newBuilder()
+			.id(Id.create(v.id(), DvrpVehicle.class))
+			.startLinkId(Id.createLinkId(v.vehicleStartLinkId()))
+			.capacity(loadType.deserialize(v.capacity()))
+			.serviceBeginTime(v.serviceBeginTime())
+			.serviceEndTime(v.serviceEndTime())
+			.build(), link(v.vehicleStartLinkId()));
+
+		DrtStopTask startTask = v.startStop() == null ? null : materialiseStopTask(v.startStop());
+		var start = new Waypoint.Start(startTask, link(v.startLinkId()), v.startTime(),
+			loadType.deserialize(v.startOccupancy()));
+
+		ImmutableList<StopWaypoint> stops = v.stops()
+			.stream()
+			.map(s -> (StopWaypoint)new StopWaypointImpl(materialiseStopTask(s), s.latestArrivalTime(),
+				s.latestDepartureTime(), loadType.deserialize(s.outgoingOccupancy()), loadType))
+			.collect(ImmutableList.toImmutableList());
+
+		List<Double> precedingStayTimes = Arrays.stream(v.precedingStayTimes()).boxed().toList();
+		return new VehicleEntry(vehicle, start, stops, v.slackTimes(), precedingStayTimes, v.createTime());
+	}
+}
@@ -0,0 +1,318 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.extension.benchmark.replay;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+
+/**
+ * Inputs of the DRT optimizer at one point in time of a simulation: the requests to be inserted, the state of the
+ * fleet (as seen by the insertion search, i.e. {@code VehicleEntry}s) and a snapshot of link travel times.
+ * <p>
+ * Everything is stored with plain ids and numbers, so a snapshot can be written to a compact (gzipped) binary file
+ * and materialised again against the network of the recorded scenario (see {@link InsertionSearchReplay}).
+ */
+public record OptimizerInputSnapshot(
+	String mode,
+	double time,
+	List<LinkTravelTime> linkTravelTimes,
+	List<RecordedRequest> requests,
+	List<RecordedVehicle> vehicles
+) {
+	private static final int MAGIC = 0x4452544f; // "DRTO"
+	private static final int VERSION = 1;
+
+	public record LinkTravelTime(String linkId, float travelTime) {
+	}
+
+	public record RecordedRequest(
+		String id,
+		double submissionTime,
+		double earliestDepartureTime,
+		double maxTravelDuration,
+		double maxRideDuration,
+		double maxWaitDuration,
+		double maxPickupDelay,
+		double lateDiversionThreshold,
+		boolean allowRejection,
+		List<String> passengerIds,
+		String fromLinkId,
+		String toLinkId,
+		@Nullable String load
+	) {
+	}
+
+	public record RecordedAcceptedRequest(
+		RecordedRequest request,
+		double earliestStartTime,
+		double latestStartTime,
+		double latestArrivalTime,
+		double maxRideDuration,
+		double pickupDuration,
+		double dropoffDuration,
+		double plannedPickupTime,
+		double plannedDropoffTime
+	) {
+	}
+
+	public record RecordedStop(
+		String linkId,
+		double beginTime,
+		double endTime,
+		double latestArrivalTime,
+		double latestDepartureTime,
+		String outgoingOccupancy,
+		List<RecordedAcceptedRequest> pickups,
+		List<RecordedAcceptedRequest> dropoffs
+	) {
+	}
+
+	/**
+	 * @param startStop the ongoing stop task if the vehicle is serving a stop (only then the start task matters for
+	 *                  the insertion search)
+	 */
+	public record RecordedVehicle(
+		String id,
+		String vehicleStartLinkId,
+		String capacity,
+		double serviceBeginTime,
+		double serviceEndTime,
+		String startLinkId,
+		double startTime,
+		String startOccupancy,
+		@Nullable RecordedStop startStop,
+		List<RecordedStop> stops,
+		double[] slackTimes,
+		double[] precedingStayTimes,
+		double createTime
+	) {
+	}
+
+	// ---------------------------------------------------------------- writing
+
+	public void write(String file) {
+		try (var out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file))))) {
+			write(out);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	void write(DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeUTF(mode);
+		out.writeDouble(time);
+
+		out.writeInt(linkTravelTimes.size());
+		for (LinkTravelTime ltt : linkTravelTimes) {
+			out.writeUTF(ltt.linkId);
+			out.writeFloat(ltt.travelTime);
+		}
+
+		out.writeInt(requests.size());
+		for (RecordedRequest request : requests) {
+			writeRequest(out, request);
+		}
+
+		out.writeInt(vehicles.size());
+		for (RecordedVehicle v : vehicles) {
+			out.writeUTF(v.id);
+			out.writeUTF(v.vehicleStartLinkId);
+			out.writeUTF(v.capacity);
+			out.writeDouble(v.serviceBeginTime);
+			out.writeDouble(v.serviceEndTime);
+			out.writeUTF(v.startLinkId);
+			out.writeDouble(v.startTime);
+			out.writeUTF(v.startOccupancy);
+			out.writeBoolean(v.startStop != null);
+			if (v.startStop != null) {
+				writeStop(out, v.startStop);
+			}
+			out.writeInt(v.stops.size());
+			for (RecordedStop stop : v.stops) {
+				writeStop(out, stop);
+			}
+			writeDoubles(out, v.slackTimes);
+			writeDoubles(out, v.precedingStayTimes);
+			out.writeDouble(v.createTime);
+		}
+	}
+
+	private static void writeRequest(DataOutputStream out, RecordedRequest r) throws IOException {
+		out.writeUTF(r.id);
+		out.writeDouble(r.submissionTime);
+		out.writeDouble(r.earliestDepartureTime);
+		out.writeDouble(r.maxTravelDuration);
+		out.writeDouble(r.maxRideDuration);
+		out.writeDouble(r.maxWaitDuration);
+		out.writeDouble(r.maxPickupDelay);
+		out.writeDouble(r.lateDiversionThreshold);
+		out.writeBoolean(r.allowRejection);
+		out.writeInt(r.passengerIds.size());
+		for (String passengerId : r.passengerIds) {
+			out.writeUTF(passengerId);
+		}
+		out.writeUTF(r.fromLinkId);
+		out.writeUTF(r.toLinkId);
+		out.writeBoolean(r.load != null);
+		if (r.load != null) {
+			out.writeUTF(r.load);
+		}
+	}
+
+	private static void writeStop(DataOutputStream out, RecordedStop s) throws IOException {
+		out.writeUTF(s.linkId);
+		out.writeDouble(s.beginTime);
+		out.writeDouble(s.endTime);
+		out.writeDouble(s.latestArrivalTime);
+		out.writeDouble(s.latestDepartureTime);
+		out.writeUTF(s.outgoingOccupancy);
+		writeAcceptedRequests(out, s.pickups);
+		writeAcceptedRequests(out, s.dropoffs);
+	}
+
+	private static void writeAcceptedRequests(DataOutputStream out, List<RecordedAcceptedRequest> requests)
+		throws IOException {
+		out.writeInt(requests.size());
+		for (RecordedAcceptedRequest r : requests) {
+			writeRequest(out, r.request);
+			out.writeDouble(r.earliestStartTime);
+			out.writeDouble(r.latestStartTime);
+			out.writeDouble(r.latestArrivalTime);
+			out.writeDouble(r.maxRideDuration);
+			out.writeDouble(r.pickupDuration);
+			out.writeDouble(r.dropoffDuration);
+			out.writeDouble(r.plannedPickupTime);
+			out.writeDouble(r.plannedDropoffTime);
+		}
+	}
+
+	private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+		out.writeInt(values.length);
+		for (double value : values) {
+			out.writeDouble(value);
+		}
+	}
+
+	// ---------------------------------------------------------------- reading
+
+	public static OptimizerInputSnapshot read(String file) {
+		try (var in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+			return read(in);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	static OptimizerInputSnapshot read(DataInputStream in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a DRT optimizer input snapshot");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported snapshot version: " + version);
+		}
+		String mode = in.readUTF();
+		double time = in.readDouble();
+
+		int linkCount = in.readInt();
+		List<LinkTravelTime> linkTravelTimes = new ArrayList<>(linkCount);
+		for (int i = 0; i < linkCount; i++) {
+			linkTravelTimes.add(new LinkTravelTime(in.readUTF(), in.readFloat()));
+		}
+
+		int requestCount = in.readInt();
+		List<RecordedRequest> requests = new ArrayList<>(requestCount);
+		for (int i = 0; i < requestCount; i++) {
+			requests.add(readRequest(in));
+		}
+
+		int vehicleCount = in.readInt();
+		List<RecordedVehicle> vehicles = new ArrayList<>(vehicleCount);
+		for (int i = 0; i < vehicleCount; i++) {
+			String id = in.readUTF();
+			String vehicleStartLinkId = in.readUTF();
+			String capacity = in.readUTF();
+			double serviceBeginTime = in.readDouble();
+			double serviceEndTime = in.readDouble();
+			String startLinkId = in.readUTF();
+			double startTime = in.readDouble();
+			String startOccupancy = in.readUTF();
+			RecordedStop startStop = in.readBoolean() ? readStop(in) : null;
+			int stopCount = in.readInt();
+			List<RecordedStop> stops = new ArrayList<>(stopCount);
+			for (int s = 0; s < stopCount; s++) {
+				stops.add(readStop(in));
+			}
+			double[] slackTimes = readDoubles(in);
+			double[] precedingStayTimes = readDoubles(in);
+			double createTime = in.readDouble();
+			vehicles.add(new RecordedVehicle(id, vehicleStartLinkId, capacity, serviceBeginTime, serviceEndTime,
+				startLinkId, startTime, startOccupancy, startStop, stops, slackTimes, precedingStayTimes, createTime));
+		}
+
+		return new OptimizerInputSnapshot(mode, time, linkTravelTimes, requests, vehicles);
+	}
+
+	private static RecordedRequest readRequest(DataInputStream in) throws IOException {
+		String id = in.readUTF();
+		double submissionTime = in.readDouble();
+		double earliestDepartureTime = in.readDouble();
+		double maxTravelDuration = in.readDouble();
+		double maxRideDuration = in.readDouble();
+		double maxWaitDuration = in.readDouble();
+		double maxPickupDelay = in.readDouble();
+		double lateDiversionThreshold = in.readDouble();
+		boolean allowRejection = in.readBoolean();
+		int passengerCount = in.readInt();
+		List<String> passengerIds = new ArrayList<>(passengerCount);
+		for (int i = 0; i < passengerCount; i++) {
+			passengerIds.add(in.readUTF());
+		}
+		String fromLinkId = in.readUTF();
+		String toLinkId = in.readUTF();
+		String load = in.readBoolean() ? in.readUTF() : null;
+		return new RecordedRequest(id, submissionTime, earliestDepartureTime, maxTravelDuration, maxRideDuration,
+			maxWaitDuration, maxPickupDelay, lateDiversionThreshold, allowRejection, passengerIds, fromLinkId, toLinkId,
+			load);
+	}
+
+	private static RecordedStop readStop(DataInputStream in) throws IOException {
+		String linkId = in.readUTF();
+		double beginTime = in.readDouble();
+		double endTime = in.readDouble();
+		double latestArrivalTime = in.readDouble();
+		double latestDepartureTime = in.readDouble();
+		String outgoingOccupancy = in.readUTF();
+		List<RecordedAcceptedRequest> pickups = readAcceptedRequests(in);
+		List<RecordedAcceptedRequest> dropoffs = readAcceptedRequests(in);
+		return new RecordedStop(linkId, beginTime, endTime, latestArrivalTime, latestDepartureTime, outgoingOccupancy,
+			pickups, dropoffs);
+	}
+
+	private static List<RecordedAcceptedRequest> readAcceptedRequests(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		List<RecordedAcceptedRequest> requests = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			requests.add(new RecordedAcceptedRequest(readRequest(in), in.readDouble(), in.readDouble(), in.readDouble(),
+				in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble()));
+		}
+		return requests;
+	}
+
+	private static double[] readDoubles(DataInputStream in) throws IOException {
+		double[] values = new double[in.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readDouble();
+		}
+		return values;
+	}
+}
@@ -0,0 +1,120 @@
+package org.matsim.contrib.drt.extension.benchmark.replay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.drt.optimizer.VehicleEntry;
+import org.matsim.contrib.drt.optimizer.Waypoint;
+import org.matsim.contrib.drt.passenger.events.DrtRequestSubmittedEvent;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicleImpl;
+import org.matsim.contrib.dvrp.fleet.Fleet;
+import org.matsim.contrib.dvrp.fleet.ImmutableDvrpVehicleSpecification;
+import org.matsim.contrib.dvrp.load.IntegerLoadType;
+import org.matsim.contrib.dvrp.optimizer.Request;
+import org.matsim.core.config.groups.ControllerConfigGroup;
+import org.matsim.core.controler.OutputDirectoryHierarchy;
+import org.matsim.core.mobsim.framework.events.MobsimAfterSimStepEvent;
+import org.matsim.core.mobsim.framework.events.MobsimBeforeCleanupEvent;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.trafficmonitoring.FreeSpeedTravelTime;
+import org.matsim.testcases.MatsimTestUtils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+class DrtOptimizerInputRecorderTest {
+	private static final String MODE = "drt";
+
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
+	private final IntegerLoadType loadType = new IntegerLoadType("passengers");
+
+	@Test
+	void recordsFleetAndRequestsOfEachWindow() {
+		Network network = createNetwork();
+		DvrpVehicle vehicle = new DvrpVehicleImpl(ImmutableDvrpVehicleSpecification.newBuilder()
+			.id(Id.create("v1", DvrpVehicle.class))
+			.startLinkId(Id.createLinkId("l01"))
+			.capacity(loadType.fromInt(4))
+			.serviceBeginTime(0)
+			.serviceEndTime(86400)
+			.build(), network.getLinks().get(Id.createLinkId("l01")));
+		Fleet fleet = () -> ImmutableMap.of(vehicle.getId(), vehicle);
+		VehicleEntry.EntryFactory entryFactory = (v, time) -> new VehicleEntry(v,
+			new Waypoint.Start(null, v.getStartLink(), time, loadType.fromInt(0)), ImmutableList.of(),
+			new double[] { 86400 - time, 86400 - time }, List.of(), time);
+
+		var outputDirectoryHierarchy = new OutputDirectoryHierarchy(utils.getOutputDirectory(),
+			OutputDirectoryHierarchy.OverwriteFileSetting.overwriteExistingFiles, ControllerConfigGroup.CompressionType.gzip);
+		outputDirectoryHierarchy.createIterationDirectory(0);
+		var recorder = new DrtOptimizerInputRecorder(MODE, fleet, entryFactory, network, new FreeSpeedTravelTime(),
+			loadType, outputDirectoryHierarchy, 0, List.of(500., 100.), 60);
+
+		// first window, closed after 60 seconds
+		recorder.notifyMobsimAfterSimStep(new MobsimAfterSimStepEvent<>(null, 99));
+		recorder.notifyMobsimAfterSimStep(new MobsimAfterSimStepEvent<>(null, 100));
+		recorder.handleEvent(submitted("r1", 120));
+		recorder.handleEvent(submitted("r2", 159));
+		recorder.notifyMobsimAfterSimStep(new MobsimAfterSimStepEvent<>(null, 160));
+		recorder.handleEvent(submitted("r3", 200));
+
+		// second window, still open when the simulation ends
+		recorder.notifyMobsimAfterSimStep(new MobsimAfterSimStepEvent<>(null, 500));
+		recorder.handleEvent(submitted("r4", 510));
+		assertThat(new File(outputDirectoryHierarchy.getIterationFilename(0, "drt_optimizer_inputs_500.bin.gz"))).doesNotExist();
+		recorder.notifyMobsimBeforeCleanup(new MobsimBeforeCleanupEvent<>(null));
+
+		var first = OptimizerInputSnapshot.read(
+			outputDirectoryHierarchy.getIterationFilename(0, "drt_optimizer_inputs_100.bin.gz"));
+		assertThat(first.mode()).isEqualTo(MODE);
+		assertThat(first.time()).isEqualTo(100);
+		assertThat(first.requests()).extracting(OptimizerInputSnapshot.RecordedRequest::id).containsExactly("r1", "r2");
+		assertThat(first.vehicles()).singleElement().satisfies(v -> {
+			assertThat(v.id()).isEqualTo("v1");
+			assertThat(v.startTime()).isEqualTo(101);
+			assertThat(v.stops()).isEmpty();
+		});
+		assertThat(first.linkTravelTimes()).hasSize(network.getLinks().size());
+
+		var second = OptimizerInputSnapshot.read(
+			outputDirectoryHierarchy.getIterationFilename(0, "drt_optimizer_inputs_500.bin.gz"));
+		assertThat(second.time()).isEqualTo(500);
+		assertThat(second.requests()).extracting(OptimizerInputSnapshot.RecordedRequest::id).containsExactly("r4");
+	}
+
+	private DrtRequestSubmittedEvent submitted(String id, double time) {
+		return new DrtRequestSubmittedEvent(time, MODE, Id.create(id, Request.class), List.of(Id.createPersonId(id)),
+			Id.createLinkId("l12"), Id.createLinkId("l23"), 100, 1000, time, time + 600, time + 1200, 900,
+			loadType.fromInt(1), "1");
+	}
+
+	static Network createNetwork() {
+		Network network = NetworkUtils.createNetwork();
+		for (int i = 0; i < 4; i++) {
+			network.addNode(NetworkUtils.createNode(Id.createNodeId(i), new Coord(1000 * i, 0)));
+		}
+		for (int i = 0; i < 3; i++) {
+			addLink(network, i, i + 1);
+			addLink(network, i + 1, i);
+		}
+		return network;
+	}
+
+	private static void addLink(Network network, int from, int to) {
+		Node fromNode = network.getNodes().get(Id.createNodeId(from));
+		Node toNode = network.getNodes().get(Id.createNodeId(to));
+		Link link = NetworkUtils.createLink(Id.createLinkId("l" + from + to), fromNode, toNode, network, 1000, 10, 1800, 1);
+		network.addLink(link);
+	}
+}
@@ -0,0 +1,88 @@
+package org.matsim.contrib.drt.extension.benchmark.replay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.drt.extension.benchmark.replay.OptimizerInputSnapshot.*;
+import org.matsim.contrib.drt.optimizer.insertion.BestInsertionFinder;
+import org.matsim.contrib.drt.optimizer.insertion.CostCalculationStrategy;
+import org.matsim.contrib.drt.optimizer.insertion.DefaultInsertionCostCalculator;
+import org.matsim.contrib.drt.optimizer.insertion.DetourTimeEstimator;
+import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearch;
+import org.matsim.contrib.drt.optimizer.insertion.InsertionGenerator;
+import org.matsim.contrib.drt.stops.DefaultStopTimeCalculator;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.contrib.dvrp.load.IntegerLoadType;
+import org.matsim.contrib.dvrp.optimizer.Request;
+import org.matsim.testcases.MatsimTestUtils;
+
+class InsertionSearchReplayTest {
+
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
+	private final IntegerLoadType loadType = new IntegerLoadType("passengers");
+
+	@Test
+	void replayIsDeterministic() {
+		Network network = DrtOptimizerInputRecorderTest.createNetwork();
+		String file = utils.getOutputDirectory() + "snapshot.bin.gz";
+		createSnapshot().write(file);
+
+		var baseline = InsertionSearchReplay.create(OptimizerInputSnapshot.read(file), network, loadType)
+			.run("baseline", createSearch(), 0, 1);
+		var replay = InsertionSearchReplay.create(OptimizerInputSnapshot.read(file), network, loadType);
+		var first = replay.run("first", createSearch(), 2, 3);
+		var second = replay.run("second", createSearch(), 0, 1);
+
+		// the vehicle at the end of the line is closer to r2
+		assertThat(baseline.requests()).isEqualTo(2);
+		assertThat(baseline.solved()).isEqualTo(2);
+		assertThat(baseline.selectedVehicles()).containsExactly(
+			entry("r1", "v1"), entry("r2", "v2"));
+		assertThat(baseline.totalTimeLoss()).isPositive();
+
+		for (var result : List.of(first, second)) {
+			assertThat(result.solved()).isEqualTo(baseline.solved());
+			assertThat(result.totalTimeLoss()).isEqualTo(baseline.totalTimeLoss());
+			assertThat(result.selectedVehicles()).containsExactlyEntriesOf(baseline.selectedVehicles());
+			assertThat(result.latencyNanos().getTotalCount()).isEqualTo(result == first ? 6 : 2);
+		}
+		assertThat(InsertionSearchReplay.compare(baseline, first)).contains("0 requests assigned to a different vehicle");
+	}
+
+	private DrtInsertionSearch createSearch() {
+		var insertionGenerator = new InsertionGenerator(new DefaultStopTimeCalculator(60),
+			DetourTimeEstimator.createBeelineBasedEstimator(10));
+		var bestInsertionFinder = new BestInsertionFinder(
+			new DefaultInsertionCostCalculator(new CostCalculationStrategy.DefaultCostCalculationStrategy(), null));
+		return (request, vehicleEntries) -> bestInsertionFinder.findBestInsertion(request,
+			vehicleEntries.stream().flatMap(e -> insertionGenerator.generateInsertions(request, e).stream()));
+	}
+
+	private static OptimizerInputSnapshot createSnapshot() {
+		var requests = List.of(request("r1", "l01", "l12"), request("r2", "l23", "l21"));
+		var vehicles = List.of(idleVehicle("v1", "l01"), idleVehicle("v2", "l23"));
+		return new OptimizerInputSnapshot("drt", 100, List.of(new LinkTravelTime("l01", 100)), requests, vehicles);
+	}
+
+	private static RecordedRequest request(String id, String fromLinkId, String toLinkId) {
+		return new RecordedRequest(id, 100, 100, 3600, 3600, 1800, Double.POSITIVE_INFINITY, 0, false, List.of(id),
+			fromLinkId, toLinkId, "1");
+	}
+
+	private static RecordedVehicle idleVehicle(String id, String linkId) {
+		return new RecordedVehicle(id, linkId, "4", 0, 86400, linkId, 101, "0", null, List.of(),
+			new double[] { 86400 - 101, 86400 - 101 }, new double[0], 101);
+	}
+
+	private static Map.Entry<Id<Request>, Id<DvrpVehicle>> entry(String requestId, String vehicleId) {
+		return Map.entry(Id.create(requestId, Request.class), Id.create(vehicleId, DvrpVehicle.class));
+	}
+}
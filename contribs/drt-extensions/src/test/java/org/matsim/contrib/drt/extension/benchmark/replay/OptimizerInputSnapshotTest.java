@@ -0,0 +1,51 @@
+package org.matsim.contrib.drt.extension.benchmark.replay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.contrib.drt.extension.benchmark.replay.OptimizerInputSnapshot.*;
+
+class OptimizerInputSnapshotTest {
+
+	@Test
+	void writeAndRead() throws IOException {
+		var unplanned = new RecordedRequest("r1", 100, 110, 1200, 900, 600, Double.POSITIVE_INFINITY, 0, false,
+			List.of("p1"), "l1", "l2", "1");
+		var planned = new RecordedRequest("r0", 50, 60, 1000, 800, 500, 300, 10, true, List.of("p2", "p3"), "l2",
+			"l3", null);
+		var accepted = new RecordedAcceptedRequest(planned, 60, 560, 1060, 800, 30, 20, 90,
+			Double.NEGATIVE_INFINITY);
+		var startStop = new RecordedStop("l2", 80, 110, 560, 560, "2", List.of(accepted), List.of());
+		var stop = new RecordedStop("l3", 400, 420, 1060, Double.POSITIVE_INFINITY, "0", List.of(),
+			List.of(accepted));
+		var vehicle = new RecordedVehicle("v1", "l1", "4", 0, 86400, "l2", 110, "2", startStop, List.of(stop),
+			new double[] { 5, 10, Double.POSITIVE_INFINITY }, new double[] { 0 }, 101);
+		var snapshot = new OptimizerInputSnapshot("drt", 100, List.of(new LinkTravelTime("l1", 12.5f)),
+			List.of(unplanned), List.of(vehicle));
+
+		var bytes = new ByteArrayOutputStream();
+		try (var out = new DataOutputStream(bytes)) {
+			snapshot.write(out);
+		}
+		var read = OptimizerInputSnapshot.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+		assertThat(read.mode()).isEqualTo("drt");
+		assertThat(read.time()).isEqualTo(100);
+		assertThat(read.linkTravelTimes()).containsExactly(new LinkTravelTime("l1", 12.5f));
+		assertThat(read.requests()).containsExactly(unplanned);
+
+		var readVehicle = read.vehicles().get(0);
+		assertThat(readVehicle.startStop()).isEqualTo(startStop);
+		assertThat(readVehicle.stops()).containsExactly(stop);
+		assertThat(readVehicle.slackTimes()).containsExactly(vehicle.slackTimes());
+		assertThat(readVehicle.precedingStayTimes()).containsExactly(vehicle.precedingStayTimes());
+		assertThat(readVehicle).usingRecursiveComparison().isEqualTo(vehicle);
+	}
+}
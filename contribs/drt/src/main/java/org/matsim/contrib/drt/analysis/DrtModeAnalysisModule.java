@@ -124,9 +124,12 @@ public class DrtModeAnalysisModule extends AbstractDvrpModeModule {
 				.asEagerSingleton();
 		addEventHandlerBinding().to(modalKey(DrtVehicleDistanceStats.class));
 
-		bindModal(DrtEventSequenceCollector.class).toProvider(modalProvider(getter -> new DrtEventSequenceCollector(drtCfg.getMode())))
-			.asEagerSingleton();
-		addEventHandlerBinding().to(modalKey(DrtEventSequenceCollector.class));
+		// with streaming analysis, event sequences are collected only if required by other components
+		if (!drtCfg.isStreamingAnalysis() || drtCfg.getDrtSpeedUpParams().isPresent() || drtCfg.getDrtEstimatorParams().isPresent()) {
+			bindModal(DrtEventSequenceCollector.class).toProvider(modalProvider(getter -> new DrtEventSequenceCollector(drtCfg.getMode())))
+				.asEagerSingleton();
+			addEventHandlerBinding().to(modalKey(DrtEventSequenceCollector.class));
+		}
 
 		// Only the head node performs most of the analysis
 		if (!getSimulationContext().getComputeNode().isHeadNode())
@@ -157,11 +160,19 @@ public class DrtModeAnalysisModule extends AbstractDvrpModeModule {
 			return new ProfileWriter(matsimServices, mode, profileView, "task_time_profiles");
 		}));
 
-		addControllerListenerBinding().toProvider(modalProvider(
-						getter -> new DrtAnalysisControlerListener(getter.get(Config.class), drtCfg, getter.getModal(FleetSpecification.class),
-								getter.getModal(DrtVehicleDistanceStats.class), getter.get(MatsimServices.class), getter.get(Network.class),
-								getter.getModal(DrtEventSequenceCollector.class), getter.getModal(VehicleOccupancyProfileCalculator.class), getter.getModal(DvrpLoadType.class))))
+		if (drtCfg.isStreamingAnalysis()) {
+			bindModal(DrtStreamingAnalysisListener.class).toProvider(modalProvider(
+					getter -> new DrtStreamingAnalysisListener(getter.get(Config.class), drtCfg, getter.get(MatsimServices.class))))
 				.asEagerSingleton();
+			addEventHandlerBinding().to(modalKey(DrtStreamingAnalysisListener.class));
+			addControllerListenerBinding().to(modalKey(DrtStreamingAnalysisListener.class));
+		} else {
+			addControllerListenerBinding().toProvider(modalProvider(
+							getter -> new DrtAnalysisControlerListener(getter.get(Config.class), drtCfg, getter.getModal(FleetSpecification.class),
+									getter.getModal(DrtVehicleDistanceStats.class), getter.get(MatsimServices.class), getter.get(Network.class),
+									getter.getModal(DrtEventSequenceCollector.class), getter.getModal(VehicleOccupancyProfileCalculator.class), getter.getModal(DvrpLoadType.class))))
+					.asEagerSingleton();
+		}
 
 		install(new SharingMetricsModule(drtCfg));
 
@@ -201,13 +212,16 @@ public class DrtModeAnalysisModule extends AbstractDvrpModeModule {
 		addControllerListenerBinding().to(modalKey(ZonalIdleVehicleXYVisualiser.class));
 		addEventHandlerBinding().to(modalKey(ZonalIdleVehicleXYVisualiser.class));
 
-		bindModal(DrtZonalWaitTimesAnalyzer.class).toProvider(modalProvider(
-				getter -> {
-					ZoneSystem zoneSystem = getter.getModal(new TypeLiteral<Map<String, Provider<ZoneSystem>>>() {})
-							.get(ANALYSIS_ZONE_SYSTEM).get();
-					return new DrtZonalWaitTimesAnalyzer(drtCfg, getter.getModal(DrtEventSequenceCollector.class),
-						zoneSystem, getConfig().global().getDefaultDelimiter());
-				})).asEagerSingleton();
-		addControllerListenerBinding().to(modalKey(DrtZonalWaitTimesAnalyzer.class));
+		// the zonal wait time analysis is based on the collected event sequences
+		if (!drtCfg.isStreamingAnalysis()) {
+			bindModal(DrtZonalWaitTimesAnalyzer.class).toProvider(modalProvider(
+					getter -> {
+						ZoneSystem zoneSystem = getter.getModal(new TypeLiteral<Map<String, Provider<ZoneSystem>>>() {})
+								.get(ANALYSIS_ZONE_SYSTEM).get();
+						return new DrtZonalWaitTimesAnalyzer(drtCfg, getter.getModal(DrtEventSequenceCollector.class),
+							zoneSystem, getConfig().global().getDefaultDelimiter());
+					})).asEagerSingleton();
+			addControllerListenerBinding().to(modalKey(DrtZonalWaitTimesAnalyzer.class));
+		}
 	}
 }
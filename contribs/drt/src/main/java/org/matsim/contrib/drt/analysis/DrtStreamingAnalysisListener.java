@@ -0,0 +1,306 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.analysis;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.contrib.common.histogram.LogLinearHistogram;
+import org.matsim.contrib.drt.passenger.events.DrtRequestSubmittedEvent;
+import org.matsim.contrib.drt.passenger.events.DrtRequestSubmittedEventHandler;
+import org.matsim.contrib.drt.run.DrtConfigGroup;
+import org.matsim.contrib.dvrp.optimizer.Request;
+import org.matsim.contrib.dvrp.passenger.PassengerDroppedOffEvent;
+import org.matsim.contrib.dvrp.passenger.PassengerDroppedOffEventHandler;
+import org.matsim.contrib.dvrp.passenger.PassengerPickedUpEvent;
+import org.matsim.contrib.dvrp.passenger.PassengerPickedUpEventHandler;
+import org.matsim.contrib.dvrp.passenger.PassengerRequestRejectedEvent;
+import org.matsim.contrib.dvrp.passenger.PassengerRequestRejectedEventHandler;
+import org.matsim.contrib.dvrp.passenger.PassengerWaitingEvent;
+import org.matsim.contrib.dvrp.passenger.PassengerWaitingEventHandler;
+import org.matsim.core.config.Config;
+import org.matsim.core.controler.MatsimServices;
+import org.matsim.core.controler.events.IterationEndsEvent;
+import org.matsim.core.controler.events.IterationStartsEvent;
+import org.matsim.core.controler.listener.IterationEndsListener;
+import org.matsim.core.controler.listener.IterationStartsListener;
+import org.matsim.core.utils.io.IOUtils;
+
+/**
+ * Bounded-memory alternative to {@link DrtAnalysisControlerListener} (enabled with
+ * {@link DrtConfigGroup#isStreamingAnalysis()}).
+ * <p>
+ * Only the requests that are currently in progress (submitted, but neither rejected nor completed) are kept in memory.
+ * When a passenger is dropped off, their leg is appended to {@code drt_legs_streamed_<mode>.csv.gz} and wait, ride,
+ * total travel times and detours are added to fixed-size {@link LogLinearHistogram}s. Rejections are written to
+ * {@code drt_rejections_streamed_<mode>.csv.gz} as they occur. At the end of the iteration, a single line with the
+ * aggregated statistics is appended to {@code drt_customer_stats_streamed_<mode>.csv}, so the iteration end is not
+ * delayed by the analysis.
+ * <p>
+ * The detour is measured in time, as the ratio of the in-vehicle time to the unshared ride time estimated at
+ * submission. Vehicle statistics (occupancy, distances) are not covered here; they are already aggregated online by
+ * {@link org.matsim.contrib.dvrp.analysis.VehicleOccupancyProfileCalculator} and {@link DrtVehicleDistanceStats}.
+ */
+public class DrtStreamingAnalysisListener implements DrtRequestSubmittedEventHandler, PassengerWaitingEventHandler,
+		PassengerRequestRejectedEventHandler, PassengerPickedUpEventHandler, PassengerDroppedOffEventHandler,
+		IterationStartsListener, IterationEndsListener {
+	private static final int PRECISION_BITS = 7; // relative error below 1.6%
+	private static final String NOT_AVAILABLE = "NA";
+
+	private static class RequestState {
+		private final DrtRequestSubmittedEvent submitted;
+		private final double[] departureTimes;
+		private final double[] pickupTimes;
+		private int remainingPassengers;
+
+		private RequestState(DrtRequestSubmittedEvent submitted) {
+			this.submitted = submitted;
+			int passengerCount = submitted.getPersonIds().size();
+			this.departureTimes = new double[passengerCount];
+			this.pickupTimes = new double[passengerCount];
+			Arrays.fill(departureTimes, Double.NaN);
+			Arrays.fill(pickupTimes, Double.NaN);
+			this.remainingPassengers = passengerCount;
+		}
+
+		private int passengerIndex(Id<Person> personId) {
+			return submitted.getPersonIds().indexOf(personId);
+		}
+	}
+
+	private final String mode;
+	private final MatsimServices matsimServices;
+	private final String runId;
+	private final String delimiter;
+	private final DecimalFormat format = new DecimalFormat();
+
+	private final Map<Id<Request>, RequestState> requestsInProgress = new HashMap<>();
+	// immediate requests: the departure (waiting) is reported before the submission
+	private final Map<Id<Request>, PassengerWaitingEvent> waitingBeforeSubmission = new HashMap<>();
+
+	private final LogLinearHistogram waitTimes = new LogLinearHistogram(1, PRECISION_BITS);
+	private final LogLinearHistogram inVehicleTimes = new LogLinearHistogram(1, PRECISION_BITS);
+	private final LogLinearHistogram totalTravelTimes = new LogLinearHistogram(1, PRECISION_BITS);
+	private final LogLinearHistogram detours = new LogLinearHistogram(0.001, PRECISION_BITS);
+
+	private long submittedRequests;
+	private long rides;
+	private long ridesPax;
+	private long rejections;
+	private long waitTimesBelow10min;
+	private long waitTimesBelow15min;
+
+	private BufferedWriter legsWriter;
+	private BufferedWriter rejectionsWriter;
+	private boolean headerWritten = false;
+
+	public DrtStreamingAnalysisListener(Config config, DrtConfigGroup drtCfg, MatsimServices matsimServices) {
+		this.mode = drtCfg.getMode();
+		this.matsimServices = matsimServices;
+		this.runId = Optional.ofNullable(config.controller().getRunId()).orElse(NOT_AVAILABLE);
+		this.delimiter = config.global().getDefaultDelimiter();
+
+		format.setDecimalFormatSymbols(new DecimalFormatSymbols(Locale.US));
+		format.setMinimumIntegerDigits(1);
+		format.setMaximumFractionDigits(2);
+		format.setGroupingUsed(false);
+	}
+
+	@Override
+	public void notifyIterationStarts(IterationStartsEvent event) {
+		requestsInProgress.clear();
+		waitingBeforeSubmission.clear();
+		waitTimes.clear();
+		inVehicleTimes.clear();
+		totalTravelTimes.clear();
+		detours.clear();
+		submittedRequests = rides = ridesPax = rejections = waitTimesBelow10min = waitTimesBelow15min = 0;
+
+		legsWriter = IOUtils.getBufferedWriter(filename(event.getIteration(), "drt_legs_streamed", ".csv.gz"));
+		writeLine(legsWriter, "requestId", "personId", "vehicleId", "submissionTime", "departureTime", "pickupTime",
+				"dropoffTime", "fromLinkId", "toLinkId", "waitTime", "inVehicleTime", "unsharedTimeEstimate",
+				"unsharedDistanceEstimate_m");
+
+		rejectionsWriter = IOUtils.getBufferedWriter(
+				filename(event.getIteration(), "drt_rejections_streamed", ".csv.gz"));
+		writeLine(rejectionsWriter, "time", "personIds", "requestId", "fromLinkId", "toLinkId", "cause");
+	}
+
+	@Override
+	public void handleEvent(DrtRequestSubmittedEvent event) {
+		if (event.getMode().equals(mode)) {
+			submittedRequests++;
+			RequestState state = new RequestState(event);
+			requestsInProgress.put(event.getRequestId(), state);
+
+			PassengerWaitingEvent waiting = waitingBeforeSubmission.remove(event.getRequestId());
+			if (waiting != null) {
+				recordDeparture(state, waiting);
+			}
+		}
+	}
+
+	@Override
+	public void handleEvent(PassengerWaitingEvent event) {
+		if (event.getMode().equals(mode)) {
+			RequestState state = requestsInProgress.get(event.getRequestId());
+			if (state != null) {
+				recordDeparture(state, event); // prebooked request, already submitted
+			} else {
+				waitingBeforeSubmission.put(event.getRequestId(), event);
+			}
+		}
+	}
+
+	private static void recordDeparture(RequestState state, PassengerWaitingEvent event) {
+		for (Id<Person> personId : event.getPersonIds()) {
+			state.departureTimes[state.passengerIndex(personId)] = event.getTime();
+		}
+	}
+
+	@Override
+	public void handleEvent(PassengerRequestRejectedEvent event) {
+		if (event.getMode().equals(mode)) {
+			RequestState state = requestsInProgress.remove(event.getRequestId());
+			waitingBeforeSubmission.remove(event.getRequestId());
+			rejections++;
+
+			DrtRequestSubmittedEvent submitted = state.submitted;
+			writeLine(rejectionsWriter, event.getTime() + "",
+					submitted.getPersonIds().stream().map(Object::toString).collect(Collectors.joining("-")),
+					event.getRequestId() + "", submitted.getFromLinkId() + "", submitted.getToLinkId() + "",
+					event.getCause());
+		}
+	}
+
+	@Override
+	public void handleEvent(PassengerPickedUpEvent event) {
+		if (event.getMode().equals(mode)) {
+			RequestState state = requestsInProgress.get(event.getRequestId());
+			state.pickupTimes[state.passengerIndex(event.getPersonId())] = event.getTime();
+		}
+	}
+
+	@Override
+	public void handleEvent(PassengerDroppedOffEvent event) {
+		if (event.getMode().equals(mode)) {
+			RequestState state = requestsInProgress.get(event.getRequestId());
+			DrtRequestSubmittedEvent submitted = state.submitted;
+			int idx = state.passengerIndex(event.getPersonId());
+
+			double pickupTime = state.pickupTimes[idx];
+			double departureTime = state.departureTimes[idx];
+			double waitTime = pickupTime - submitted.getEarliestDepartureTime();
+			double inVehicleTime = event.getTime() - pickupTime;
+
+			waitTimes.addValue(Math.max(0, waitTime));
+			inVehicleTimes.addValue(inVehicleTime);
+			if (!Double.isNaN(departureTime)) {
+				totalTravelTimes.addValue(event.getTime() - departureTime);
+			}
+			if (submitted.getUnsharedRideTime() > 0) {
+				detours.addValue(inVehicleTime / submitted.getUnsharedRideTime());
+			}
+			if (waitTime < 600) {
+				waitTimesBelow10min++;
+			}
+			if (waitTime < 900) {
+				waitTimesBelow15min++;
+			}
+			ridesPax++;
+
+			writeLine(legsWriter, event.getRequestId() + "", event.getPersonId() + "", event.getVehicleId() + "",
+					submitted.getTime() + "", departureTime + "", pickupTime + "", event.getTime() + "",
+					submitted.getFromLinkId() + "", submitted.getToLinkId() + "", format.format(waitTime),
+					format.format(inVehicleTime), format.format(submitted.getUnsharedRideTime()),
+					format.format(submitted.getUnsharedRideDistance()));
+
+			if (--state.remainingPassengers == 0) {
+				requestsInProgress.remove(event.getRequestId());
+				rides++;
+			}
+		}
+	}
+
+	@Override
+	public void notifyIterationEnds(IterationEndsEvent event) {
+		try {
+			legsWriter.close();
+			rejectionsWriter.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		String filename = matsimServices.getControllerIO()
+				.getOutputFilename("drt_customer_stats_streamed_" + mode + ".csv");
+		try (BufferedWriter bw = IOUtils.getAppendingBufferedWriter(filename)) {
+			if (!headerWritten) {
+				headerWritten = true;
+				writeLine(bw, "runId", "iteration", "rides", "rides_pax", "wait_average", "wait_max", "wait_p95",
+						"wait_p75", "wait_median", "percentage_WT_below_10", "percentage_WT_below_15",
+						"inVehicleTravelTime_mean", "inVehicleTravelTime_p95", "detour_mean", "detour_p95",
+						"totalTravelTime_mean", "rejections", "rejectionRate", "requestsInProgress");
+			}
+			writeLine(bw, runId, event.getIteration() + "", rides + "", ridesPax + "", //
+					format.format(waitTimes.getMean()), //
+					format.format(waitTimes.getMax()), //
+					format.format(waitTimes.getValueAtQuantile(0.95)), //
+					format.format(waitTimes.getValueAtQuantile(0.75)), //
+					format.format(waitTimes.getValueAtQuantile(0.5)), //
+					format.format(ridesPax == 0 ? 0 : waitTimesBelow10min * 100. / ridesPax), //
+					format.format(ridesPax == 0 ? 0 : waitTimesBelow15min * 100. / ridesPax), //
+					format.format(inVehicleTimes.getMean()), //
+					format.format(inVehicleTimes.getValueAtQuantile(0.95)), //
+					format.format(detours.getMean()), //
+					format.format(detours.getValueAtQuantile(0.95)), //
+					format.format(totalTravelTimes.getMean()), //
+					rejections + "", //
+					format.format(submittedRequests == 0 ? 0 : rejections / (double)submittedRequests), //
+					requestsInProgress.size() + "");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private String filename(int iteration, String prefix, String extension) {
+		return matsimServices.getControllerIO().getIterationFilename(iteration, prefix + "_" + mode + extension);
+	}
+
+	private void writeLine(BufferedWriter writer, String... values) {
+		try {
+			writer.write(String.join(delimiter, List.of(values)));
+			writer.newLine();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -49,6 +49,27 @@ public interface DetourTimeEstimator {
 		};
 	}
 
+	/**
+	 * Looks up travel times between stops in the table and uses the fallback estimator for all other pairs of links
+	 * (e.g. when a vehicle is diverted on its way or starts from a depot that is not a stop) and for stops that are
+	 * not in the table (i.e. further apart than its maximum travel time).
+	 */
+	static DetourTimeEstimator createStopToStopEstimator(double speedFactor, StopToStopTravelTimeTable table,
+			DetourTimeEstimator fallback) {
+		return (from, to, departureTime) -> {
+			if (from == to) {
+				return 0;
+			}
+			if (table.isStop(from) && table.isStop(to)) {
+				double travelTime = table.getTravelTime(from, to, departureTime);
+				if (travelTime < Double.POSITIVE_INFINITY) {
+					return travelTime / speedFactor;
+				}
+			}
+			return fallback.estimateTime(from, to, departureTime);
+		};
+	}
+
 	static DetourTimeEstimator createExactEstimator(LeastCostPathCalculator router, TravelTime travelTime) {
 		return (from, to, departureTime) -> {
 			synchronized(router) {
@@ -0,0 +1,174 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.drt.optimizer.insertion;
+
+import static org.matsim.contrib.dvrp.path.LeastCostPathTreeStopCriteria.allEndNodesReached;
+import static org.matsim.contrib.dvrp.path.LeastCostPathTreeStopCriteria.withMaxTravelTime;
+import static org.matsim.contrib.dvrp.path.VrpPaths.FIRST_LINK_TT;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.dvrp.path.VrpPaths;
+import org.matsim.contrib.dvrp.router.TimeAsTravelDisutility;
+import org.matsim.contrib.util.ExecutorServiceWithResource;
+import org.matsim.core.router.speedy.LeastCostPathTree;
+import org.matsim.core.router.speedy.SpeedyGraph;
+import org.matsim.core.router.speedy.SpeedyGraphBuilder;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.core.utils.misc.OptionalTime;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Time-binned stop-to-stop travel times and path lengths for stop-based DRT services.
+ * <p>
+ * The set of stops of a stop-based service is fixed and usually small, so instead of routing between the same stops
+ * over and over again, the fastest paths between all stop links are computed once (per bin, at the bin's start time)
+ * with the given (congested) travel time. Both travel times and lengths are measured from link to link, i.e. they
+ * include {@link VrpPaths#FIRST_LINK_TT} and the travel time on the last link, exactly as a
+ * {@link VrpPaths#calcAndCreatePath} path would.
+ * <p>
+ * Each tree is only grown until all stops are reached or the travel time exceeds {@code maxTravelTime}. Pairs of stops
+ * that are further apart (or not connected) have infinite travel times and lengths.
+ * <p>
+ * Memory: {@code 8 * numberOfStops^2} bytes per time bin.
+ */
+public final class StopToStopTravelTimeTable {
+	private static final Logger log = LogManager.getLogger(StopToStopTravelTimeTable.class);
+
+	public static StopToStopTravelTimeTable calculate(Network network, TravelTime travelTime,
+			@Nullable String turnRestrictionsMode, Collection<Id<Link>> stopLinkIds, double timeBinSize, double maxTime,
+			double maxTravelTime, int numberOfThreads) {
+		List<Link> stopLinks = stopLinkIds.stream().distinct().<Link>map(id -> network.getLinks().get(id)).toList();
+		int numberOfBins = Math.max(1, (int)Math.ceil(maxTime / timeBinSize));
+		var table = new StopToStopTravelTimeTable(stopLinks, timeBinSize, numberOfBins, maxTravelTime);
+
+		SpeedyGraph graph = SpeedyGraphBuilder.build(network, turnRestrictionsMode);
+		var trees = IntStream.range(0, numberOfThreads)
+				.mapToObj(i -> new LeastCostPathTree(graph, travelTime, new TimeAsTravelDisutility(travelTime)))
+				.toList();
+		var executorService = new ExecutorServiceWithResource<>(trees);
+		executorService.submitRunnablesAndWait(IntStream.range(0, numberOfBins)
+				.boxed()
+				.flatMap(bin -> IntStream.range(0, stopLinks.size())
+						.mapToObj(from -> (ExecutorServiceWithResource.RunnableWithResource<LeastCostPathTree>)tree -> table.computeRow(
+								tree, travelTime, bin, from))));
+		executorService.shutdown();
+
+		log.info("Stop-to-stop travel time table: {} stops, {} time bins", stopLinks.size(), numberOfBins);
+		return table;
+	}
+
+	private final List<Link> stopLinks;
+	private final int[] stopIndexByLinkIndex;
+	private final List<Node> stopNodes;
+	private final double timeBinSize;
+	private final double maxTravelTime;
+	private final float[][] travelTimes;
+	private final float[][] lengths;
+
+	private StopToStopTravelTimeTable(List<Link> stopLinks, double timeBinSize, int numberOfBins,
+			double maxTravelTime) {
+		this.stopLinks = stopLinks;
+		this.stopNodes = stopLinks.stream().map(Link::getFromNode).distinct().toList();
+		this.timeBinSize = timeBinSize;
+		this.maxTravelTime = maxTravelTime;
+
+		stopIndexByLinkIndex = new int[Id.getNumberOfIds(Link.class)];
+		Arrays.fill(stopIndexByLinkIndex, -1);
+		for (int i = 0; i < stopLinks.size(); i++) {
+			stopIndexByLinkIndex[stopLinks.get(i).getId().index()] = i;
+		}
+
+		int size = stopLinks.size() * stopLinks.size();
+		travelTimes = new float[numberOfBins][size];
+		lengths = new float[numberOfBins][size];
+	}
+
+	private void computeRow(LeastCostPathTree tree, TravelTime travelTime, int bin, int fromIdx) {
+		double departureTime = bin * timeBinSize;
+		Link fromLink = stopLinks.get(fromIdx);
+		double startTime = departureTime + FIRST_LINK_TT;
+		tree.calculate(fromLink, startTime, null, null, withMaxTravelTime(allEndNodesReached(stopNodes), maxTravelTime));
+
+		int rowOffset = fromIdx * stopLinks.size();
+		for (int toIdx = 0; toIdx < stopLinks.size(); toIdx++) {
+			Link toLink = stopLinks.get(toIdx);
+			if (toLink == fromLink) {
+				continue; // stays 0
+			}
+
+			int nodeIndex = tree.getNodeIndex(toLink.getFromNode());
+			OptionalTime arrivalTime = tree.getTime(nodeIndex);
+			// the cost is the travel time, so all nodes within maxTravelTime are settled and the others are not needed
+			if (arrivalTime.isUndefined() || arrivalTime.seconds() - startTime > maxTravelTime) {
+				travelTimes[bin][rowOffset + toIdx] = Float.POSITIVE_INFINITY;
+				lengths[bin][rowOffset + toIdx] = Float.POSITIVE_INFINITY;
+				continue;
+			}
+
+			double arrival = arrivalTime.seconds();
+			double duration = arrival - departureTime + VrpPaths.getLastLinkTT(travelTime, toLink, arrival);
+			travelTimes[bin][rowOffset + toIdx] = (float)duration;
+			lengths[bin][rowOffset + toIdx] = (float)(tree.getDistance(nodeIndex) + toLink.getLength());
+		}
+	}
+
+	public boolean isStop(Link link) {
+		int linkIndex = link.getId().index();
+		return linkIndex < stopIndexByLinkIndex.length && stopIndexByLinkIndex[linkIndex] >= 0;
+	}
+
+	/**
+	 * Both links must be stop links (see {@link #isStop(Link)}).
+	 */
+	public double getTravelTime(Link fromStopLink, Link toStopLink, double departureTime) {
+		return travelTimes[getBin(departureTime)][getCellIndex(fromStopLink, toStopLink)];
+	}
+
+	/**
+	 * Both links must be stop links (see {@link #isStop(Link)}).
+	 */
+	public double getLength(Link fromStopLink, Link toStopLink, double departureTime) {
+		return lengths[getBin(departureTime)][getCellIndex(fromStopLink, toStopLink)];
+	}
+
+	public int getNumberOfStops() {
+		return stopLinks.size();
+	}
+
+	private int getBin(double time) {
+		return Math.max(0, Math.min((int)(time / timeBinSize), travelTimes.length - 1));
+	}
+
+	private int getCellIndex(Link from, Link to) {
+		return stopIndexByLinkIndex[from.getId().index()] * stopLinks.size() + stopIndexByLinkIndex[to.getId().index()];
+	}
+}
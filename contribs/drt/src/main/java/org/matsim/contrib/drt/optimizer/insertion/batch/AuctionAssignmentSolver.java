@@ -0,0 +1,132 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.optimizer.insertion.batch;
+
+import java.util.Arrays;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Assigns requests to vehicles (at most one request per vehicle) by means of the forward auction algorithm
+ * (Bertsekas) operating directly on the sparse {@link InsertionCostMatrix}.
+ * <p>
+ * Each request has a private "unassigned" alternative of benefit 0, while assigning request {@code r} to vehicle
+ * {@code v} has the benefit {@code M - cost(r, v)}, with {@code M} large enough that the solver primarily maximises
+ * the number of assigned requests and secondarily minimises the total insertion cost.
+ * Thanks to the private alternatives, the auction always terminates, also if there are more requests than vehicles.
+ * The resulting assignment is within {@code requestCount * epsilon} of the optimum.
+ * <p>
+ * Requests are processed in their index order, so the result is deterministic.
+ */
+final class AuctionAssignmentSolver {
+	static final int UNASSIGNED = -1;
+
+	private final double epsilon;
+
+	AuctionAssignmentSolver(double epsilon) {
+		Preconditions.checkArgument(epsilon > 0, "epsilon must be positive");
+		this.epsilon = epsilon;
+	}
+
+	/**
+	 * @return for each request, the index of the assigned vehicle or {@link #UNASSIGNED}
+	 */
+	int[] solve(InsertionCostMatrix matrix) {
+		int requestCount = matrix.getRequestCount();
+		double maxBenefit = computeMaxBenefit(matrix);
+
+		double[] prices = new double[matrix.getVehicleCount()];
+		int[] vehicleOwners = new int[matrix.getVehicleCount()];
+		Arrays.fill(vehicleOwners, UNASSIGNED);
+
+		int[] assignment = new int[requestCount];
+		Arrays.fill(assignment, UNASSIGNED);
+
+		// simple FIFO ring buffer of bidding requests; each request is queued at most once at a time
+		int[] queue = new int[requestCount];
+		int head = 0;
+		int queueSize = 0;
+		for (int r = 0; r < requestCount; r++) {
+			if (matrix.getCandidateCount(r) > 0) {
+				queue[queueSize++] = r;
+			}
+		}
+
+		while (queueSize > 0) {
+			int r = queue[head];
+			head = (head + 1) % requestCount;
+			queueSize--;
+
+			// the private "unassigned" alternative has benefit 0 and price 0
+			int bestVehicle = UNASSIGNED;
+			double bestValue = 0;
+			double secondValue = 0;
+			for (int c = 0; c < matrix.getCandidateCount(r); c++) {
+				int v = matrix.getVehicleIndex(r, c);
+				double value = maxBenefit - matrix.getCost(r, c) - prices[v];
+				if (value > bestValue) {
+					secondValue = Math.max(secondValue, bestValue);
+					bestValue = value;
+					bestVehicle = v;
+				} else if (value > secondValue) {
+					secondValue = value;
+				}
+			}
+
+			if (bestVehicle == UNASSIGNED) {
+				continue; // prices never decrease, so this request stays unassigned
+			}
+
+			prices[bestVehicle] += bestValue - secondValue + epsilon;
+			int previousOwner = vehicleOwners[bestVehicle];
+			vehicleOwners[bestVehicle] = r;
+			assignment[r] = bestVehicle;
+
+			if (previousOwner != UNASSIGNED) {
+				assignment[previousOwner] = UNASSIGNED;
+				queue[(head + queueSize) % requestCount] = previousOwner;
+				queueSize++;
+			}
+		}
+
+		return assignment;
+	}
+
+	/**
+	 * Assigning one more request must outweigh any difference in the total cost (and the epsilon-optimality gap), so
+	 * {@code M > maxCost + n * (maxCost - minCost + epsilon)}.
+	 */
+	private double computeMaxBenefit(InsertionCostMatrix matrix) {
+		double minCost = Double.POSITIVE_INFINITY;
+		double maxCost = Double.NEGATIVE_INFINITY;
+		for (int r = 0; r < matrix.getRequestCount(); r++) {
+			int count = matrix.getCandidateCount(r);
+			if (count > 0) {
+				// rows are sorted by cost
+				minCost = Math.min(minCost, matrix.getCost(r, 0));
+				maxCost = Math.max(maxCost, matrix.getCost(r, count - 1));
+			}
+		}
+		if (maxCost == Double.NEGATIVE_INFINITY) {
+			return 0; // no candidates at all
+		}
+		return maxCost + matrix.getRequestCount() * (maxCost - minCost + epsilon) + 1;
+	}
+}
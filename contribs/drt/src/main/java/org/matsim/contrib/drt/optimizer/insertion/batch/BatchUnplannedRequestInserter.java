@@ -0,0 +1,298 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.optimizer.insertion.batch;
+
+import static org.matsim.contrib.drt.optimizer.insertion.DefaultUnplannedRequestInserter.NO_INSERTION_FOUND_CAUSE;
+import static org.matsim.contrib.drt.optimizer.insertion.DefaultUnplannedRequestInserter.OFFER_REJECTED_CAUSE;
+import static org.matsim.contrib.drt.optimizer.insertion.InsertionCostCalculator.INFEASIBLE_SOLUTION_COST;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.contrib.drt.optimizer.DrtRequestInsertionRetryQueue;
+import org.matsim.contrib.drt.optimizer.VehicleEntry;
+import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearch;
+import org.matsim.contrib.drt.optimizer.insertion.InsertionCostCalculator;
+import org.matsim.contrib.drt.optimizer.insertion.InsertionGenerator;
+import org.matsim.contrib.drt.optimizer.insertion.InsertionWithDetourData;
+import org.matsim.contrib.drt.optimizer.insertion.RequestFleetFilter;
+import org.matsim.contrib.drt.optimizer.insertion.UnplannedRequestInserter;
+import org.matsim.contrib.drt.optimizer.insertion.parallel.ConflictResolver;
+import org.matsim.contrib.drt.passenger.DrtOfferAcceptor;
+import org.matsim.contrib.drt.passenger.DrtRequest;
+import org.matsim.contrib.drt.scheduler.RequestInsertionScheduler;
+import org.matsim.contrib.drt.stops.PassengerStopDurationProvider;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.contrib.dvrp.fleet.Fleet;
+import org.matsim.contrib.dvrp.passenger.PassengerRequestRejectedEvent;
+import org.matsim.contrib.dvrp.passenger.PassengerRequestScheduledEvent;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.mobsim.qsim.InternalInterface;
+
+import com.google.inject.Provider;
+
+/**
+ * Batch (rolling-horizon) implementation of {@link UnplannedRequestInserter}.
+ * <p>
+ * Requests are collected over {@code collectionPeriod} seconds and then assigned jointly:
+ * <ol>
+ *   <li>the sparse request-vehicle insertion cost matrix is computed in parallel (one task per request) using the
+ *   {@link InsertionGenerator} with a matrix-based detour time estimator and the {@link InsertionCostCalculator}.
+ *   Unlike in the {@code ParallelUnplannedRequestInserter}, this phase only reads the vehicle entries, so there are no
+ *   conflicts to resolve,</li>
+ *   <li>requests are assigned to vehicles (at most one request per vehicle and round) by the
+ *   {@link AuctionAssignmentSolver},</li>
+ *   <li>for each assigned pair, the exact insertion is computed by the configured {@link DrtInsertionSearch}
+ *   restricted to the assigned vehicle, and the request is scheduled.</li>
+ * </ol>
+ * Requests that lost the auction (or whose estimated insertion turned out infeasible) are re-assigned in the next
+ * round against the updated schedules. Requests left after {@code maxRounds} are inserted greedily one by one, as in
+ * {@link org.matsim.contrib.drt.optimizer.insertion.DefaultUnplannedRequestInserter}.
+ */
+public class BatchUnplannedRequestInserter implements UnplannedRequestInserter {
+	private static final Logger log = LogManager.getLogger(BatchUnplannedRequestInserter.class);
+
+	private final String mode;
+	private final double collectionPeriod;
+	private final int maxRounds;
+	private final int maxCandidateVehicles;
+	private final Fleet fleet;
+	private final EventsManager eventsManager;
+	private final RequestInsertionScheduler insertionScheduler;
+	private final VehicleEntry.EntryFactory vehicleEntryFactory;
+	private final DrtInsertionSearch insertionSearch;
+	private final InsertionGenerator insertionGenerator;
+	private final InsertionCostCalculator insertionCostCalculator;
+	private final AuctionAssignmentSolver assignmentSolver;
+	private final DrtRequestInsertionRetryQueue insertionRetryQueue;
+	private final DrtOfferAcceptor drtOfferAcceptor;
+	private final ForkJoinPool forkJoinPool;
+	private final PassengerStopDurationProvider stopDurationProvider;
+	private final RequestFleetFilter requestFleetFilter;
+
+	private final List<DrtRequest> collectedRequests = new ArrayList<>();
+	private double lastProcessingTime = Double.NaN; // NaN until the first sim step
+
+	public BatchUnplannedRequestInserter(DrtBatchInserterParams params, String mode, Fleet fleet,
+			EventsManager eventsManager, Provider<RequestInsertionScheduler> insertionScheduler,
+			VehicleEntry.EntryFactory vehicleEntryFactory, Provider<DrtInsertionSearch> insertionSearch,
+			InsertionGenerator insertionGenerator, InsertionCostCalculator insertionCostCalculator,
+			DrtRequestInsertionRetryQueue insertionRetryQueue, DrtOfferAcceptor drtOfferAcceptor,
+			ForkJoinPool forkJoinPool, PassengerStopDurationProvider stopDurationProvider,
+			RequestFleetFilter requestFleetFilter) {
+		this.mode = mode;
+		this.collectionPeriod = params.getCollectionPeriod();
+		this.maxRounds = params.getMaxRounds();
+		this.maxCandidateVehicles = params.getMaxCandidateVehicles();
+		this.fleet = fleet;
+		this.eventsManager = eventsManager;
+		this.insertionScheduler = insertionScheduler.get();
+		this.vehicleEntryFactory = vehicleEntryFactory;
+		this.insertionSearch = insertionSearch.get();
+		this.insertionGenerator = insertionGenerator;
+		this.insertionCostCalculator = insertionCostCalculator;
+		this.assignmentSolver = new AuctionAssignmentSolver(params.getAuctionEpsilon());
+		this.insertionRetryQueue = insertionRetryQueue;
+		this.drtOfferAcceptor = drtOfferAcceptor;
+		this.forkJoinPool = forkJoinPool;
+		this.stopDurationProvider = stopDurationProvider;
+		this.requestFleetFilter = requestFleetFilter;
+	}
+
+	@Override
+	public void scheduleUnplannedRequests(Collection<DrtRequest> unplannedRequests) {
+		collectedRequests.addAll(unplannedRequests);
+		unplannedRequests.clear();
+	}
+
+	@Override
+	public void doSimStep(double time) {
+		if (Double.isNaN(lastProcessingTime)) {
+			lastProcessingTime = time;
+		}
+		if (time - lastProcessingTime < collectionPeriod) {
+			return;
+		}
+		lastProcessingTime = time;
+
+		List<DrtRequest> requests = new ArrayList<>(insertionRetryQueue.getRequestsToRetryNow(time));
+		requests.addAll(collectedRequests);
+		collectedRequests.clear();
+		if (requests.isEmpty()) {
+			return;
+		}
+		requests.sort(ConflictResolver.DRT_REQUEST_COMPARATOR);
+
+		Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries = forkJoinPool.submit(() -> fleet.getVehicles()
+				.values()
+				.parallelStream()
+				.map(v -> vehicleEntryFactory.create(v, time))
+				.filter(Objects::nonNull)
+				.collect(Collectors.toMap(e -> e.vehicle.getId(), e -> e, (e1, e2) -> e1, TreeMap::new))).join();
+
+		List<DrtRequest> remaining = requests;
+		for (int round = 0; round < maxRounds && !remaining.isEmpty(); round++) {
+			remaining = runAssignmentRound(remaining, vehicleEntries, time);
+		}
+
+		// fall back to greedy insertion for requests that could not be assigned jointly
+		remaining.forEach(req -> scheduleGreedily(req, vehicleEntries, time));
+	}
+
+	private List<DrtRequest> runAssignmentRound(List<DrtRequest> requests,
+			Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries, double now) {
+		VehicleEntry[] entries = vehicleEntries.values().toArray(new VehicleEntry[0]);
+		Map<Id<DvrpVehicle>, Integer> vehicleIndices = new HashMap<>();
+		for (int i = 0; i < entries.length; i++) {
+			vehicleIndices.put(entries[i].vehicle.getId(), i);
+		}
+
+		InsertionCostMatrix costMatrix = computeCostMatrix(requests, vehicleEntries, vehicleIndices, entries.length,
+				now);
+		int[] assignment = assignmentSolver.solve(costMatrix);
+
+		List<DrtRequest> notAssigned = new ArrayList<>();
+		int scheduled = 0;
+		for (int r = 0; r < requests.size(); r++) {
+			DrtRequest req = requests.get(r);
+			if (costMatrix.getCandidateCount(r) == 0) {
+				// schedules only get more constrained, so there is no point in retrying in this batch
+				retryOrReject(req, now, NO_INSERTION_FOUND_CAUSE);
+			} else if (assignment[r] == AuctionAssignmentSolver.UNASSIGNED) {
+				notAssigned.add(req);
+			} else {
+				VehicleEntry entry = entries[assignment[r]];
+				Optional<InsertionWithDetourData> insertion = insertionSearch.findBestInsertion(req, List.of(entry));
+				if (insertion.isEmpty()) {
+					notAssigned.add(req);
+				} else {
+					schedule(req, insertion.get(), vehicleEntries, now);
+					scheduled++;
+				}
+			}
+		}
+
+		log.debug("Batch assignment round: {} requests, {} scheduled, {} left", requests.size(), scheduled,
+				notAssigned.size());
+		return notAssigned;
+	}
+
+	private InsertionCostMatrix computeCostMatrix(List<DrtRequest> requests,
+			Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries, Map<Id<DvrpVehicle>, Integer> vehicleIndices,
+			int vehicleCount, double now) {
+		InsertionCostMatrix costMatrix = new InsertionCostMatrix(requests.size(), vehicleCount);
+		ThreadLocal<InsertionCostMatrix.RowBuilder> rowBuilders = ThreadLocal.withInitial(
+				() -> new InsertionCostMatrix.RowBuilder(maxCandidateVehicles));
+
+		forkJoinPool.submit(() -> IntStream.range(0, requests.size()).parallel().forEach(r -> {
+			DrtRequest req = requests.get(r);
+			InsertionCostMatrix.RowBuilder row = rowBuilders.get();
+			row.clear();
+			for (VehicleEntry entry : requestFleetFilter.filter(req, vehicleEntries, now)) {
+				double cost = computeMinInsertionCost(req, entry);
+				if (cost < INFEASIBLE_SOLUTION_COST) {
+					row.add(vehicleIndices.get(entry.vehicle.getId()), cost);
+				}
+			}
+			costMatrix.setRow(r, row);
+		})).join();
+
+		return costMatrix;
+	}
+
+	private double computeMinInsertionCost(DrtRequest req, VehicleEntry entry) {
+		double minCost = INFEASIBLE_SOLUTION_COST;
+		for (InsertionWithDetourData insertion : insertionGenerator.generateInsertions(req, entry)) {
+			minCost = Math.min(minCost,
+					insertionCostCalculator.calculate(req, insertion.insertion, insertion.detourTimeInfo));
+		}
+		return minCost;
+	}
+
+	private void scheduleGreedily(DrtRequest req, Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries, double now) {
+		Collection<VehicleEntry> filteredFleet = requestFleetFilter.filter(req, vehicleEntries, now);
+		Optional<InsertionWithDetourData> best = insertionSearch.findBestInsertion(req,
+				Collections.unmodifiableCollection(filteredFleet));
+		if (best.isEmpty()) {
+			retryOrReject(req, now, NO_INSERTION_FOUND_CAUSE);
+		} else {
+			schedule(req, best.get(), vehicleEntries, now);
+		}
+	}
+
+	private void schedule(DrtRequest req, InsertionWithDetourData insertion,
+			Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries, double now) {
+		var vehicle = insertion.insertion.vehicleEntry.vehicle;
+
+		double pickupDuration = stopDurationProvider.calcPickupDuration(vehicle, req);
+		double dropoffDuration = stopDurationProvider.calcDropoffDuration(vehicle, req);
+
+		var acceptedRequest = drtOfferAcceptor.acceptDrtOffer(req,
+				insertion.detourTimeInfo.pickupDetourInfo.requestPickupTime,
+				insertion.detourTimeInfo.dropoffDetourInfo.requestDropoffTime,
+				pickupDuration, dropoffDuration);
+
+		if (acceptedRequest.isEmpty()) {
+			retryOrReject(req, now, OFFER_REJECTED_CAUSE);
+			return;
+		}
+
+		var pickupDropoffTaskPair = insertionScheduler.scheduleRequest(acceptedRequest.get(), insertion);
+
+		double expectedPickupTime = pickupDropoffTaskPair.pickupTask.getBeginTime();
+		expectedPickupTime = Math.max(expectedPickupTime, acceptedRequest.get().getEarliestStartTime());
+		expectedPickupTime += pickupDuration;
+		expectedPickupTime = Math.min(expectedPickupTime, pickupDropoffTaskPair.pickupTask.getEndTime());
+
+		double expectedDropoffTime = pickupDropoffTaskPair.dropoffTask.getBeginTime();
+		expectedDropoffTime += dropoffDuration;
+
+		VehicleEntry newVehicleEntry = vehicleEntryFactory.create(vehicle, now);
+		if (newVehicleEntry != null) {
+			vehicleEntries.put(vehicle.getId(), newVehicleEntry);
+		} else {
+			vehicleEntries.remove(vehicle.getId());
+		}
+
+		eventsManager.processEvent(
+				new PassengerRequestScheduledEvent(now, mode, req.getId(), req.getPassengerIds(), vehicle.getId(),
+						expectedPickupTime, expectedDropoffTime));
+	}
+
+	private void retryOrReject(DrtRequest req, double now, String cause) {
+		if (!insertionRetryQueue.tryAddFailedRequest(req, now)) {
+			eventsManager.processEvent(
+					new PassengerRequestRejectedEvent(now, mode, req.getId(), req.getPassengerIds(), cause));
+			log.debug("No insertion found for drt request {} with passenger ids={} fromLinkId={}", req,
+					req.getPassengerIds().stream().map(Object::toString).collect(Collectors.joining(",")),
+					req.getFromLink().getId());
+		}
+	}
+
+	@Override
+	public void setInternalInterface(InternalInterface internalInterface) {
+		// requests are handed over by the optimizer and results are reported as events, so the QSim is not accessed
+	}
+}
@@ -0,0 +1,110 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.optimizer.insertion.batch;
+
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.matsim.core.config.ReflectiveConfigGroup;
+
+/**
+ * Parameters of the {@link BatchUnplannedRequestInserter}.
+ */
+public class DrtBatchInserterParams extends ReflectiveConfigGroup {
+	public static final String SET_NAME = "batchInserter";
+
+	@Comment("Time window (in seconds) for collecting incoming requests before they are assigned jointly.")
+	@PositiveOrZero
+	private double collectionPeriod = 15.0;
+
+	@Comment("Maximum number of assignment rounds per batch. Requests that lost the auction for their preferred vehicle"
+		+ " (or whose estimated insertion turned out to be infeasible) are re-assigned in the next round"
+		+ " against the updated schedules. Requests still unassigned after the last round are inserted greedily.")
+	@Positive
+	private int maxRounds = 3;
+
+	@Comment("Number of cheapest vehicles kept per request in the insertion cost matrix."
+		+ " Smaller values reduce the assignment effort, larger values improve the assignment quality.")
+	@Positive
+	private int maxCandidateVehicles = 30;
+
+	@Comment("Speed factor applied to the travel time matrix when estimating detour times for the cost matrix."
+		+ " The exact insertion is computed with the configured insertion search once a vehicle is assigned.")
+	@Positive
+	private double detourTimeEstimatorSpeedFactor = 1.0;
+
+	@Comment("Minimum bid increment of the auction algorithm (in units of the insertion cost)."
+		+ " The resulting assignment is within (number of requests * auctionEpsilon) of the optimum.")
+	@Positive
+	private double auctionEpsilon = 1.0;
+
+	public DrtBatchInserterParams() {
+		super(SET_NAME);
+	}
+
+	@StringGetter("collectionPeriod")
+	public double getCollectionPeriod() {
+		return collectionPeriod;
+	}
+
+	@StringSetter("collectionPeriod")
+	public void setCollectionPeriod(double collectionPeriod) {
+		this.collectionPeriod = collectionPeriod;
+	}
+
+	@StringGetter("maxRounds")
+	public int getMaxRounds() {
+		return maxRounds;
+	}
+
+	@StringSetter("maxRounds")
+	public void setMaxRounds(int maxRounds) {
+		this.maxRounds = maxRounds;
+	}
+
+	@StringGetter("maxCandidateVehicles")
+	public int getMaxCandidateVehicles() {
+		return maxCandidateVehicles;
+	}
+
+	@StringSetter("maxCandidateVehicles")
+	public void setMaxCandidateVehicles(int maxCandidateVehicles) {
+		this.maxCandidateVehicles = maxCandidateVehicles;
+	}
+
+	@StringGetter("detourTimeEstimatorSpeedFactor")
+	public double getDetourTimeEstimatorSpeedFactor() {
+		return detourTimeEstimatorSpeedFactor;
+	}
+
+	@StringSetter("detourTimeEstimatorSpeedFactor")
+	public void setDetourTimeEstimatorSpeedFactor(double detourTimeEstimatorSpeedFactor) {
+		this.detourTimeEstimatorSpeedFactor = detourTimeEstimatorSpeedFactor;
+	}
+
+	@StringGetter("auctionEpsilon")
+	public double getAuctionEpsilon() {
+		return auctionEpsilon;
+	}
+
+	@StringSetter("auctionEpsilon")
+	public void setAuctionEpsilon(double auctionEpsilon) {
+		this.auctionEpsilon = auctionEpsilon;
+	}
+}
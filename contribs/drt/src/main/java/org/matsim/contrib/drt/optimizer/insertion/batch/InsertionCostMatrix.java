@@ -0,0 +1,110 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.optimizer.insertion.batch;
+
+import java.util.Arrays;
+
+/**
+ * Sparse request-vehicle insertion cost matrix. Row {@code r} holds the (at most {@code maxCandidates}) cheapest
+ * feasible vehicles for request {@code r}, sorted by increasing cost. Vehicles are referred to by their index in the
+ * batch (see {@link BatchUnplannedRequestInserter}).
+ * <p>
+ * Rows can be filled concurrently as long as each row is written by a single thread.
+ */
+final class InsertionCostMatrix {
+	private static final int[] NO_VEHICLES = new int[0];
+	private static final double[] NO_COSTS = new double[0];
+
+	private final int vehicleCount;
+	private final int[][] vehicleIndices;
+	private final double[][] costs;
+
+	InsertionCostMatrix(int requestCount, int vehicleCount) {
+		this.vehicleCount = vehicleCount;
+		this.vehicleIndices = new int[requestCount][];
+		this.costs = new double[requestCount][];
+		Arrays.fill(vehicleIndices, NO_VEHICLES);
+		Arrays.fill(costs, NO_COSTS);
+	}
+
+	int getRequestCount() {
+		return vehicleIndices.length;
+	}
+
+	int getVehicleCount() {
+		return vehicleCount;
+	}
+
+	int getCandidateCount(int request) {
+		return vehicleIndices[request].length;
+	}
+
+	int getVehicleIndex(int request, int candidate) {
+		return vehicleIndices[request][candidate];
+	}
+
+	double getCost(int request, int candidate) {
+		return costs[request][candidate];
+	}
+
+	void setRow(int request, RowBuilder row) {
+		vehicleIndices[request] = Arrays.copyOf(row.vehicleIndices, row.size);
+		costs[request] = Arrays.copyOf(row.costs, row.size);
+	}
+
+	/**
+	 * Collects the {@code maxCandidates} cheapest vehicles of a single request. Meant to be reused (one instance per
+	 * thread) across rows.
+	 */
+	static final class RowBuilder {
+		private final int[] vehicleIndices;
+		private final double[] costs;
+		private int size;
+
+		RowBuilder(int maxCandidates) {
+			vehicleIndices = new int[maxCandidates];
+			costs = new double[maxCandidates];
+		}
+
+		void clear() {
+			size = 0;
+		}
+
+		void add(int vehicleIndex, double cost) {
+			int capacity = costs.length;
+			if (size == capacity && cost >= costs[capacity - 1]) {
+				return;
+			}
+
+			// insertion sort into the bounded list (the last element falls out if full)
+			int pos = Math.min(size, capacity - 1);
+			while (pos > 0 && costs[pos - 1] > cost) {
+				costs[pos] = costs[pos - 1];
+				vehicleIndices[pos] = vehicleIndices[pos - 1];
+				pos--;
+			}
+			costs[pos] = cost;
+			vehicleIndices[pos] = vehicleIndex;
+			if (size < capacity) {
+				size++;
+			}
+		}
+	}
+}
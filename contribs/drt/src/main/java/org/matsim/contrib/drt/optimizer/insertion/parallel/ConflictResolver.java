@@ -19,10 +19,8 @@
 
 package org.matsim.contrib.drt.optimizer.insertion.parallel;
 
-import org.matsim.api.core.v01.Id;
 import org.matsim.contrib.drt.optimizer.insertion.parallel.partitioner.RequestData;
 import org.matsim.contrib.drt.passenger.DrtRequest;
-import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
 
 import java.util.*;
 
@@ -68,74 +66,31 @@ public class ConflictResolver {
 	}
 
 	/**
-	 * Internal result of the resolve step, separating conflicting from non-conflicting requests.
-	 *
-	 * @param noConflicts Requests without conflicts (best solution per vehicle)
-	 * @param conflicts   Requests that conflict with a better solution for the same vehicle
-	 */
-	public record ResolvedConflicts(List<RequestData> noConflicts, List<RequestData> conflicts) {
-	}
-
-	/**
-	 * Consolidates solutions and no-solutions into a final result.
+	 * Consolidates the insertions committed to the fleet snapshot, the conflicts and the no-solutions into a
+	 * final result.
 	 * <p>
-	 * This method resolves conflicts among the solutions (multiple requests assigned
-	 * to the same vehicle) and combines them with requests that had no solution.
+	 * The snapshot already holds the best insertion per vehicle (see {@link FleetSnapshot#tryCommit(RequestData)}),
+	 * so all requests that lost a commit are conflicts.
 	 *
-	 * @param solutions   Map from vehicle ID to sorted set of request data (sorted by time loss)
-	 * @param noSolutions Set of requests for which no insertion was found
+	 * @param fleetSnapshot snapshot holding the best committed insertion per vehicle
+	 * @param conflicts     requests that lost against a better insertion for the same vehicle
+	 * @param noSolutions   Set of requests for which no insertion was found
 	 * @return ConsolidationResult containing requests to schedule and to reject
 	 */
-	public ConsolidationResult consolidate(
-		Map<Id<DvrpVehicle>, SortedSet<RequestData>> solutions,
-		SortedSet<DrtRequest> noSolutions) {
-
+	public ConsolidationResult consolidate(FleetSnapshot fleetSnapshot, Collection<RequestData> conflicts,
+										   SortedSet<DrtRequest> noSolutions) {
 		Set<DrtRequest> allRejection = new TreeSet<>(DRT_REQUEST_COMPARATOR);
 		allRejection.addAll(noSolutions);
 
-		ResolvedConflicts resolvedConflicts = resolve(solutions);
+		List<RequestData> noConflicts = fleetSnapshot.getCommits();
 
-		this.nConflicting += resolvedConflicts.conflicts.size();
-		this.nNonConflicting += resolvedConflicts.noConflicts.size();
+		this.nConflicting += conflicts.size();
+		this.nNonConflicting += noConflicts.size();
 
 		// Remaining conflicts, add up into allRejection
-		allRejection.addAll(
-			resolvedConflicts.conflicts.stream()
-				.map(RequestData::getDrtRequest)
-				.toList()
-		);
-
-		return new ConsolidationResult(resolvedConflicts.noConflicts, allRejection,
-			resolvedConflicts.conflicts.size(), noSolutions.size());
-	}
-
-	/**
-	 * Resolves conflicts by selecting the best insertion per vehicle.
-	 * <p>
-	 * For each vehicle, the SortedSet is ordered by time loss (lowest first).
-	 * The first element is the best solution and is added to noConflicts.
-	 * All remaining elements are conflicts.
-	 *
-	 * @param data Map from vehicle ID to sorted set of request data
-	 * @return ResolvedConflicts separating best solutions from conflicts
-	 */
-	ResolvedConflicts resolve(Map<Id<DvrpVehicle>, SortedSet<RequestData>> data) {
-		List<RequestData> noConflicts = new ArrayList<>();
-		List<RequestData> conflicts = new ArrayList<>();
-
-		for (var requestDataList : data.values()) {
-			if (requestDataList.isEmpty()) continue;
-
-			var iterator = requestDataList.iterator();
-			var bestSolution = iterator.next();
-			noConflicts.add(bestSolution);
-
-			while (iterator.hasNext()) {
-				conflicts.add(iterator.next());
-			}
-		}
+		conflicts.forEach(rd -> allRejection.add(rd.getDrtRequest()));
 
-		return new ResolvedConflicts(noConflicts, conflicts);
+		return new ConsolidationResult(noConflicts, allRejection, conflicts.size(), noSolutions.size());
 	}
 
 	/**
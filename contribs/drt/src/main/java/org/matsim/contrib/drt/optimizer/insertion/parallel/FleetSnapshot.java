@@ -0,0 +1,214 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.optimizer.insertion.parallel;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.contrib.drt.optimizer.VehicleEntry;
+import org.matsim.contrib.drt.optimizer.insertion.parallel.partitioner.RequestData;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.matsim.contrib.drt.optimizer.insertion.selective.RequestDataComparators.REQUEST_DATA_COMPARATOR;
+
+/**
+ * Read-mostly snapshot of the fleet used by the parallel inserter.
+ * <p>
+ * Vehicle entries are stored in an array indexed by vehicle (ordered by vehicle id). Workers read the
+ * snapshot through {@link #asMap()} without copying, and commit their best insertion with
+ * {@link #tryCommit(RequestData)}: a lock-free compare-and-set on the vehicle's slot which keeps the best
+ * insertion per vehicle (ordered by {@code REQUEST_DATA_COMPARATOR}). Since the reduction uses a total order,
+ * the set of winners does not depend on thread scheduling.
+ * <p>
+ * Between insertion rounds, only the entries of vehicles whose schedules changed are replaced
+ * ({@link #update(Map)}). Entries are immutable, so the entry instance acts as the version of the vehicle:
+ * commits computed against an entry that has been replaced since are treated as conflicts.
+ * <p>
+ * The snapshot is not thread-safe for {@link #update(Map)} and {@link #clearCommits()}; these must only be
+ * called between rounds, when no worker is active.
+ */
+public final class FleetSnapshot {
+	private final List<Id<DvrpVehicle>> vehicleIds;
+	private final Map<Id<DvrpVehicle>, Integer> indexById;
+	private final VehicleEntry[] entries;
+	private final AtomicReferenceArray<RequestData> commits;
+	private final Map<Id<DvrpVehicle>, VehicleEntry> view = new SnapshotView();
+	private int size;
+
+	/**
+	 * @param vehicleIds all vehicles that may ever appear in this snapshot
+	 */
+	public FleetSnapshot(Collection<Id<DvrpVehicle>> vehicleIds) {
+		this.vehicleIds = vehicleIds.stream().sorted(Comparator.comparing(Id::toString)).toList();
+		this.indexById = new HashMap<>((int)(this.vehicleIds.size() / 0.75) + 1);
+		for (int i = 0; i < this.vehicleIds.size(); i++) {
+			indexById.put(this.vehicleIds.get(i), i);
+		}
+		this.entries = new VehicleEntry[this.vehicleIds.size()];
+		this.commits = new AtomicReferenceArray<>(this.vehicleIds.size());
+	}
+
+	/**
+	 * Replaces all entries. Vehicles without an entry (e.g. not in service) are removed from the snapshot.
+	 */
+	public void reset(Map<Id<DvrpVehicle>, VehicleEntry> newEntries) {
+		Arrays.fill(entries, null);
+		size = 0;
+		update(newEntries);
+	}
+
+	/**
+	 * Replaces the entries of the given vehicles. A {@code null} entry removes
+	 * the vehicle from the snapshot.
+	 */
+	public void update(Map<Id<DvrpVehicle>, VehicleEntry> changedEntries) {
+		changedEntries.forEach((id, entry) -> {
+			int idx = indexOf(id);
+			if (entries[idx] != null) {
+				size--;
+			}
+			if (entry != null) {
+				size++;
+			}
+			entries[idx] = entry;
+		});
+	}
+
+	/**
+	 * @return unmodifiable, non-copying map view on the current entries
+	 */
+	public Map<Id<DvrpVehicle>, VehicleEntry> asMap() {
+		return view;
+	}
+
+	/**
+	 * Tries to commit the insertion found for the given request. The commit succeeds if the insertion was
+	 * computed against the current entry of the vehicle and if it is better than the insertion committed so
+	 * far for this vehicle.
+	 *
+	 * @return the request that lost, i.e. either {@code requestData} itself, the request it displaced, or
+	 * {@code null} if the vehicle was not claimed before
+	 */
+	public RequestData tryCommit(RequestData requestData) {
+		VehicleEntry usedEntry = requestData.getSolution().insertion().orElseThrow().insertion.vehicleEntry;
+		int idx = indexOf(usedEntry.vehicle.getId());
+		if (entries[idx] != usedEntry) {
+			return requestData; // stale entry
+		}
+
+		while (true) {
+			RequestData current = commits.get(idx);
+			if (current != null && REQUEST_DATA_COMPARATOR.compare(current, requestData) <= 0) {
+				return requestData;
+			}
+			if (commits.compareAndSet(idx, current, requestData)) {
+				return current;
+			}
+		}
+	}
+
+	/**
+	 * @return the committed insertions, ordered by vehicle id
+	 */
+	public List<RequestData> getCommits() {
+		List<RequestData> result = new ArrayList<>();
+		for (int i = 0; i < commits.length(); i++) {
+			RequestData rd = commits.get(i);
+			if (rd != null) {
+				result.add(rd);
+			}
+		}
+		return result;
+	}
+
+	public void clearCommits() {
+		for (int i = 0; i < commits.length(); i++) {
+			commits.lazySet(i, null);
+		}
+	}
+
+	private int indexOf(Id<DvrpVehicle> vehicleId) {
+		Integer idx = indexById.get(vehicleId);
+		if (idx == null) {
+			throw new IllegalArgumentException("Vehicle " + vehicleId + " is not part of the fleet snapshot");
+		}
+		return idx;
+	}
+
+	private final class SnapshotView extends AbstractMap<Id<DvrpVehicle>, VehicleEntry> {
+		private final Set<Entry<Id<DvrpVehicle>, VehicleEntry>> entrySet = new AbstractSet<>() {
+			@Override
+			public Iterator<Entry<Id<DvrpVehicle>, VehicleEntry>> iterator() {
+				return new Iterator<>() {
+					private int next = advance(0);
+
+					private int advance(int from) {
+						while (from < entries.length && entries[from] == null) {
+							from++;
+						}
+						return from;
+					}
+
+					@Override
+					public boolean hasNext() {
+						return next < entries.length;
+					}
+
+					@Override
+					public Entry<Id<DvrpVehicle>, VehicleEntry> next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						var entry = Map.entry(vehicleIds.get(next), entries[next]);
+						next = advance(next + 1);
+						return entry;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+
+		@Override
+		public Set<Entry<Id<DvrpVehicle>, VehicleEntry>> entrySet() {
+			return entrySet;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public VehicleEntry get(Object key) {
+			Integer idx = indexById.get(key);
+			return idx == null ? null : entries[idx];
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+	}
+}
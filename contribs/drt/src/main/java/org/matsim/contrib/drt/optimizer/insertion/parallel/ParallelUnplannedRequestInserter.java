@@ -24,7 +24,6 @@ import com.google.inject.Provider;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.Id;
-import org.matsim.api.core.v01.Identifiable;
 import org.matsim.contrib.drt.optimizer.DrtRequestInsertionRetryQueue;
 import org.matsim.contrib.drt.optimizer.VehicleEntry;
 import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearch;
@@ -94,7 +93,8 @@ public class ParallelUnplannedRequestInserter implements UnplannedRequestInserte
 	private final List<RequestInsertWorker> workers;
 	private final ForkJoinPool inserterExecutorService;
 	private final int maxIter;
-	private final Map<Id<DvrpVehicle>, SortedSet<RequestData>> solutions = new ConcurrentHashMap<>();
+	private final FleetSnapshot fleetSnapshot;
+	private final Queue<RequestData> conflicts = new ConcurrentLinkedQueue<>();
 	private final SortedSet<DrtRequest> noSolutions = new ConcurrentSkipListSet<>(ConflictResolver.DRT_REQUEST_COMPARATOR);
 	private final Queue<DrtRequest> tmpQueue = new ConcurrentLinkedQueue<>();
 	private final PartitionStrategy partitionStrategy;
@@ -127,6 +127,7 @@ public class ParallelUnplannedRequestInserter implements UnplannedRequestInserte
 		this.drtOfferAcceptor = drtOfferAcceptor;
 		this.stopDurationProvider = stopDurationProvider;
 		this.requestFleetFilter = requestFleetFilter;
+		this.fleetSnapshot = new FleetSnapshot(fleet.getVehicles().keySet());
 		this.inserterExecutorService = new ForkJoinPool(drtParallelInserterParams.getMaxPartitions());
 		this.workers = createWorkers(drtParallelInserterParams.getMaxPartitions());
 		this.maxIter = drtParallelInserterParams.getMaxIterations();
@@ -145,7 +146,7 @@ public class ParallelUnplannedRequestInserter implements UnplannedRequestInserte
 	private List<RequestInsertWorker> createWorkers(int n) {
 		List<RequestInsertWorker> workerList = new ArrayList<>();
 		for (int i = 0; i < n; i++) {
-			workerList.add(new RequestInsertWorker(requestFleetFilter, insertionSearch.get(), solutions, noSolutions));
+			workerList.add(new RequestInsertWorker(requestFleetFilter, insertionSearch.get(), fleetSnapshot, conflicts, noSolutions));
 		}
 		return workerList;
 	}
@@ -184,29 +185,15 @@ public class ParallelUnplannedRequestInserter implements UnplannedRequestInserte
 		tasks.forEach(ForkJoinTask::join);
 	}
 
-	private Map<Id<DvrpVehicle>, VehicleEntry> updateVehicleEntries(
-		double now,
-		Map<Id<DvrpVehicle>, VehicleEntry> currentVehicleEntries,
-		Set<DvrpVehicle> toBeUpdated) {
-
-		Set<Id<DvrpVehicle>> toBeDeleted = toBeUpdated.stream()
-			.map(Identifiable::getId)
-			.collect(Collectors.toSet());
-
-		Map<Id<DvrpVehicle>, VehicleEntry> newlyCreated = calculateVehicleEntries(now, toBeUpdated);
-
-
-		Map<Id<DvrpVehicle>, VehicleEntry> updated = new HashMap<>();
-
-		currentVehicleEntries.forEach((id, entry) -> {
-			if (!toBeDeleted.contains(id)) {
-				updated.put(id, entry);
-			}
-		});
-
-		updated.putAll(newlyCreated);
-
-		return Collections.unmodifiableMap(updated);
+	/**
+	 * Recomputes the entries of the vehicles that received new requests; all other entries in the snapshot are
+	 * kept as they are (no copying).
+	 */
+	private void updateVehicleEntries(double now, Set<DvrpVehicle> toBeUpdated) {
+		Map<Id<DvrpVehicle>, VehicleEntry> changed = new HashMap<>();
+		toBeUpdated.forEach(v -> changed.put(v.getId(), null));
+		changed.putAll(calculateVehicleEntries(now, toBeUpdated));
+		fleetSnapshot.update(changed);
 	}
 
 
@@ -229,7 +216,7 @@ public class ParallelUnplannedRequestInserter implements UnplannedRequestInserte
 	}
 
 	ConflictResolver.ConsolidationResult consolidate() {
-		return conflictResolver.consolidate(this.solutions, this.noSolutions);
+		return conflictResolver.consolidate(this.fleetSnapshot, this.conflicts, this.noSolutions);
 	}
 
 	Optional<DvrpVehicle> schedule(RequestData requestData, double now) {
@@ -316,15 +303,15 @@ public class ParallelUnplannedRequestInserter implements UnplannedRequestInserte
 			cycleBuilder.startVehicleEntryCalc();
 		}
 
-		Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries = calculateVehicleEntries(time, this.fleet.getVehicles().values());
+		fleetSnapshot.reset(calculateVehicleEntries(time, this.fleet.getVehicles().values()));
 
 		if (cycleBuilder != null) {
 			cycleBuilder.endVehicleEntryCalc()
 				.totalRequests(totalRequests)
-				.totalVehicles(vehicleEntries.size());
+				.totalVehicles(fleetSnapshot.asMap().size());
 		}
 
-		InsertionRoundResult result = runInsertionRounds(time, vehicleEntries, cycleBuilder);
+		InsertionRoundResult result = runInsertionRounds(time, cycleBuilder);
 
 		result.rejected().forEach(req -> retryOrReject(req, time, NO_INSERTION_FOUND_CAUSE));
 		LOG.debug("Scheduled requests #{} ", result.scheduledCount());
@@ -346,8 +333,7 @@ public class ParallelUnplannedRequestInserter implements UnplannedRequestInserte
 	record InsertionRoundResult(int scheduledCount, SortedSet<DrtRequest> rejected) {
 	}
 
-	private InsertionRoundResult runInsertionRounds(double time, Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries,
-													PerformanceLogger.CycleRecordBuilder cycleBuilder) {
+	private InsertionRoundResult runInsertionRounds(double time, PerformanceLogger.CycleRecordBuilder cycleBuilder) {
 		SortedSet<DrtRequest> finalRejections = new TreeSet<>(ConflictResolver.DRT_REQUEST_COMPARATOR);
 		Integer lastUnsolvedConflicts = null;
 		int scheduled = 0;
@@ -361,7 +347,7 @@ public class ParallelUnplannedRequestInserter implements UnplannedRequestInserte
 			if (iterBuilder != null) {
 				iterBuilder.startSolve();
 			}
-			solve(time, vehicleEntries);
+			solve(time, fleetSnapshot.asMap());
 			if (iterBuilder != null) {
 				iterBuilder.endSolve();
 
@@ -410,7 +396,8 @@ public class ParallelUnplannedRequestInserter implements UnplannedRequestInserte
 				iterBuilder.endScheduling();
 			}
 
-			this.solutions.clear();
+			this.fleetSnapshot.clearCommits();
+			this.conflicts.clear();
 			scheduled += toBeScheduled.size();
 
 			// Collect rejections for this iteration
@@ -434,7 +421,7 @@ public class ParallelUnplannedRequestInserter implements UnplannedRequestInserte
 			}
 
 			// Prepare next iteration - put rejections back into queue for retry
-			vehicleEntries = updateVehicleEntries(time, vehicleEntries, scheduledVehicles);
+			updateVehicleEntries(time, scheduledVehicles);
 			lastUnsolvedConflicts = iterationRejections.size();
 			this.scheduleUnplannedRequests(iterationRejections);
 		}
@@ -30,9 +30,6 @@ import org.matsim.contrib.drt.passenger.DrtRequest;
 import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentSkipListSet;
-
-import static org.matsim.contrib.drt.optimizer.insertion.selective.RequestDataComparators.REQUEST_DATA_COMPARATOR;
 
 /**
  * @author steffenaxer
@@ -41,7 +38,8 @@ public class RequestInsertWorker {
 	private final RequestFleetFilter requestFleetFilter;
 	private final DrtInsertionSearch insertionSearch;
 	private final Queue<RequestData> unplannedRequests = new ArrayDeque<>();
-	private final Map<Id<DvrpVehicle>, SortedSet<RequestData>> solutions;
+	private final FleetSnapshot fleetSnapshot;
+	private final Queue<RequestData> conflicts;
 	private final SortedSet<DrtRequest> noSolutions;
 
 	// Performance tracking
@@ -52,19 +50,15 @@ public class RequestInsertWorker {
 	public RequestInsertWorker(
 		RequestFleetFilter requestFleetFilter,
 		DrtInsertionSearch insertionSearch,
-		Map<Id<DvrpVehicle>, SortedSet<RequestData>> solutions, SortedSet<DrtRequest> noSolutions) {
+		FleetSnapshot fleetSnapshot, Queue<RequestData> conflicts, SortedSet<DrtRequest> noSolutions) {
 		this.requestFleetFilter = requestFleetFilter;
 		this.insertionSearch = insertionSearch;
-		this.solutions = solutions;
+		this.fleetSnapshot = fleetSnapshot;
+		this.conflicts = conflicts;
 		this.noSolutions = noSolutions;
 	}
 
 
-	private static SortedSet<RequestData> createTreeSet()
-	{
-		return new ConcurrentSkipListSet<>(REQUEST_DATA_COMPARATOR);
-	}
-
 	private void findInsertion(RequestData requestData, Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries, double now) {
 		DrtRequest req = requestData.getDrtRequest();
 		Collection<VehicleEntry> filteredFleet = requestFleetFilter.filter(req, vehicleEntries, now);
@@ -73,9 +67,11 @@ public class RequestInsertWorker {
 		if (best.isEmpty()) {
 			this.noSolutions.add(requestData.getDrtRequest());
 		} else {
-			InsertionWithDetourData insertion = best.get();
 			requestData.setSolution(new RequestData.InsertionRecord(best));
-			this.solutions.computeIfAbsent(insertion.insertion.vehicleEntry.vehicle.getId(), _ -> createTreeSet()).add(requestData);
+			RequestData loser = this.fleetSnapshot.tryCommit(requestData);
+			if (loser != null) {
+				this.conflicts.add(loser);
+			}
 		}
 	}
 
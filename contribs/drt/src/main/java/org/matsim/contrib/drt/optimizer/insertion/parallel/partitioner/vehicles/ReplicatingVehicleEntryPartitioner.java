@@ -47,11 +47,7 @@ public class ReplicatingVehicleEntryPartitioner implements VehicleEntryPartition
     public List<Map<Id<DvrpVehicle>, VehicleEntry>> partition(
 		Map<Id<DvrpVehicle>, VehicleEntry> entries, List<Collection<RequestData>> requestsPartitions) {
 		int n = requestsPartitions.size();
-        List<Map<Id<DvrpVehicle>, VehicleEntry>> partitions = new ArrayList<>(n);
-        for (int i = 0; i < n; i++) {
-            partitions.add(new HashMap<>(entries));
-        }
-
-        return partitions;
+        // workers only read the entries, so all partitions can share the same (unmodifiable) map
+        return Collections.nCopies(n, Collections.unmodifiableMap(entries));
     }
 }
@@ -36,6 +36,25 @@ public class SelectiveInsertionSearchParams extends DrtInsertionSearchParams {
 	@Positive
 	private double restrictiveBeelineSpeedFactor = 0.5;
 
+	@Parameter
+	@Comment("Only for operationalScheme 'stopbased'. If true, detour times between stops are looked up in a"
+		+ " time-binned stop-to-stop table computed at the start of each iteration from the congested travel times,"
+		+ " instead of the zonal travel time matrix. Exact routing is still used for the selected insertion."
+		+ " The table needs 8 * numberOfStops^2 bytes per time bin.")
+	private boolean useStopToStopTravelTimeTable = false;
+
+	@Parameter
+	@Comment("Time bin size [s] of the stop-to-stop travel time table.")
+	@Positive
+	private double stopToStopTravelTimeBinSize = 3600;
+
+	@Parameter
+	@Comment("Maximum travel time [s] between two stops in the stop-to-stop travel time table. The routing from a stop"
+		+ " ends when all other stops are reached or this travel time is exceeded. Pairs of stops that are further apart"
+		+ " are estimated with the zonal travel time matrix.")
+	@Positive
+	private double stopToStopMaxTravelTime = Double.POSITIVE_INFINITY;
+
 	public SelectiveInsertionSearchParams() {
 		super(SET_NAME);
 	}
@@ -48,4 +67,30 @@ public class SelectiveInsertionSearchParams extends DrtInsertionSearchParams {
 	public void setRestrictiveBeelineSpeedFactor(@Positive double restrictiveBeelineSpeedFactor) {
 		this.restrictiveBeelineSpeedFactor = restrictiveBeelineSpeedFactor;
 	}
+
+	public boolean isUseStopToStopTravelTimeTable() {
+		return useStopToStopTravelTimeTable;
+	}
+
+	public void setUseStopToStopTravelTimeTable(boolean useStopToStopTravelTimeTable) {
+		this.useStopToStopTravelTimeTable = useStopToStopTravelTimeTable;
+	}
+
+	@Positive
+	public double getStopToStopTravelTimeBinSize() {
+		return stopToStopTravelTimeBinSize;
+	}
+
+	public void setStopToStopTravelTimeBinSize(@Positive double stopToStopTravelTimeBinSize) {
+		this.stopToStopTravelTimeBinSize = stopToStopTravelTimeBinSize;
+	}
+
+	@Positive
+	public double getStopToStopMaxTravelTime() {
+		return stopToStopMaxTravelTime;
+	}
+
+	public void setStopToStopMaxTravelTime(@Positive double stopToStopMaxTravelTime) {
+		this.stopToStopMaxTravelTime = stopToStopMaxTravelTime;
+	}
 }
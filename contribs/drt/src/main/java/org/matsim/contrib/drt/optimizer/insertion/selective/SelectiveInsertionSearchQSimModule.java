@@ -20,16 +20,23 @@
 
 package org.matsim.contrib.drt.optimizer.insertion.selective;
 
+import com.google.inject.Singleton;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.contrib.drt.optimizer.QsimScopeForkJoinPool;
 import org.matsim.contrib.drt.optimizer.insertion.DetourTimeEstimator;
 import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearch;
 import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearchManager;
 import org.matsim.contrib.drt.optimizer.insertion.InsertionCostCalculator;
+import org.matsim.contrib.drt.optimizer.insertion.StopToStopTravelTimeTable;
+import org.matsim.contrib.drt.routing.DrtStopFacility;
+import org.matsim.contrib.drt.routing.DrtStopNetwork;
 import org.matsim.contrib.drt.run.DrtConfigGroup;
 import org.matsim.contrib.drt.stops.StopTimeCalculator;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicleSpecification;
+import org.matsim.contrib.dvrp.fleet.FleetSpecification;
 import org.matsim.contrib.dvrp.run.AbstractDvrpModeQSimModule;
 import org.matsim.contrib.zone.skims.TravelTimeMatrix;
+import org.matsim.core.config.Config;
 import org.matsim.core.controler.MatsimServices;
 import org.matsim.core.router.costcalculators.TravelDisutilityFactory;
 import org.matsim.core.router.util.LeastCostPathCalculatorFactory;
@@ -54,9 +61,30 @@ public class SelectiveInsertionSearchQSimModule extends AbstractDvrpModeQSimModu
 			var restrictiveDetourTimeEstimator = DetourTimeEstimator.createMatrixBasedEstimator(
 				insertionParams.getRestrictiveBeelineSpeedFactor(), getter.getModal(TravelTimeMatrix.class),
 				getter.getModal(TravelTime.class));
+			if (insertionParams.isUseStopToStopTravelTimeTable()) {
+				return DetourTimeEstimator.createStopToStopEstimator(insertionParams.getRestrictiveBeelineSpeedFactor(),
+					getter.getModal(StopToStopTravelTimeTable.class), restrictiveDetourTimeEstimator);
+			}
 			return restrictiveDetourTimeEstimator;
 		}));
 
+		// QSim-scoped, i.e. recomputed at the beginning of each iteration with the current travel times
+		bindModal(StopToStopTravelTimeTable.class).toProvider(modalProvider(getter -> {
+			var insertionParams = (SelectiveInsertionSearchParams) drtCfg.getDrtInsertionSearchParams();
+			var stopLinkIds = getter.getModal(DrtStopNetwork.class).getDrtStops().values().stream()
+				.map(DrtStopFacility::getLinkId)
+				.toList();
+			// no requests can be served after the end of the vehicles' service
+			double maxTime = getter.get(Config.class).qsim().getEndTime().orElseGet(
+				() -> getter.getModal(FleetSpecification.class).getVehicleSpecifications().values().stream()
+					.mapToDouble(DvrpVehicleSpecification::getServiceEndTime)
+					.max()
+					.orElse(30 * 3600));
+			return StopToStopTravelTimeTable.calculate(getter.getModal(Network.class), getter.getModal(TravelTime.class),
+				drtCfg.getMode(), stopLinkIds, insertionParams.getStopToStopTravelTimeBinSize(), maxTime,
+				insertionParams.getStopToStopMaxTravelTime(), drtCfg.getNumberOfThreads());
+		})).in(Singleton.class);
+
 		addModalComponent(DrtInsertionSearchManager.class, modalProvider(getter -> {
 
 			// Use 0 as the cost for the selected insertion:
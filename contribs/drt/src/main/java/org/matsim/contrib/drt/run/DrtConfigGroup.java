@@ -43,6 +43,7 @@ import org.matsim.contrib.drt.optimizer.constraints.DrtOptimizationConstraintsSe
 import org.matsim.contrib.drt.optimizer.constraints.DrtOptimizationConstraintsSetImpl;
 import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearchParams;
 import org.matsim.contrib.drt.optimizer.insertion.extensive.ExtensiveInsertionSearchParams;
+import org.matsim.contrib.drt.optimizer.insertion.batch.DrtBatchInserterParams;
 import org.matsim.contrib.drt.optimizer.insertion.parallel.DrtParallelInserterParams;
 import org.matsim.contrib.drt.optimizer.insertion.repeatedselective.RepeatedSelectiveInsertionSearchParams;
 import org.matsim.contrib.drt.optimizer.insertion.selective.SelectiveInsertionSearchParams;
@@ -169,6 +170,14 @@ public class DrtConfigGroup extends ReflectiveConfigGroupWithConfigurableParamet
 		this.plotDetailedCustomerStats = plotDetailedCustomerStats;
 	}
 
+	public boolean isStreamingAnalysis() {
+		return streamingAnalysis;
+	}
+
+	public void setStreamingAnalysis(boolean streamingAnalysis) {
+		this.streamingAnalysis = streamingAnalysis;
+	}
+
 	@Positive
 	public int getNumberOfThreads() {
 		return numberOfThreads;
@@ -234,6 +243,14 @@ public class DrtConfigGroup extends ReflectiveConfigGroupWithConfigurableParamet
 	@Comment("Writes out detailed DRT customer stats in each iteration. True by default.")
 	private boolean plotDetailedCustomerStats = true;
 
+	@Parameter
+	@Comment("If true, customer statistics (wait and ride times, detours, rejections) are aggregated online"
+			+ " with fixed-size histograms and per-leg details are written to disk as requests are completed,"
+			+ " instead of keeping all request event sequences in memory until the end of the iteration."
+			+ " The event sequences are then only collected if needed by other components (e.g. drt speed-up or estimators)."
+			+ " False by default.")
+	private boolean streamingAnalysis = false;
+
 	@Parameter
 	@Comment("Number of threads used for parallel evaluation of request insertion into existing schedules."
 			+ " Scales well up to 4, due to path data provision, the most computationally intensive part,"
@@ -290,6 +307,9 @@ public class DrtConfigGroup extends ReflectiveConfigGroupWithConfigurableParamet
 	@Nullable
 	private DrtParallelInserterParams drtParallelInserterParams;
 
+	@Nullable
+	private DrtBatchInserterParams drtBatchInserterParams;
+
 	private ZoneSystemParams analysisZoneSystemParams;
 
 	public DrtConfigGroup() {
@@ -347,6 +367,11 @@ public class DrtConfigGroup extends ReflectiveConfigGroupWithConfigurableParamet
 			() -> drtParallelInserterParams,
 			params -> drtParallelInserterParams = (DrtParallelInserterParams)params);
 
+		//batch inserter (optional)
+		addDefinition(DrtBatchInserterParams.SET_NAME, DrtBatchInserterParams::new,
+			() -> drtBatchInserterParams,
+			params -> drtBatchInserterParams = (DrtBatchInserterParams)params);
+
 		// estimator (optional)
 		addDefinition(DrtEstimatorParams.SET_NAME, DrtEstimatorParams::new,
 			() -> drtEstimatorParams,
@@ -443,6 +468,15 @@ public class DrtConfigGroup extends ReflectiveConfigGroupWithConfigurableParamet
 			Verify.verify(drtSpeedUpParams == null, "Simulation type is estimateAndTeleport, but drtSpeedUpParams is set. " +
 				"Please remove drtSpeedUpParams from the config, as these two functionalities are not compatible.");
 		}
+
+		if (drtInsertionSearchParams instanceof SelectiveInsertionSearchParams selectiveParams
+				&& selectiveParams.isUseStopToStopTravelTimeTable()) {
+			Verify.verify(getOperationalScheme() == OperationalScheme.stopbased,
+					"useStopToStopTravelTimeTable requires operationalScheme " + OperationalScheme.stopbased);
+		}
+
+		Verify.verify(drtParallelInserterParams == null || drtBatchInserterParams == null,
+				"Both parallelInserter and batchInserter are set. Please choose only one of them.");
 	}
 
 	@Override
@@ -472,6 +506,10 @@ public class DrtConfigGroup extends ReflectiveConfigGroupWithConfigurableParamet
 		return Optional.ofNullable(drtParallelInserterParams);
 	}
 
+	public Optional<DrtBatchInserterParams> getDrtBatchInserterParams() {
+		return Optional.ofNullable(drtBatchInserterParams);
+	}
+
 	public Optional<DrtFareParams> getDrtFareParams() {
 		return Optional.ofNullable(drtFareParams);
 	}
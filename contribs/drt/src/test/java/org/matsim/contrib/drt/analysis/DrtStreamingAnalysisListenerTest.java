@@ -0,0 +1,257 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.analysis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.api.core.v01.events.PersonDepartureEvent;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.contrib.drt.passenger.events.DrtRequestSubmittedEvent;
+import org.matsim.contrib.drt.run.DrtConfigGroup;
+import org.matsim.contrib.dvrp.analysis.VehicleOccupancyProfileCalculator;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.contrib.dvrp.fleet.FleetSpecificationImpl;
+import org.matsim.contrib.dvrp.fleet.ImmutableDvrpVehicleSpecification;
+import org.matsim.contrib.dvrp.load.IntegerLoadType;
+import org.matsim.contrib.dvrp.optimizer.Request;
+import org.matsim.contrib.dvrp.passenger.PassengerDroppedOffEvent;
+import org.matsim.contrib.dvrp.passenger.PassengerPickedUpEvent;
+import org.matsim.contrib.dvrp.passenger.PassengerRequestRejectedEvent;
+import org.matsim.contrib.dvrp.passenger.PassengerRequestScheduledEvent;
+import org.matsim.contrib.dvrp.passenger.PassengerWaitingEvent;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.controler.MatsimServices;
+import org.matsim.core.controler.OutputDirectoryHierarchy;
+import org.matsim.core.controler.events.IterationEndsEvent;
+import org.matsim.core.controler.events.IterationStartsEvent;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.testcases.MatsimTestUtils;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Runs {@link DrtStreamingAnalysisListener} and {@link DrtAnalysisControlerListener} on the same event stream and
+ * compares the customer statistics of both.
+ */
+public class DrtStreamingAnalysisListenerTest {
+	private static final String MODE = "drt";
+	private static final Id<DvrpVehicle> VEHICLE_1 = Id.create("v1", DvrpVehicle.class);
+	private static final Id<DvrpVehicle> VEHICLE_2 = Id.create("v2", DvrpVehicle.class);
+
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
+	private final IntegerLoadType loadType = new IntegerLoadType("passengers");
+	private final List<Event> events = new ArrayList<>();
+
+	@Test
+	void sameCustomerStatsAsDrtAnalysis() throws IOException {
+		// 16 single passenger requests, a shared and a prebooked request: 19 legs in total
+		for (int i = 0; i < 16; i++) {
+			double departureTime = 100 * i;
+			double waitTime = 60 + (i * 137) % 900;
+			double rideTime = 300 + (i * 53) % 400;
+			immediateRequest("r" + i, List.of("p" + i), departureTime, waitTime, rideTime, 250 + 10 * i,
+					i % 2 == 0 ? VEHICLE_1 : VEHICLE_2);
+		}
+		immediateRequest("shared", List.of("pA", "pB"), 450, 120, 700, 400, VEHICLE_1);
+		prebookedRequest("prebooked", "pC", 2000, 30, 500, 450, VEHICLE_2);
+		rejectedRequest("rejected1", "pD", 300);
+		rejectedRequest("rejected2", "pE", 1200);
+		events.sort(Comparator.comparingDouble(Event::getTime));
+
+		Config config = ConfigUtils.createConfig();
+		config.controller().setCreateGraphsInterval(0);
+		DrtConfigGroup drtCfg = new DrtConfigGroup();
+		Network network = createNetwork();
+		FleetSpecificationImpl fleet = new FleetSpecificationImpl();
+		for (var vehicleId : List.of(VEHICLE_1, VEHICLE_2)) {
+			fleet.addVehicleSpecification(ImmutableDvrpVehicleSpecification.newBuilder()
+					.id(vehicleId)
+					.startLinkId(Id.createLinkId("l01"))
+					.capacity(loadType.fromInt(4))
+					.serviceBeginTime(0)
+					.serviceEndTime(10000)
+					.build());
+		}
+
+		var controllerIO = new OutputDirectoryHierarchy(utils.getOutputDirectory(),
+				OutputDirectoryHierarchy.OverwriteFileSetting.overwriteExistingFiles, config.controller().getCompressionType());
+		controllerIO.createIterationDirectory(0);
+		MatsimServices services = mock(MatsimServices.class);
+		when(services.getControllerIO()).thenReturn(controllerIO);
+		when(services.getConfig()).thenReturn(config);
+
+		var eventSequenceCollector = new DrtEventSequenceCollector(MODE);
+		var vehicleDistanceStats = new DrtVehicleDistanceStats(network, drtCfg, fleet, loadType);
+		var occupancyProfileCalculator = new VehicleOccupancyProfileCalculator(MODE, fleet, 300, config.qsim(),
+				ImmutableSet.of(), loadType);
+		var drtAnalysis = new DrtAnalysisControlerListener(config, drtCfg, fleet, vehicleDistanceStats, services,
+				network, eventSequenceCollector, occupancyProfileCalculator, loadType);
+		var streamingAnalysis = new DrtStreamingAnalysisListener(config, drtCfg, services);
+
+		EventsManager eventsManager = EventsUtils.createEventsManager();
+		eventsManager.addHandler(eventSequenceCollector);
+		eventsManager.addHandler(vehicleDistanceStats);
+		eventsManager.addHandler(occupancyProfileCalculator);
+		eventsManager.addHandler(streamingAnalysis);
+
+		eventsManager.resetHandlers(0);
+		streamingAnalysis.notifyIterationStarts(new IterationStartsEvent(services, 0, true));
+		eventsManager.initProcessing();
+		events.forEach(eventsManager::processEvent);
+		eventsManager.finishProcessing();
+		drtAnalysis.notifyIterationEnds(new IterationEndsEvent(services, 0, true));
+		streamingAnalysis.notifyIterationEnds(new IterationEndsEvent(services, 0, true));
+
+		var expected = readSingleLine(controllerIO.getOutputFilename("drt_customer_stats_" + MODE + ".csv"));
+		var actual = readSingleLine(controllerIO.getOutputFilename("drt_customer_stats_streamed_" + MODE + ".csv"));
+
+		assertThat(actual.get("rides_pax")).isEqualTo("19");
+		assertThat(actual.get("rejections")).isEqualTo("2");
+		for (String column : List.of("rides", "rides_pax", "wait_average", "wait_max", "percentage_WT_below_10",
+				"percentage_WT_below_15", "inVehicleTravelTime_mean", "totalTravelTime_mean", "rejections",
+				"rejectionRate")) {
+			assertThat(actual.get(column)).as(column).isEqualTo(expected.get(column));
+		}
+		// the quantiles are estimated with a relative error below 1.6%
+		for (String column : List.of("wait_median", "wait_p75", "wait_p95")) {
+			double expectedValue = Double.parseDouble(expected.get(column));
+			assertThat(Double.parseDouble(actual.get(column))).as(column)
+					.isCloseTo(expectedValue, within(0.016 * expectedValue));
+		}
+		assertThat(actual.get("requestsInProgress")).isEqualTo("0");
+
+		double meanTimeDetour = readColumn(controllerIO.getIterationFilename(0, "drt_detours_" + MODE + ".csv"),
+				"timeDetour").stream().mapToDouble(Double::parseDouble).average().orElseThrow();
+		assertThat(Double.parseDouble(actual.get("detour_mean"))).isCloseTo(meanTimeDetour, within(0.005));
+
+		assertThat(readColumn(controllerIO.getIterationFilename(0, "drt_legs_streamed_" + MODE + ".csv.gz"),
+				"personId")).hasSize(19).contains("pA", "pB", "pC");
+		assertThat(readColumn(controllerIO.getIterationFilename(0, "drt_rejections_streamed_" + MODE + ".csv.gz"),
+				"requestId")).containsExactly("rejected1", "rejected2");
+	}
+
+	private void immediateRequest(String requestId, List<String> passengers, double departureTime, double waitTime,
+			double rideTime, double unsharedRideTime, Id<DvrpVehicle> vehicleId) {
+		List<Id<Person>> personIds = passengers.stream().map(Id::createPersonId).toList();
+		personIds.forEach(personId -> departure(personId, departureTime));
+		events.add(new PassengerWaitingEvent(departureTime, MODE, Id.create(requestId, Request.class), personIds));
+		submitted(requestId, personIds, departureTime, departureTime, unsharedRideTime);
+		served(requestId, personIds, departureTime, departureTime + waitTime, rideTime, vehicleId);
+	}
+
+	private void prebookedRequest(String requestId, String passenger, double departureTime, double waitTime,
+			double rideTime, double unsharedRideTime, Id<DvrpVehicle> vehicleId) {
+		List<Id<Person>> personIds = List.of(Id.createPersonId(passenger));
+		submitted(requestId, personIds, 0, departureTime, unsharedRideTime);
+		departure(personIds.get(0), departureTime);
+		events.add(new PassengerWaitingEvent(departureTime, MODE, Id.create(requestId, Request.class), personIds));
+		served(requestId, personIds, 0, departureTime + waitTime, rideTime, vehicleId);
+	}
+
+	private void rejectedRequest(String requestId, String passenger, double departureTime) {
+		List<Id<Person>> personIds = List.of(Id.createPersonId(passenger));
+		departure(personIds.get(0), departureTime);
+		events.add(new PassengerWaitingEvent(departureTime, MODE, Id.create(requestId, Request.class), personIds));
+		submitted(requestId, personIds, departureTime, departureTime, 300);
+		events.add(new PassengerRequestRejectedEvent(departureTime, MODE, Id.create(requestId, Request.class),
+				personIds, "no_insertion_found"));
+	}
+
+	private void departure(Id<Person> personId, double time) {
+		events.add(new PersonDepartureEvent(time, personId, Id.createLinkId("l01"), MODE, MODE));
+	}
+
+	private void submitted(String requestId, List<Id<Person>> personIds, double time, double earliestDepartureTime,
+			double unsharedRideTime) {
+		events.add(new DrtRequestSubmittedEvent(time, MODE, Id.create(requestId, Request.class), personIds,
+				Id.createLinkId("l01"), Id.createLinkId("l23"), unsharedRideTime, 10 * unsharedRideTime,
+				earliestDepartureTime, earliestDepartureTime + 1800, earliestDepartureTime + 3600, 1800,
+				loadType.fromInt(personIds.size()), personIds.size() + ""));
+	}
+
+	private void served(String requestId, List<Id<Person>> personIds, double scheduledTime, double pickupTime,
+			double rideTime, Id<DvrpVehicle> vehicleId) {
+		var id = Id.create(requestId, Request.class);
+		events.add(new PassengerRequestScheduledEvent(scheduledTime, MODE, id, personIds, vehicleId, pickupTime,
+				pickupTime + rideTime));
+		for (Id<Person> personId : personIds) {
+			events.add(new PassengerPickedUpEvent(pickupTime, MODE, id, personId, vehicleId));
+			events.add(new PassengerDroppedOffEvent(pickupTime + rideTime, MODE, id, personId, vehicleId));
+		}
+	}
+
+	private static Network createNetwork() {
+		Network network = NetworkUtils.createNetwork();
+		for (int i = 0; i < 4; i++) {
+			NetworkUtils.createAndAddNode(network, Id.createNodeId(i), new Coord(1000 * i, 0));
+		}
+		for (int i = 0; i < 3; i++) {
+			Link link = NetworkUtils.createLink(Id.createLinkId("l" + i + (i + 1)),
+					network.getNodes().get(Id.createNodeId(i)), network.getNodes().get(Id.createNodeId(i + 1)), network,
+					1000, 10, 1800, 1);
+			network.addLink(link);
+		}
+		return network;
+	}
+
+	private static Map<String, String> readSingleLine(String file) throws IOException {
+		try (BufferedReader reader = IOUtils.getBufferedReader(file)) {
+			String[] header = reader.readLine().split(";");
+			String[] values = reader.readLine().split(";");
+			assertThat(reader.readLine()).isNull();
+			Map<String, String> line = new HashMap<>();
+			for (int i = 0; i < header.length; i++) {
+				line.put(header[i], values[i]);
+			}
+			return line;
+		}
+	}
+
+	private static List<String> readColumn(String file, String column) throws IOException {
+		try (BufferedReader reader = IOUtils.getBufferedReader(file)) {
+			int idx = List.of(reader.readLine().split(";")).indexOf(column);
+			return reader.lines().map(line -> line.split(";")[idx]).toList();
+		}
+	}
+}
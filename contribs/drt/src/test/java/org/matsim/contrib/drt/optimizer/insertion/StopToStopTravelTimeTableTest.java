@@ -0,0 +1,109 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.drt.optimizer.insertion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.dvrp.path.VrpPaths;
+import org.matsim.contrib.dvrp.router.TimeAsTravelDisutility;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.router.speedy.SpeedyDijkstraFactory;
+import org.matsim.core.router.util.TravelTime;
+
+public class StopToStopTravelTimeTableTest {
+	private final Network network = NetworkUtils.createNetwork();
+	private final Node a = NetworkUtils.createAndAddNode(network, Id.createNodeId("a"), new Coord(0, 0));
+	private final Node b = NetworkUtils.createAndAddNode(network, Id.createNodeId("b"), new Coord(1000, 0));
+	private final Node c = NetworkUtils.createAndAddNode(network, Id.createNodeId("c"), new Coord(1000, 1000));
+	private final Link ab = NetworkUtils.createAndAddLink(network, Id.createLinkId("ab"), a, b, 1000, 10, 1000, 1);
+	private final Link bc = NetworkUtils.createAndAddLink(network, Id.createLinkId("bc"), b, c, 1000, 20, 1000, 1);
+	private final Link ca = NetworkUtils.createAndAddLink(network, Id.createLinkId("ca"), c, a, 1500, 10, 1000, 1);
+
+	// link travel times double after 3600 s
+	private final TravelTime travelTime = (link, time, person, vehicle) -> link.getLength() / link.getFreespeed() * (
+			time < 3600 ? 1 : 2);
+
+	@Test
+	void matchesExactRouting() {
+		var table = StopToStopTravelTimeTable.calculate(network, travelTime, null,
+				List.of(ab.getId(), bc.getId(), ca.getId(), ab.getId()), 3600, 2 * 3600, Double.POSITIVE_INFINITY, 2);
+		var router = new SpeedyDijkstraFactory().createPathCalculator(network, new TimeAsTravelDisutility(travelTime),
+				travelTime);
+
+		assertThat(table.getNumberOfStops()).isEqualTo(3);
+		for (double departureTime : new double[] { 0, 3600 }) {
+			for (Link from : List.of(ab, bc, ca)) {
+				for (Link to : List.of(ab, bc, ca)) {
+					var path = VrpPaths.calcAndCreatePath(from, to, departureTime, router, travelTime);
+					assertThat(table.getTravelTime(from, to, departureTime)).isCloseTo(path.getTravelTime(),
+							within(1e-3));
+					assertThat(table.getLength(from, to, departureTime)).isCloseTo(VrpPaths.calcDistance(path),
+							within(1e-3));
+				}
+			}
+		}
+	}
+
+	@Test
+	void timeBinsAreClamped() {
+		var table = StopToStopTravelTimeTable.calculate(network, travelTime, null, List.of(ab.getId(), bc.getId()),
+				3600, 2 * 3600, Double.POSITIVE_INFINITY, 1);
+
+		assertThat(table.getTravelTime(ab, bc, -100)).isEqualTo(table.getTravelTime(ab, bc, 0));
+		assertThat(table.getTravelTime(ab, bc, 100_000)).isEqualTo(table.getTravelTime(ab, bc, 3600));
+		assertThat(table.getTravelTime(ab, bc, 3600)).isGreaterThan(table.getTravelTime(ab, bc, 0));
+	}
+
+	@Test
+	void stopsBeyondMaxTravelTime_useFallback() {
+		// from bc, the start of ca is reached right away and the start of ab only after the 150 s on ca
+		var table = StopToStopTravelTimeTable.calculate(network, travelTime, null,
+				List.of(ab.getId(), bc.getId(), ca.getId()), 3600, 3600, 100, 1);
+		var estimator = DetourTimeEstimator.createStopToStopEstimator(1, table, (from, to, departureTime) -> -1);
+
+		assertThat(table.getTravelTime(bc, ca, 0)).isEqualTo(151);
+		assertThat(table.getTravelTime(bc, ab, 0)).isEqualTo(Double.POSITIVE_INFINITY);
+		assertThat(table.getLength(bc, ab, 0)).isEqualTo(Double.POSITIVE_INFINITY);
+		assertThat(estimator.estimateTime(bc, ca, 0)).isEqualTo(151);
+		assertThat(estimator.estimateTime(bc, ab, 0)).isEqualTo(-1);
+	}
+
+	@Test
+	void stopToStopEstimator_usesFallbackForNonStops() {
+		var table = StopToStopTravelTimeTable.calculate(network, travelTime, null, List.of(ab.getId(), bc.getId()),
+				3600, 3600, Double.POSITIVE_INFINITY, 1);
+		var estimator = DetourTimeEstimator.createStopToStopEstimator(2, table, (from, to, departureTime) -> -1);
+
+		assertThat(table.isStop(ca)).isFalse();
+		assertThat(estimator.estimateTime(ab, ab, 0)).isZero();
+		assertThat(estimator.estimateTime(ab, bc, 0)).isEqualTo(table.getTravelTime(ab, bc, 0) / 2);
+		assertThat(estimator.estimateTime(ab, ca, 0)).isEqualTo(-1);
+	}
+}
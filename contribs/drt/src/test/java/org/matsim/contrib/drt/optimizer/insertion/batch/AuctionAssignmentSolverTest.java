@@ -0,0 +1,87 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.optimizer.insertion.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.matsim.contrib.drt.optimizer.insertion.batch.AuctionAssignmentSolver.UNASSIGNED;
+
+import org.junit.jupiter.api.Test;
+
+public class AuctionAssignmentSolverTest {
+	private final AuctionAssignmentSolver solver = new AuctionAssignmentSolver(0.01);
+
+	@Test
+	void emptyMatrix() {
+		assertThat(solver.solve(new InsertionCostMatrix(0, 3))).isEmpty();
+	}
+
+	@Test
+	void requestWithoutCandidates_unassigned() {
+		var matrix = new InsertionCostMatrix(2, 1);
+		matrix.setRow(1, row(3, 0, 10));
+		assertThat(solver.solve(matrix)).containsExactly(UNASSIGNED, 0);
+	}
+
+	@Test
+	void greedyIsSuboptimal_jointAssignmentFound() {
+		// greedy (request 0 first) would take vehicle 0 (cost 1) and leave request 1 with cost 100
+		var matrix = new InsertionCostMatrix(2, 2);
+		matrix.setRow(0, row(3, 0, 1, 1, 2));
+		matrix.setRow(1, row(3, 0, 3, 1, 100));
+		assertThat(solver.solve(matrix)).containsExactly(1, 0);
+	}
+
+	@Test
+	void moreRequestsThanVehicles_cheapestServed() {
+		var matrix = new InsertionCostMatrix(3, 1);
+		matrix.setRow(0, row(3, 0, 50));
+		matrix.setRow(1, row(3, 0, 5));
+		matrix.setRow(2, row(3, 0, 20));
+		assertThat(solver.solve(matrix)).containsExactly(UNASSIGNED, 0, UNASSIGNED);
+	}
+
+	@Test
+	void numberOfAssignedRequestsMaximised() {
+		// assigning request 0 to vehicle 0 would be cheaper in total, but request 1 has no other option
+		var matrix = new InsertionCostMatrix(2, 2);
+		matrix.setRow(0, row(3, 0, 1, 1, 30));
+		matrix.setRow(1, row(3, 0, 2));
+		assertThat(solver.solve(matrix)).containsExactly(1, 0);
+	}
+
+	@Test
+	void rowBuilder_keepsCheapestCandidatesSorted() {
+		var matrix = new InsertionCostMatrix(1, 5);
+		matrix.setRow(0, row(3, 0, 40, 1, 10, 2, 30, 3, 20, 4, 50));
+		assertThat(matrix.getCandidateCount(0)).isEqualTo(3);
+		assertThat(new int[] { matrix.getVehicleIndex(0, 0), matrix.getVehicleIndex(0, 1),
+				matrix.getVehicleIndex(0, 2) }).containsExactly(1, 3, 2);
+		assertThat(new double[] { matrix.getCost(0, 0), matrix.getCost(0, 1), matrix.getCost(0, 2) }).containsExactly(
+				10, 20, 30);
+	}
+
+	private static InsertionCostMatrix.RowBuilder row(int maxCandidates, double... vehicleCostPairs) {
+		var row = new InsertionCostMatrix.RowBuilder(maxCandidates);
+		for (int i = 0; i < vehicleCostPairs.length; i += 2) {
+			row.add((int)vehicleCostPairs[i], vehicleCostPairs[i + 1]);
+		}
+		return row;
+	}
+}
@@ -0,0 +1,231 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.optimizer.insertion.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.matsim.contrib.drt.optimizer.insertion.DefaultUnplannedRequestInserter.NO_INSERTION_FOUND_CAUSE;
+import static org.matsim.contrib.drt.optimizer.insertion.InsertionCostCalculator.INFEASIBLE_SOLUTION_COST;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Identifiable;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.contrib.drt.optimizer.DrtRequestInsertionRetryParams;
+import org.matsim.contrib.drt.optimizer.DrtRequestInsertionRetryQueue;
+import org.matsim.contrib.drt.optimizer.VehicleEntry;
+import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearch;
+import org.matsim.contrib.drt.optimizer.insertion.ForkJoinPoolExtension;
+import org.matsim.contrib.drt.optimizer.insertion.InsertionCostCalculator;
+import org.matsim.contrib.drt.optimizer.insertion.InsertionDetourTimeCalculator;
+import org.matsim.contrib.drt.optimizer.insertion.InsertionGenerator;
+import org.matsim.contrib.drt.optimizer.insertion.InsertionWithDetourData;
+import org.matsim.contrib.drt.optimizer.insertion.RequestFleetFilter;
+import org.matsim.contrib.drt.passenger.DefaultOfferAcceptor;
+import org.matsim.contrib.drt.passenger.DrtRequest;
+import org.matsim.contrib.drt.schedule.DefaultDrtStopTask;
+import org.matsim.contrib.drt.scheduler.RequestInsertionScheduler;
+import org.matsim.contrib.drt.scheduler.RequestInsertionScheduler.PickupDropoffTaskPair;
+import org.matsim.contrib.drt.stops.StaticPassengerStopDurationProvider;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.contrib.dvrp.fleet.Fleet;
+import org.matsim.contrib.dvrp.load.IntegerLoadType;
+import org.matsim.contrib.dvrp.optimizer.Request;
+import org.matsim.contrib.dvrp.passenger.PassengerRequestRejectedEvent;
+import org.matsim.contrib.dvrp.passenger.PassengerRequestScheduledEvent;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.testcases.fakes.FakeLink;
+import org.mockito.ArgumentCaptor;
+
+import com.google.common.collect.ImmutableMap;
+
+public class BatchUnplannedRequestInserterTest {
+	private static final String mode = "DRT_MODE";
+	private static final double collectionPeriod = 60;
+
+	private final DrtRequest request1 = request("r1", 0);
+	private final DrtRequest request2 = request("r2", 1);
+
+	private final DvrpVehicle vehicle1 = vehicle("v1");
+	private final DvrpVehicle vehicle2 = vehicle("v2");
+
+	private final EventsManager eventsManager = mock(EventsManager.class);
+
+	private final IntegerLoadType loadType = new IntegerLoadType("passengers");
+
+	// insertion costs by request and vehicle, infeasible if missing
+	private final Map<DrtRequest, Map<DvrpVehicle, Double>> costs = new HashMap<>();
+
+	@RegisterExtension
+	public final ForkJoinPoolExtension forkJoinPoolExtension = new ForkJoinPoolExtension();
+
+	@Test
+	void requestsAreCollectedUntilEndOfPeriod() {
+		costs.put(request1, Map.of(vehicle1, 10.));
+		var inserter = newInserter(fleet(vehicle1), new DrtRequestInsertionRetryQueue(new DrtRequestInsertionRetryParams()));
+
+		inserter.doSimStep(0);
+		inserter.scheduleUnplannedRequests(requests(request1));
+		inserter.doSimStep(collectionPeriod - 1);
+		verify(eventsManager, times(0)).processEvent(any());
+
+		inserter.doSimStep(collectionPeriod);
+		assertThat(scheduledEvents()).extracting(PassengerRequestScheduledEvent::getRequestId, PassengerRequestScheduledEvent::getVehicleId)
+				.containsExactly(tuple(request1.getId(), vehicle1.getId()));
+	}
+
+	@Test
+	void requestsAreAssignedJointly() {
+		// inserting greedily in the order of submission would assign r1 to v1 and r2 to v2 at a total cost of 1010
+		costs.put(request1, Map.of(vehicle1, 10., vehicle2, 20.));
+		costs.put(request2, Map.of(vehicle1, 10., vehicle2, 1000.));
+		var inserter = newInserter(fleet(vehicle1, vehicle2), new DrtRequestInsertionRetryQueue(new DrtRequestInsertionRetryParams()));
+
+		inserter.doSimStep(0);
+		var unplannedRequests = requests(request1, request2);
+		inserter.scheduleUnplannedRequests(unplannedRequests);
+		assertThat(unplannedRequests).isEmpty();
+		inserter.doSimStep(collectionPeriod);
+
+		Map<Id<Request>, Id<DvrpVehicle>> assignments = new HashMap<>();
+		scheduledEvents().forEach(e -> assignments.put(e.getRequestId(), e.getVehicleId()));
+		assertThat(assignments).containsExactlyInAnyOrderEntriesOf(
+				Map.of(request1.getId(), vehicle2.getId(), request2.getId(), vehicle1.getId()));
+	}
+
+	@Test
+	void requestWithoutCandidates_rejected() {
+		costs.put(request1, Map.of(vehicle1, 10.));
+		var retryQueue = new DrtRequestInsertionRetryQueue(new DrtRequestInsertionRetryParams());//retry OFF
+		var inserter = newInserter(fleet(vehicle1), retryQueue);
+
+		inserter.doSimStep(0);
+		inserter.scheduleUnplannedRequests(requests(request1, request2));
+		inserter.doSimStep(collectionPeriod);
+
+		assertThat(scheduledEvents()).extracting(PassengerRequestScheduledEvent::getRequestId).containsExactly(request1.getId());
+		var captor = ArgumentCaptor.forClass(Event.class);
+		verify(eventsManager, times(2)).processEvent(captor.capture());
+		assertThat(captor.getAllValues()).filteredOn(PassengerRequestRejectedEvent.class::isInstance)
+				.singleElement()
+				.usingRecursiveComparison()
+				.isEqualTo(new PassengerRequestRejectedEvent(collectionPeriod, mode, request2.getId(), request2.getPassengerIds(),
+						NO_INSERTION_FOUND_CAUSE));
+		assertThat(retryQueue.getRequestsToRetryNow(Double.POSITIVE_INFINITY)).isEmpty();
+	}
+
+	private List<PassengerRequestScheduledEvent> scheduledEvents() {
+		var captor = ArgumentCaptor.forClass(Event.class);
+		verify(eventsManager, atLeast(0)).processEvent(captor.capture());
+		return captor.getAllValues()
+				.stream()
+				.filter(PassengerRequestScheduledEvent.class::isInstance)
+				.map(PassengerRequestScheduledEvent.class::cast)
+				.toList();
+	}
+
+	private BatchUnplannedRequestInserter newInserter(Fleet fleet, DrtRequestInsertionRetryQueue retryQueue) {
+		var params = new DrtBatchInserterParams();
+		params.setCollectionPeriod(collectionPeriod);
+		params.setAuctionEpsilon(0.1);
+
+		// the insertions only carry the vehicle entry, their cost is looked up in costs
+		var insertionGenerator = mock(InsertionGenerator.class);
+		when(insertionGenerator.generateInsertions(any(), any())).thenAnswer(
+				invocation -> costs.getOrDefault(invocation.<DrtRequest>getArgument(0), Map.of())
+						.containsKey(invocation.<VehicleEntry>getArgument(1).vehicle) ?
+						List.of(insertion(invocation.getArgument(1))) :
+						List.of());
+		InsertionCostCalculator costCalculator = (request, insertion, detourTimeInfo) -> costs.get(request)
+				.getOrDefault(insertion.vehicleEntry.vehicle, INFEASIBLE_SOLUTION_COST);
+
+		// best insertion among the given vehicles
+		DrtInsertionSearch insertionSearch = (request, vehicleEntries) -> vehicleEntries.stream()
+				.filter(e -> costs.getOrDefault(request, Map.of()).containsKey(e.vehicle))
+				.min((e1, e2) -> Double.compare(costs.get(request).get(e1.vehicle), costs.get(request).get(e2.vehicle)))
+				.map(this::insertion);
+
+		RequestInsertionScheduler insertionScheduler = (request, insertion) -> {
+			var pickupTask = new DefaultDrtStopTask(collectionPeriod, collectionPeriod + 10, request.getFromLink());
+			pickupTask.addPickupRequest(request);
+			var dropoffTask = new DefaultDrtStopTask(collectionPeriod + 100, collectionPeriod + 110, request.getToLink());
+			dropoffTask.addDropoffRequest(request);
+			return new PickupDropoffTaskPair(pickupTask, dropoffTask);
+		};
+
+		return new BatchUnplannedRequestInserter(params, mode, fleet, eventsManager, () -> insertionScheduler,
+				(vehicle, time) -> new VehicleEntry(vehicle, null, null, null, null, time), () -> insertionSearch,
+				insertionGenerator, costCalculator, retryQueue, new DefaultOfferAcceptor(),
+				forkJoinPoolExtension.forkJoinPool, StaticPassengerStopDurationProvider.of(10.0, 0.0),
+				RequestFleetFilter.none);
+	}
+
+	private InsertionWithDetourData insertion(VehicleEntry vehicleEntry) {
+		return new InsertionWithDetourData(new InsertionGenerator.Insertion(vehicleEntry, null, null, loadType.fromInt(1)), null,
+				new InsertionDetourTimeCalculator.DetourTimeInfo(mock(InsertionDetourTimeCalculator.PickupDetourInfo.class),
+						mock(InsertionDetourTimeCalculator.DropoffDetourInfo.class)));
+	}
+
+	private Collection<DrtRequest> requests(DrtRequest... requests) {
+		return new ArrayList<>(Arrays.asList(requests));//returned collection needs to be modifiable
+	}
+
+	private Fleet fleet(DvrpVehicle... vehicles) {
+		var map = Arrays.stream(vehicles).collect(ImmutableMap.toImmutableMap(Identifiable::getId, v -> v));
+		return () -> map;
+	}
+
+	private DvrpVehicle vehicle(String vehicleId) {
+		var id = Id.create(vehicleId, DvrpVehicle.class);
+		var vehicle = mock(DvrpVehicle.class);
+		when(vehicle.getId()).thenReturn(id);
+		return vehicle;
+	}
+
+	private DrtRequest request(String id, double submissionTime) {
+		return DrtRequest.newBuilder()
+				.id(Id.create(id, Request.class))
+				.submissionTime(submissionTime)
+				.passengerIds(List.of(Id.createPersonId(id)))
+				.fromLink(link("from_" + id))
+				.toLink(link("to_" + id))
+				.mode(mode)
+				.build();
+	}
+
+	private Link link(String id) {
+		return new FakeLink(Id.createLinkId(id));
+	}
+}
@@ -0,0 +1,111 @@
+package org.matsim.contrib.drt.optimizer.insertion.parallel;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.contrib.drt.optimizer.VehicleEntry;
+import org.matsim.contrib.drt.optimizer.insertion.InsertionDetourTimeCalculator;
+import org.matsim.contrib.drt.optimizer.insertion.InsertionGenerator;
+import org.matsim.contrib.drt.optimizer.insertion.InsertionWithDetourData;
+import org.matsim.contrib.drt.optimizer.insertion.parallel.partitioner.RequestData;
+import org.matsim.contrib.drt.passenger.DrtRequest;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.contrib.dvrp.optimizer.Request;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.matsim.contrib.drt.optimizer.insertion.selective.RequestDataComparators.REQUEST_DATA_COMPARATOR;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FleetSnapshotTest {
+
+	private final VehicleEntry entryA = entry("a");
+	private final VehicleEntry entryB = entry("b");
+
+	private FleetSnapshot snapshot() {
+		FleetSnapshot snapshot = new FleetSnapshot(List.of(entryB.vehicle.getId(), entryA.vehicle.getId()));
+		snapshot.reset(Map.of(entryA.vehicle.getId(), entryA, entryB.vehicle.getId(), entryB));
+		return snapshot;
+	}
+
+	@Test
+	void viewIsOrderedAndReflectsUpdates() {
+		FleetSnapshot snapshot = snapshot();
+		assertThat(snapshot.asMap().values()).containsExactly(entryA, entryB);
+
+		VehicleEntry newA = entry("a");
+		Map<Id<DvrpVehicle>, VehicleEntry> changed = new HashMap<>();
+		changed.put(entryA.vehicle.getId(), newA);
+		changed.put(entryB.vehicle.getId(), null);
+		snapshot.update(changed);
+
+		assertThat(snapshot.asMap()).hasSize(1).containsEntry(entryA.vehicle.getId(), newA);
+		assertThat(snapshot.asMap().containsKey(entryB.vehicle.getId())).isFalse();
+	}
+
+	@Test
+	void keepsBestCommitPerVehicle() {
+		FleetSnapshot snapshot = snapshot();
+		RequestData worse = requestData("r1", entryA, 20);
+		RequestData better = requestData("r2", entryA, 10);
+		RequestData other = requestData("r3", entryB, 30);
+
+		assertThat(snapshot.tryCommit(worse)).isNull();
+		assertThat(snapshot.tryCommit(better)).isSameAs(worse);
+		assertThat(snapshot.tryCommit(requestData("r4", entryA, 15)).getDrtRequest().getId().toString()).isEqualTo("r4");
+		assertThat(snapshot.tryCommit(other)).isNull();
+
+		assertThat(snapshot.getCommits()).containsExactly(better, other);
+
+		snapshot.clearCommits();
+		assertThat(snapshot.getCommits()).isEmpty();
+	}
+
+	@Test
+	void rejectsCommitsForOutdatedEntries() {
+		FleetSnapshot snapshot = snapshot();
+		snapshot.update(Map.of(entryA.vehicle.getId(), entry("a")));
+
+		RequestData stale = requestData("r1", entryA, 10);
+		assertThat(snapshot.tryCommit(stale)).isSameAs(stale);
+		assertThat(snapshot.getCommits()).isEmpty();
+	}
+
+	@Test
+	void concurrentCommitsAreDeterministic() {
+		FleetSnapshot snapshot = snapshot();
+		List<RequestData> requests = IntStream.range(0, 1000)
+			.mapToObj(i -> requestData("r" + i, i % 2 == 0 ? entryA : entryB, (i * 7919) % 100))
+			.toList();
+
+		List<RequestData> losers = Collections.synchronizedList(new ArrayList<>());
+		requests.parallelStream().map(snapshot::tryCommit).filter(Objects::nonNull).forEach(losers::add);
+
+		RequestData bestA = requests.stream().filter(rd -> rd.getSolution().insertion().get().insertion.vehicleEntry == entryA)
+			.min(REQUEST_DATA_COMPARATOR).orElseThrow();
+		RequestData bestB = requests.stream().filter(rd -> rd.getSolution().insertion().get().insertion.vehicleEntry == entryB)
+			.min(REQUEST_DATA_COMPARATOR).orElseThrow();
+
+		assertThat(losers).hasSize(998).doesNotContain(bestA, bestB);
+		assertThat(snapshot.getCommits()).containsExactly(bestA, bestB);
+	}
+
+	private static VehicleEntry entry(String vehicleId) {
+		DvrpVehicle vehicle = mock(DvrpVehicle.class);
+		when(vehicle.getId()).thenReturn(Id.create(vehicleId, DvrpVehicle.class));
+		return new VehicleEntry(vehicle, null, null, null, null, 0);
+	}
+
+	private static RequestData requestData(String requestId, VehicleEntry entry, double timeLoss) {
+		DrtRequest request = DrtRequest.newBuilder().id(Id.create(requestId, Request.class)).build();
+		RequestData requestData = new RequestData(request);
+		requestData.setSolution(new RequestData.InsertionRecord(Optional.of(new InsertionWithDetourData(
+			new InsertionGenerator.Insertion(entry, null, null, null), null,
+			new InsertionDetourTimeCalculator.DetourTimeInfo(
+				new InsertionDetourTimeCalculator.PickupDetourInfo(0, 0, timeLoss),
+				new InsertionDetourTimeCalculator.DropoffDetourInfo(0, 0, 0))))));
+		return requestData;
+	}
+}
@@ -74,6 +74,14 @@ final class ColdEmissionAnalysisModule {
 	private final EmissionsConfigGroup ecg;
 
 	private final Set<Pollutant> coldPollutants;
+	private final Pollutant[] coldPollutantArray;
+
+	/**
+	 * Cold emissions per vehicle type, by distance class (0-1 km, 1-2 km) and parking time class (1 to 13), resolved on first use.  The
+	 * emission factors only depend on these, so the factor keys and table lookups are only needed once per combination.  The values are in the
+	 * order of {@link #coldPollutantArray}.
+	 */
+	private final Map<VehicleType, double[][][]> coldEmissionsByVehicleType = new IdentityHashMap<>();
 
 	private int detailedReadingInfoCnt = 0;
 	private int detailedTransformToHbefa4Cnt = 0;
@@ -92,6 +100,7 @@ final class ColdEmissionAnalysisModule {
 		this.detailedHbefaColdTable = detailedHbefaColdTable;
 		this.ecg = ecg;
 		this.coldPollutants = coldPollutants;
+		this.coldPollutantArray = coldPollutants.toArray(new Pollutant[0]);
 
 		Gbl.assertNotNull( eventsManager );
 		this.eventsManager = eventsManager;
@@ -103,6 +112,18 @@ final class ColdEmissionAnalysisModule {
 	/*package-private*/ Map<Pollutant, Double> checkVehicleInfoAndCalculateWColdEmissions(
 			VehicleType vehicleType, Id<Vehicle> vehicleId, Id<Link> coldEmissionEventLinkId,
 			double eventTime, double parkingDuration, int distance_km) {
+		int parkingDuration_h = getParkingTimeClass(parkingDuration);
+		boolean cacheable = distance_km == 1 || distance_km == 2;
+		double[][][] resolved = coldEmissionsByVehicleType.get(vehicleType);
+		if (cacheable && resolved != null && resolved[distance_km - 1][parkingDuration_h - 1] != null) {
+			double[] values = resolved[distance_km - 1][parkingDuration_h - 1];
+			Map<Pollutant, Double> coldEmissions = new EnumMap<>(Pollutant.class);
+			for (int i = 0; i < coldPollutantArray.length; i++) {
+				coldEmissions.put(coldPollutantArray[i], values[i]);
+			}
+			return coldEmissions;
+		}
+
 		{
 			String hbefaVehicleTypeDescription = EmissionUtils.getHbefaVehicleDescription( vehicleType, this.ecg );
 			// (this will, importantly, repair the hbefa description in the vehicle type. kai/kai, jan'20)
@@ -117,7 +138,28 @@ final class ColdEmissionAnalysisModule {
 					EmissionsConfigGroup.GROUP_NAME + " config group are met. Aborting...");
 		}
 
-		return calculateColdEmissions(vehicleId, parkingDuration, vehicleInformationTuple, distance_km);
+		Map<Pollutant, Double> coldEmissions = calculateColdEmissions(vehicleId, parkingDuration, vehicleInformationTuple, distance_km);
+		if (cacheable) {
+			if (resolved == null) {
+				resolved = new double[2][13][];
+				coldEmissionsByVehicleType.put(vehicleType, resolved);
+			}
+			double[] values = new double[coldPollutantArray.length];
+			for (int i = 0; i < coldPollutantArray.length; i++) {
+				values[i] = coldEmissions.get(coldPollutantArray[i]);
+			}
+			resolved[distance_km - 1][parkingDuration_h - 1] = values;
+		}
+		return coldEmissions;
+	}
+
+	/**
+	 * @return parking time class, i.e. the full hours of parking (at least 1), or 13 for 12 hours or more
+	 */
+	static int getParkingTimeClass(double parkingDuration) {
+		int parkingDuration_h = Math.max(1, (int) (parkingDuration / 3600));
+		if (parkingDuration_h >= 12) parkingDuration_h = 13;
+		return parkingDuration_h;
 	}
 
 	/*package-private*/ void throwColdEmissionEvent(Id<Vehicle> vehicleId, Id<Link> coldEmissionEventLinkId, double eventTime, Map<Pollutant, Double> coldEmissions) {
@@ -174,10 +216,7 @@ final class ColdEmissionAnalysisModule {
 			key.setVehicleAttributes(hbefaVehicleAttributes);
 		}
 
-		int parkingDuration_h = Math.max(1, (int) (parkingDuration / 3600));
-		if (parkingDuration_h >= 12) parkingDuration_h = 13;
-
-		key.setParkingTime(parkingDuration_h);
+		key.setParkingTime(getParkingTimeClass(parkingDuration));
 
 		for (Pollutant coldPollutant : coldPollutants) {
 			double generatedEmissions;
@@ -39,7 +39,7 @@ import org.matsim.core.gbl.Gbl;
 import org.matsim.vehicles.Vehicle;
 import org.matsim.vehicles.VehicleUtils;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
 
@@ -57,10 +57,11 @@ final class ColdEmissionHandler implements LinkLeaveEventHandler, VehicleLeavesT
     private int zeroLinkLengthWarnCnt = 0;
     private int nonCarWarn = 0;
 
-    private final Map<Id<Vehicle>, Double> vehicleId2stopEngineTime = new HashMap<>();
-    private final Map<Id<Vehicle>, Double> vehicleId2accumulatedDistance = new HashMap<>();
-    private final Map<Id<Vehicle>, Double> vehicleId2parkingDuration = new HashMap<>();
-    private final Map<Id<Vehicle>, Id<Link>> vehicleId2coldEmissionEventLinkId = new HashMap<>();
+    // state per vehicle, indexed by Id.index() of the vehicle; NaN (or -1 for link indices) if there is none
+    private double[] stopEngineTime = new double[0];
+    private double[] accumulatedDistance = new double[0];
+    private double[] parkingDuration = new double[0];
+    private int[] coldEmissionEventLinkIndex = new int[0];
 
     /*package-private*/ ColdEmissionHandler( Scenario scenario, Map<HbefaColdEmissionFactorKey, HbefaColdEmissionFactor> avgHbefaColdTable,
                                 Map<HbefaColdEmissionFactorKey, HbefaColdEmissionFactor> detailedHbefaColdTable, Set<Pollutant> coldPollutants, EventsManager eventsManager ){
@@ -75,10 +76,10 @@ final class ColdEmissionHandler implements LinkLeaveEventHandler, VehicleLeavesT
         @Override
     public void reset(int iteration) {
         logger.info("resetting counters...");
-        vehicleId2stopEngineTime.clear();
-        vehicleId2accumulatedDistance.clear();
-        vehicleId2parkingDuration.clear();
-        vehicleId2coldEmissionEventLinkId.clear();
+        Arrays.fill(stopEngineTime, Double.NaN);
+        Arrays.fill(accumulatedDistance, Double.NaN);
+        Arrays.fill(parkingDuration, Double.NaN);
+        Arrays.fill(coldEmissionEventLinkIndex, -1);
 
         }
 
@@ -93,11 +94,12 @@ final class ColdEmissionHandler implements LinkLeaveEventHandler, VehicleLeavesT
 
         warnIfZeroLinkLength(linkId, linkLength);
 
-        Double previousDistance = this.vehicleId2accumulatedDistance.get(vehicleId);
-        if (previousDistance != null) {
+        int vehicleIndex = vehicleId.index();
+        double previousDistance = vehicleIndex < accumulatedDistance.length ? accumulatedDistance[vehicleIndex] : Double.NaN;
+        if (!Double.isNaN(previousDistance)) {
             double distance = previousDistance + linkLength;
-            double parkingDuration = this.vehicleId2parkingDuration.get(vehicleId);
-            Id<Link> coldEmissionEventLinkId = this.vehicleId2coldEmissionEventLinkId.get(vehicleId);
+            double parkingDuration = this.parkingDuration[vehicleIndex];
+            Id<Link> coldEmissionEventLinkId = Id.get(coldEmissionEventLinkIndex[vehicleIndex], Link.class);
 
             Vehicle vehicle = VehicleUtils.findVehicle( event.getVehicleId(), scenario );
 
@@ -114,9 +116,9 @@ final class ColdEmissionHandler implements LinkLeaveEventHandler, VehicleLeavesT
 
                     coldEmissionAnalysisModule.throwColdEmissionEvent(vehicle.getId(), linkId, event.getTime(), coldEmissions);
 
-                    this.vehicleId2accumulatedDistance.remove( vehicleId );
+                    this.accumulatedDistance[vehicleIndex] = Double.NaN;
                 } else {
-                    this.vehicleId2accumulatedDistance.put( vehicleId, distance );
+                    this.accumulatedDistance[vehicleIndex] = distance;
                 }
                 // yyyy I have absolutely no clue what the distance stuff is doing here.  kai, jan'20
                 // I now think that this has to do with the fact that the cold emissions are smeared out over the initial distance.  Don't know the details, though.  kai, dec'22
@@ -154,9 +156,9 @@ final class ColdEmissionHandler implements LinkLeaveEventHandler, VehicleLeavesT
                 nonCarWarn++;
             }
         }
-        Id<Vehicle> vehicleId = event.getVehicleId();
-        Double stopEngineTime = event.getTime();
-        this.vehicleId2stopEngineTime.put(vehicleId, stopEngineTime);
+        int vehicleIndex = event.getVehicleId().index();
+        ensureCapacity(vehicleIndex);
+        this.stopEngineTime[vehicleIndex] = event.getTime();
     }
 
     // TODO actually, the engine starts before with the PersonEntersVehicleEvent
@@ -172,18 +174,20 @@ final class ColdEmissionHandler implements LinkLeaveEventHandler, VehicleLeavesT
         Id<Link> linkId = event.getLinkId();
         Id<Vehicle> vehicleId = event.getVehicleId();
         double startEngineTime = event.getTime();
-        this.vehicleId2coldEmissionEventLinkId.put(vehicleId, linkId);
+        int vehicleIndex = vehicleId.index();
+        ensureCapacity(vehicleIndex);
+        this.coldEmissionEventLinkIndex[vehicleIndex] = linkId.index();
 
         double parkingDuration;
-        if (this.vehicleId2stopEngineTime.containsKey(vehicleId)) {
-            double stopEngineTime = this.vehicleId2stopEngineTime.get(vehicleId);
+        if (!Double.isNaN(this.stopEngineTime[vehicleIndex])) {
+            double stopEngineTime = this.stopEngineTime[vehicleIndex];
             parkingDuration = startEngineTime - stopEngineTime;
 
         } else { //parking duration is assumed to be at least 12 hours when parking overnight
             parkingDuration = 43200.0;
         }
-        this.vehicleId2parkingDuration.put(vehicleId, parkingDuration);
-        this.vehicleId2accumulatedDistance.put(vehicleId, 0.0);
+        this.parkingDuration[vehicleIndex] = parkingDuration;
+        this.accumulatedDistance[vehicleIndex] = 0.0;
 
         Vehicle vehicle = VehicleUtils.findVehicle( vehicleId, scenario ) ;
         if ( vehicle==null ) {
@@ -197,6 +201,22 @@ final class ColdEmissionHandler implements LinkLeaveEventHandler, VehicleLeavesT
         }
     }
 
+    private void ensureCapacity(int vehicleIndex) {
+        if (vehicleIndex < stopEngineTime.length) {
+            return;
+        }
+        int oldLength = stopEngineTime.length;
+        int newLength = Math.max(Math.max(vehicleIndex + 1, oldLength * 2), Id.getNumberOfIds(Vehicle.class));
+        stopEngineTime = Arrays.copyOf(stopEngineTime, newLength);
+        accumulatedDistance = Arrays.copyOf(accumulatedDistance, newLength);
+        parkingDuration = Arrays.copyOf(parkingDuration, newLength);
+        coldEmissionEventLinkIndex = Arrays.copyOf(coldEmissionEventLinkIndex, newLength);
+        Arrays.fill(stopEngineTime, oldLength, newLength, Double.NaN);
+        Arrays.fill(accumulatedDistance, oldLength, newLength, Double.NaN);
+        Arrays.fill(parkingDuration, oldLength, newLength, Double.NaN);
+        Arrays.fill(coldEmissionEventLinkIndex, oldLength, newLength, -1);
+    }
+
     private void warnIfZeroLinkLength(Id<Link> linkId, double linkLength) {
         if (linkLength == 0.) {
             if (zeroLinkLengthWarnCnt == 0) {
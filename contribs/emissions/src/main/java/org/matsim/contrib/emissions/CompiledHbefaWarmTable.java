@@ -0,0 +1,130 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+package org.matsim.contrib.emissions;
+
+import java.util.*;
+
+/**
+ * Dense, index-addressed view on the (resolved) warm emission factors, addressed by
+ * vehicle &times; road type &times; traffic situation &times; pollutant.
+ * <p>
+ * The lookup in the HBEFA tables goes through several fallbacks (HBEFA3 &rarr; HBEFA4 rewrite, technology average,
+ * average table), each requiring a new key object and a hash lookup.  The outcome only depends on the vehicle
+ * attributes, the road type, the traffic situation and the pollutant, so it is resolved once per combination and kept
+ * in primitive arrays.  Road types known from the tables are indexed at construction, others (and all vehicles) when
+ * they are first encountered.  Unresolvable combinations are not cached, i.e. they fail each time they are requested,
+ * exactly as the uncached lookup does.
+ * <p>
+ * Not thread-safe (like {@link WarmEmissionAnalysisModule}).
+ */
+final class CompiledHbefaWarmTable {
+	private static final int N_POLLUTANTS = Pollutant.values().length;
+	private static final int N_SITUATIONS = HbefaTrafficSituation.values().length;
+
+	private record VehicleKey(HbefaVehicleCategory category, String technology, String sizeClass, String emConcept) {
+	}
+
+	/**
+	 * Factors and speeds of all traffic situations and pollutants for one vehicle and road type.
+	 * {@code NaN} marks combinations that have not been resolved yet.
+	 */
+	static final class Row {
+		private final double[] factors = new double[N_SITUATIONS * N_POLLUTANTS];
+		private final double[] speeds = new double[N_SITUATIONS * N_POLLUTANTS];
+		private double[] trafficSpeeds; // per traffic situation, NaN if not in the table; null if not resolved yet
+
+		private Row() {
+			Arrays.fill(factors, Double.NaN);
+			Arrays.fill(speeds, Double.NaN);
+		}
+
+		private static int index(HbefaTrafficSituation situation, Pollutant pollutant) {
+			return situation.ordinal() * N_POLLUTANTS + pollutant.ordinal();
+		}
+
+		boolean isResolved(HbefaTrafficSituation situation, Pollutant pollutant) {
+			return !Double.isNaN(factors[index(situation, pollutant)]);
+		}
+
+		double getFactor(HbefaTrafficSituation situation, Pollutant pollutant) {
+			return factors[index(situation, pollutant)];
+		}
+
+		double getSpeed(HbefaTrafficSituation situation, Pollutant pollutant) {
+			return speeds[index(situation, pollutant)];
+		}
+
+		void set(HbefaTrafficSituation situation, Pollutant pollutant, HbefaWarmEmissionFactor ef) {
+			int idx = index(situation, pollutant);
+			factors[idx] = ef.getFactor();
+			speeds[idx] = ef.getSpeed();
+		}
+
+		/**
+		 * @return the traffic speeds per traffic situation ordinal ({@code NaN} if not available), or {@code null} if not
+		 * resolved yet
+		 */
+		double[] getTrafficSpeeds() {
+			return trafficSpeeds;
+		}
+
+		void setTrafficSpeeds(Map<HbefaTrafficSituation, Double> speedsBySituation) {
+			double[] speeds = new double[N_SITUATIONS];
+			Arrays.fill(speeds, Double.NaN);
+			speedsBySituation.forEach((situation, speed) -> speeds[situation.ordinal()] = speed);
+			this.trafficSpeeds = speeds;
+		}
+	}
+
+	private final Map<String, Integer> roadTypeIndex = new HashMap<>();
+	private final Map<VehicleKey, Row[]> rowsByVehicle = new HashMap<>();
+
+	CompiledHbefaWarmTable(Map<HbefaWarmEmissionFactorKey, HbefaWarmEmissionFactor> avgHbefaWarmTable,
+						   Map<HbefaWarmEmissionFactorKey, HbefaWarmEmissionFactor> detailedHbefaWarmTable) {
+		for (var table : Arrays.asList(avgHbefaWarmTable, detailedHbefaWarmTable)) {
+			if (table != null) {
+				table.keySet().forEach(key -> getRoadTypeIndex(key.getRoadCategory()));
+			}
+		}
+	}
+
+	private int getRoadTypeIndex(String roadType) {
+		return roadTypeIndex.computeIfAbsent(roadType, r -> roadTypeIndex.size());
+	}
+
+	Row getRow(HbefaVehicleCategory vehicleCategory, HbefaVehicleAttributes vehicleAttributes, String roadType) {
+		var vehicleKey = vehicleAttributes == null ?
+				new VehicleKey(vehicleCategory, null, null, null) :
+				new VehicleKey(vehicleCategory, vehicleAttributes.getHbefaTechnology(), vehicleAttributes.getHbefaSizeClass(),
+						vehicleAttributes.getHbefaEmConcept());
+		int roadIdx = getRoadTypeIndex(roadType);
+
+		Row[] rows = rowsByVehicle.get(vehicleKey);
+		if (rows == null || rows.length <= roadIdx) {
+			rows = rows == null ? new Row[roadTypeIndex.size()] : Arrays.copyOf(rows, roadTypeIndex.size());
+			rowsByVehicle.put(vehicleKey, rows);
+		}
+
+		Row row = rows[roadIdx];
+		if (row == null) {
+			row = rows[roadIdx] = new Row();
+		}
+		return row;
+	}
+}
@@ -230,4 +230,14 @@ public final class EmissionModule {
 
 		logger.info("leaving createEmissionHandlers");
 	}
+
+	/**
+	 * Adds an additional pair of warm and cold emission handlers to the given events manager.  The handlers share the (read-only) lookup tables
+	 * of this module, but keep their own per-vehicle state, so that several independent events managers (e.g. one per thread) can compute
+	 * emissions for disjoint sets of vehicles.  Emission events are thrown into the given events manager.
+	 */
+	void addEmissionHandlers(EventsManager emissionEventsManager) {
+		new WarmEmissionHandler(scenario, avgHbefaWarmTable, detailedHbefaWarmTable, hbefaRoadTrafficSpeeds, warmPollutants, emissionEventsManager);
+		new ColdEmissionHandler(scenario, avgHbefaColdTable, detailedHbefaColdTable, coldPollutants, emissionEventsManager);
+	}
 }
@@ -0,0 +1,323 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+package org.matsim.contrib.emissions;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.api.core.v01.events.HasVehicleId;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.contrib.analysis.time.TimeBinMap;
+import org.matsim.contrib.emissions.analysis.EmissionsByPollutant;
+import org.matsim.contrib.emissions.analysis.EmissionsOnLinkEventHandler;
+import org.matsim.contrib.emissions.events.ColdEmissionEvent;
+import org.matsim.contrib.emissions.events.ColdEmissionEventHandler;
+import org.matsim.contrib.emissions.events.WarmEmissionEvent;
+import org.matsim.contrib.emissions.events.WarmEmissionEventHandler;
+import org.matsim.contrib.emissions.utils.EmissionsConfigGroup;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.algorithms.EventWriterXML;
+import org.matsim.vehicles.Vehicle;
+import org.matsim.vehicles.VehicleType;
+import org.matsim.vehicles.VehicleUtils;
+import org.matsim.vehicles.Vehicles;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Computes warm and cold emissions for an existing events file on several threads, without going through a (single-threaded) events manager
+ * for the whole file.
+ * <p>
+ * The events file is parsed once, and only link enter/leave and vehicle enters/leaves traffic events are created.  Vehicles are partitioned
+ * over the worker threads by their id, so that all events of a vehicle are handled (in order) by the same worker.  Each worker has its own
+ * warm and cold emission handlers, i.e. the per-vehicle state is thread-local, while the HBEFA lookup tables are loaded once and shared.  The
+ * emissions are aggregated per worker and merged into per-link and per-time-bin totals (as in {@link EmissionsOnLinkEventHandler}) at the end.
+ * <p>
+ * Emission events can optionally be written to a separate file.  Since the workers write concurrently, the events in that file are
+ * <b>not</b> sorted by time.
+ * <p>
+ * The vehicle types are converted to the {@link EmissionsConfigGroup.HbefaVehicleDescriptionSource#asEngineInformationAttributes} format up
+ * front, since the conversion modifies the (shared) vehicle types.  The emissions config group is switched to that format accordingly.
+ */
+public final class ParallelEmissionsCalculator {
+	private static final Logger log = LogManager.getLogger(ParallelEmissionsCalculator.class);
+
+	private static final int BATCH_SIZE = 1024;
+	private static final int QUEUE_CAPACITY = 64;
+	private static final List<Event> END_OF_EVENTS = List.of();
+
+	private final Scenario scenario;
+	private final int numberOfThreads;
+	private final double timeBinSize;
+	private final double endTime;
+
+	private EventWriterXML emissionEventsWriter;
+
+	private final TimeBinMap<Map<Id<Link>, EmissionsByPollutant>> timeBins;
+	private final Map<Id<Link>, Map<Pollutant, Double>> link2pollutants = new HashMap<>();
+
+	/**
+	 * @param timeBinSize size of the time bins of the aggregated emissions
+	 * @param endTime     emissions after this time are not aggregated (but still written as emission events)
+	 */
+	public ParallelEmissionsCalculator(Scenario scenario, int numberOfThreads, double timeBinSize, double endTime) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("numberOfThreads must be at least 1, but is " + numberOfThreads);
+		}
+		this.scenario = scenario;
+		this.numberOfThreads = numberOfThreads;
+		this.timeBinSize = timeBinSize;
+		this.endTime = endTime;
+		this.timeBins = new TimeBinMap<>(timeBinSize);
+	}
+
+	public ParallelEmissionsCalculator(Scenario scenario, int numberOfThreads, double timeBinSize) {
+		this(scenario, numberOfThreads, timeBinSize, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Additionally write all emission events to the given file.  Note that the written events are not sorted by time.
+	 */
+	public ParallelEmissionsCalculator setEmissionEventsFile(String emissionEventsFile) {
+		this.emissionEventsWriter = emissionEventsFile == null ? null : new EventWriterXML(emissionEventsFile);
+		return this;
+	}
+
+	public void run(String eventsFile) {
+		prepareVehicleTypes();
+
+		// loads the lookup tables; the handlers of the module itself are not used
+		EmissionModule emissionModule = new EmissionModule(scenario, EventsUtils.createEventsManager());
+
+		List<Worker> workers = new ArrayList<>(numberOfThreads);
+		List<Thread> threads = new ArrayList<>(numberOfThreads);
+		for (int i = 0; i < numberOfThreads; i++) {
+			Worker worker = new Worker(emissionModule);
+			Thread thread = new Thread(worker, "emissions-" + i);
+			workers.add(worker);
+			threads.add(thread);
+			thread.start();
+		}
+
+		log.info("Calculating emissions for {} on {} threads", eventsFile, numberOfThreads);
+		Dispatcher dispatcher = new Dispatcher(workers);
+		try {
+			new RawTrafficEventsReader(dispatcher).readFile(eventsFile);
+		} finally {
+			// also if reading fails, otherwise the workers wait for more events forever
+			dispatcher.finish();
+			for (Thread thread : threads) {
+				try {
+					thread.join();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RuntimeException(e);
+				}
+			}
+
+			if (emissionEventsWriter != null) {
+				emissionEventsWriter.closeFile();
+			}
+		}
+
+		for (Worker worker : workers) {
+			if (worker.failure != null) {
+				throw new RuntimeException("Emission calculation failed", worker.failure);
+			}
+		}
+
+		for (Worker worker : workers) {
+			merge(worker.aggregator);
+		}
+		log.info("Emission calculation finished");
+	}
+
+	/**
+	 * @return emissions by time bin and by link id
+	 */
+	public TimeBinMap<Map<Id<Link>, EmissionsByPollutant>> getTimeBins() {
+		return timeBins;
+	}
+
+	/**
+	 * @return total emissions per pollutant by link id
+	 */
+	public Map<Id<Link>, Map<Pollutant, Double>> getLink2pollutants() {
+		return link2pollutants;
+	}
+
+	private void prepareVehicleTypes() {
+		EmissionsConfigGroup ecg = ConfigUtils.addOrGetModule(scenario.getConfig(), EmissionsConfigGroup.class);
+
+		// vehicles are looked up in this container first; make sure it is not created concurrently
+		Vehicles allVehicles = VehicleUtils.getOrCreateAllvehicles(scenario);
+
+		Set<VehicleType> vehicleTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Vehicles vehicles : List.of(allVehicles, scenario.getVehicles(), scenario.getTransitVehicles())) {
+			vehicleTypes.addAll(vehicles.getVehicleTypes().values());
+			vehicles.getVehicles().values().stream().map(Vehicle::getType).forEach(vehicleTypes::add);
+		}
+		if (ecg.getHbefaVehicleDescriptionSource() != EmissionsConfigGroup.HbefaVehicleDescriptionSource.asEngineInformationAttributes) {
+			for (VehicleType vehicleType : vehicleTypes) {
+				try {
+					EmissionUtils.getHbefaVehicleDescription(vehicleType, ecg);
+				} catch (RuntimeException e) {
+					// e.g. types of vehicles without emissions (bike, pt); they fail later if they actually produce emissions
+					log.warn("Could not convert the hbefa vehicle description of vehicle type {}: {}", vehicleType.getId(), e.getMessage());
+				}
+			}
+			log.info("Converted the hbefa vehicle description of {} vehicle types from {} to {}", vehicleTypes.size(),
+					ecg.getHbefaVehicleDescriptionSource(), EmissionsConfigGroup.HbefaVehicleDescriptionSource.asEngineInformationAttributes);
+			ecg.setHbefaVehicleDescriptionSource(EmissionsConfigGroup.HbefaVehicleDescriptionSource.asEngineInformationAttributes);
+		}
+	}
+
+	private void merge(EmissionsOnLinkEventHandler aggregator) {
+		for (TimeBinMap.TimeBin<Map<Id<Link>, EmissionsByPollutant>> bin : aggregator.getTimeBins().getTimeBins()) {
+			if (!bin.hasValue()) {
+				continue;
+			}
+			Map<Id<Link>, EmissionsByPollutant> merged = timeBins.getTimeBin(bin.getStartTime()).computeIfAbsent(HashMap::new);
+			bin.getValue().forEach((linkId, emissions) -> {
+				EmissionsByPollutant mergedEmissions = merged.get(linkId);
+				if (mergedEmissions == null) {
+					merged.put(linkId, new EmissionsByPollutant(new HashMap<>(emissions.getEmissions())));
+				} else {
+					mergedEmissions.addEmissions(emissions.getEmissions());
+				}
+			});
+		}
+
+		aggregator.getLink2pollutants().forEach((linkId, emissions) -> {
+			Map<Pollutant, Double> merged = link2pollutants.computeIfAbsent(linkId, id -> new EnumMap<>(Pollutant.class));
+			emissions.forEach((pollutant, value) -> merged.merge(pollutant, value, Double::sum));
+		});
+	}
+
+	/**
+	 * Collects the events read by the parser into batches and hands them over to the worker responsible for the respective vehicle.
+	 */
+	private static final class Dispatcher implements Consumer<Event> {
+		private final List<Worker> workers;
+		private final List<List<Event>> batches = new ArrayList<>();
+
+		private Dispatcher(List<Worker> workers) {
+			this.workers = workers;
+			for (int i = 0; i < workers.size(); i++) {
+				batches.add(new ArrayList<>(BATCH_SIZE));
+			}
+		}
+
+		@Override
+		public void accept(Event event) {
+			Id<Vehicle> vehicleId = ((HasVehicleId)event).getVehicleId();
+			int idx = Math.floorMod(vehicleId.index(), workers.size());
+			List<Event> batch = batches.get(idx);
+			batch.add(event);
+			if (batch.size() == BATCH_SIZE) {
+				put(idx, batch);
+				batches.set(idx, new ArrayList<>(BATCH_SIZE));
+			}
+		}
+
+		private void finish() {
+			for (int i = 0; i < workers.size(); i++) {
+				if (!batches.get(i).isEmpty()) {
+					put(i, batches.get(i));
+				}
+				put(i, END_OF_EVENTS);
+			}
+		}
+
+		private void put(int idx, List<Event> batch) {
+			try {
+				workers.get(idx).queue.put(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	private final class Worker implements Runnable {
+		private final BlockingQueue<List<Event>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		private final EventsManager eventsManager = EventsUtils.createEventsManager();
+		private final EmissionsOnLinkEventHandler aggregator = new EmissionsOnLinkEventHandler(timeBinSize, endTime);
+		private volatile Throwable failure;
+
+		private Worker(EmissionModule emissionModule) {
+			emissionModule.addEmissionHandlers(eventsManager);
+			eventsManager.addHandler(aggregator);
+			if (emissionEventsWriter != null) {
+				eventsManager.addHandler(new SynchronizedEmissionEventsWriter(emissionEventsWriter));
+			}
+		}
+
+		@Override
+		public void run() {
+			eventsManager.initProcessing();
+			try {
+				List<Event> batch;
+				while ((batch = queue.take()) != END_OF_EVENTS) {
+					// after a failure, the queue is still drained so that the parser does not block
+					if (failure == null) {
+						process(batch);
+					}
+				}
+			} catch (InterruptedException e) {
+				failure = e;
+			}
+			eventsManager.finishProcessing();
+		}
+
+		private void process(List<Event> batch) {
+			try {
+				for (Event event : batch) {
+					eventsManager.processEvent(event);
+				}
+			} catch (Throwable t) {
+				log.error("Emission calculation failed on thread {}", Thread.currentThread().getName(), t);
+				failure = t;
+			}
+		}
+	}
+
+	private record SynchronizedEmissionEventsWriter(EventWriterXML writer) implements WarmEmissionEventHandler, ColdEmissionEventHandler {
+		@Override
+		public void handleEvent(WarmEmissionEvent event) {
+			synchronized (writer) {
+				writer.handleEvent(event);
+			}
+		}
+
+		@Override
+		public void handleEvent(ColdEmissionEvent event) {
+			synchronized (writer) {
+				writer.handleEvent(event);
+			}
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+package org.matsim.contrib.emissions;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.events.*;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.utils.io.MatsimXmlParser;
+import org.matsim.vehicles.Vehicle;
+import org.xml.sax.Attributes;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.Stack;
+import java.util.function.Consumer;
+
+/**
+ * Events reader which only creates the events needed for the emission calculation (link enter/leave, vehicle enters/leaves traffic) and passes
+ * them to a consumer, without an events manager.  All other events are skipped without creating any objects.
+ * <p>
+ * Only xml events files are supported.
+ */
+final class RawTrafficEventsReader extends MatsimXmlParser {
+	private static final Logger logger = LogManager.getLogger(RawTrafficEventsReader.class);
+	private static final NumberFormat numberFormat = NumberFormat.getNumberInstance(Locale.UK);
+
+	private static final String EVENT = "event";
+
+	private final Consumer<Event> consumer;
+	private long eventsCounter = 0;
+
+	RawTrafficEventsReader(Consumer<Event> consumer) {
+		super(ValidationType.NO_VALIDATION);
+		this.consumer = consumer;
+		// events don't have dtd. Therefore, validation is not possible
+		this.setValidating(false);
+	}
+
+	@Override
+	public void startTag(String name, Attributes atts, Stack<String> context) {
+		if (!EVENT.equals(name)) {
+			return;
+		}
+
+		String type = atts.getValue(Event.ATTRIBUTE_TYPE);
+		Event event = switch (type) {
+			case LinkEnterEvent.EVENT_TYPE -> new LinkEnterEvent(time(atts), vehicleId(atts), linkId(atts));
+			case LinkLeaveEvent.EVENT_TYPE -> new LinkLeaveEvent(time(atts), vehicleId(atts), linkId(atts));
+			case VehicleEntersTrafficEvent.EVENT_TYPE -> new VehicleEntersTrafficEvent(time(atts), personId(atts), linkId(atts), vehicleId(atts),
+					atts.getValue(VehicleEntersTrafficEvent.ATTRIBUTE_NETWORKMODE), position(atts));
+			case VehicleLeavesTrafficEvent.EVENT_TYPE -> new VehicleLeavesTrafficEvent(time(atts), personId(atts), linkId(atts), vehicleId(atts),
+					atts.getValue(VehicleLeavesTrafficEvent.ATTRIBUTE_NETWORKMODE), position(atts));
+			default -> null;
+		};
+
+		if (event != null) {
+			consumer.accept(event);
+
+			// give some feedback about progress
+			if (++eventsCounter % 5_000_000 == 0) {
+				logger.info("Traffic Event # {}", numberFormat.format(eventsCounter));
+			}
+		}
+	}
+
+	private static double time(Attributes atts) {
+		return Double.parseDouble(atts.getValue(Event.ATTRIBUTE_TIME));
+	}
+
+	private static Id<Vehicle> vehicleId(Attributes atts) {
+		return Id.createVehicleId(atts.getValue(HasVehicleId.ATTRIBUTE_VEHICLE));
+	}
+
+	private static Id<Link> linkId(Attributes atts) {
+		return Id.createLinkId(atts.getValue(HasLinkId.ATTRIBUTE_LINK));
+	}
+
+	private static Id<Person> personId(Attributes atts) {
+		String personId = atts.getValue(HasPersonId.ATTRIBUTE_PERSON);
+		return personId == null ? null : Id.createPersonId(personId);
+	}
+
+	private static double position(Attributes atts) {
+		String position = atts.getValue(VehicleEntersTrafficEvent.ATTRIBUTE_POSITION);
+		return position == null ? 1.0 : Double.parseDouble(position);
+	}
+
+	@Override
+	public void endTag(String name, String content, Stack<String> context) {
+		// don't need to do anything here, since everything is handled in startTag
+	}
+
+	@Override
+	public void characters(char[] ch, int start, int length) {
+		// ignore characters to prevent OutOfMemoryExceptions (see RawEmissionEventsReader)
+	}
+}
@@ -52,6 +52,7 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 	private final Map<HbefaWarmEmissionFactorKey, HbefaWarmEmissionFactor>  avgHbefaWarmTable;
 	private final Map<HbefaWarmEmissionFactorKey, HbefaWarmEmissionFactor> detailedHbefaWarmTable;
 	private final Map<HbefaRoadVehicleCategoryKey, Map<HbefaTrafficSituation, Double>> hbefaRoadTrafficSpeeds;
+	private final CompiledHbefaWarmTable compiledWarmTable;
 	private final Set<Pollutant> warmPollutants;
 
 	private final EventsManager eventsManager;
@@ -89,6 +90,7 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 		this.avgHbefaWarmTable = avgHbefaWarmTable;
 		this.detailedHbefaWarmTable = detailedHbefaWarmTable;
 		this.hbefaRoadTrafficSpeeds = hbefaRoadTrafficSpeeds;
+		this.compiledWarmTable = new CompiledHbefaWarmTable(avgHbefaWarmTable, detailedHbefaWarmTable);
 		this.warmPollutants = warmPollutants;
 
 		Gbl.assertNotNull( eventsManager );
@@ -249,18 +251,8 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 			return warmEmissionsOfEvent;
 		}
 
-		// translate vehicle information type into factor key.  yyyy maybe combine these two? kai, jan'20
-		HbefaWarmEmissionFactorKey efkey = new HbefaWarmEmissionFactorKey();
-		efkey.setVehicleCategory(vehicleInformationTuple.getFirst());
-		efkey.setRoadCategory(roadType);
-		if (this.detailedHbefaWarmTable != null) {
-			HbefaVehicleAttributes hbefaVehicleAttributes = new HbefaVehicleAttributes();
-			hbefaVehicleAttributes.setHbefaTechnology(vehicleInformationTuple.getSecond().getHbefaTechnology());
-			hbefaVehicleAttributes.setHbefaSizeClass(vehicleInformationTuple.getSecond().getHbefaSizeClass());
-			hbefaVehicleAttributes.setHbefaEmConcept(vehicleInformationTuple.getSecond().getHbefaEmConcept());
-			efkey.setVehicleAttributes(hbefaVehicleAttributes);
-		}
-
+		// resolved emission factors of this vehicle on this road type; lookups in the hbefa tables only happen on the first occurrence:
+		CompiledHbefaWarmTable.Row efRow = compiledWarmTable.getRow(vehicleInformationTuple.getFirst(), vehicleInformationTuple.getSecond(), roadType);
 
 		double averageSpeed_kmh = (linkLength_m / 1000) / (travelTime_sec / 3600);
 
@@ -279,10 +271,9 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 		}
 
 		// for the average speed method, the traffic situation is already known here:
+		HbefaTrafficSituation trafficSituation = null;
 		if (ecg.getEmissionsComputationMethod() == AverageSpeed) {
-			final HbefaTrafficSituation trafficSituation = getTrafficSituation(efkey, averageSpeed_kmh, freeVelocity_ms * 3.6);
-//			logger.warn( "trafficSituation=" + trafficSituation );
-			efkey.setTrafficSituation(trafficSituation);
+			trafficSituation = getTrafficSituation(efRow, vehicleInformationTuple, roadType, averageSpeed_kmh, freeVelocity_ms * 3.6);
 		}
 
 		double fractionStopGo = 0;
@@ -290,19 +281,16 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 		// for each pollutant, compute and memorize emissions:
 		for ( Pollutant warmPollutant : warmPollutants) {
 
-			efkey.setComponent(warmPollutant);
-
 			double ef_gpkm;
 			if (ecg.getEmissionsComputationMethod() == StopAndGoFraction) {
 
-				// compute faction.  This cannot be done earlier since efkey.component is needed.
-				fractionStopGo = getFractionStopAndGo(freeVelocity_ms * 3.6, averageSpeed_kmh, vehicleInformationTuple, efkey);
+				// compute faction.  This cannot be done earlier since the stop-go speed depends on the pollutant.
+				fractionStopGo = getFractionStopAndGo(freeVelocity_ms * 3.6, averageSpeed_kmh, efRow, vehicleInformationTuple, roadType, warmPollutant);
 
 				double efStopGo_gpkm = 0.;
 				if (fractionStopGo > 0) {
 					// compute emissions from stop-go fraction:
-					efkey.setTrafficSituation(STOPANDGO);
-					efStopGo_gpkm = getEf(vehicleInformationTuple, efkey).getFactor();
+					efStopGo_gpkm = resolve(efRow, vehicleInformationTuple, roadType, STOPANDGO, warmPollutant).getFactor(STOPANDGO, warmPollutant);
 					logger.debug("pollutant={}; efStopGo={}", warmPollutant, efStopGo_gpkm);
 
 				}
@@ -310,8 +298,7 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 				double efFreeFlow_gpkm = 0. ;
 				if ( fractionStopGo<1.) {
 					// compute emissions for free-flow fraction:
-					efkey.setTrafficSituation(FREEFLOW);
-					efFreeFlow_gpkm = getEf(vehicleInformationTuple, efkey).getFactor();
+					efFreeFlow_gpkm = resolve(efRow, vehicleInformationTuple, roadType, FREEFLOW, warmPollutant).getFactor(FREEFLOW, warmPollutant);
 					logger.debug("pollutant={}; efFreeFlow={}", warmPollutant, efFreeFlow_gpkm);
 				}
 
@@ -320,7 +307,7 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 				ef_gpkm = (fractionFreeFlow * efFreeFlow_gpkm) + (fractionStopGo * efStopGo_gpkm);
 
 			} else if (ecg.getEmissionsComputationMethod() == AverageSpeed) {
-				ef_gpkm = getEf(vehicleInformationTuple, efkey).getFactor();
+				ef_gpkm = resolve(efRow, vehicleInformationTuple, roadType, trafficSituation, warmPollutant).getFactor(trafficSituation, warmPollutant);
 			} else {
 				throw new RuntimeException( Gbl.NOT_IMPLEMENTED );
 			}
@@ -335,7 +322,7 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 			incrementCountersFractional( linkLength_m / 1000, fractionStopGo );
 		}
 		else if (ecg.getEmissionsComputationMethod() == AverageSpeed) {
-			incrementCountersAverage(efkey.getTrafficSituation(), linkLength_m / 1000);
+			incrementCountersAverage(trafficSituation, linkLength_m / 1000);
 		} else {
 			throw new RuntimeException( Gbl.NOT_IMPLEMENTED );
 		}
@@ -343,12 +330,40 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 		return warmEmissionsOfEvent;
 	}
 
-	private double getFractionStopAndGo(double freeFlowSpeed_kmh, double averageSpeed_kmh,
-										Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple,
-										HbefaWarmEmissionFactorKey efkey) {
+	private HbefaWarmEmissionFactorKey createEfKey(Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple, String roadType) {
+		// translate vehicle information type into factor key.  yyyy maybe combine these two? kai, jan'20
+		HbefaWarmEmissionFactorKey efkey = new HbefaWarmEmissionFactorKey();
+		efkey.setVehicleCategory(vehicleInformationTuple.getFirst());
+		efkey.setRoadCategory(roadType);
+		if (this.detailedHbefaWarmTable != null) {
+			HbefaVehicleAttributes hbefaVehicleAttributes = new HbefaVehicleAttributes();
+			hbefaVehicleAttributes.setHbefaTechnology(vehicleInformationTuple.getSecond().getHbefaTechnology());
+			hbefaVehicleAttributes.setHbefaSizeClass(vehicleInformationTuple.getSecond().getHbefaSizeClass());
+			hbefaVehicleAttributes.setHbefaEmConcept(vehicleInformationTuple.getSecond().getHbefaEmConcept());
+			efkey.setVehicleAttributes(hbefaVehicleAttributes);
+		}
+		return efkey;
+	}
+
+	/**
+	 * Makes sure that the emission factor for the given traffic situation and pollutant is in the row (looking it up, including all fallbacks,
+	 * on the first request).
+	 */
+	private CompiledHbefaWarmTable.Row resolve(CompiledHbefaWarmTable.Row efRow, Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple,
+											   String roadType, HbefaTrafficSituation trafficSituation, Pollutant pollutant) {
+		if (!efRow.isResolved(trafficSituation, pollutant)) {
+			HbefaWarmEmissionFactorKey efkey = createEfKey(vehicleInformationTuple, roadType);
+			efkey.setTrafficSituation(trafficSituation);
+			efkey.setComponent(pollutant);
+			efRow.set(trafficSituation, pollutant, getEf(vehicleInformationTuple, efkey));
+		}
+		return efRow;
+	}
+
+	private double getFractionStopAndGo(double freeFlowSpeed_kmh, double averageSpeed_kmh, CompiledHbefaWarmTable.Row efRow,
+										Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple, String roadType, Pollutant pollutant) {
 
-		efkey.setTrafficSituation(STOPANDGO);
-		double stopGoSpeedFromTable_kmh = getEf(vehicleInformationTuple, efkey).getSpeed();
+		double stopGoSpeedFromTable_kmh = resolve(efRow, vehicleInformationTuple, roadType, STOPANDGO, pollutant).getSpeed(STOPANDGO, pollutant);
 
 		double fractionStopGo;
 
@@ -547,35 +562,42 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 
 
 	//TODO: this is based on looking at the speeds in the HBEFA files, using an MFP, maybe from A.Loder would be nicer, jm  oct'18
-	private HbefaTrafficSituation getTrafficSituation(HbefaWarmEmissionFactorKey efkey, double averageSpeed_kmh, double freeFlowSpeed_kmh) {
-		//TODO: should this be generated only once much earlier?
-		HbefaRoadVehicleCategoryKey hbefaRoadVehicleCategoryKey = new HbefaRoadVehicleCategoryKey(efkey);
-		Map<HbefaTrafficSituation, Double> trafficSpeeds = this.hbefaRoadTrafficSpeeds.get(hbefaRoadVehicleCategoryKey);
-
-		//TODO: Hier die Berechnung einfügen, die die trafficSpeedTabelle entsprechend aus den Werten erstellt?
-		//Frage Laufzeit: Einmal berechnen ha
-
-		if (trafficSpeeds == null || !trafficSpeeds.containsKey(FREEFLOW)) {
-			throw new RuntimeException("At least the FREEFLOW condition must be specified for all emission factor keys. " +
-					"It was not found for " + efkey);
+	private HbefaTrafficSituation getTrafficSituation(CompiledHbefaWarmTable.Row efRow, Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple,
+													  String roadType, double averageSpeed_kmh, double freeFlowSpeed_kmh) {
+		double[] trafficSpeeds = efRow.getTrafficSpeeds();
+		if (trafficSpeeds == null) {
+			HbefaWarmEmissionFactorKey efkey = createEfKey(vehicleInformationTuple, roadType);
+			HbefaRoadVehicleCategoryKey hbefaRoadVehicleCategoryKey = new HbefaRoadVehicleCategoryKey(efkey);
+			Map<HbefaTrafficSituation, Double> trafficSpeedsMap = this.hbefaRoadTrafficSpeeds.get(hbefaRoadVehicleCategoryKey);
+
+			//TODO: Hier die Berechnung einfügen, die die trafficSpeedTabelle entsprechend aus den Werten erstellt?
+			//Frage Laufzeit: Einmal berechnen ha
+
+			if (trafficSpeedsMap == null || !trafficSpeedsMap.containsKey(FREEFLOW)) {
+				throw new RuntimeException("At least the FREEFLOW condition must be specified for all emission factor keys. " +
+						"It was not found for " + efkey);
+			}
+			efRow.setTrafficSpeeds(trafficSpeedsMap);
+			trafficSpeeds = efRow.getTrafficSpeeds();
 		}
 
+		// (NaN if the traffic situation is not in the table; all comparisons with NaN are false)
 		HbefaTrafficSituation trafficSituation  = FREEFLOW;
-		if (trafficSpeeds.containsKey(HEAVY) && averageSpeed_kmh <= trafficSpeeds.get(HEAVY)) {
+		if (averageSpeed_kmh <= trafficSpeeds[HEAVY.ordinal()]) {
 			trafficSituation = HEAVY;
 		}
-		if (trafficSpeeds.containsKey(SATURATED) && averageSpeed_kmh <= trafficSpeeds.get(SATURATED)) {
+		if (averageSpeed_kmh <= trafficSpeeds[SATURATED.ordinal()]) {
 			trafficSituation = SATURATED;
 		}
-		if (trafficSpeeds.containsKey(STOPANDGO) && averageSpeed_kmh <= trafficSpeeds.get(STOPANDGO)) {
-			if (averageSpeed_kmh != trafficSpeeds.get(FREEFLOW)) { //handle case testCheckVehicleInfoAndCalculateWarmEmissions_and_throwWarmEmissionEvent6
+		if (averageSpeed_kmh <= trafficSpeeds[STOPANDGO.ordinal()]) {
+			if (averageSpeed_kmh != trafficSpeeds[FREEFLOW.ordinal()]) { //handle case testCheckVehicleInfoAndCalculateWarmEmissions_and_throwWarmEmissionEvent6
 				trafficSituation = STOPANDGO;
 			}
 		}
 		/*FIXME The following lines should be added to account for the HBEFA 4.1's additional traffic situation,
 		   but it currently causes a test failure (jwj, Nov'20) */
-//		if (trafficSpeeds.containsKey(STOPANDGO_HEAVY) && averageSpeed_kmh <= trafficSpeeds.get(STOPANDGO_HEAVY)) {
-//			if (averageSpeed_kmh != trafficSpeeds.get(FREEFLOW)) { //handle case testCheckVehicleInfoAndCalculateWarmEmissions_and_throwWarmEmissionEvent6
+//		if (averageSpeed_kmh <= trafficSpeeds[STOPANDGO_HEAVY.ordinal()]) {
+//			if (averageSpeed_kmh != trafficSpeeds[FREEFLOW.ordinal()]) { //handle case testCheckVehicleInfoAndCalculateWarmEmissions_and_throwWarmEmissionEvent6
 //				trafficSituation = STOPANDGO_HEAVY;
 //			}
 //		}
@@ -283,7 +283,15 @@ public abstract class FastEmissionGridAnalyzer {
 	 * @return number of cells the link is rastered to
 	 */
 	private static int rasterizeLink(Link link, double value, Raster raster) {
+		return forEachCellOfLink(link, raster, (xi, yi) -> raster.adjustValueForIndex(xi, yi, value));
+	}
 
+	/**
+	 * Supplies the x and y index of each raster cell covered by the link, see {@link #rasterizeLink(Link, double, Raster)}.
+	 *
+	 * @return number of cells the link is rastered to
+	 */
+	static int forEachCellOfLink(Link link, Raster raster, CellConsumer consumer) {
 
 		int x0 = raster.getXIndex(link.getFromNode().getCoord().getX());
 		int x1 = raster.getXIndex(link.getToNode().getCoord().getX());
@@ -301,12 +309,12 @@ public abstract class FastEmissionGridAnalyzer {
 		if (dx == 0 && dy == 0) {
 			// the algorithm doesn't really support lines shorter than the cell size.
 			// do avoid complicated computation within the loop, catch this case here
-			raster.adjustValueForIndex(x0, y0, value);
+			consumer.accept(x0, y0);
 			return 1;
 		}
 
 		do {
-			raster.adjustValueForIndex(x0, y0, value);
+			consumer.accept(x0, y0);
 			result++;
 
 			e2 = err + err;
@@ -350,6 +358,11 @@ public abstract class FastEmissionGridAnalyzer {
 		return result;
 	}
 
+	@FunctionalInterface
+	interface CellConsumer {
+		void accept(int xi, int yi);
+	}
+
 	@FunctionalInterface
 	private interface GetValue {
 		double forIndex(int fixedIndex, int volatileIndex);
@@ -0,0 +1,238 @@
+/*
+ *   *********************************************************************** *
+ *   project: org.matsim.*
+ *   *********************************************************************** *
+ *                                                                           *
+ *   copyright       : (C)  by the members listed in the COPYING,        *
+ *                     LICENSE and WARRANTY file.                            *
+ *   email           : info at matsim dot org                                *
+ *                                                                           *
+ *   *********************************************************************** *
+ *                                                                           *
+ *     This program is free software; you can redistribute it and/or modify  *
+ *     it under the terms of the GNU General Public License as published by  *
+ *     the Free Software Foundation; either version 2 of the License, or     *
+ *     (at your option) any later version.                                   *
+ *     See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                           *
+ *   ***********************************************************************
+ *
+ */
+
+package org.matsim.contrib.emissions.analysis;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.BasicLocation;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.analysis.time.TimeBinMap;
+import org.matsim.contrib.emissions.Pollutant;
+import org.matsim.contrib.emissions.events.ColdEmissionEvent;
+import org.matsim.contrib.emissions.events.ColdEmissionEventHandler;
+import org.matsim.contrib.emissions.events.WarmEmissionEvent;
+import org.matsim.contrib.emissions.events.WarmEmissionEventHandler;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Renders emissions onto a raster while they arrive, either as events during a simulation or from an events file. The result is the same as
+ * {@link FastEmissionGridAnalyzer#processLinkEmissions(Map, Network, double, int)} for the emissions of a time window.
+ * <p>
+ * The raster cells covered by each link (its footprint) are computed once. Only cells covered by any link (road cells) are stored, in a
+ * compact numbering, and each emission is added directly to the road cells of its link in the array of its time bin and pollutant. Thus
+ * neither the emissions per link nor full rasters are kept in memory. The smoothing is linear, so it is applied only when a raster for a
+ * time window is requested, see {@link #getRaster(Pollutant, double, double)}.
+ * <p>
+ * When registered as event handler, the emissions are collected per iteration; the footprints are kept.
+ */
+public final class StreamingEmissionGridAnalyzer implements WarmEmissionEventHandler, ColdEmissionEventHandler {
+
+	private static final Logger logger = LogManager.getLogger(StreamingEmissionGridAnalyzer.class);
+
+	private final Raster.Bounds bounds;
+	private final double cellSize;
+	private final int radius;
+	private final double timeBinSize;
+
+	private final Map<Id<Link>, Integer> linkIndex = new HashMap<>();
+
+	/**
+	 * Footprints of the links: road cells {@code footprintCells[footprintOffsets[l]]} to {@code footprintCells[footprintOffsets[l + 1] - 1]}.
+	 */
+	private final int[] footprintOffsets;
+	private final int[] footprintCells;
+
+	/**
+	 * Share of the emissions of a link per road cell and area, i.e. 1 / (number of cells * cell area).
+	 */
+	private final double[] footprintWeights;
+
+	/**
+	 * Raster index (see {@link Raster#getIndex(int, int)}) of each road cell.
+	 */
+	private final int[] roadCellRasterIndex;
+	private final int rasterXLength;
+
+	/**
+	 * Emissions per pollutant and time bin, by road cell; arrays are created when the first emission of a bin arrives.
+	 */
+	private final Map<Pollutant, List<double[]>> emissionsByPollutant = new EnumMap<>(Pollutant.class);
+
+	/**
+	 * @param network     The network the emissions occur on. The raster covers the bounding box of its nodes.
+	 * @param cellSize    size of a raster cell
+	 * @param radius      smoothing radius, see {@link FastEmissionGridAnalyzer#processEventsFile(String, Network, double, int)}
+	 * @param timeBinSize size of the time bins, which are the smallest time window that can be requested
+	 */
+	public StreamingEmissionGridAnalyzer(Network network, double cellSize, int radius, double timeBinSize) {
+		this.cellSize = cellSize;
+		this.radius = radius;
+		this.timeBinSize = timeBinSize;
+
+		this.bounds = new Raster.Bounds(network.getNodes().values().stream()
+				.map(BasicLocation::getCoord)
+				.collect(Collectors.toSet()));
+		Raster raster = new Raster(bounds, cellSize);
+		this.rasterXLength = raster.getXLength();
+
+		int links = network.getLinks().size();
+		this.footprintOffsets = new int[links + 1];
+		this.footprintWeights = new double[links];
+		TIntArrayList cells = new TIntArrayList();
+		TIntIntHashMap roadCellByRasterIndex = new TIntIntHashMap(links, 0.5f, -1, -1);
+		TIntArrayList roadCells = new TIntArrayList();
+		double cellArea = cellSize * cellSize;
+
+		int l = 0;
+		for (Link link : network.getLinks().values()) {
+			linkIndex.put(link.getId(), l);
+			int numberOfCells = FastEmissionGridAnalyzer.forEachCellOfLink(link, raster, (xi, yi) -> {
+				int rasterIndex = raster.getIndex(xi, yi);
+				int roadCell = roadCellByRasterIndex.get(rasterIndex);
+				if (roadCell < 0) {
+					roadCell = roadCells.size();
+					roadCells.add(rasterIndex);
+					roadCellByRasterIndex.put(rasterIndex, roadCell);
+				}
+				cells.add(roadCell);
+			});
+			footprintWeights[l] = 1. / numberOfCells / cellArea;
+			footprintOffsets[++l] = cells.size();
+		}
+		this.footprintCells = cells.toArray();
+		this.roadCellRasterIndex = roadCells.toArray();
+
+		logger.info("Raster of {} x {} cells, of which {} are covered by links.", raster.getXLength(), raster.getYLength(), roadCellRasterIndex.length);
+	}
+
+	@Override
+	public void reset(int iteration) {
+		emissionsByPollutant.clear();
+	}
+
+	@Override
+	public void handleEvent(WarmEmissionEvent event) {
+		for (Map.Entry<Pollutant, Double> e : event.getWarmEmissions().entrySet()) {
+			handleEmission(event.getTime(), event.getLinkId(), e.getKey(), e.getValue());
+		}
+	}
+
+	@Override
+	public void handleEvent(ColdEmissionEvent event) {
+		for (Map.Entry<Pollutant, Double> e : event.getColdEmissions().entrySet()) {
+			handleEmission(event.getTime(), event.getLinkId(), e.getKey(), e.getValue());
+		}
+	}
+
+	/**
+	 * Reads the emission events of a file. Emissions on links which are not part of the network are ignored.
+	 */
+	public void processEventsFile(String eventsFile) {
+		logger.info("Start parsing events file.");
+		new RawEmissionEventsReader((time, linkId, vehicleId, pollutant, value) ->
+				handleEmission(time, Id.createLinkId(linkId), pollutant, value)).readFile(eventsFile);
+	}
+
+	/**
+	 * Adds an emission onto the road cells of the link. Emissions on links which are not part of the network are ignored.
+	 */
+	public void handleEmission(double time, Id<Link> linkId, Pollutant pollutant, double value) {
+		Integer l = linkIndex.get(linkId);
+		if (l == null) {
+			return;
+		}
+
+		List<double[]> bins = emissionsByPollutant.computeIfAbsent(pollutant, p -> new ArrayList<>());
+		int bin = (int) (time / timeBinSize);
+		while (bins.size() <= bin) {
+			bins.add(null);
+		}
+		double[] roadCellEmissions = bins.get(bin);
+		if (roadCellEmissions == null) {
+			roadCellEmissions = new double[roadCellRasterIndex.length];
+			bins.set(bin, roadCellEmissions);
+		}
+
+		double valuePerCell = value * footprintWeights[l];
+		for (int i = footprintOffsets[l]; i < footprintOffsets[l + 1]; i++) {
+			roadCellEmissions[footprintCells[i]] += valuePerCell;
+		}
+	}
+
+	public Set<Pollutant> getPollutants() {
+		return Collections.unmodifiableSet(emissionsByPollutant.keySet());
+	}
+
+	/**
+	 * Smoothed raster of the emissions within the time bins that start in [{@code startTime}, {@code endTime}).
+	 */
+	public Raster getRaster(Pollutant pollutant, double startTime, double endTime) {
+		Raster raster = new Raster(bounds, cellSize);
+		List<double[]> bins = emissionsByPollutant.getOrDefault(pollutant, List.of());
+		for (int bin = 0; bin < bins.size(); bin++) {
+			double binStart = bin * timeBinSize;
+			if (bins.get(bin) != null && binStart >= startTime && binStart < endTime) {
+				addToRaster(bins.get(bin), raster);
+			}
+		}
+		return FastEmissionGridAnalyzer.blur(raster, radius);
+	}
+
+	/**
+	 * Smoothed raster of all emissions of the pollutant.
+	 */
+	public Raster getRaster(Pollutant pollutant) {
+		return getRaster(pollutant, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Smoothed rasters per time bin and pollutant, as {@link FastEmissionGridAnalyzer#processHandlerEmissionsPerTimeBin(TimeBinMap, Network, double, int)}.
+	 */
+	public TimeBinMap<Map<Pollutant, Raster>> getRastersPerTimeBin() {
+		TimeBinMap<Map<Pollutant, Raster>> result = new TimeBinMap<>(timeBinSize);
+		for (Map.Entry<Pollutant, List<double[]>> e : emissionsByPollutant.entrySet()) {
+			List<double[]> bins = e.getValue();
+			for (int bin = 0; bin < bins.size(); bin++) {
+				if (bins.get(bin) == null) {
+					continue;
+				}
+				Raster raster = new Raster(bounds, cellSize);
+				addToRaster(bins.get(bin), raster);
+				result.getTimeBin(bin * timeBinSize).computeIfAbsent(HashMap::new).put(e.getKey(), FastEmissionGridAnalyzer.blur(raster, radius));
+			}
+		}
+		return result;
+	}
+
+	private void addToRaster(double[] roadCellEmissions, Raster raster) {
+		for (int c = 0; c < roadCellEmissions.length; c++) {
+			int rasterIndex = roadCellRasterIndex[c];
+			raster.adjustValueForIndex(rasterIndex % rasterXLength, rasterIndex / rasterXLength, roadCellEmissions[c]);
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package org.matsim.contrib.emissions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.contrib.analysis.time.TimeBinMap;
+import org.matsim.contrib.emissions.analysis.EmissionsByPollutant;
+import org.matsim.contrib.emissions.analysis.EmissionsOnLinkEventHandler;
+import org.matsim.contrib.emissions.events.ColdEmissionEvent;
+import org.matsim.contrib.emissions.events.WarmEmissionEvent;
+import org.matsim.contrib.emissions.utils.EmissionsConfigGroup;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.MatsimEventsReader;
+import org.matsim.core.events.algorithms.EventWriterXML;
+import org.matsim.core.events.handler.BasicEventHandler;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.examples.ExamplesUtils;
+import org.matsim.testcases.MatsimTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelEmissionsCalculatorTest {
+
+	private static final double TIME_BIN_SIZE = 3600;
+
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	void sameEmissionsAsEmissionModule() {
+		String eventsFile = IOUtils.extendUrl(ExamplesUtils.getTestScenarioURL("emissions-sampleScenario"), "output_events.xml.gz").toString();
+
+		// sequential calculation with the events manager of the emission module
+		Scenario scenario = loadScenario();
+		EventsManager eventsManager = EventsUtils.createEventsManager();
+		EmissionModule emissionModule = new EmissionModule(scenario, eventsManager);
+		EmissionsOnLinkEventHandler expected = new EmissionsOnLinkEventHandler(TIME_BIN_SIZE);
+		EventWriterXML writer = new EventWriterXML(utils.getOutputDirectory() + "expected.emission.events.xml.gz");
+		emissionModule.getEmissionEventsManager().addHandler(expected);
+		emissionModule.getEmissionEventsManager().addHandler(writer);
+		eventsManager.initProcessing();
+		new MatsimEventsReader(eventsManager).readFile(eventsFile);
+		eventsManager.finishProcessing();
+		writer.closeFile();
+
+		ParallelEmissionsCalculator calculator = new ParallelEmissionsCalculator(loadScenario(), 4, TIME_BIN_SIZE)
+			.setEmissionEventsFile(utils.getOutputDirectory() + "actual.emission.events.xml.gz");
+		calculator.run(eventsFile);
+
+		assertFalse(expected.getLink2pollutants().isEmpty());
+		assertEquals(expected.getLink2pollutants().keySet(), calculator.getLink2pollutants().keySet());
+		expected.getLink2pollutants().forEach((linkId, emissions) -> assertSameEmissions(emissions, calculator.getLink2pollutants().get(linkId)));
+
+		TimeBinMap<Map<Id<Link>, EmissionsByPollutant>> actualTimeBins = calculator.getTimeBins();
+		for (TimeBinMap.TimeBin<Map<Id<Link>, EmissionsByPollutant>> bin : expected.getTimeBins().getTimeBins()) {
+			Map<Id<Link>, EmissionsByPollutant> expectedLinks = bin.getValue();
+			Map<Id<Link>, EmissionsByPollutant> actualLinks = actualTimeBins.getTimeBin(bin.getStartTime()).getValue();
+			assertEquals(expectedLinks.keySet(), actualLinks.keySet());
+			expectedLinks.forEach((linkId, emissions) -> assertSameEmissions(emissions.getEmissions(), actualLinks.get(linkId).getEmissions()));
+		}
+
+		// the emission events are written concurrently, i.e. not in the same order. The expected file also contains the traffic events.
+		List<String> expectedEvents = readEvents(utils.getOutputDirectory() + "expected.emission.events.xml.gz");
+		List<String> actualEvents = readEvents(utils.getOutputDirectory() + "actual.emission.events.xml.gz");
+		assertFalse(expectedEvents.isEmpty());
+		assertEquals(expectedEvents, actualEvents);
+	}
+
+	@Test
+	void failingEventsFileDoesNotBlock() {
+		ParallelEmissionsCalculator calculator = new ParallelEmissionsCalculator(loadScenario(), 2, TIME_BIN_SIZE);
+		assertTimeoutPreemptively(Duration.ofMinutes(1),
+			() -> assertThrows(RuntimeException.class, () -> calculator.run(utils.getOutputDirectory() + "missing.events.xml.gz")));
+	}
+
+	private static Scenario loadScenario() {
+		Config config = ConfigUtils.loadConfig(IOUtils.extendUrl(ExamplesUtils.getTestScenarioURL("emissions-sampleScenario/testv2_Vehv2"),
+			"config_average.xml"), new EmissionsConfigGroup());
+		return ScenarioUtils.loadScenario(config);
+	}
+
+	private static void assertSameEmissions(Map<Pollutant, Double> expected, Map<Pollutant, Double> actual) {
+		assertEquals(expected.keySet(), actual.keySet());
+		expected.forEach((pollutant, value) -> assertEquals(value, actual.get(pollutant), Math.abs(value) * 1e-9));
+	}
+
+	private static List<String> readEvents(String file) {
+		List<String> events = new ArrayList<>();
+		EventsManager eventsManager = EventsUtils.createEventsManager();
+		eventsManager.addHandler((BasicEventHandler) (Event event) -> {
+			if (event.getEventType().equals(WarmEmissionEvent.EVENT_TYPE) || event.getEventType().equals(ColdEmissionEvent.EVENT_TYPE)) {
+				events.add(event.toString());
+			}
+		});
+		eventsManager.initProcessing();
+		new MatsimEventsReader(eventsManager).readFile(file);
+		eventsManager.finishProcessing();
+		events.sort(null);
+		return events;
+	}
+}
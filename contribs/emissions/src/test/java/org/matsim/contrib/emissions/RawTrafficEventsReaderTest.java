@@ -0,0 +1,67 @@
+package org.matsim.contrib.emissions;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.events.*;
+import org.matsim.api.core.v01.events.handler.LinkEnterEventHandler;
+import org.matsim.api.core.v01.events.handler.LinkLeaveEventHandler;
+import org.matsim.api.core.v01.events.handler.VehicleEntersTrafficEventHandler;
+import org.matsim.api.core.v01.events.handler.VehicleLeavesTrafficEventHandler;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.MatsimEventsReader;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.examples.ExamplesUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class RawTrafficEventsReaderTest {
+
+	@Test
+	void readsSameTrafficEventsAsEventsReader() {
+		var eventsUrl = IOUtils.extendUrl(ExamplesUtils.getTestScenarioURL("equil"), "output_events.xml.gz");
+
+		List<Event> expected = new ArrayList<>();
+		EventsManager eventsManager = EventsUtils.createEventsManager();
+		eventsManager.addHandler(new TrafficEventsCollector(expected));
+		eventsManager.initProcessing();
+		new MatsimEventsReader(eventsManager).readFile(eventsUrl.toString());
+		eventsManager.finishProcessing();
+
+		List<Event> actual = new ArrayList<>();
+		new RawTrafficEventsReader(actual::add).readFile(eventsUrl.toString());
+
+		assertFalse(expected.isEmpty());
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).toString(), actual.get(i).toString());
+		}
+	}
+
+	private record TrafficEventsCollector(List<Event> events) implements LinkEnterEventHandler, LinkLeaveEventHandler,
+			VehicleEntersTrafficEventHandler, VehicleLeavesTrafficEventHandler {
+
+		@Override
+		public void handleEvent(LinkEnterEvent event) {
+			events.add(event);
+		}
+
+		@Override
+		public void handleEvent(LinkLeaveEvent event) {
+			events.add(event);
+		}
+
+		@Override
+		public void handleEvent(VehicleEntersTrafficEvent event) {
+			events.add(event);
+		}
+
+		@Override
+		public void handleEvent(VehicleLeavesTrafficEvent event) {
+			events.add(event);
+		}
+	}
+}
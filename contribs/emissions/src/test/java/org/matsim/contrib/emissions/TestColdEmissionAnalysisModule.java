@@ -157,6 +157,27 @@ public class TestColdEmissionAnalysisModule {
 
 	}
 
+	@Test
+	void calculateColdEmissionsAndThrowEventTest_repeatedForSameVehicleType() {
+
+		ColdEmissionAnalysisModule coldEmissionAnalysisModule  = setUp();
+
+		VehicleType vehicleType = VehicleUtils.getFactory().createVehicleType( Id.create( "PASSENGER_CAR", VehicleType.class ) );
+		Vehicle vehicle1 = VehicleUtils.getFactory().createVehicle( Id.create( "vehicle 1", Vehicle.class ), vehicleType );
+		Vehicle vehicle2 = VehicleUtils.getFactory().createVehicle( Id.create( "vehicle 2", Vehicle.class ), vehicleType );
+		Id<Link> linkId = Id.create( "link id", Link.class );
+
+		Map<Pollutant, Double> first = coldEmissionAnalysisModule.checkVehicleInfoAndCalculateWColdEmissions(vehicle1.getType(), vehicle1.getId(), linkId, startTime, parkingDuration, tableAccDistance);
+		Map<Pollutant, Double> expected = new HashMap<>( first );
+		// the returned map may be modified by the caller ...
+		first.replaceAll( ( pollutant, value ) -> 0. );
+
+		// ... without changing the emissions of the next vehicle of the same type
+		Map<Pollutant, Double> second = coldEmissionAnalysisModule.checkVehicleInfoAndCalculateWColdEmissions(vehicle2.getType(), vehicle2.getId(), linkId, startTime, parkingDuration, tableAccDistance);
+		Assertions.assertEquals( expected, second );
+		Assertions.assertEquals( numberOfColdEmissions * averageAverageFactor, second.values().stream().mapToDouble(Double::doubleValue).sum(), MatsimTestUtils.EPSILON );
+	}
+
 	private static ColdEmissionAnalysisModule setUp() {
 		Map<HbefaColdEmissionFactorKey, HbefaColdEmissionFactor> avgHbefaColdTable = new HashMap<>();
 		Map<HbefaColdEmissionFactorKey, HbefaColdEmissionFactor> detailedHbefaColdTable = new HashMap<>();
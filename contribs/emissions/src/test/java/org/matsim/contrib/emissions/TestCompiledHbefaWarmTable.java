@@ -0,0 +1,83 @@
+/* *********************************************************************** *
+ * project: org.matsim.*                                                   *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.emissions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class TestCompiledHbefaWarmTable {
+
+	@Test
+	void rowsAreSharedPerVehicleAttributesAndRoadType() {
+		HbefaWarmEmissionFactorKey key = new HbefaWarmEmissionFactorKey();
+		key.setRoadCategory("URB/Access/30");
+		key.setVehicleCategory(HbefaVehicleCategory.PASSENGER_CAR);
+		key.setTrafficSituation(HbefaTrafficSituation.FREEFLOW);
+		key.setComponent(Pollutant.NOx);
+		Map<HbefaWarmEmissionFactorKey, HbefaWarmEmissionFactor> avgTable = new HashMap<>();
+		avgTable.put(key, new HbefaWarmEmissionFactor(0.5, 30));
+
+		CompiledHbefaWarmTable table = new CompiledHbefaWarmTable(avgTable, null);
+
+		CompiledHbefaWarmTable.Row row = table.getRow(HbefaVehicleCategory.PASSENGER_CAR, attributes("petrol"), "URB/Access/30");
+		assertSame(row, table.getRow(HbefaVehicleCategory.PASSENGER_CAR, attributes("petrol"), "URB/Access/30"));
+		assertNotSame(row, table.getRow(HbefaVehicleCategory.PASSENGER_CAR, attributes("diesel"), "URB/Access/30"));
+		assertNotSame(row, table.getRow(HbefaVehicleCategory.HEAVY_GOODS_VEHICLE, attributes("petrol"), "URB/Access/30"));
+
+		// road types that are not in the tables are added on the fly
+		CompiledHbefaWarmTable.Row otherRoad = table.getRow(HbefaVehicleCategory.PASSENGER_CAR, attributes("petrol"), "RUR/MW/80");
+		assertNotSame(row, otherRoad);
+		assertSame(row, table.getRow(HbefaVehicleCategory.PASSENGER_CAR, attributes("petrol"), "URB/Access/30"));
+
+		assertFalse(row.isResolved(HbefaTrafficSituation.FREEFLOW, Pollutant.NOx));
+		row.set(HbefaTrafficSituation.FREEFLOW, Pollutant.NOx, avgTable.get(key));
+		assertTrue(row.isResolved(HbefaTrafficSituation.FREEFLOW, Pollutant.NOx));
+		assertFalse(row.isResolved(HbefaTrafficSituation.STOPANDGO, Pollutant.NOx));
+		assertEquals(0.5, row.getFactor(HbefaTrafficSituation.FREEFLOW, Pollutant.NOx));
+		assertEquals(30, row.getSpeed(HbefaTrafficSituation.FREEFLOW, Pollutant.NOx));
+	}
+
+	@Test
+	void trafficSpeedsAreIndexedBySituation() {
+		CompiledHbefaWarmTable.Row row = new CompiledHbefaWarmTable(new HashMap<>(), null)
+				.getRow(HbefaVehicleCategory.PASSENGER_CAR, new HbefaVehicleAttributes(), "URB/Access/30");
+		assertNull(row.getTrafficSpeeds());
+
+		Map<HbefaTrafficSituation, Double> speeds = new EnumMap<>(HbefaTrafficSituation.class);
+		speeds.put(HbefaTrafficSituation.FREEFLOW, 50.);
+		speeds.put(HbefaTrafficSituation.STOPANDGO, 10.);
+		row.setTrafficSpeeds(speeds);
+
+		assertEquals(50., row.getTrafficSpeeds()[HbefaTrafficSituation.FREEFLOW.ordinal()]);
+		assertEquals(10., row.getTrafficSpeeds()[HbefaTrafficSituation.STOPANDGO.ordinal()]);
+		assertTrue(Double.isNaN(row.getTrafficSpeeds()[HbefaTrafficSituation.HEAVY.ordinal()]));
+	}
+
+	private static HbefaVehicleAttributes attributes(String technology) {
+		HbefaVehicleAttributes attributes = new HbefaVehicleAttributes();
+		attributes.setHbefaTechnology(technology);
+		return attributes;
+	}
+}
@@ -0,0 +1,138 @@
+package org.matsim.contrib.emissions.analysis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.emissions.Pollutant;
+import org.matsim.contrib.emissions.events.ColdEmissionEvent;
+import org.matsim.contrib.emissions.events.WarmEmissionEvent;
+import org.matsim.contrib.emissions.utils.TestUtils;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.groups.NetworkConfigGroup;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.examples.ExamplesUtils;
+import org.matsim.testcases.MatsimTestUtils;
+
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StreamingEmissionGridAnalyzerTest {
+
+	@RegisterExtension
+	public MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	void handleEmission_sameAsProcessLinkEmissions() {
+
+		var network = createCrossNetwork();
+		var expected = FastEmissionGridAnalyzer.processLinkEmissions(
+				Map.of(Id.createLinkId("link1"), 20., Id.createLinkId("link2"), 10.), network, 10, 1);
+
+		var analyzer = new StreamingEmissionGridAnalyzer(network, 10, 1, 3600);
+		analyzer.handleEmission(100, Id.createLinkId("link1"), Pollutant.NOx, 15.);
+		analyzer.handleEmission(4000, Id.createLinkId("link1"), Pollutant.NOx, 5.);
+		analyzer.handleEmission(8000, Id.createLinkId("link2"), Pollutant.NOx, 10.);
+		analyzer.handleEmission(8000, Id.createLinkId("unknown"), Pollutant.NOx, 10.);
+
+		var actual = analyzer.getRaster(Pollutant.NOx);
+
+		assertEquals(expected.getXLength(), actual.getXLength());
+		assertEquals(expected.getYLength(), actual.getYLength());
+		expected.forEachIndex((xi, yi, value) -> assertEquals(value, actual.getValueByIndex(xi, yi), 0.00000001));
+	}
+
+	@Test
+	void getRaster_timeWindowsAddUpToTotal() {
+
+		var network = createCrossNetwork();
+		var analyzer = new StreamingEmissionGridAnalyzer(network, 10, 1, 3600);
+		analyzer.handleEmission(100, Id.createLinkId("link1"), Pollutant.NOx, 20.);
+		analyzer.handleEmission(4000, Id.createLinkId("link2"), Pollutant.NOx, 10.);
+
+		var total = analyzer.getRaster(Pollutant.NOx);
+		var first = analyzer.getRaster(Pollutant.NOx, 0, 3600);
+		var second = analyzer.getRaster(Pollutant.NOx, 3600, 7200);
+
+		// link2 is vertical at x = 49, and link1 does not cover the cells at the top
+		assertEquals(0., first.getValueByIndex(4, 9), 0.);
+		assertTrue(second.getValueByIndex(4, 9) > 0);
+		total.forEachIndex((xi, yi, value) ->
+				assertEquals(value, first.getValueByIndex(xi, yi) + second.getValueByIndex(xi, yi), 0.00000001));
+
+		var perTimeBin = analyzer.getRastersPerTimeBin();
+		assertEquals(2, perTimeBin.getTimeBins().size());
+		var rasterOfSecondBin = perTimeBin.getTimeBin(3600).getValue().get(Pollutant.NOx);
+		second.forEachIndex((xi, yi, value) -> assertEquals(value, rasterOfSecondBin.getValueByIndex(xi, yi), 0.00000001));
+	}
+
+	@Test
+	void reset_emissionsOfPreviousIterationAreRemoved() {
+
+		var network = createCrossNetwork();
+		var analyzer = new StreamingEmissionGridAnalyzer(network, 10, 1, 3600);
+		EventsManager eventsManager = EventsUtils.createEventsManager();
+		eventsManager.addHandler(analyzer);
+
+		// first iteration
+		eventsManager.resetHandlers(0);
+		eventsManager.initProcessing();
+		eventsManager.processEvent(new WarmEmissionEvent(100, Id.createLinkId("link1"), Id.createVehicleId("vehicle"), Map.of(Pollutant.NOx, 20., Pollutant.CO2_TOTAL, 5.)));
+		eventsManager.processEvent(new ColdEmissionEvent(8000, Id.createLinkId("link2"), Id.createVehicleId("vehicle"), Map.of(Pollutant.NOx, 10.)));
+		eventsManager.finishProcessing();
+		assertEquals(2, analyzer.getRastersPerTimeBin().getTimeBins().size());
+
+		// second iteration
+		eventsManager.resetHandlers(1);
+		eventsManager.initProcessing();
+		eventsManager.processEvent(new WarmEmissionEvent(4000, Id.createLinkId("link2"), Id.createVehicleId("vehicle"), Map.of(Pollutant.NOx, 10.)));
+		eventsManager.finishProcessing();
+
+		var expected = FastEmissionGridAnalyzer.processLinkEmissions(Map.of(Id.createLinkId("link2"), 10.), network, 10, 1);
+		var actual = analyzer.getRaster(Pollutant.NOx);
+
+		assertEquals(Set.of(Pollutant.NOx), analyzer.getPollutants());
+		assertEquals(1, analyzer.getRastersPerTimeBin().getTimeBins().size());
+		expected.forEachIndex((xi, yi, value) -> assertEquals(value, actual.getValueByIndex(xi, yi), 0.00000001));
+	}
+
+	@Test
+	void processEventsFile() {
+
+		final var networkUrl = IOUtils.extendUrl(ExamplesUtils.getTestScenarioURL("equil"), "network.xml");
+		final var emissionEvents = Paths.get(utils.getOutputDirectory()).resolve("emission.events.xml.gz");
+
+		var network = NetworkUtils.readNetwork(networkUrl.toString());
+		TestUtils.writeWarmEventsToFile(emissionEvents, network, Pollutant.NOx, 10, 1, 1);
+
+		var expected = FastEmissionGridAnalyzer.processEventsFile(emissionEvents.toString(), network, 1000, 1).get(Pollutant.NOx);
+
+		var analyzer = new StreamingEmissionGridAnalyzer(network, 1000, 1, 3600);
+		analyzer.processEventsFile(emissionEvents.toString());
+		var actual = analyzer.getRaster(Pollutant.NOx);
+
+		expected.forEachIndex((xi, yi, value) -> assertEquals(value, actual.getValueByIndex(xi, yi), 0.00000001));
+	}
+
+	private static Network createCrossNetwork() {
+		var network = NetworkUtils.createNetwork(new NetworkConfigGroup());
+		var node1 = network.getFactory().createNode(Id.createNodeId("node1"), new Coord(0, 49));
+		var node2 = network.getFactory().createNode(Id.createNodeId("node2"), new Coord(99, 49));
+		var node3 = network.getFactory().createNode(Id.createNodeId("node3"), new Coord(49, 0));
+		var node4 = network.getFactory().createNode(Id.createNodeId("node4"), new Coord(49, 99));
+		network.addNode(node1);
+		network.addNode(node2);
+		network.addNode(node3);
+		network.addNode(node4);
+		network.addLink(network.getFactory().createLink(Id.createLinkId("link1"), node1, node2));
+		network.addLink(network.getFactory().createLink(Id.createLinkId("link2"), node3, node4));
+		return network;
+	}
+}
@@ -44,4 +44,12 @@ public interface ChargerPower {
      * regular update whenever charging is simulated
      */
     void update(double now);
+
+    /**
+     * @return {@code true} if {@link #update(double)} changes the state of the charger even if no vehicles are plugged, e.g. while an internal
+     * battery is recharged
+     */
+    default boolean needsUpdate() {
+        return false;
+    }
 }
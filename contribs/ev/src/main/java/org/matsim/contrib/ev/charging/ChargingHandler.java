@@ -27,24 +27,58 @@ import org.matsim.contrib.ev.infrastructure.ChargingInfrastructure;
 import org.matsim.core.mobsim.framework.events.MobsimAfterSimStepEvent;
 import org.matsim.core.mobsim.framework.listeners.MobsimAfterSimStepListener;
 
+import java.util.BitSet;
+
 import com.google.inject.Inject;
 
+/**
+ * Steps the charging logic of the chargers every {@code chargeTimeStep}.
+ * <p>
+ * Only active chargers (see {@link ChargingLogic#isActive()}) are stepped. A charger becomes active when a vehicle is added to it and is
+ * dropped once it has no vehicles left and its {@link ChargerPower} needs no more updates (e.g. a battery charger is fully recharged). The
+ * chargers are stepped in the order of the charging infrastructure, as before.
+ */
 public class ChargingHandler implements MobsimAfterSimStepListener {
 	private static final Logger log = LogManager.getLogger( ChargingHandler.class );
-	private final Iterable<Charger> chargers;
+	private final ChargingLogic[] logics;
 	private final int chargeTimeStep;
 
+	private final BitSet activeChargers = new BitSet();
+	// vehicles may be added to chargers from other threads, so activations are collected separately (guarded by itself)
+	private final BitSet activatedChargers = new BitSet();
+
 	@Inject
 	ChargingHandler(ChargingInfrastructure chargingInfrastructure, EvConfigGroup evConfig) {
-		this.chargers = chargingInfrastructure.getChargers().values();
+		this.logics = chargingInfrastructure.getChargers().values().stream().map(Charger::getLogic).toArray(ChargingLogic[]::new);
 		this.chargeTimeStep = evConfig.getChargeTimeStep();
+
+		for (int i = 0; i < logics.length; i++) {
+			final int index = i;
+			logics[i].setActivationListener(() -> {
+				synchronized (activatedChargers) {
+					activatedChargers.set(index);
+				}
+			});
+			if (logics[i].isActive()) {
+				activeChargers.set(i);
+			}
+		}
 	}
 
 	@Override
 	public void notifyMobsimAfterSimStep(@SuppressWarnings("rawtypes") MobsimAfterSimStepEvent e) {
 		if ((e.getSimulationTime() + 1) % chargeTimeStep == 0) {
-			for (Charger c : chargers) {
-				c.getLogic().chargeVehicles(chargeTimeStep, e.getSimulationTime());
+			synchronized (activatedChargers) {
+				activeChargers.or(activatedChargers);
+				activatedChargers.clear();
+			}
+
+			for (int i = activeChargers.nextSetBit(0); i >= 0; i = activeChargers.nextSetBit(i + 1)) {
+				ChargingLogic logic = logics[i];
+				logic.chargeVehicles(chargeTimeStep, e.getSimulationTime());
+				if (!logic.isActive()) {
+					activeChargers.clear(i);
+				}
 			}
 		}
 	}
@@ -41,5 +41,20 @@ public interface ChargingLogic {
 
 	Collection<ChargingVehicle> getQueuedVehicles();
 
+	/**
+	 * @return {@code false} if no vehicles are plugged, queued or waiting to be plugged and the charger power needs no updates (see
+	 * {@link ChargerPower#needsUpdate()}), i.e. if {@link #chargeVehicles(double, double)} has nothing to do
+	 */
+	default boolean isActive() {
+		return true;
+	}
+
+	/**
+	 * Sets the listener to be notified whenever a vehicle is added, which may turn an inactive charger into an active one (see
+	 * {@link #isActive()}). Implementations that keep the default {@link #isActive()} may ignore the listener.
+	 */
+	default void setActivationListener(Runnable activationListener) {
+	}
+
 	record ChargingVehicle(ElectricVehicle ev, ChargingStrategy strategy) {}
 }
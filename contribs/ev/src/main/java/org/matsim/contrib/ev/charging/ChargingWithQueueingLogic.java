@@ -39,6 +39,8 @@ public class ChargingWithQueueingLogic implements ChargingLogic {
 	private final Queue<ChargingVehicle> queuedVehicles = new LinkedList<>();
 	private final Queue<ChargingVehicle> arrivingVehicles = new LinkedBlockingQueue<>();
 	private final Map<Id<Vehicle>, ChargingListener> listeners = new LinkedHashMap<>();
+	private Runnable activationListener = () -> {
+	};
 
 	public ChargingWithQueueingLogic(ChargerSpecification charger, EventsManager eventsManager, ChargingPriority priority, ChargerPower chargerPower) {
 		this.charger = Objects.requireNonNull(charger);
@@ -118,6 +120,17 @@ public class ChargingWithQueueingLogic implements ChargingLogic {
 	public void addVehicle(ElectricVehicle ev, ChargingStrategy strategy, ChargingListener chargingListener, double now) {
 		arrivingVehicles.add(new ChargingVehicle(ev, strategy));
 		listeners.put(ev.getId(), chargingListener);
+		activationListener.run();
+	}
+
+	@Override
+	public boolean isActive() {
+		return !pluggedVehicles.isEmpty() || !queuedVehicles.isEmpty() || !arrivingVehicles.isEmpty() || chargerPower.needsUpdate();
+	}
+
+	@Override
+	public void setActivationListener(Runnable activationListener) {
+		this.activationListener = Objects.requireNonNull(activationListener);
 	}
 
 	@Override
@@ -34,9 +34,8 @@ import org.matsim.core.mobsim.qsim.InternalInterface;
 import org.matsim.core.mobsim.qsim.interfaces.Netsim;
 import org.matsim.vehicles.Vehicle;
 
-import java.util.Map;
+import java.util.Arrays;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
@@ -48,26 +47,14 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 public class DriveDischargingHandler
 	implements LinkLeaveEventHandler, VehicleEntersTrafficEventHandler, VehicleLeavesTrafficEventHandler, MobsimScopeEventHandler, DistributedMobsimEngine {
 
-	private static class EvDrive {
-		private final Id<Vehicle> vehicleId;
-		private final ElectricVehicle ev;
-		private double movedOverNodeTime;
-
-		public EvDrive(Id<Vehicle> vehicleId, ElectricVehicle ev) {
-			this.vehicleId = vehicleId;
-			this.ev = ev;
-			movedOverNodeTime = Double.NaN;
-		}
-
-		private boolean isOnFirstLink() {
-			return Double.isNaN(movedOverNodeTime);
-		}
-	}
-
 	private final Network network;
 	private final EventsManager eventsManager;
 	private final ElectricFleet fleet;
-	private final Map<Id<Vehicle>, EvDrive> evDrives;
+
+	// Drive state of the EVs in traffic, indexed by Id.index() of the vehicle. A NaN time means that the vehicle is on its first link.
+	// Only accessed from the mobsim thread, see drainQueuedEvents().
+	private ElectricVehicle[] drivingVehicles;
+	private double[] movedOverNodeTimes;
 
 	private final Queue<VehicleEntersTrafficEvent> trafficEnterEvents = new ConcurrentLinkedQueue<>();
 	private final Queue<LinkLeaveEvent> linkLeaveEvents = new ConcurrentLinkedQueue<>();
@@ -81,7 +68,10 @@ public class DriveDischargingHandler
 		this.network = network;
 		this.eventsManager = eventsManager;
 		this.fleet = fleet;
-		evDrives = new ConcurrentHashMap<>();
+		int vehicles = Id.getNumberOfIds(Vehicle.class);
+		drivingVehicles = new ElectricVehicle[vehicles];
+		movedOverNodeTimes = new double[vehicles];
+		Arrays.fill(movedOverNodeTimes, Double.NaN);
 	}
 
 //	private ElectricVehicle getElectricVehicle(Id<Vehicle> vehicleId) {
@@ -136,7 +126,10 @@ public class DriveDischargingHandler
 			}
 
 			ElectricVehicle ev = fleet.getVehicle(event.getVehicleId());
-			evDrives.put(ev.getId(), new EvDrive(ev.getId(), ev));
+			int index = ev.getId().index();
+			ensureCapacity(index);
+			drivingVehicles[index] = ev;
+			movedOverNodeTimes[index] = Double.NaN;
 			trafficEnterEvents.remove();
 		}
 
@@ -155,22 +148,35 @@ public class DriveDischargingHandler
 				break;
 			}
 
-			var evDrive = dischargeVehicle(event.getVehicleId(), event.getLinkId(), event.getTime(), outputTime);
+			int index = event.getVehicleId().index();
+			ensureCapacity(index);
+			dischargeVehicle(index, event.getLinkId(), event.getTime(), outputTime);
 			if (leftTraffic) {
-				evDrives.remove(evDrive.vehicleId);
+				drivingVehicles[index] = null;
+				movedOverNodeTimes[index] = Double.NaN;
 			} else {
-				evDrive.movedOverNodeTime = event.getTime();
+				movedOverNodeTimes[index] = event.getTime();
 			}
 			queue.remove();
 		}
 	}
 
-	private EvDrive dischargeVehicle(Id<Vehicle> vehicleId, Id<Link> linkId, double eventTime, double now) {
-		EvDrive evDrive = evDrives.get(vehicleId);
-		if (!evDrive.isOnFirstLink()) {// skip the first link
+	private void ensureCapacity(int index) {
+		if (index >= drivingVehicles.length) {
+			int oldLength = drivingVehicles.length;
+			int newLength = Math.max(index + 1, Id.getNumberOfIds(Vehicle.class));
+			drivingVehicles = Arrays.copyOf(drivingVehicles, newLength);
+			movedOverNodeTimes = Arrays.copyOf(movedOverNodeTimes, newLength);
+			Arrays.fill(movedOverNodeTimes, oldLength, newLength, Double.NaN);
+		}
+	}
+
+	private void dischargeVehicle(int index, Id<Link> linkId, double eventTime, double now) {
+		double movedOverNodeTime = movedOverNodeTimes[index];
+		if (!Double.isNaN(movedOverNodeTime)) {// skip the first link
 			Link link = network.getLinks().get(linkId);
-			double tt = eventTime - evDrive.movedOverNodeTime;
-			ElectricVehicle ev = evDrive.ev;
+			double tt = eventTime - movedOverNodeTime;
+			ElectricVehicle ev = drivingVehicles[index];
 			double energy = ev.getDriveEnergyConsumption().calcEnergyConsumption(link, tt, eventTime - tt) + ev.getAuxEnergyConsumption()
 				.calcEnergyConsumption(eventTime - tt, tt, linkId);
 			//Energy consumption may be negative on links with negative slope
@@ -184,8 +190,7 @@ public class DriveDischargingHandler
 			ev.getBattery()
 				.dischargeEnergy(energy,
 					missingEnergy -> eventsManager.processEvent(new MissingEnergyEvent(now, ev.getId(), link.getId(), missingEnergy)));
-			eventsManager.processEvent(new DrivingEnergyConsumptionEvent(now, vehicleId, linkId, energy, ev.getBattery().getCharge()));
+			eventsManager.processEvent(new DrivingEnergyConsumptionEvent(now, ev.getId(), linkId, energy, ev.getBattery().getCharge()));
 		}
-		return evDrive;
 	}
 }
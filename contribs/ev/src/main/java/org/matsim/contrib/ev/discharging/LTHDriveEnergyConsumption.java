@@ -24,6 +24,7 @@ package org.matsim.contrib.ev.discharging;/*
 import org.apache.commons.math3.analysis.interpolation.PiecewiseBicubicSplineInterpolatingFunction;
 import org.apache.commons.math3.analysis.interpolation.PiecewiseBicubicSplineInterpolator;
 import org.apache.logging.log4j.LogManager;
+import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.contrib.ev.EvUnits;
 import org.matsim.contrib.ev.fleet.ElectricVehicle;
@@ -31,6 +32,15 @@ import org.matsim.core.gbl.Gbl;
 
 import com.google.common.primitives.Doubles;
 
+import java.util.Arrays;
+
+/**
+ * Drive energy consumption interpolated from a table of consumption per speed and slope. The links may have a {@code slopes} attribute with
+ * the slopes of equally long segments of the link.
+ * <p>
+ * The consumption only depends on the link and the travel time, which are mostly the same for many vehicles (e.g. at free speed). Therefore,
+ * the last result per link is cached, and all vehicles share one instance (see {@link Factory}).
+ */
 public final class LTHDriveEnergyConsumption implements DriveEnergyConsumption {
 
 	private final PiecewiseBicubicSplineInterpolatingFunction function;
@@ -47,25 +57,25 @@ public final class LTHDriveEnergyConsumption implements DriveEnergyConsumption {
 
 	private final boolean crashIfOutOfBoundValue;
 
+	private record CachedConsumption(double travelTime, double consumption) {
+	}
+
+	// last result per link, indexed by Id.index() of the link; entries are immutable, so lost updates by concurrent callers are harmless
+	private volatile CachedConsumption[] cache = new CachedConsumption[0];
+
 	public static class Factory implements DriveEnergyConsumption.Factory {
 
-		private final boolean crashIfOutOfBoundValue;
-		private final double[] speeds;
-		private final double[] slopes;
-		private final double[][] consumptionPerSpeedAndSlope;
+		private final LTHDriveEnergyConsumption consumption;
 
 		public Factory(double[] speeds, double[] slopes, double[][] consumptionPerSpeedAndSlope,
 				boolean crashIfOutOfBoundValue) {
-			this.speeds = speeds;
-			this.slopes = slopes;
-			this.consumptionPerSpeedAndSlope = consumptionPerSpeedAndSlope;
-			this.crashIfOutOfBoundValue = crashIfOutOfBoundValue;
-
+			// the consumption model has no vehicle-specific state
+			this.consumption = new LTHDriveEnergyConsumption(speeds, slopes, consumptionPerSpeedAndSlope, crashIfOutOfBoundValue);
 		}
 
 		@Override
 		public DriveEnergyConsumption create(ElectricVehicle electricVehicle) {
-			return new LTHDriveEnergyConsumption(speeds, slopes, consumptionPerSpeedAndSlope, crashIfOutOfBoundValue);
+			return consumption;
 		}
 	}
 
@@ -82,6 +92,30 @@ public final class LTHDriveEnergyConsumption implements DriveEnergyConsumption {
 
 	@Override
 	public double calcEnergyConsumption(Link link, double travelTime, double linkEnterTime) {
+		int linkIndex = link.getId().index();
+		CachedConsumption[] cache = this.cache;
+		if (linkIndex < cache.length) {
+			CachedConsumption cached = cache[linkIndex];
+			if (cached != null && cached.travelTime == travelTime) {
+				return cached.consumption;
+			}
+		} else {
+			cache = growCache(linkIndex);
+		}
+
+		double consumption = calcEnergyConsumption(link, travelTime);
+		cache[linkIndex] = new CachedConsumption(travelTime, consumption);
+		return consumption;
+	}
+
+	private synchronized CachedConsumption[] growCache(int linkIndex) {
+		if (linkIndex >= cache.length) {
+			cache = Arrays.copyOf(cache, Math.max(linkIndex + 1, Id.getNumberOfIds(Link.class)));
+		}
+		return cache;
+	}
+
+	private double calcEnergyConsumption(Link link, double travelTime) {
 		double length = link.getLength();
 		double speed = length / travelTime;
 
@@ -103,6 +103,12 @@ public class BatteryChargerPower implements ChargerPower {
         chargingVehicles = 0;
     }
 
+    @Override
+    public boolean needsUpdate() {
+        // the state event is pending or the battery is not full yet
+        return previousState_kWh != state_kWh || state_kWh < settings.capacity_kWh;
+    }
+
     static public class Factory implements ChargerPower.Factory {
         private final double chargingPeriod;
         private final EventsManager eventsManager;
@@ -148,6 +148,12 @@ public class HysteresisChargerPower implements ChargerPower {
 		}
 	}
 
+	@Override
+	public boolean needsUpdate() {
+		// the state event is pending or the battery is not full yet
+		return previousBatteryState_kWh != batteryState_kWh || batteryState_kWh < settings.capacity_kWh;
+	}
+
 	private final static ObjectMapper objectMapper = new ObjectMapper();
 
 	static public class Factory implements ChargerPower.Factory {
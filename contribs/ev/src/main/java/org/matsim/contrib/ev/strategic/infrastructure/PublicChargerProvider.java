@@ -3,6 +3,8 @@ package org.matsim.contrib.ev.strategic.infrastructure;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.matsim.api.core.v01.Coord;
 import org.matsim.api.core.v01.Id;
@@ -26,6 +28,15 @@ import org.matsim.core.utils.geometry.CoordUtils;
  * configured search radius and based on the subscriptions of the
  * charger/persons.
  * 
+ * The chargers within the search radius of a location are the same for all
+ * persons, so they are cached and shared between the replanning threads. Only
+ * the access of the person is evaluated for every request. Points along a route
+ * are links, so the leg-based candidates are cached per link. Activities can
+ * have arbitrary coordinates, so the activity-based candidates are cached per
+ * grid cell (with the size of the search radius) and filtered by the exact
+ * distance afterwards. Hence, both caches are bounded by the size of the
+ * network and the study area.
+ * 
  * A charger can be tagged as public by setting its sevc:public charger
  * attribute to true.
  * 
@@ -41,6 +52,9 @@ public class PublicChargerProvider implements ChargerProvider {
 
 	private final ChargerAccess access;
 
+	private final Map<Long, List<ChargerSpecification>> activityBasedCandidates = new ConcurrentHashMap<>();
+	private final Map<Id<Link>, List<ChargerSpecification>> legBasedCandidates = new ConcurrentHashMap<>();
+
 	PublicChargerProvider(Scenario scenario, QuadTree<ChargerSpecification> index, ChargerAccess access,
 			double activityBasedRadius, double legBasedRadius) {
 		this.scenario = scenario;
@@ -61,34 +75,61 @@ public class PublicChargerProvider implements ChargerProvider {
 			ChargerRequest request) {
 		Coord location = PopulationUtils.decideOnCoordForActivity(request.startActivity(), scenario);
 
-		return index.getDisk(location.getX(), location.getY(), activityBasedRadius).stream()
+		return getActivityBasedCandidates(location).stream()
 				.filter(charger -> access.hasAccess(person, charger)).toList();
 	}
 
+	private List<ChargerSpecification> getActivityBasedCandidates(Coord location) {
+		double cellSize = Math.max(activityBasedRadius, 1.0);
+		long cellX = (long) Math.floor(location.getX() / cellSize);
+		long cellY = (long) Math.floor(location.getY() / cellSize);
+
+		// all chargers within the radius of any point in the cell, the margin covers the half diagonal of the cell
+		long cell = (cellX << 32) | (cellY & 0xffffffffL);
+		List<ChargerSpecification> cellCandidates = activityBasedCandidates.computeIfAbsent(cell,
+				c -> List.copyOf(index.getDisk((cellX + 0.5) * cellSize, (cellY + 0.5) * cellSize,
+						activityBasedRadius + cellSize)));
+
+		// same distance check as the index, so the result equals a direct query, including the order
+		double maxDistanceSqr = activityBasedRadius * activityBasedRadius;
+		return cellCandidates.stream().filter(charger -> {
+			Coord coord = scenario.getNetwork().getLinks().get(charger.getLinkId()).getCoord();
+			double dx = coord.getX() - location.getX();
+			double dy = coord.getY() - location.getY();
+			return dx * dx + dy * dy <= maxDistanceSqr;
+		}).toList();
+	}
+
 	private Collection<ChargerSpecification> findChargersLegBased(Person person, Plan plan, ChargerRequest request) {
-		List<Coord> locations = new LinkedList<>();
+		List<Link> locations = new LinkedList<>();
 
-		Coord location = scenario.getNetwork().getLinks().get(request.leg().getRoute().getStartLinkId()).getCoord();
+		Link location = scenario.getNetwork().getLinks().get(request.leg().getRoute().getStartLinkId());
 		locations.add(location);
 
 		if (request.leg().getRoute() instanceof NetworkRoute route) {
 			for (Id<Link> linkId : route.getLinkIds()) {
-				Coord candidate = scenario.getNetwork().getLinks().get(linkId).getCoord();
+				Link candidate = scenario.getNetwork().getLinks().get(linkId);
 
-				if (CoordUtils.calcEuclideanDistance(candidate, location) >= legBasedRadius * 2.0) {
+				if (CoordUtils.calcEuclideanDistance(candidate.getCoord(), location.getCoord()) >= legBasedRadius
+						* 2.0) {
 					location = candidate;
 					locations.add(location);
 				}
 			}
 		}
 
-		location = scenario.getNetwork().getLinks().get(request.leg().getRoute().getEndLinkId()).getCoord();
+		location = scenario.getNetwork().getLinks().get(request.leg().getRoute().getEndLinkId());
 		locations.add(location);
 
-		return locations.stream().flatMap(point -> index.getDisk(point.getX(), point.getY(), legBasedRadius).stream())
+		return locations.stream().flatMap(link -> getLegBasedCandidates(link).stream())
 				.filter(charger -> access.hasAccess(person, charger)).distinct().toList();
 	}
 
+	private List<ChargerSpecification> getLegBasedCandidates(Link link) {
+		return legBasedCandidates.computeIfAbsent(link.getId(), id -> List
+				.copyOf(index.getDisk(link.getCoord().getX(), link.getCoord().getY(), legBasedRadius)));
+	}
+
 	static public PublicChargerProvider create(Scenario scenario, ChargingInfrastructureSpecification infrastrcuture,
 			ChargerAccess access, double activityBasedRadius, double legBasedRadius) {
 		Network network = scenario.getNetwork();
@@ -1,6 +1,6 @@
 package org.matsim.contrib.ev.strategic.replanning.innovator.chargers;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.matsim.api.core.v01.Id;
@@ -132,7 +132,7 @@ public class EnergyHelper {
             // track energy
             TimeTracker timeTracker = new TimeTracker(timeInterpretation);
 
-            List<Double> energy = new LinkedList<>(); // at the beginning of each activity
+            List<Double> energy = new ArrayList<>(); // at the beginning of each activity
 
             // initialize energy
             double remainingEnergy = electricVehicle.getVehicleSpecification().getInitialSoc()
@@ -148,7 +148,7 @@ public class EnergyHelper {
                         // reduce energy according to consumption model
                         NetworkRoute route = (NetworkRoute) leg.getRoute();
 
-                        List<Id<Link>> linkIds = new LinkedList<>();
+                        List<Id<Link>> linkIds = new ArrayList<>(route.getLinkIds().size() + 2);
                         linkIds.add(route.getStartLinkId());
                         linkIds.addAll(route.getLinkIds());
                         linkIds.add(route.getEndLinkId());
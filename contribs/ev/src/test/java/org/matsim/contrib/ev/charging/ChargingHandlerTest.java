@@ -0,0 +1,160 @@
+package org.matsim.contrib.ev.charging;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.contrib.ev.EvConfigGroup;
+import org.matsim.contrib.ev.EvUnits;
+import org.matsim.contrib.ev.extensions.battery_chargers.BatteryChargerPower;
+import org.matsim.contrib.ev.extensions.battery_chargers.BatteryChargerSettings;
+import org.matsim.contrib.ev.extensions.battery_chargers.BatteryChargerStateEvent;
+import org.matsim.contrib.ev.fleet.ElectricFleetUtils;
+import org.matsim.contrib.ev.fleet.ElectricVehicle;
+import org.matsim.contrib.ev.fleet.ElectricVehicleSpecification;
+import org.matsim.contrib.ev.infrastructure.*;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.handler.BasicEventHandler;
+import org.matsim.core.mobsim.framework.events.MobsimAfterSimStepEvent;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.vehicles.Vehicle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChargingHandlerTest {
+
+	private static final double BATTERY_CAPACITY_J = 10_000.0;
+	private static final double CHARGER_POWER_W = 1_000.0;
+
+	private final Map<Id<Charger>, Integer> steps = new HashMap<>();
+
+	@Test
+	void onlyChargersWithVehiclesAreStepped() {
+		var config = new EvConfigGroup();
+		config.setChargeTimeStep(1);
+		var chargingInfrastructure = createInfrastructure(config, 3);
+		var handler = new ChargingHandler(chargingInfrastructure, config);
+
+		handler.notifyMobsimAfterSimStep(new MobsimAfterSimStepEvent<>(null, 0));
+		assertTrue(steps.isEmpty());
+
+		var charger = chargingInfrastructure.getChargers().get(Id.create("charger1", Charger.class));
+		var ev = createEv(Id.create("ev", Vehicle.class), 0.8);
+		charger.getLogic().addVehicle(ev, new ChargeUpToMaxSocStrategy(charger.getSpecification(), ev, 1.0), 1);
+
+		handler.notifyMobsimAfterSimStep(new MobsimAfterSimStepEvent<>(null, 1)); // plugs the EV
+		assertEquals(1, charger.getLogic().getPluggedVehicles().size());
+		handler.notifyMobsimAfterSimStep(new MobsimAfterSimStepEvent<>(null, 2)); // 9000 J
+		handler.notifyMobsimAfterSimStep(new MobsimAfterSimStepEvent<>(null, 3)); // 10000 J -> unplugged
+		assertEquals(BATTERY_CAPACITY_J, ev.getBattery().getCharge(), 1e-6);
+		assertTrue(charger.getLogic().getPluggedVehicles().isEmpty());
+		assertFalse(charger.getLogic().isActive());
+
+		handler.notifyMobsimAfterSimStep(new MobsimAfterSimStepEvent<>(null, 4));
+		assertEquals(Map.of(charger.getId(), 3), steps);
+	}
+
+	@Test
+	void idleBatteryChargerIsRecharged() {
+		var config = new EvConfigGroup();
+		config.setChargeTimeStep(1);
+		var eventsManager = EventsUtils.createEventsManager();
+		List<Double> batteryStates = new ArrayList<>();
+		eventsManager.addHandler((BasicEventHandler)event -> {
+			if (event instanceof BatteryChargerStateEvent stateEvent) {
+				batteryStates.add(EvUnits.kWh_to_J(stateEvent.getState_kWh()));
+			}
+		});
+
+		// 3600 J battery, recharged with 500 W from the grid, vehicles charge with 1000 W
+		var chargingInfrastructure = createInfrastructure(config, 1, eventsManager, spec -> new BatteryChargerPower(spec,
+			new BatteryChargerSettings(0.5, EvUnits.J_to_kWh(3600)), config.getChargeTimeStep(), eventsManager));
+		var handler = new ChargingHandler(chargingInfrastructure, config);
+		var charger = chargingInfrastructure.getChargers().get(Id.create("charger0", Charger.class));
+
+		handler.notifyMobsimAfterSimStep(new MobsimAfterSimStepEvent<>(null, 0)); // initial state
+		assertFalse(charger.getLogic().isActive());
+
+		var ev1 = createEv(Id.create("ev1", Vehicle.class), 0.8);
+		charger.getLogic().addVehicle(ev1, new ChargeUpToMaxSocStrategy(charger.getSpecification(), ev1, 1.0), 1);
+		for (int time = 1; time <= 3; time++) {
+			handler.notifyMobsimAfterSimStep(new MobsimAfterSimStepEvent<>(null, time));
+		}
+		assertEquals(BATTERY_CAPACITY_J, ev1.getBattery().getCharge(), 1e-6);
+		assertTrue(charger.getLogic().getPluggedVehicles().isEmpty());
+		// the charger battery has been drained by 2000 J and is recharged without any vehicles plugged
+		assertTrue(charger.getLogic().isActive());
+
+		for (int time = 4; time <= 20; time++) {
+			handler.notifyMobsimAfterSimStep(new MobsimAfterSimStepEvent<>(null, time));
+		}
+		assertEquals(3600, batteryStates.get(0), 1e-6);
+		assertEquals(1600, batteryStates.get(2), 1e-6);
+		assertEquals(2100, batteryStates.get(3), 1e-6); // recharged for one second after the vehicle has left
+		assertEquals(3600, batteryStates.get(batteryStates.size() - 1), 1e-6);
+		assertFalse(charger.getLogic().isActive());
+
+		// the second vehicle is charged from the full battery again
+		var ev2 = createEv(Id.create("ev2", Vehicle.class), 0.8);
+		charger.getLogic().addVehicle(ev2, new ChargeUpToMaxSocStrategy(charger.getSpecification(), ev2, 1.0), 21);
+		handler.notifyMobsimAfterSimStep(new MobsimAfterSimStepEvent<>(null, 21)); // plugs the EV
+		handler.notifyMobsimAfterSimStep(new MobsimAfterSimStepEvent<>(null, 22));
+		assertEquals(0.9 * BATTERY_CAPACITY_J, ev2.getBattery().getCharge(), 1e-6);
+	}
+
+	private ChargingInfrastructure createInfrastructure(EvConfigGroup config, int chargerCount) {
+		return createInfrastructure(config, chargerCount, EventsUtils.createEventsManager(), new DefaultChargerPower.Factory(config));
+	}
+
+	private ChargingInfrastructure createInfrastructure(EvConfigGroup config, int chargerCount, EventsManager eventsManager,
+		ChargerPower.Factory powerFactory) {
+		var network = NetworkUtils.createNetwork();
+		var n1 = NetworkUtils.createNode(Id.createNodeId("n1"));
+		var n2 = NetworkUtils.createNode(Id.createNodeId("n2"));
+		network.addNode(n1);
+		network.addNode(n2);
+		Id<Link> linkId = Id.createLinkId("l1");
+		network.addLink(NetworkUtils.createLink(linkId, n1, n2, network, 100, 10, 1000, 1));
+
+		var infraSpec = ChargingInfrastructureUtils.createChargingInfrastructureSpecification();
+		for (int i = 0; i < chargerCount; i++) {
+			infraSpec.addChargerSpecification(ImmutableChargerSpecification.newBuilder()
+				.id(Id.create("charger" + i, Charger.class))
+				.chargerType(ChargerSpecification.DEFAULT_CHARGER_TYPE)
+				.linkId(linkId)
+				.plugPower(CHARGER_POWER_W)
+				.plugCount(1)
+				.build());
+		}
+
+		ChargingLogic.Factory logicFactory = spec -> new ChargingWithQueueingLogic(spec, eventsManager, (cv, now) -> true,
+			powerFactory.create(spec)) {
+			@Override
+			public void chargeVehicles(double chargePeriod, double now) {
+				steps.merge(spec.getId(), 1, Integer::sum);
+				super.chargeVehicles(chargePeriod, now);
+			}
+		};
+		return ChargingInfrastructureUtils.createChargingInfrastructure(infraSpec, network.getLinks()::get, logicFactory);
+	}
+
+	private ElectricVehicle createEv(Id<Vehicle> vehicleId, double initialSoc) {
+		record TestEvSpec(Id<Vehicle> getId, Vehicle getMatsimVehicle, String getVehicleType,
+		                  ImmutableList<String> getChargerTypes, double getBatteryCapacity,
+		                  double getInitialSoc) implements ElectricVehicleSpecification {}
+
+		var evSpec = new TestEvSpec(vehicleId, null, "electric",
+			ImmutableList.of(ChargerSpecification.DEFAULT_CHARGER_TYPE), BATTERY_CAPACITY_J, initialSoc);
+
+		return ElectricFleetUtils.create(evSpec,
+			vehicle -> (link, travelTime, linkEnterTime) -> {throw new UnsupportedOperationException();},
+			vehicle -> (beginTime, duration, linkId) -> {throw new UnsupportedOperationException();},
+			vehicle -> chargerSpec -> CHARGER_POWER_W);
+	}
+}
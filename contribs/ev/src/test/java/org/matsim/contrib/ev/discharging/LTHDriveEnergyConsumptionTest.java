@@ -0,0 +1,48 @@
+package org.matsim.contrib.ev.discharging;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.ev.EvUnits;
+import org.matsim.core.network.NetworkUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LTHDriveEnergyConsumptionTest {
+
+	@Test
+	void cachedConsumptionPerLinkAndTravelTime() {
+		double[] speeds = { 0, 10, 20, 30, 40 };
+		double[] slopes = { -0.2, -0.1, 0, 0.1, 0.2 };
+		double[][] consumption = new double[speeds.length][slopes.length];
+		for (int i = 0; i < speeds.length; i++) {
+			for (int j = 0; j < slopes.length; j++) {
+				// kWh per km
+				consumption[i][j] = 0.1 + 0.005 * speeds[i] + 0.5 * slopes[j];
+			}
+		}
+		var factory = new LTHDriveEnergyConsumption.Factory(speeds, slopes, consumption, true);
+		var driveEnergyConsumption = factory.create(null);
+		assertSame(driveEnergyConsumption, factory.create(null));
+
+		Network network = NetworkUtils.createNetwork();
+		var n1 = NetworkUtils.createAndAddNode(network, Id.createNodeId("n1"), new Coord(0, 0));
+		var n2 = NetworkUtils.createAndAddNode(network, Id.createNodeId("n2"), new Coord(1000, 0));
+		Link flat = NetworkUtils.createAndAddLink(network, Id.createLinkId("flat"), n1, n2, 1000, 30, 1000, 1);
+		Link uphill = NetworkUtils.createAndAddLink(network, Id.createLinkId("uphill"), n2, n1, 1000, 30, 1000, 1);
+		uphill.getAttributes().putAttribute("slopes", new double[] { 0.1, 0.1 });
+
+		// 1 km at 20 m/s
+		double expectedFlat = EvUnits.kWh_to_J(0.1 + 0.005 * 20);
+		double expectedUphill = EvUnits.kWh_to_J(0.1 + 0.005 * 20 + 0.5 * 0.1);
+		assertEquals(expectedFlat, driveEnergyConsumption.calcEnergyConsumption(flat, 50, 0), 1e-6);
+		assertEquals(expectedUphill, driveEnergyConsumption.calcEnergyConsumption(uphill, 50, 0), 1e-6);
+		assertEquals(expectedFlat, driveEnergyConsumption.calcEnergyConsumption(flat, 50, 3600), 1e-6);
+
+		// 1 km at 10 m/s
+		assertEquals(EvUnits.kWh_to_J(0.1 + 0.005 * 10), driveEnergyConsumption.calcEnergyConsumption(flat, 100, 0), 1e-6);
+		assertEquals(expectedFlat, driveEnergyConsumption.calcEnergyConsumption(flat, 50, 0), 1e-6);
+	}
+}
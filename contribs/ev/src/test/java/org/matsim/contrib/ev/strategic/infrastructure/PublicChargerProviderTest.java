@@ -0,0 +1,107 @@
+package org.matsim.contrib.ev.strategic.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Activity;
+import org.matsim.api.core.v01.population.Leg;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.contrib.ev.infrastructure.Charger;
+import org.matsim.contrib.ev.infrastructure.ChargerSpecification;
+import org.matsim.contrib.ev.infrastructure.ChargingInfrastructureSpecificationDefaultImpl;
+import org.matsim.contrib.ev.infrastructure.ImmutableChargerSpecification;
+import org.matsim.contrib.ev.strategic.access.AnyChargerAccess;
+import org.matsim.contrib.ev.strategic.infrastructure.ChargerProvider.ChargerRequest;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.population.PopulationUtils;
+import org.matsim.core.population.routes.RouteUtils;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.core.utils.collections.QuadTree;
+import org.matsim.core.utils.collections.QuadTrees;
+
+public class PublicChargerProviderTest {
+	private static final double ACTIVITY_RADIUS = 500.0;
+	private static final double LEG_RADIUS = 300.0;
+
+	@Test
+	public void testCachedCandidatesEqualDirectQuery() {
+		Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		Network network = scenario.getNetwork();
+		ChargingInfrastructureSpecificationDefaultImpl infrastructure = new ChargingInfrastructureSpecificationDefaultImpl();
+
+		// links on a grid around the origin, every other one with a public charger
+		List<Link> links = new ArrayList<>();
+		for (int x = -10; x < 10; x++) {
+			for (int y = -10; y < 10; y++) {
+				Node from = NetworkUtils.createAndAddNode(network, Id.createNodeId(x + "_" + y + "_from"),
+						new Coord(x * 230.0, y * 170.0));
+				Node to = NetworkUtils.createAndAddNode(network, Id.createNodeId(x + "_" + y + "_to"),
+						new Coord(x * 230.0 + 100.0, y * 170.0 + 50.0));
+				Link link = NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y), from, to, 100.0,
+						10.0, 1000.0, 1.0);
+				links.add(link);
+
+				ChargerSpecification charger = ImmutableChargerSpecification.newBuilder() //
+						.id(Id.create(link.getId(), Charger.class)) //
+						.chargerType("default") //
+						.linkId(link.getId()) //
+						.plugCount(1) //
+						.plugPower(11000.0) //
+						.build();
+				PublicChargerProvider.setPublic(charger, (x + y) % 2 == 0);
+				infrastructure.addChargerSpecification(charger);
+			}
+		}
+
+		PublicChargerProvider provider = PublicChargerProvider.create(scenario, infrastructure, new AnyChargerAccess(),
+				ACTIVITY_RADIUS, LEG_RADIUS);
+
+		List<ChargerSpecification> publicChargers = infrastructure.getChargerSpecifications().values().stream()
+				.filter(PublicChargerProvider::isPublicCharger).toList();
+		QuadTree<ChargerSpecification> index = QuadTrees.createQuadTree(publicChargers,
+				c -> network.getLinks().get(c.getLinkId()).getCoord(), 0.0);
+
+		Person person = PopulationUtils.getFactory().createPerson(Id.createPersonId("person"));
+		Random random = new Random(0);
+
+		// repeated requests are answered from the cache
+		for (int repetition = 0; repetition < 2; repetition++) {
+			random.setSeed(0);
+
+			for (int i = 0; i < 200; i++) {
+				Coord coord = new Coord(-2500.0 + random.nextDouble() * 5000.0, -2000.0 + random.nextDouble() * 4000.0);
+				Activity activity = PopulationUtils.createActivityFromCoord("work", coord);
+
+				assertThat(provider.findChargers(person, null, new ChargerRequest(activity, activity)))
+						.containsExactlyElementsOf(index.getDisk(coord.getX(), coord.getY(), ACTIVITY_RADIUS));
+			}
+
+			for (int i = 0; i < 200; i++) {
+				Link start = links.get(random.nextInt(links.size()));
+				Link end = links.get(random.nextInt(links.size()));
+				Leg leg = PopulationUtils.createLeg("car");
+				leg.setRoute(RouteUtils.createLinkNetworkRouteImpl(start.getId(), end.getId()));
+
+				List<ChargerSpecification> expected = Stream.of(start, end)
+						.flatMap(link -> index.getDisk(link.getCoord().getX(), link.getCoord().getY(), LEG_RADIUS)
+								.stream())
+						.distinct().toList();
+
+				assertThat(provider.findChargers(person, null, new ChargerRequest(leg)))
+						.containsExactlyElementsOf(expected);
+			}
+		}
+	}
+}
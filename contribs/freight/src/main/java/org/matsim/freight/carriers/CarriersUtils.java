@@ -24,6 +24,7 @@ package org.matsim.freight.carriers;
 import com.graphhopper.jsprit.analysis.toolbox.StopWatch;
 import com.graphhopper.jsprit.core.algorithm.VehicleRoutingAlgorithm;
 import com.graphhopper.jsprit.core.algorithm.listener.VehicleRoutingAlgorithmListeners;
+import com.graphhopper.jsprit.core.algorithm.termination.TimeTermination;
 import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
 import com.graphhopper.jsprit.core.problem.job.Shipment;
 import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolution;
@@ -319,21 +320,33 @@ public class CarriersUtils {
 		AtomicInteger startedVRPCounter = new AtomicInteger(0);
 		AtomicInteger finishedVRPCounter = new AtomicInteger(0);
 
-		int nThreads = Runtime.getRuntime().availableProcessors();
+		int availableProcessors = Runtime.getRuntime().availableProcessors();
+		int nThreads = Math.min(availableProcessors, carrierActivityCounterMap.size());
 		log.info("#### Starting VRP solving with Jsprit for {} carriers in parallel with {} threads. ####", carrierActivityCounterMap.size(), nThreads);
+		int maxJspritThreadsPerCarrier = getMaxJspritThreadsPerCarrier(freightConfigGroup.getMaxJspritThreadsPerCarrier(), availableProcessors,
+			nThreads);
+		if (maxJspritThreadsPerCarrier < freightConfigGroup.getMaxJspritThreadsPerCarrier()) {
+			log.info("Using at most {} instead of {} jsprit threads per carrier, so that {} carriers solved in parallel do not use more than {} threads.",
+				maxJspritThreadsPerCarrier, freightConfigGroup.getMaxJspritThreadsPerCarrier(), nThreads, availableProcessors);
+		}
 
 		BestJspritSolutionCollector bestJspritSolutionCollector = new BestJspritSolutionCollector();
 		List<Future<?>> futures;
 		try (ThreadPoolExecutor executor = new JspritTreadPoolExecutor(new PriorityBlockingQueue<>(), nThreads)) {
 			futures = new ArrayList<>();
+			// sorted by number of activities and carrier id, so that the order of solving does not depend on the order of the map
 			List<Map.Entry<Id<Carrier>, Integer>> sorted = carrierActivityCounterMap.entrySet().stream()
-				.sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
+				.sorted(Map.Entry.<Id<Carrier>, Integer>comparingByValue().reversed()
+					.thenComparing(entry -> entry.getKey().toString()))
 				.toList();
 
+			int maxActivities = sorted.get(0).getValue();
 			for (Map.Entry<Id<Carrier>, Integer> entry : sorted) {
+				int jspritThreads = getJspritThreadsForCarrier(maxJspritThreadsPerCarrier, entry.getValue(), maxActivities);
 				JspritCarrierTask task = new JspritCarrierTask(entry.getValue(), carriers.getCarriers().get(entry.getKey()), scenario, netBasedCosts,
-					startedVRPCounter, finishedVRPCounter, carriers.getCarriers().size(), jspritAnalysisPerCarrierCSVPath, bestJspritSolutionCollector);
-				log.info("Adding task for carrier {} with priority {}", entry.getKey(), entry.getValue());
+					startedVRPCounter, finishedVRPCounter, carriers.getCarriers().size(), jspritAnalysisPerCarrierCSVPath, bestJspritSolutionCollector,
+					jspritThreads);
+				log.info("Adding task for carrier {} with priority {} and {} jsprit thread(s)", entry.getKey(), entry.getValue(), jspritThreads);
 				futures.add(executor.submit(task));
 			}
 		}
@@ -348,6 +361,27 @@ public class CarriersUtils {
 		log.info("#### Finished VRP solving with Jsprit for all {} carriers. ####", carrierActivityCounterMap.size());
 	}
 
+	/**
+	 * Limits the jsprit threads per carrier, so that the carriers solved in parallel together do not use more threads than there are
+	 * processors.
+	 */
+	static int getMaxJspritThreadsPerCarrier(int maxJspritThreadsPerCarrier, int availableProcessors, int carriersInParallel) {
+		return Math.max(1, Math.min(maxJspritThreadsPerCarrier, availableProcessors / Math.max(1, carriersInParallel)));
+	}
+
+	/**
+	 * The number of threads jsprit uses for the insertions of a carrier. The largest carrier gets the maximum number of threads, the others
+	 * proportionally to their number of activities, but at least one. Thus, large carriers, which are solved first and usually finish last,
+	 * are solved faster, while small carriers do not take away threads from the other carriers.
+	 */
+	static int getJspritThreadsForCarrier(int maxJspritThreadsPerCarrier, int activities, int maxActivities) {
+		if (maxJspritThreadsPerCarrier <= 1 || maxActivities <= 0) {
+			return 1;
+		}
+		int threads = (int) Math.ceil((double) maxJspritThreadsPerCarrier * activities / maxActivities);
+		return Math.max(1, Math.min(maxJspritThreadsPerCarrier, threads));
+	}
+
 	/**
 	 * Writes the aggregated results for all run VRPs to a csv file and creates a related graphic.
 	 *
@@ -1048,8 +1082,16 @@ public class CarriersUtils {
 	static final class BestJspritSolutionCollector {
 		private final ConcurrentMap<Id<Carrier>, NavigableMap<Integer, VehicleRoutingProblemSolution>> map = new ConcurrentHashMap<>();
 
-		void put(Id<Carrier> carrierId, NavigableMap<Integer, VehicleRoutingProblemSolution> series) {
-			map.put(carrierId, new TreeMap<>(series));
+		/**
+		 * @param lastIteration the last jsprit iteration of the carrier, which is repeated at the end of the series, so that the series
+		 *                      ends with the iterations actually run (e.g. less than configured due to the time limit)
+		 */
+		void put(Id<Carrier> carrierId, NavigableMap<Integer, VehicleRoutingProblemSolution> series, int lastIteration) {
+			NavigableMap<Integer, VehicleRoutingProblemSolution> copy = new TreeMap<>(series);
+			if (!copy.isEmpty() && lastIteration > copy.lastKey()) {
+				copy.put(lastIteration, copy.lastEntry().getValue());
+			}
+			map.put(carrierId, copy);
 		}
 
 		ConcurrentMap<Id<Carrier>, NavigableMap<Integer, VehicleRoutingProblemSolution>> snapshot() {
@@ -1067,10 +1109,18 @@ public class CarriersUtils {
 		private final int taskCount;
 		private final Path iterationAnalysisPerCarrierPath;
 		private final BestJspritSolutionCollector bestJspritSolutionCollector;
+		private final int jspritThreads;
 
 		public JspritCarrierTask(int priority, Carrier carrier, Scenario scenario, NetworkBasedTransportCosts netBasedCosts,
 								 AtomicInteger startedVRPCounter, AtomicInteger finishedVRPCounter, int taskCount, Path iterationAnalysisPerCarrierPath,
 								 BestJspritSolutionCollector bestJspritSolutionCollector) {
+			this(priority, carrier, scenario, netBasedCosts, startedVRPCounter, finishedVRPCounter, taskCount, iterationAnalysisPerCarrierPath,
+				bestJspritSolutionCollector, 1);
+		}
+
+		public JspritCarrierTask(int priority, Carrier carrier, Scenario scenario, NetworkBasedTransportCosts netBasedCosts,
+								 AtomicInteger startedVRPCounter, AtomicInteger finishedVRPCounter, int taskCount, Path iterationAnalysisPerCarrierPath,
+								 BestJspritSolutionCollector bestJspritSolutionCollector, int jspritThreads) {
 			this.priority = priority;
 			this.carrier = carrier;
 			this.scenario = scenario;
@@ -1080,6 +1130,7 @@ public class CarriersUtils {
 			this.taskCount = taskCount;
 			this.iterationAnalysisPerCarrierPath = iterationAnalysisPerCarrierPath;
 			this.bestJspritSolutionCollector = bestJspritSolutionCollector;
+			this.jspritThreads = jspritThreads;
 		}
 
 		public int getPriority() {
@@ -1101,16 +1152,24 @@ public class CarriersUtils {
 			log.info("started VRP solving for carrier number {} out of {} carriers. Thread id: {}. Priority: {}", startedVRPCounter.get(), taskCount,
 				Thread.currentThread().threadId(), this.priority);
 
+			// fill the shared cost cache for all relations of this carrier at once, instead of routing each relation on demand
+			netBasedCosts.precomputeTransportData(carrier);
+
 			VehicleRoutingProblem problem = MatsimJspritFactory.createRoutingProblemBuilder(carrier, scenario.getNetwork())
 				.setRoutingCost(netBasedCosts).build();
 			VehicleRoutingAlgorithm algorithm = MatsimJspritFactory.loadOrCreateVehicleRoutingAlgorithm(scenario, freightCarriersConfigGroup,
-				netBasedCosts, problem);
+				netBasedCosts, problem, jspritThreads);
 
+			int jspritIterations = getJspritIterations(carrier);
 			algorithm.getAlgorithmListeners().addListener(new StopWatch(), VehicleRoutingAlgorithmListeners.Priority.HIGH);
-			JspritStrategyAnalyzer iterationsAnalyzer = new JspritStrategyAnalyzer(carrier);
+			JspritStrategyAnalyzer iterationsAnalyzer = new JspritStrategyAnalyzer(carrier, jspritIterations);
 			algorithm.getAlgorithmListeners().addListener(iterationsAnalyzer, VehicleRoutingAlgorithmListeners.Priority.HIGH);
 			algorithm.getSearchStrategyManager().addSearchStrategyModuleListener(iterationsAnalyzer);
-			int jspritIterations = getJspritIterations(carrier);
+			if (freightCarriersConfigGroup.getJspritTimeLimitPerCarrier() > 0) {
+				TimeTermination timeTermination = new TimeTermination((long) (freightCarriersConfigGroup.getJspritTimeLimitPerCarrier() * 1000));
+				algorithm.getAlgorithmListeners().addListener(timeTermination);
+				algorithm.addTerminationCriterion(timeTermination);
+			}
 			try {
 				if (jspritIterations > 0) {
 					algorithm.setMaxIterations(jspritIterations);
@@ -1126,6 +1185,7 @@ public class CarriersUtils {
 			VehicleRoutingProblemSolution solution = Solutions.bestOf(algorithm.searchSolutions());
 
 			log.info("tour planning for carrier {} took {} seconds.", carrier.getId(), (System.currentTimeMillis() - start) / 1000);
+			logJspritMetrics(iterationsAnalyzer, solution, (System.currentTimeMillis() - start) / 1000);
 
 			CarrierPlan newPlan = MatsimJspritFactory.createPlan(solution);
 			// yy In principle, the carrier should know the vehicle types that it can deploy.
@@ -1144,6 +1204,16 @@ public class CarriersUtils {
 				log.warn("Not all jobs of carrier {} are handled by the selected plan.", carrier.getId());
 		}
 
+		private void logJspritMetrics(JspritStrategyAnalyzer analyzer, VehicleRoutingProblemSolution solution, double timeInSeconds) {
+			int iterations = analyzer.getIterationSolutionCosts().size() - 1; // without the initial solution
+			var initialSolution = analyzer.getFoundNewBestSolutions().firstEntry();
+			double initialCosts = initialSolution != null ? initialSolution.getValue().getCost() : Double.NaN;
+			log.info("jsprit metrics for carrier {}: {} iterations with {} thread(s) in {} seconds ({} seconds per iteration), "
+					+ "costs of initial solution: {}, costs of best solution: {}, vehicles used: {}, unassigned jobs: {}",
+				carrier.getId(), iterations, jspritThreads, timeInSeconds, iterations > 0 ? timeInSeconds / iterations : Double.NaN,
+				initialCosts, solution.getCost(), solution.getRoutes().size(), solution.getUnassignedJobs().size());
+		}
+
 		/**
 		 * Writes the jsprit strategy analyzer results to a CSV file.
 		 *
@@ -1175,7 +1245,7 @@ public class CarriersUtils {
 
 						LinkedHashMap<Integer, JspritStrategyAnalyzer.IterationResult> jspritResultsPerIteration = analyzer.getIterationSolutionCosts();
 						NavigableMap<Integer, VehicleRoutingProblemSolution> foundNewBestSolutions = analyzer.getFoundNewBestSolutions();
-						bestJspritSolutionCollector.put(carrier.getId(), foundNewBestSolutions);
+						bestJspritSolutionCollector.put(carrier.getId(), foundNewBestSolutions, jspritResultsPerIteration.size() - 1);
 
 						for (var entry : jspritResultsPerIteration.entrySet()) {
 							Integer jspritIteration = entry.getKey();
@@ -1233,7 +1303,11 @@ public class CarriersUtils {
 
 		@Override
 		public int compareTo(CustomFutureTask that) {
-			return that.task.getPriority() - this.task.getPriority();
+			int result = Integer.compare(that.task.getPriority(), this.task.getPriority());
+			if (result == 0) {
+				result = this.task.carrier.getId().toString().compareTo(that.task.carrier.getId().toString());
+			}
+			return result;
 		}
 	}
 }
@@ -22,6 +22,7 @@
 package org.matsim.freight.carriers;
 
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import java.net.URL;
 import java.util.Map;
 import org.matsim.core.config.ConfigGroup;
@@ -62,6 +63,22 @@ public class FreightCarriersConfigGroup extends ReflectiveConfigGroup {
 		+ "For example, a value of 90 limits the usable range to 90 percent of the vehicle range. Default value is 100 percent.";
 	private double distanceConstraintUsableRange = 100.;
 
+	static final String MAX_JSPRIT_THREADS_PER_CARRIER = "maxJspritThreadsPerCarrier";
+	private static final String MAX_JSPRIT_THREADS_PER_CARRIER_DESC = "Maximum number of threads jsprit uses for the insertions of a single carrier. "
+		+ "The largest carrier gets this number of threads, smaller carriers get proportionally fewer, but at least one. "
+		+ "This avoids that one large carrier is solved by a single thread at the end while the other threads are idle. "
+		+ "The value is reduced if the carriers solved in parallel would use more threads than there are processors. "
+		+ "Default value is 1, i.e. carriers are only solved in parallel to each other.";
+	@Positive
+	private int maxJspritThreadsPerCarrier = 1;
+
+	static final String JSPRIT_TIME_LIMIT_PER_CARRIER = "jspritTimeLimitPerCarrier";
+	private static final String JSPRIT_TIME_LIMIT_PER_CARRIER_DESC = "Maximum computation time of jsprit per carrier in seconds. "
+		+ "If reached, the search stops before the configured number of jsprit iterations and the best solution found so far is used. "
+		+ "Note that the result then depends on the speed of the machine. Default value is 0, i.e. no time limit.";
+	@PositiveOrZero
+	private double jspritTimeLimitPerCarrier = 0.;
+
     public FreightCarriersConfigGroup() {
         super(GROUPNAME);
     }
@@ -197,6 +214,38 @@ public class FreightCarriersConfigGroup extends ReflectiveConfigGroup {
 		this.distanceConstraintUsableRange = distanceConstraintUsableRange;
 	}
 
+	/**
+	 * @return maxJspritThreadsPerCarrier -- {@value #MAX_JSPRIT_THREADS_PER_CARRIER_DESC}
+	 */
+	@StringGetter(MAX_JSPRIT_THREADS_PER_CARRIER)
+	public int getMaxJspritThreadsPerCarrier() {
+		return maxJspritThreadsPerCarrier;
+	}
+
+	/**
+	 * @param maxJspritThreadsPerCarrier {@value #MAX_JSPRIT_THREADS_PER_CARRIER_DESC}
+	 */
+	@StringSetter(MAX_JSPRIT_THREADS_PER_CARRIER)
+	public void setMaxJspritThreadsPerCarrier(int maxJspritThreadsPerCarrier) {
+		this.maxJspritThreadsPerCarrier = maxJspritThreadsPerCarrier;
+	}
+
+	/**
+	 * @return jspritTimeLimitPerCarrier -- {@value #JSPRIT_TIME_LIMIT_PER_CARRIER_DESC}
+	 */
+	@StringGetter(JSPRIT_TIME_LIMIT_PER_CARRIER)
+	public double getJspritTimeLimitPerCarrier() {
+		return jspritTimeLimitPerCarrier;
+	}
+
+	/**
+	 * @param jspritTimeLimitPerCarrier {@value #JSPRIT_TIME_LIMIT_PER_CARRIER_DESC}
+	 */
+	@StringSetter(JSPRIT_TIME_LIMIT_PER_CARRIER)
+	public void setJspritTimeLimitPerCarrier(double jspritTimeLimitPerCarrier) {
+		this.jspritTimeLimitPerCarrier = jspritTimeLimitPerCarrier;
+	}
+
 	//---
 	//---
 	@Override
@@ -208,6 +257,8 @@ public class FreightCarriersConfigGroup extends ReflectiveConfigGroup {
         map.put(TRAVEL_TIME_SLICE_WIDTH, TRAVEL_TIME_SLICE_WIDTH_DESC);
         map.put(USE_DISTANCE_CONSTRAINT, USE_DISTANCE_CONSTRAINT_DESC);
         map.put(DISTANCE_CONSTRAINT_USABLE_RANGE, DISTANCE_CONSTRAINT_USABLE_RANGE_DESC);
+        map.put(MAX_JSPRIT_THREADS_PER_CARRIER, MAX_JSPRIT_THREADS_PER_CARRIER_DESC);
+        map.put(JSPRIT_TIME_LIMIT_PER_CARRIER, JSPRIT_TIME_LIMIT_PER_CARRIER_DESC);
         return map;
     }
 
@@ -17,7 +17,6 @@ import org.matsim.api.core.v01.Id;
 import org.matsim.core.utils.io.IOUtils;
 import org.matsim.freight.carriers.Carrier;
 import org.matsim.freight.carriers.Carriers;
-import org.matsim.freight.carriers.CarriersUtils;
 
 import java.awt.*;
 import java.io.BufferedWriter;
@@ -37,24 +36,24 @@ public class JspritIterationHistogram {
 
 	/**
 	 * @param carriers                       the carriers
-	 * @param bestJspritSolutionCollector    Map: CarrierId -> (Iteration -> selectedCost)
+	 * @param bestJspritSolutionCollector    Map: CarrierId -> (Iteration -> selectedCost), each series ending with the last iteration run
 	 */
 	public JspritIterationHistogram(Carriers carriers, Map<Id<Carrier>, ? extends NavigableMap<Integer, VehicleRoutingProblemSolution>> bestJspritSolutionCollector,
 									String title) {
 		this.title = title;
-		aggregate(carriers, bestJspritSolutionCollector);
+		aggregate(bestJspritSolutionCollector);
 	}
 
 	/**
 	 * Analyze and aggregate the selected cost series of all carriers.
 	 *
-	 * @param carriers                       the carriers
 	 * @param bestJspritSolutionCollector    results of all solved VRPs
 	 */
-	private void aggregate(Carriers carriers, Map<Id<Carrier>, ? extends NavigableMap<Integer, VehicleRoutingProblemSolution>> bestJspritSolutionCollector) {
-		// get global max iterations for jsprit
-		int globalMaxIteration = carriers.getCarriers().values().stream()
-			.mapToInt(CarriersUtils::getJspritIterations)
+	private void aggregate(Map<Id<Carrier>, ? extends NavigableMap<Integer, VehicleRoutingProblemSolution>> bestJspritSolutionCollector) {
+		// get global max iterations for jsprit. These are the iterations actually run, which can be less than configured due to the time limit.
+		int globalMaxIteration = bestJspritSolutionCollector.values().stream()
+			.filter(series -> !series.isEmpty())
+			.mapToInt(NavigableMap::lastKey)
 			.max()
 			.orElse(0);
 		for (int iter = 0; iter <= globalMaxIteration; iter++) {
@@ -70,7 +69,7 @@ public class JspritIterationHistogram {
 				sum += floor.getValue().getCost();
 
 				// count carriers that are still running at iteration iter
-				if (CarriersUtils.getJspritIterations(carriers.getCarriers().get(carrierId)) >= iter) {
+				if (series.lastKey() >= iter) {
 					runCount++;
 				}
 			}
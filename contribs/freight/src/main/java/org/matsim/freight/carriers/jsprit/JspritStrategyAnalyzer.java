@@ -29,12 +29,23 @@ public class JspritStrategyAnalyzer implements StrategySelectedListener, Iterati
 	private int removedJobsWhileRuin;
 	private int routesAfterRuin;
 	private final Carrier carrier;
+	private final int maxIterations;
+	private int nextProgressLogIteration;
 
 	public JspritStrategyAnalyzer(Carrier carrier) {
+		this(carrier, 0);
+	}
+
+	/**
+	 * @param maxIterations the number of jsprit iterations of the carrier. If positive, the progress is logged every 10 percent of the
+	 *                      iterations.
+	 */
+	public JspritStrategyAnalyzer(Carrier carrier, int maxIterations) {
 		this.carrier = carrier;
+		this.maxIterations = maxIterations;
 		iterationSolutionCosts = new LinkedHashMap<>();
 		foundNewBestSolutions = new TreeMap<>();
-
+		nextProgressLogIteration = getProgressLogInterval();
 	}
 
 	public record IterationResult(double costsOfThisIteration, String strategyId, double iterationComputationTimeInSeconds,
@@ -99,6 +110,16 @@ public class JspritStrategyAnalyzer implements StrategySelectedListener, Iterati
 		if (foundNewBestSolutions.lastEntry().getValue().getCost() > best.getCost()) {
 			foundNewBestSolutions.put(i, best);
 		}
+		if (maxIterations > 0 && i >= nextProgressLogIteration) {
+			nextProgressLogIteration += getProgressLogInterval();
+			log.info("jsprit progress of carrier {}: iteration {} of {} ({}%), costs of best solution: {}, {} seconds elapsed", carrier.getId(), i,
+				maxIterations, 100 * i / maxIterations, foundNewBestSolutions.lastEntry().getValue().getCost(),
+				(System.currentTimeMillis() - algorithmStartTime) / 1000.0);
+		}
+	}
+
+	private int getProgressLogInterval() {
+		return Math.max(1, maxIterations / 10);
 	}
 
 	public LinkedHashMap<Integer, IterationResult> getIterationSolutionCosts() {
@@ -656,6 +656,17 @@ public final class MatsimJspritFactory {
 	 */
 	public static VehicleRoutingAlgorithm loadOrCreateVehicleRoutingAlgorithm(Scenario scenario,
 																			  FreightCarriersConfigGroup freightConfig, NetworkBasedTransportCosts netBasedCosts, VehicleRoutingProblem problem) {
+		return loadOrCreateVehicleRoutingAlgorithm(scenario, freightConfig, netBasedCosts, problem, 1);
+	}
+
+	/**
+	 * Same as {@link #loadOrCreateVehicleRoutingAlgorithm(Scenario, FreightCarriersConfigGroup, NetworkBasedTransportCosts, VehicleRoutingProblem)},
+	 * but the insertions of the algorithm are computed with the given number of threads. An algorithm read from file without distance
+	 * constraint always uses one thread.
+	 */
+	public static VehicleRoutingAlgorithm loadOrCreateVehicleRoutingAlgorithm(Scenario scenario,
+																			  FreightCarriersConfigGroup freightConfig, NetworkBasedTransportCosts netBasedCosts, VehicleRoutingProblem problem,
+																			  int threads) {
 		VehicleRoutingAlgorithm algorithm;
 		final String vehicleRoutingAlgorithmFile = freightConfig.getVehicleRoutingAlgorithmFile();
 
@@ -679,7 +690,7 @@ public final class MatsimJspritFactory {
 					AlgorithmConfig algorithmConfig = new AlgorithmConfig();
 					AlgorithmConfigXmlReader xmlReader = new AlgorithmConfigXmlReader(algorithmConfig);
 					xmlReader.read(vraURL);
-					algorithm = VehicleRoutingAlgorithms.readAndCreateAlgorithm(problem, algorithmConfig, 0, null, stateManager, constraintManager, true);
+					algorithm = VehicleRoutingAlgorithms.readAndCreateAlgorithm(problem, algorithmConfig, threads > 1 ? threads : 0, null, stateManager, constraintManager, true);
 				}
 				default -> throw new IllegalStateException("Unexpected value: " + freightConfig.getUseDistanceConstraintForTourPlanning());
 			}
@@ -688,7 +699,7 @@ public final class MatsimJspritFactory {
 			log.info("Use a VehicleRoutingAlgorithm out of the box.");
 			switch (freightConfig.getUseDistanceConstraintForTourPlanning()) {
 				//by default of Jsprit the fixed costs are not considered in the algorithm. Adding this property takes this into account.
-				case noDistanceConstraint -> algorithm = Jsprit.Builder.newInstance(problem).setProperty(Jsprit.Parameter.FIXED_COST_PARAM, "0.5").buildAlgorithm();
+				case noDistanceConstraint -> algorithm = createJspritBuilder(problem, threads).buildAlgorithm();
 				case basedOnEnergyConsumption -> {
 					log.info("Use the distanceConstraint based on energy consumption.");
 					StateManager stateManager = new StateManager(problem);
@@ -697,13 +708,19 @@ public final class MatsimJspritFactory {
 					constraintManager.addConstraint(new DistanceConstraint(CarriersUtils.getOrAddCarrierVehicleTypes(scenario), netBasedCosts,
 						freightConfig.getDistanceConstraintUsableRange()), ConstraintManager.Priority.CRITICAL);
 					//by default of Jsprit the fixed costs are not considered in the algorithm. Adding this property takes this into account.
-					algorithm = Jsprit.Builder.newInstance(problem).setProperty(Jsprit.Parameter.FIXED_COST_PARAM, "0.5").setStateAndConstraintManager(stateManager, constraintManager).buildAlgorithm();
+					algorithm = createJspritBuilder(problem, threads).setStateAndConstraintManager(stateManager, constraintManager).buildAlgorithm();
 				}
 				default -> throw new IllegalStateException("Unexpected value: " + freightConfig.getUseDistanceConstraintForTourPlanning());
 			}
 		}
 		return algorithm;
 	}
+
+	private static Jsprit.Builder createJspritBuilder(VehicleRoutingProblem problem, int threads) {
+		return Jsprit.Builder.newInstance(problem)
+			.setProperty(Jsprit.Parameter.FIXED_COST_PARAM, "0.5")
+			.setProperty(Jsprit.Parameter.THREADS, String.valueOf(threads));
+	}
 // ### This class could be an option to get both absolute and relative fixed costs into the algorithm. However, it is currently not used since it is not clear how to set the weight parameter and what the influence of this parameter is. Ricardo April'26
 //	private static VehicleRoutingAlgorithm createFixedCostAwareAlgorithm(VehicleRoutingProblem problem, StateManager stateManager, ConstraintManager constraintManager) {
 //		// Weight parameter - determines importance of fixed costs vs variable costs
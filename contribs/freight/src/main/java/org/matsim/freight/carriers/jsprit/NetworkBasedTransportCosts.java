@@ -37,13 +37,20 @@ import org.matsim.api.core.v01.network.Network;
 import org.matsim.api.core.v01.population.Person;
 import org.matsim.contrib.roadpricing.RoadPricingScheme;
 import org.matsim.contrib.roadpricing.RoadPricingSchemeImpl;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.router.speedy.LeastCostPathTree;
 import org.matsim.core.router.speedy.SpeedyALTFactory;
+import org.matsim.core.router.speedy.SpeedyGraph;
+import org.matsim.core.router.speedy.SpeedyGraphBuilder;
 import org.matsim.core.router.util.LeastCostPathCalculator;
 import org.matsim.core.router.util.LeastCostPathCalculator.Path;
 import org.matsim.core.router.util.LeastCostPathCalculatorFactory;
 import org.matsim.core.router.util.TravelDisutility;
 import org.matsim.core.router.util.TravelTime;
 import org.matsim.core.utils.misc.Counter;
+import org.matsim.freight.carriers.Carrier;
+import org.matsim.freight.carriers.CarrierService;
+import org.matsim.freight.carriers.CarrierShipment;
 import org.matsim.freight.carriers.CarrierVehicle;
 import org.matsim.utils.objectattributes.attributable.Attributes;
 import org.matsim.utils.objectattributes.attributable.AttributesImpl;
@@ -68,15 +75,13 @@ import org.matsim.vehicles.VehicleUtils;
  * from-location to to-location at a certain time and with a certain vehicle, it
  * looks up whether there is already an entry in the cache. If so, it returns
  * the cached value, if not it calculates new values with a
- * leastCostPathCalculator defined in here. It looks up the cached values
- * according to the {@link TransportDataKey}.
+ * leastCostPathCalculator defined in here. The values are cached per
+ * from-location, to-location, time-bin and vehicleType (see {@link TransportDataCache}).
  *
  * <p>
- * Two TransportDataKeys are equal if the following data are equal</br>
- * - from-locations</br>
- * - to-locations</br>
- * - time and</br>
- * - vehicleTypes
+ * The values for all relations between the locations of a carrier can be
+ * computed in advance with one least cost path tree per location, see
+ * {@link #precomputeTransportData(Carrier)}.
  *
  * <p>
  * Keep in mind that if you have many locations, small time-bins and many
@@ -143,75 +148,6 @@ public class NetworkBasedTransportCosts implements VRPTransportCosts {
 		public Attributes getAttributes() { return this.attributes; }
 	}
 
-	/**
-	 * The key to cache {@link TransportData}.
-	 *
-	 * <p>
-	 * Two TransportDataKeys are equal if the following data are equal</br>
-	 * - from-locations</br>
-	 * - to-locations</br>
-	 * - time and</br>
-	 * - vehicleTypes
-	 *
-	 * <p>
-	 * The time-value is usually a representative value for a certain time-bin. If
-	 * the time-bin's width is 1, it calculates and caches each and every
-	 * transport-data which might be a) very time-consuming and b) very
-	 * memory-consuming.
-	 *
-	 * @author stefan schröder
-	 */
-		record TransportDataKey(String from, String to, double time, String vehicleType) {
-
-
-		@Override
-			public int hashCode() {
-				final int prime = 31;
-				int result = 1;
-				result = prime * result + ((from == null) ? 0 : from.hashCode());
-				result = prime * result + Double.hashCode(time);
-				result = prime * result + ((to == null) ? 0 : to.hashCode());
-				result = prime * result + ((vehicleType == null) ? 0 : vehicleType.hashCode());
-				return result;
-			}
-
-			@Override
-			public boolean equals(Object obj) {
-				if (this == obj)
-					return true;
-				if (obj == null)
-					return false;
-				if (getClass() != obj.getClass())
-					return false;
-				TransportDataKey other = (TransportDataKey) obj;
-				if (from == null) {
-					if (other.from != null)
-						return false;
-				} else if (!from.equals(other.from))
-					return false;
-				if (Double.doubleToLongBits(time) != Double.doubleToLongBits(other.time))
-					return false;
-				if (to == null) {
-					if (other.to != null)
-						return false;
-				} else if (!to.equals(other.to))
-					return false;
-				if (vehicleType == null) {
-					return other.vehicleType == null;
-				} else return vehicleType.equals(other.vehicleType);
-			}
-
-		}
-
-	/**
-	 * Stores transport-costs, transport-times and the distance of travel.
-	 *
-	 * @author stefan schröder
-	 */
-		record TransportData(double transportCosts, double transportTime, double transportDistance) {
-
-	}
-
 	/**
 	 * Calculates vehicle-type-dependent travelDisutility per link.
 	 *
@@ -496,10 +432,10 @@ public class NetworkBasedTransportCosts implements VRPTransportCosts {
 	private final Network network;
 
 	/**
-	 * cost-cache to cache transport-costs and transport-times (see
-	 * {@link TransportData}) according to {@link TransportDataKey}
+	 * cost-cache to cache transport-costs, transport-times and distances per
+	 * from-link, to-link, time-bin and vehicleType
 	 */
-	private final ConcurrentHashMap<TransportDataKey, TransportData> costCache = new ConcurrentHashMap<>();
+	private final TransportDataCache costCache = new TransportDataCache();
 
 	/**
 	 * caches leastCostPathCalculators according to
@@ -507,6 +443,14 @@ public class NetworkBasedTransportCosts implements VRPTransportCosts {
 	 */
 	private final ConcurrentHashMap<Long, LeastCostPathCalculator> routerCache = new ConcurrentHashMap<>();
 
+	/**
+	 * caches leastCostPathTrees for {@link #precomputeTransportData(Carrier)}
+	 * according to <code>Thread.currentThread().getId()</code>
+	 */
+	private final ConcurrentHashMap<Long, LeastCostPathTree> treeCache = new ConcurrentHashMap<>();
+
+	private volatile SpeedyGraph graph;
+
 	private final TravelDisutility travelDisutility;
 
 	private final TravelTime travelTime;
@@ -520,7 +464,7 @@ public class NetworkBasedTransportCosts implements VRPTransportCosts {
 
 	public final Counter ttRequestedCounter;
 
-	private final Map<String, org.matsim.vehicles.Vehicle> matsimVehicles = new HashMap<>();
+	private final Map<String, org.matsim.vehicles.Vehicle> matsimVehicles = new ConcurrentHashMap<>();
 
 	/**
 	 * by default sets the {@link SpeedyALTFactory}
@@ -548,8 +492,7 @@ public class NetworkBasedTransportCosts implements VRPTransportCosts {
 	 *
 	 * <p>
 	 * If <code>fromId.equals(toId)</code> it returns 0.0. Otherwise, it looks up in
-	 * the cache whether the transport-time has already been computed (see
-	 * {@link TransportDataKey}, {@link TransportData}). If so, it returns the
+	 * the cache whether the transport-time has already been computed. If so, it returns the
 	 * cached travel-time. If not, it computes and caches new values with the
 	 * leastCostPathCalc defined in here.
 	 *
@@ -561,51 +504,7 @@ public class NetworkBasedTransportCosts implements VRPTransportCosts {
 		if (fromId.equals(toId)) {
 			return 0.0;
 		}
-		if (vehicle == null) {
-			vehicle = getDefaultVehicle(fromId);
-		}
-		String typeId = vehicle.getType().getTypeId();
-		int timeSlice = getTimeSlice(departureTime);
-		departureTime = timeSlice*timeSliceWidth;
-		TransportDataKey transportDataKey = makeKey(fromId.getId(), toId.getId(), timeSlice, typeId);
-		TransportData data = costCache.get(transportDataKey);
-		double transportTime;
-
-		if (data != null) {
-			transportTime = data.transportTime;
-		} else {
-			informStartCalc();
-			Id<Link> fromLinkId = Id.create(fromId.getId(), Link.class);
-			Id<Link> toLinkId = Id.create(toId.getId(), Link.class);
-			Link fromLink = network.getLinks().get(fromLinkId);
-			Link toLink = network.getLinks().get(toLinkId);
-			// because path not includes in&out Link
-
-			org.matsim.vehicles.Vehicle matsimVehicle = getMatsimVehicle(vehicle);
-			LeastCostPathCalculator router = createLeastCostPathCalculator();
-			Path path = router.calcLeastCostPath(fromLink, toLink, departureTime, null,
-					matsimVehicle);
-//			if(path == null) return Double.MAX_VALUE;
-			double additionalCostTo = travelDisutility.getLinkTravelDisutility(toLink, departureTime + path.travelTime,
-					null, matsimVehicle);
-			double additionalTimeTo = travelTime.getLinkTravelTime(toLink, departureTime + path.travelTime, null,
-					matsimVehicle);
-
-			double travelDistance = fromLink.getLength();
-			for (Link link : path.links) {
-				travelDistance = travelDistance + link.getLength();
-			}
-			TransportData newData = new TransportData(path.travelCost + additionalCostTo,
-					path.travelTime + additionalTimeTo, travelDistance);
-			TransportData existingData = costCache.putIfAbsent(transportDataKey, newData);
-			ttMemorizedCounter.incCounter();
-			if (existingData == null) {
-				existingData = newData;
-			}
-			transportTime = existingData.transportTime;
-			informEndCalc();
-		}
-		return transportTime;
+		return getTransportData(fromId, toId, departureTime, vehicle, TransportDataCache.TIME);
 	}
 
 	private VehicleImpl getDefaultVehicle(Location fromId) {
@@ -629,8 +528,7 @@ public class NetworkBasedTransportCosts implements VRPTransportCosts {
 	 *
 	 * <p>
 	 * If <code>fromId.equals(toId)</code> it returns 0.0. Otherwise, it looks up in
-	 * the cache whether the transport-costs have already been computed (see
-	 * {@link TransportDataKey}, {@link TransportData}). If so, it returns the
+	 * the cache whether the transport-costs have already been computed. If so, it returns the
 	 * cached travel-cost value. If not, it computes and caches new values with the
 	 * leastCostPathCalc defined in here.
 	 *
@@ -645,51 +543,7 @@ public class NetworkBasedTransportCosts implements VRPTransportCosts {
 		if (fromId.equals(toId)) {
 			return 0.0;
 		}
-		if (vehicle == null) {
-			vehicle = getDefaultVehicle(fromId);
-		}
-		Id<Link> fromLinkId = Id.create(fromId.getId(), Link.class);
-		Id<Link> toLinkId = Id.create(toId.getId(), Link.class);
-		Link fromLink = network.getLinks().get(fromLinkId);
-		Link toLink = network.getLinks().get(toLinkId);
-		LeastCostPathCalculator router = createLeastCostPathCalculator();
-
-		int timeSlice = getTimeSlice(departureTime);
-		departureTime = timeSlice*timeSliceWidth;
-		String typeId = vehicle.getType().getTypeId();
-		TransportDataKey transportDataKey = makeKey(fromId.getId(), toId.getId(), timeSlice, typeId);
-		TransportData data = costCache.get(transportDataKey);
-		double transportCost;
-
-		if (data != null) {
-			transportCost = data.transportCosts;
-		} else {
-			informStartCalc();
-			org.matsim.vehicles.Vehicle matsimVehicle = getMatsimVehicle(vehicle);
-			Path path = router.calcLeastCostPath(fromLink, toLink, departureTime, null,
-					matsimVehicle);
-//			if(path == null) return Double.MAX_VALUE;
-			double additionalCostTo = travelDisutility.getLinkTravelDisutility(toLink, departureTime + path.travelTime,
-					null, matsimVehicle);
-			double additionalTimeTo = travelTime.getLinkTravelTime(toLink, departureTime + path.travelTime, null,
-					matsimVehicle);
-			double travelDistance = fromLink.getLength();
-			for (Link link : path.links) {
-				travelDistance = travelDistance + link.getLength();
-			}
-
-			TransportData newData = new TransportData(path.travelCost + additionalCostTo,
-					path.travelTime + additionalTimeTo, travelDistance);
-			TransportData existingData = costCache.putIfAbsent(transportDataKey, newData);
-			ttMemorizedCounter.incCounter();
-			if (existingData == null) {
-				// succeeded
-				existingData = newData;
-			}
-			transportCost = existingData.transportCosts;
-			informEndCalc();
-		}
-		return transportCost;
+		return getTransportData(fromId, toId, departureTime, vehicle, TransportDataCache.COSTS);
 	}
 
 	/**
@@ -697,8 +551,7 @@ public class NetworkBasedTransportCosts implements VRPTransportCosts {
 	 *
 	 * <p>
 	 * If <code>fromId.equals(toId)</code> it returns 0.0. Otherwise, it looks up in
-	 * the cache whether the transport-distance has already been computed (see
-	 * {@link TransportDataKey}, {@link TransportData}). If so, it returns the
+	 * the cache whether the transport-distance has already been computed. If so, it returns the
 	 * cached distance. If not, it computes and caches new values with the
 	 * leastCostPathCalc defined in here.
 	 *
@@ -709,47 +562,122 @@ public class NetworkBasedTransportCosts implements VRPTransportCosts {
 		if (fromId.equals(toId)) {
 			return 0.0;
 		}
+		return getTransportData(fromId, toId, departureTime, vehicle, TransportDataCache.DISTANCE);
+	}
+
+	private double getTransportData(Location fromId, Location toId, double departureTime, Vehicle vehicle, int field) {
 		if (vehicle == null) {
 			vehicle = getDefaultVehicle(fromId);
 		}
-		String typeId = vehicle.getType().getTypeId();
+		Link fromLink = network.getLinks().get(Id.create(fromId.getId(), Link.class));
+		Link toLink = network.getLinks().get(Id.create(toId.getId(), Link.class));
+
 		int timeSlice = getTimeSlice(departureTime);
-		departureTime = timeSlice*timeSliceWidth;
-		TransportDataKey transportDataKey = makeKey(fromId.getId(), toId.getId(), timeSlice, typeId);
-		TransportData data = costCache.get(transportDataKey);
-		double travelDistance;
-		if (data != null) {
-			travelDistance = data.transportDistance;
-		} else {
+		TransportDataCache.Table table = costCache.getTable(timeSlice, vehicle.getType().getTypeId());
+		long key = TransportDataCache.key(fromLink.getId().index(), toLink.getId().index());
+		double value = table.get(key, field);
+
+		if (Double.isNaN(value)) {
 			informStartCalc();
-			Id<Link> fromLinkId = Id.create(fromId.getId(), Link.class);
-			Id<Link> toLinkId = Id.create(toId.getId(), Link.class);
-			Link fromLink = network.getLinks().get(fromLinkId);
-			Link toLink = network.getLinks().get(toLinkId);
-			travelDistance = fromLink.getLength();
+			departureTime = timeSlice * timeSliceWidth;
 			org.matsim.vehicles.Vehicle matsimVehicle = getMatsimVehicle(vehicle);
 			LeastCostPathCalculator router = createLeastCostPathCalculator();
 			Path path = router.calcLeastCostPath(fromLink, toLink, departureTime, null,
 					matsimVehicle);
 //			if(path == null) return Double.MAX_VALUE;
-			double additionalCostTo = travelDisutility.getLinkTravelDisutility(toLink, departureTime + path.travelTime,
-					null, matsimVehicle);
-			double additionalTimeTo = travelTime.getLinkTravelTime(toLink, departureTime + path.travelTime, null,
-					matsimVehicle);
+			double travelDistance = fromLink.getLength();
 			for (Link link : path.links) {
 				travelDistance = travelDistance + link.getLength();
 			}
-			TransportData newData = new TransportData(path.travelCost + additionalCostTo,
-					path.travelTime + additionalTimeTo, travelDistance);
-			TransportData existingData = costCache.putIfAbsent(transportDataKey, newData);
-			ttMemorizedCounter.incCounter();
-			if (existingData == null) {
-				existingData = newData;
-			}
-			travelDistance = existingData.transportDistance;
+			cacheTransportData(table, key, fromLink, toLink, departureTime, matsimVehicle, path.travelCost, path.travelTime,
+					travelDistance);
+			value = table.get(key, field);
 			informEndCalc();
 		}
-		return travelDistance;
+		return value;
+	}
+
+	/**
+	 * Caches the values of a relation given the path from the end of the fromLink to the start of the toLink. Because the path
+	 * does not include the in- and out-links, the toLink is added here and the fromLink is expected to be part of the distance.
+	 */
+	private void cacheTransportData(TransportDataCache.Table table, long key, Link fromLink, Link toLink, double departureTime,
+			org.matsim.vehicles.Vehicle matsimVehicle, double pathCost, double pathTime, double travelDistance) {
+		double additionalCostTo = travelDisutility.getLinkTravelDisutility(toLink, departureTime + pathTime,
+				null, matsimVehicle);
+		double additionalTimeTo = travelTime.getLinkTravelTime(toLink, departureTime + pathTime, null,
+				matsimVehicle);
+		table.put(key, pathCost + additionalCostTo, pathTime + additionalTimeTo, travelDistance);
+		ttMemorizedCounter.incCounter();
+	}
+
+	/**
+	 * Computes and caches the transport-data for all relations between the locations of the carrier (depots, services and
+	 * shipments) and for all its vehicle types. This is done with one least cost path tree per location and vehicle type, which
+	 * is much cheaper than the point-to-point routing of the single relations on demand. Each tree is only grown until all
+	 * locations of the carrier are reached.
+	 *
+	 * <p>
+	 * This is only done if the routing is not time-dependent (see {@link #usesTimeDependentRouting()}), since otherwise the time
+	 * bins needed are not known in advance, and if the network has no turn restrictions. Otherwise, all values are computed on
+	 * demand as before.
+	 */
+	public void precomputeTransportData(Carrier carrier) {
+		if (usesTimeDependentRouting() || NetworkUtils.hasTurnRestrictions(network)) {
+			return;
+		}
+
+		Set<Link> locations = new LinkedHashSet<>();
+		Map<String, org.matsim.vehicles.Vehicle> vehiclesPerType = new LinkedHashMap<>();
+		for (CarrierVehicle carrierVehicle : carrier.getCarrierCapabilities().getCarrierVehicles().values()) {
+			locations.add(network.getLinks().get(carrierVehicle.getLinkId()));
+			String typeId = carrierVehicle.getType().getId().toString();
+			// same vehicle as for the on-demand calculation, since both share the cached values
+			vehiclesPerType.computeIfAbsent(typeId, id -> getMatsimVehicle(MatsimJspritFactory.createJspritVehicle(carrierVehicle, null)));
+		}
+		for (CarrierService service : carrier.getServices().values()) {
+			locations.add(network.getLinks().get(service.getServiceLinkId()));
+		}
+		for (CarrierShipment shipment : carrier.getShipments().values()) {
+			locations.add(network.getLinks().get(shipment.getPickupLinkId()));
+			locations.add(network.getLinks().get(shipment.getDeliveryLinkId()));
+		}
+		locations.remove(null);
+
+		// the paths end at the from-nodes of the locations, so the trees are only grown until these are settled
+		BitSet toNodes = new BitSet();
+		for (Link location : locations) {
+			toNodes.set(location.getFromNode().getId().index());
+		}
+
+		LeastCostPathTree tree = createLeastCostPathTree();
+		for (Map.Entry<String, org.matsim.vehicles.Vehicle> e : vehiclesPerType.entrySet()) {
+			TransportDataCache.Table table = costCache.getTable(0, e.getKey());
+			for (Link fromLink : locations) {
+				tree.calculate(fromLink, 0., null, e.getValue(), allNodesSettled(toNodes));
+				for (Link toLink : locations) {
+					long key = TransportDataCache.key(fromLink.getId().index(), toLink.getId().index());
+					int toNode = tree.getNodeIndex(toLink.getFromNode());
+					if (fromLink == toLink || !Double.isNaN(table.get(key, TransportDataCache.COSTS))
+							|| toNode < 0 || tree.getTime(toNode).isUndefined()) {
+						continue; // not needed, already cached or not reachable
+					}
+					cacheTransportData(table, key, fromLink, toLink, 0., e.getValue(), tree.getCost(toNode),
+							tree.getTime(toNode).seconds(), fromLink.getLength() + tree.getDistance(toNode));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stops the tree once all given nodes are settled. Nodes which are not reachable let the tree grow over the whole network.
+	 */
+	private static LeastCostPathTree.StopCriterion allNodesSettled(BitSet nodes) {
+		BitSet remaining = (BitSet) nodes.clone();
+		return (nodeIndex, arrivalTime, travelCost, distance, departureTime) -> {
+			remaining.clear(nodeIndex);
+			return remaining.isEmpty();
+		};
 	}
 
 	/**
@@ -798,12 +726,8 @@ public class NetworkBasedTransportCosts implements VRPTransportCosts {
 			return matsimVehicle;
 		}
 		matsimVehicle = new MatsimVehicleWrapper(vehicle);
-		matsimVehicles.put(typeId, matsimVehicle);
-		return matsimVehicle;
-	}
-
-	private TransportDataKey makeKey(String fromId, String toId, long time, String vehicleType) {
-		return new TransportDataKey(fromId, toId, time, vehicleType);
+		org.matsim.vehicles.Vehicle previous = matsimVehicles.putIfAbsent(typeId, matsimVehicle);
+		return previous != null ? previous : matsimVehicle;
 	}
 
 	public LeastCostPathCalculator getRouter() {
@@ -823,6 +747,26 @@ public class NetworkBasedTransportCosts implements VRPTransportCosts {
 		return router;
 	}
 
+	private LeastCostPathTree createLeastCostPathTree() {
+		return treeCache.computeIfAbsent(Thread.currentThread().threadId(),
+				id -> new LeastCostPathTree(getGraph(), travelTime, travelDisutility));
+	}
+
+	private SpeedyGraph getGraph() {
+		SpeedyGraph graph = this.graph;
+		if (graph == null) {
+			synchronized (this) {
+				graph = this.graph;
+				if (graph == null) {
+					// no mode for the turn restrictions needed, since the precomputation is skipped for networks with them
+					graph = SpeedyGraphBuilder.build(network, null);
+					this.graph = graph;
+				}
+			}
+		}
+		return graph;
+	}
+
 	private int getTimeSlice(double time) {
 		return (int) (time / timeSliceWidth);
 	}
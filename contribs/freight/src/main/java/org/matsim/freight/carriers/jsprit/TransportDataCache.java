@@ -0,0 +1,173 @@
+/*
+ *   *********************************************************************** *
+ *   project: org.matsim.*
+ *   *********************************************************************** *
+ *                                                                           *
+ *   copyright       : (C)  by the members listed in the COPYING,        *
+ *                     LICENSE and WARRANTY file.                            *
+ *   email           : info at matsim dot org                                *
+ *                                                                           *
+ *   *********************************************************************** *
+ *                                                                           *
+ *     This program is free software; you can redistribute it and/or modify  *
+ *     it under the terms of the GNU General Public License as published by  *
+ *     the Free Software Foundation; either version 2 of the License, or     *
+ *     (at your option) any later version.                                   *
+ *     See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                           *
+ *   ***********************************************************************
+ *
+ */
+package org.matsim.freight.carriers.jsprit;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Cache of transport costs, times and distances from link to link, used by {@link NetworkBasedTransportCosts}.
+ *
+ * <p>
+ * The values are kept per time slice and vehicle type in a primitive hash table, keyed by the indices of the from- and to-link (see
+ * {@link org.matsim.api.core.v01.Id#index()}). Thus, no key or value objects are created per cached relation. Lookups do not block
+ * (optimistic reads); insertions into the table of a time slice and vehicle type are serialized.
+ */
+final class TransportDataCache {
+
+	static final int COSTS = 0;
+	static final int TIME = 1;
+	static final int DISTANCE = 2;
+
+	private final Map<String, Integer> typeIndices = new ConcurrentHashMap<>();
+	private final AtomicInteger typeCount = new AtomicInteger();
+
+	private final Map<Long, Table> tables = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the table of the time slice and vehicle type, which is created if it does not exist yet
+	 */
+	Table getTable(int timeSlice, String vehicleTypeId) {
+		int typeIndex = typeIndices.computeIfAbsent(vehicleTypeId, id -> typeCount.getAndIncrement());
+		return tables.computeIfAbsent(((long) timeSlice << 32) | typeIndex, k -> new Table());
+	}
+
+	static long key(int fromLinkIndex, int toLinkIndex) {
+		return ((long) fromLinkIndex << 32) | (toLinkIndex & 0xffffffffL);
+	}
+
+	static final class Table {
+		private static final long EMPTY = -1;
+		private static final int INITIAL_CAPACITY = 1 << 10;
+
+		private final StampedLock lock = new StampedLock();
+
+		private long[] keys = newKeys(INITIAL_CAPACITY);
+		private double[] values = new double[3 * INITIAL_CAPACITY]; // costs, time, distance per slot
+		private int size = 0;
+
+		/**
+		 * @param field one of {@link #COSTS}, {@link #TIME} or {@link #DISTANCE}
+		 * @return the cached value, or {@code NaN} if the relation has not been cached
+		 */
+		double get(long key, int field) {
+			long stamp = lock.tryOptimisticRead();
+			double value = find(keys, values, key, field);
+			if (!lock.validate(stamp)) {
+				stamp = lock.readLock();
+				try {
+					value = find(keys, values, key, field);
+				} finally {
+					lock.unlockRead(stamp);
+				}
+			}
+			return value;
+		}
+
+		/**
+		 * Caches the values of a relation, unless it has already been cached.
+		 */
+		void put(long key, double costs, double time, double distance) {
+			long stamp = lock.writeLock();
+			try {
+				if ((size + 1) * 2 > keys.length) {
+					rehash(keys.length * 2);
+				}
+				int slot = slot(keys, key);
+				if (keys[slot] == EMPTY) {
+					keys[slot] = key;
+					values[3 * slot] = costs;
+					values[3 * slot + 1] = time;
+					values[3 * slot + 2] = distance;
+					size++;
+				}
+			} finally {
+				lock.unlockWrite(stamp);
+			}
+		}
+
+		int size() {
+			long stamp = lock.readLock();
+			try {
+				return size;
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+
+		private static double find(long[] keys, double[] values, long key, int field) {
+			// the arrays may be inconsistent during an optimistic read, so the probing is bounded by the table size
+			int mask = keys.length - 1;
+			int slot = hash(key) & mask;
+			for (int probes = 0; probes < keys.length; probes++) {
+				long k = keys[slot];
+				if (k == key) {
+					int index = 3 * slot + field;
+					return index < values.length ? values[index] : Double.NaN;
+				}
+				if (k == EMPTY) {
+					return Double.NaN;
+				}
+				slot = (slot + 1) & mask;
+			}
+			return Double.NaN;
+		}
+
+		private static int slot(long[] keys, long key) {
+			int mask = keys.length - 1;
+			int slot = hash(key) & mask;
+			while (keys[slot] != EMPTY && keys[slot] != key) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		private void rehash(int capacity) {
+			long[] oldKeys = keys;
+			double[] oldValues = values;
+			long[] newKeys = newKeys(capacity);
+			double[] newValues = new double[3 * capacity];
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != EMPTY) {
+					int slot = slot(newKeys, oldKeys[i]);
+					newKeys[slot] = oldKeys[i];
+					System.arraycopy(oldValues, 3 * i, newValues, 3 * slot, 3);
+				}
+			}
+			keys = newKeys;
+			values = newValues;
+		}
+
+		private static long[] newKeys(int capacity) {
+			long[] keys = new long[capacity];
+			Arrays.fill(keys, EMPTY);
+			return keys;
+		}
+
+		private static int hash(long key) {
+			long h = key * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+}
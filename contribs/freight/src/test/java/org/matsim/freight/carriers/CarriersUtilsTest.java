@@ -190,4 +190,26 @@ public class CarriersUtilsTest {
 		Assertions.assertEquals(125, CarriersUtils.getJspritComputationTime(carrier) );
 	}
 
+	@Test
+	void testGetJspritThreadsForCarrier(){
+		// default: one thread per carrier
+		Assertions.assertEquals(1, CarriersUtils.getJspritThreadsForCarrier(1, 100, 100));
+		// the largest carrier gets all threads, the others proportionally, but at least one
+		Assertions.assertEquals(8, CarriersUtils.getJspritThreadsForCarrier(8, 100, 100));
+		Assertions.assertEquals(4, CarriersUtils.getJspritThreadsForCarrier(8, 50, 100));
+		Assertions.assertEquals(1, CarriersUtils.getJspritThreadsForCarrier(8, 1, 100));
+		Assertions.assertEquals(1, CarriersUtils.getJspritThreadsForCarrier(8, 0, 100));
+	}
+
+	@Test
+	void testGetMaxJspritThreadsPerCarrier(){
+		// a single carrier may use all processors
+		Assertions.assertEquals(8, CarriersUtils.getMaxJspritThreadsPerCarrier(8, 8, 1));
+		Assertions.assertEquals(4, CarriersUtils.getMaxJspritThreadsPerCarrier(4, 8, 1));
+		// carriers solved in parallel share the processors, but each gets at least one thread
+		Assertions.assertEquals(2, CarriersUtils.getMaxJspritThreadsPerCarrier(8, 8, 4));
+		Assertions.assertEquals(1, CarriersUtils.getMaxJspritThreadsPerCarrier(8, 8, 8));
+		Assertions.assertEquals(1, CarriersUtils.getMaxJspritThreadsPerCarrier(1, 8, 2));
+	}
+
 }
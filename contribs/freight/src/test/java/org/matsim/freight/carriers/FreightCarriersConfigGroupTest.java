@@ -48,6 +48,8 @@ public class FreightCarriersConfigGroupTest {
 		Assertions.assertTrue(params.containsKey(FreightCarriersConfigGroup.TRAVEL_TIME_SLICE_WIDTH));
 		Assertions.assertTrue(params.containsKey(FreightCarriersConfigGroup.USE_DISTANCE_CONSTRAINT));
 		Assertions.assertTrue(params.containsKey(FreightCarriersConfigGroup.DISTANCE_CONSTRAINT_USABLE_RANGE));
+		Assertions.assertTrue(params.containsKey(FreightCarriersConfigGroup.MAX_JSPRIT_THREADS_PER_CARRIER));
+		Assertions.assertTrue(params.containsKey(FreightCarriersConfigGroup.JSPRIT_TIME_LIMIT_PER_CARRIER));
 		Assertions.assertEquals(100., freight.getDistanceConstraintUsableRange());
 	}
 
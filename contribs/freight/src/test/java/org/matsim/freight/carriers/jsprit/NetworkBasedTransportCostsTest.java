@@ -44,7 +44,10 @@ import org.matsim.core.network.TimeDependentNetwork;
 import org.matsim.core.network.io.MatsimNetworkReader;
 import org.matsim.core.scenario.ScenarioUtils;
 import org.matsim.core.utils.misc.Time;
+import org.matsim.freight.carriers.Carrier;
+import org.matsim.freight.carriers.CarrierService;
 import org.matsim.freight.carriers.CarrierVehicle;
+import org.matsim.freight.carriers.CarriersUtils;
 import org.matsim.testcases.MatsimTestUtils;
 import org.matsim.vehicles.CostInformation;
 import org.matsim.vehicles.VehicleType;
@@ -143,6 +146,7 @@ public class NetworkBasedTransportCostsTest {
 		costInformation1.setFixedCost( 0.0 );
 		costInformation1.setCostsPerMeter( 2.0 );
 		costInformation1.setCostsPerSecond( 0.0 );
+		vehType1.setMaximumVelocity( 5.0 );
 
 		VehicleType vehType2 = VehicleUtils.getFactory().createVehicleType(Id.createVehicleTypeId(TYPE_2));
 
@@ -150,6 +154,7 @@ public class NetworkBasedTransportCostsTest {
 		costInformation.setFixedCost( 0.0 );
 		costInformation.setCostsPerMeter( 4.0 );
 		costInformation.setCostsPerSecond( 0.0 );
+		vehType2.setMaximumVelocity( 5.0 );
 
 		Network network = scenario.getNetwork();
 		NetworkBasedTransportCosts.Builder builder =
@@ -415,4 +420,48 @@ public class NetworkBasedTransportCostsTest {
 		Assertions.assertEquals(20000.0, c.getDistance(Location.newInstance("6"), Location.newInstance("21"), 0.0, vehicle2), 0.01);
 	}
 
+	@Test
+	void test_whenPrecomputedForCarrier_itReturnsTheSameValuesAsOnDemand() {
+		Config config = ConfigUtils.createConfig();
+		Scenario scenario = ScenarioUtils.createScenario(config);
+		String NETWORK_FILENAME = utils.getClassInputDirectory() + "network.xml";
+		new MatsimNetworkReader(scenario.getNetwork()).readFile(NETWORK_FILENAME);
+
+		VehicleType vehType1 = VehicleUtils.getFactory().createVehicleType(Id.createVehicleTypeId(TYPE_1));
+		CostInformation costInformation1 = vehType1.getCostInformation();
+		costInformation1.setFixedCost(0.0);
+		costInformation1.setCostsPerMeter(2.0);
+		costInformation1.setCostsPerSecond(1.0);
+		// slower than the links, so that the speed of the vehicle matters
+		vehType1.setMaximumVelocity(5.0);
+
+		Carrier carrier = CarriersUtils.createCarrier(Id.create("carrier", Carrier.class));
+		CarriersUtils.addCarrierVehicle(carrier, CarrierVehicle.newInstance(Id.createVehicleId("vehicle1"), Id.createLinkId("1"), vehType1));
+		CarriersUtils.addService(carrier, CarrierService.Builder.newInstance(Id.create("s1", CarrierService.class), Id.createLinkId("6")).build());
+		CarriersUtils.addService(carrier, CarrierService.Builder.newInstance(Id.create("s2", CarrierService.class), Id.createLinkId("20")).build());
+		CarriersUtils.addService(carrier, CarrierService.Builder.newInstance(Id.create("s3", CarrierService.class), Id.createLinkId("21")).build());
+
+		NetworkBasedTransportCosts onDemand = NetworkBasedTransportCosts.Builder.newInstance(scenario.getNetwork(), Arrays.asList(vehType1)).build();
+		NetworkBasedTransportCosts precomputed = NetworkBasedTransportCosts.Builder.newInstance(scenario.getNetwork(), Arrays.asList(vehType1)).build();
+		precomputed.precomputeTransportData(carrier);
+		Assertions.assertEquals(12, precomputed.ttMemorizedCounter.getCounter());
+
+		Vehicle vehicle1 = MatsimJspritFactory.createJspritVehicle(carrier.getCarrierCapabilities().getCarrierVehicles().get(Id.createVehicleId("vehicle1")), null);
+
+		for (String from : new String[] {"1", "6", "20", "21"}) {
+			for (String to : new String[] {"1", "6", "20", "21"}) {
+				Location fromLocation = Location.newInstance(from);
+				Location toLocation = Location.newInstance(to);
+				Assertions.assertEquals(onDemand.getTransportCost(fromLocation, toLocation, 0.0, mock(Driver.class), vehicle1),
+					precomputed.getTransportCost(fromLocation, toLocation, 3600.0, mock(Driver.class), vehicle1), 0.01);
+				Assertions.assertEquals(onDemand.getTransportTime(fromLocation, toLocation, 0.0, mock(Driver.class), vehicle1),
+					precomputed.getTransportTime(fromLocation, toLocation, 3600.0, mock(Driver.class), vehicle1), 0.01);
+				Assertions.assertEquals(onDemand.getDistance(fromLocation, toLocation, 0.0, vehicle1),
+					precomputed.getDistance(fromLocation, toLocation, 3600.0, vehicle1), 0.01);
+			}
+		}
+		// all relations have been precomputed
+		Assertions.assertEquals(12, precomputed.ttMemorizedCounter.getCounter());
+	}
+
 }
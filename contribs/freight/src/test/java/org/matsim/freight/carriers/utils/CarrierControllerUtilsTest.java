@@ -30,8 +30,14 @@ import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolutio
 import com.graphhopper.jsprit.core.util.Solutions;
 import java.net.URL;
 import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LogEvent;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -57,6 +63,7 @@ import org.matsim.freight.carriers.jsprit.NetworkBasedTransportCosts;
 import org.matsim.freight.carriers.jsprit.NetworkBasedTransportCosts.Builder;
 import org.matsim.freight.carriers.jsprit.NetworkRouter;
 import org.matsim.testcases.MatsimTestUtils;
+import org.matsim.testcases.utils.LogCounter;
 import org.matsim.vehicles.*;
 
 public class CarrierControllerUtilsTest{
@@ -468,6 +475,71 @@ public class CarrierControllerUtilsTest{
 		Assertions.assertNull(ConfigUtils.addOrGetModule(scenario.getConfig(), FreightCarriersConfigGroup.class).getVehicleRoutingAlgorithmFile());
 	}
 
+	@Test
+	void testRunJsprit_timeLimitEndsSearch() throws ExecutionException, InterruptedException {
+		Config config = prepareConfig();
+		config.controller().setOutputDirectory(utils.getOutputDirectory());
+		ConfigUtils.addOrGetModule(config, FreightCarriersConfigGroup.class).setJspritTimeLimitPerCarrier(1);
+		Scenario scenario = ScenarioUtils.loadScenario(config);
+		CarriersUtils.loadCarriersAccordingToFreightConfig(scenario);
+
+		// far more iterations than can be done within the time limit
+		for (Carrier carrier : CarriersUtils.getCarriers(scenario).getCarriers().values()) {
+			CarriersUtils.setJspritIterations(carrier, 1_000_000_000);
+		}
+		long start = System.currentTimeMillis();
+		CarriersUtils.runJsprit(scenario);
+
+		Assertions.assertTrue(System.currentTimeMillis() - start < 60_000, "The search was not stopped by the time limit.");
+		for (Carrier carrier : CarriersUtils.getCarriers(scenario).getCarriers().values()) {
+			Assertions.assertNotNull(carrier.getSelectedPlan(), "The best solution found so far should be used.");
+		}
+	}
+
+	@Test
+	void testRunJsprit_logsProgressAndMetrics() throws ExecutionException, InterruptedException {
+		Config config = prepareConfig();
+		config.controller().setOutputDirectory(utils.getOutputDirectory());
+		Scenario scenario = ScenarioUtils.loadScenario(config);
+		CarriersUtils.loadCarriersAccordingToFreightConfig(scenario);
+
+		Carrier carrier = CarriersUtils.getCarriers(scenario).getCarriers().values().iterator().next();
+		CarriersUtils.setJspritIterations(carrier, 20);
+
+		Queue<String> messages = new ConcurrentLinkedQueue<>();
+		LogCounter logCollector = new LogCounter(Level.INFO) {
+			@Override
+			public void append(LogEvent event) {
+				messages.add(event.getMessage().getFormattedMessage());
+			}
+		};
+		logCollector.activate();
+		try {
+			CarriersUtils.runJsprit(scenario);
+		} finally {
+			logCollector.deactivate();
+		}
+
+		// every 10 % of the iterations
+		List<String> progress = messages.stream()
+			.filter(message -> message.startsWith("jsprit progress of carrier " + carrier.getId() + ":"))
+			.toList();
+		Assertions.assertEquals(10, progress.size(), progress.toString());
+		Assertions.assertTrue(progress.get(0).startsWith("jsprit progress of carrier " + carrier.getId() + ": iteration 2 of 20 (10%)"),
+			progress.get(0));
+		Assertions.assertTrue(progress.get(9).startsWith("jsprit progress of carrier " + carrier.getId() + ": iteration 20 of 20 (100%)"),
+			progress.get(9));
+
+		List<String> metrics = messages.stream()
+			.filter(message -> message.startsWith("jsprit metrics for carrier " + carrier.getId() + ":"))
+			.toList();
+		Assertions.assertEquals(1, metrics.size(), metrics.toString());
+		Assertions.assertTrue(metrics.get(0).startsWith("jsprit metrics for carrier " + carrier.getId() + ": 20 iterations with 1 thread(s)"),
+			metrics.get(0));
+		Assertions.assertTrue(metrics.get(0).contains("costs of best solution: " + (-carrier.getSelectedPlan().getJspritScore())), metrics.get(0));
+		Assertions.assertTrue(metrics.get(0).endsWith("unassigned jobs: 0"), metrics.get(0));
+	}
+
 	private Config prepareConfig(){
 		URL scenarioUrl = ExamplesUtils.getTestScenarioURL( "freight-chessboard-9x9" ) ;
 		Config config = ConfigUtils.loadConfig(IOUtils.extendUrl(scenarioUrl, "config.xml" ) );
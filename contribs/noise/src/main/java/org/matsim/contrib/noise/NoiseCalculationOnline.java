@@ -59,7 +59,6 @@ final class NoiseCalculationOnline implements BeforeMobsimListener, AfterMobsimL
 		log.info("Resetting noise immissions, activity information and damages...");
 
 		this.noiseContext.getNoiseLinks().clear();
-		this.noiseContext.getTimeInterval2linkId2noiseLinks().clear();
 
 		for (NoiseReceiverPoint rp : this.noiseContext.getReceiverPoints().values()) {
 			rp.reset();
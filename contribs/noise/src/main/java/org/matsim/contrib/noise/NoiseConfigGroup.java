@@ -88,6 +88,7 @@ public final class NoiseConfigGroup extends ReflectiveConfigGroup {
 	private static final String NOISE_COMPUTATION_METHOD = "noiseComputationMethod";
 	private static final String USE_DEM = "useDGM";
 	private static final String DEM_FILE = "DGMFile";
+	private static final String RECEIVER_LINK_CACHE_DIRECTORY = "receiverLinkCacheDirectory";
 
 	public NoiseConfigGroup() {
 		super(GROUP_NAME);
@@ -149,6 +150,7 @@ public final class NoiseConfigGroup extends ReflectiveConfigGroup {
 
 	private boolean useDEM = false;
 	private String demFile = null;
+	private String receiverLinkCacheDirectory = null;
 
 	public enum NoiseComputationMethod {
 		RLS90, RLS19
@@ -212,6 +214,9 @@ public final class NoiseConfigGroup extends ReflectiveConfigGroup {
 
 		comments.put(USE_DEM, "Set to 'true' if a DEM (digital elevation model) should be used for road gradients. Otherwise set to 'false'.");
 		comments.put(DEM_FILE, "Path to the geoTiff file of the DEM.");
+		comments.put(RECEIVER_LINK_CACHE_DIRECTORY, "Directory in which the relevant links of the receiver points and their correction terms are cached, "
+			+ "keyed by a hash of network, receiver points and the relevant parameters. Subsequent runs with the same inputs read them from there instead of "
+			+ "computing them. Note that only the file name of the noise barriers is part of the key, not its content. Default: null (no cache).");
 
 		comments.put(NETWORK_MODES_TO_IGNORE, "Specifies the network modes to be excluded from the noise computation. By default, the following modes are excluded: [bike, walk, transit_walk, non_network_walk].");
 
@@ -852,4 +857,14 @@ public final class NoiseConfigGroup extends ReflectiveConfigGroup {
 	public void setNoiseComputationMethod(NoiseComputationMethod noiseComputationMethod) {
 		this.noiseComputationMethod = noiseComputationMethod;
 	}
+
+	@StringGetter(RECEIVER_LINK_CACHE_DIRECTORY)
+	public String getReceiverLinkCacheDirectory() {
+		return this.receiverLinkCacheDirectory;
+	}
+
+	@StringSetter(RECEIVER_LINK_CACHE_DIRECTORY)
+	public void setReceiverLinkCacheDirectory(String receiverLinkCacheDirectory) {
+		this.receiverLinkCacheDirectory = receiverLinkCacheDirectory;
+	}
 }
@@ -25,7 +25,7 @@ public interface NoiseContext {
 
     Map<Id<Link>, NoiseLink> getNoiseLinks();
 
-    Map<Double, Map<Id<Link>, NoiseLink>> getTimeInterval2linkId2noiseLinks();
+    NoiseTollTable getTollTable();
 
     void setEventTime(double time);
 
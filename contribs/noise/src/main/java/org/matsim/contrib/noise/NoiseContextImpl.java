@@ -74,7 +74,7 @@ final class NoiseContextImpl implements NoiseContext {
 	private final Map<Id<Vehicle>, Id<Person>> vehicleId2personId = new HashMap<>();
 	
 	// for routing purposes in case the default noise travel distuility is used
-	private final Map<Double, Map<Id<Link>, NoiseLink>> timeInterval2linkId2noiseLinks = new HashMap<>();
+	private final NoiseTollTable tollTable;
 	
 	// time interval specific information
 	
@@ -98,6 +98,9 @@ final class NoiseContextImpl implements NoiseContext {
 		}
 		
 		this.grid = new Grid(scenario);
+		// the time bins are processed up to this time, see NoiseTimeTracker
+		double endTime = Math.max(24. * 3600., scenario.getConfig().qsim().getEndTime().orElse(0));
+		this.tollTable = new NoiseTollTable(noiseParams, Id.getNumberOfIds(Link.class), endTime);
 				
 		this.currentTimeBinEndTime = noiseParams.getTimeBinSizeNoiseComputation();
 		
@@ -167,12 +170,8 @@ final class NoiseContextImpl implements NoiseContext {
 	// for routing purposes
 	@Override
 	public final void storeTimeInterval() {
-
-		Map<Id<Link>, NoiseLink> noiseLinksThisTimeBinCopy = new HashMap<>(this.noiseLinks);
-
-		double currentTimeIntervalCopy = this.currentTimeBinEndTime;
-
-		this.timeInterval2linkId2noiseLinks.put(currentTimeIntervalCopy, noiseLinksThisTimeBinCopy);
+		// the tolls are copied out of the noise links, so the links can be reused for the next time bin
+		this.tollTable.setTolls(this.currentTimeBinEndTime, this.noiseLinks);
 	}
 
 	private void checkConsistency() {
@@ -331,8 +330,8 @@ final class NoiseContextImpl implements NoiseContext {
 	}
 
 	@Override
-	public final Map<Double, Map<Id<Link>, NoiseLink>> getTimeInterval2linkId2noiseLinks() {
-		return timeInterval2linkId2noiseLinks;
+	public NoiseTollTable getTollTable() {
+		return tollTable;
 	}
 
 	@Override
@@ -378,7 +377,6 @@ final class NoiseContextImpl implements NoiseContext {
 	@Override
 	public void reset() {
 		this.getNoiseLinks().clear();
-		this.getTimeInterval2linkId2noiseLinks().clear();
 		this.getLinkId2vehicleId2lastEnterTime().clear();
 		this.setCurrentTimeBinEndTime(this.getNoiseParams().getTimeBinSizeNoiseComputation());
 		this.getVehicleId2PersonId().clear();
@@ -1,5 +1,7 @@
 package org.matsim.contrib.noise;
 
+import java.util.Collection;
+
 /**
  * @author nkuehnel
  */
@@ -13,6 +15,18 @@ public interface NoiseEmission {
      */
     void calculateEmission(NoiseLink link);
 
+    /**
+     * Triggers the calculation of noise emission for the current time bin at all given links. Implementations may override this
+     * to evaluate the emission equations for all links at once; the results have to be the same as
+     * {@link #calculateEmission(NoiseLink)} for each link.
+     * @param links The links emissions are calculated for.
+     */
+    default void calculateEmissions(Collection<NoiseLink> links) {
+        for (NoiseLink link : links) {
+            calculateEmission(link);
+        }
+    }
+
     /**
      * Returns the noise contribution of a single vehicle of a given type on a given link.
      * @param type The vehicle type as specified in the implemented guideline.
@@ -42,10 +42,12 @@ import org.matsim.core.utils.misc.Time;
 import org.matsim.utils.MemoryObserver;
 import org.matsim.vehicles.Vehicle;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A handler which computes noise emissions, immisions, affected agent units and damages for each receiver point and time interval.
@@ -75,6 +77,7 @@ class NoiseTimeTracker implements VehicleEntersTrafficEventHandler, PersonEnters
     private final NoiseVehicleIdentifier vehicleIdentifier;
 	private final Set<NoiseVehicleType> vehicleTypes;
 	private String networkModesToIgnore;
+	private final ReceiverPointTiles receiverPointTiles;
 
 	@Inject
 	NoiseTimeTracker(NoiseContext context, NoiseEmission emission, NoiseImmission immissionModule,
@@ -87,6 +90,11 @@ class NoiseTimeTracker implements VehicleEntersTrafficEventHandler, PersonEnters
         this.vehicleIdentifier = vehicleIdentifier;
 		this.vehicleTypes = vehicleTypes;
 		networkModesToIgnore = this.noiseContext.getNoiseParams().getNetworkModesToIgnore();
+		// tiles of the size of the relevant radius, i.e. receiver points of a tile share most of their potential links
+		this.receiverPointTiles = new ReceiverPointTiles(context.getGrid().getReceiverPoints().values(),
+				context.getNoiseParams().getRelevantRadius(), context.getScenario().getConfig().global().getNumberOfThreads());
+		log.info("Processing " + context.getGrid().getReceiverPoints().size() + " receiver points in " + receiverPointTiles.getNumberOfTiles()
+				+ " tiles on " + context.getScenario().getConfig().global().getNumberOfThreads() + " threads.");
 		setRelevantLinkInfo();
 	}
 
@@ -94,30 +102,42 @@ class NoiseTimeTracker implements VehicleEntersTrafficEventHandler, PersonEnters
 		MemoryObserver.start(60);
 		Counter cnt = new Counter("set relevant link-info # ");
 		final NoiseConfigGroup noiseParams = noiseContext.getNoiseParams();
-		for(NoiseReceiverPoint nrp: noiseContext.getGrid().getReceiverPoints().values()) {
+		// the correction terms (incl. shielding and reflection) are static; they are computed once per receiver point and link and kept in the
+		// receiver point for all time bins and iterations.
+		Map<Id<ReceiverPoint>, NoiseReceiverPoint> gridReceiverPoints = noiseContext.getGrid().getReceiverPoints();
+		ReceiverLinkCorrectionCache cache = null;
+		boolean readFromCache = false;
+		if (noiseParams.getReceiverLinkCacheDirectory() != null
+				&& gridReceiverPoints.values().stream().anyMatch(nrp -> !nrp.isInitialized())) {
+			cache = new ReceiverLinkCorrectionCache(Path.of(noiseParams.getReceiverLinkCacheDirectory()),
+					noiseContext.getScenario().getNetwork(), gridReceiverPoints.values(), noiseParams);
+			readFromCache = cache.read(gridReceiverPoints);
+		}
+		receiverPointTiles.forEachReceiverPoint(nrp -> {
 			if(!nrp.isInitialized()) {
 				// get the zone grid cell around the receiver point
 				Set<Id<Link>> potentialLinks = noiseContext.getPotentialLinks(nrp);
+				// (receiver-specific state of the immission module is kept per thread)
 				immissionModule.setCurrentRp(nrp);
 
-					// go through these potential relevant link Ids
-				Set<Id<Link>> relevantLinkIds = ConcurrentHashMap.newKeySet();
-				potentialLinks.parallelStream().forEach(linkId -> {
-					if (!(relevantLinkIds.contains(linkId))) {
-						Link candidateLink = noiseContext.getScenario().getNetwork().getLinks().get(linkId);
-						double projectedDistance = CoordUtils.distancePointLinesegment(candidateLink.getFromNode().getCoord(), candidateLink.getToNode().getCoord(), nrp.getCoord());
-						if (projectedDistance < noiseParams.getRelevantRadius()) {
-							relevantLinkIds.add(linkId);
-							double correction = immissionModule.calculateCorrection(projectedDistance, nrp, candidateLink);
-							nrp.setLinkId2Correction(linkId, correction);
-						}
+				// go through these potential relevant link Ids
+				for (Id<Link> linkId : potentialLinks) {
+					Link candidateLink = noiseContext.getScenario().getNetwork().getLinks().get(linkId);
+					double projectedDistance = CoordUtils.distancePointLinesegment(candidateLink.getFromNode().getCoord(), candidateLink.getToNode().getCoord(), nrp.getCoord());
+					if (projectedDistance < noiseParams.getRelevantRadius()) {
+						double correction = immissionModule.calculateCorrection(projectedDistance, nrp, candidateLink);
+						nrp.setLinkId2Correction(linkId, correction);
 					}
-				});
+				}
 				nrp.setInitialized();
 			}
-
-			noiseContext.getReceiverPoints().put(nrp.getId(), nrp);
 			cnt.incCounter();
+		});
+		if (cache != null && !readFromCache) {
+			cache.write(gridReceiverPoints.values());
+		}
+		for(NoiseReceiverPoint nrp: gridReceiverPoints.values()) {
+			noiseContext.getReceiverPoints().put(nrp.getId(), nrp);
 		}
 		cnt.printCounter();
 		MemoryObserver.stop();
@@ -181,11 +201,11 @@ class NoiseTimeTracker implements VehicleEntersTrafficEventHandler, PersonEnters
 
 	private void updateActivityInformation() {
 		double timeBinEnd = this.noiseContext.getCurrentTimeBinEndTime() - this.noiseContext.getNoiseParams().getTimeBinSizeNoiseComputation() ;
-		for (NoiseReceiverPoint rp : this.noiseContext.getReceiverPoints().values()) {
+		receiverPointTiles.forEachReceiverPoint(rp -> {
 			for (Id<Person> personId : rp.getPersonId2actInfos().keySet()) {
 				rp.getPersonId2actInfos().get(personId).removeIf(personActivityInfo -> personActivityInfo.getEndTime() < (timeBinEnd));
 			}
-		}
+		});
 	}
 
 	private void computeNoiseForCurrentTimeInterval() {
@@ -236,15 +256,17 @@ class NoiseTimeTracker implements VehicleEntersTrafficEventHandler, PersonEnters
 	 */
 	private void calculateNoiseEmission() {
 		Counter cnt = new Counter("calculate link noise emission # ");
+		List<NoiseLink> noiseLinks = new ArrayList<>(this.noiseContext.getScenario().getNetwork().getLinks().size());
 		for (Id<Link> linkId : this.noiseContext.getScenario().getNetwork().getLinks().keySet()) {
 			NoiseLink noiseLink = this.noiseContext.getNoiseLinks().get(linkId);
             if(noiseLink == null) {
                 noiseLink = new NoiseLink(linkId);
                 this.noiseContext.getNoiseLinks().put(linkId, noiseLink );
             }
-			emission.calculateEmission(noiseLink);
+			noiseLinks.add(noiseLink);
 			cnt.incCounter();
 		}
+		emission.calculateEmissions(noiseLinks);
 		cnt.printCounter();
 	}
 
@@ -253,7 +275,7 @@ class NoiseTimeTracker implements VehicleEntersTrafficEventHandler, PersonEnters
 	 */
 	private void calculateNoiseImmissionsAndDamages() {
 		Counter cnt = new Counter("process noise receiver point # ");
-		this.noiseContext.getReceiverPoints().values().parallelStream().forEach( rp -> {
+		receiverPointTiles.forEachReceiverPoint(rp -> {
 			immissionModule.calculateImmission(rp, this.noiseContext.getCurrentTimeBinEndTime());
 			damageCalculation.calculateDamages(rp);
             cnt.incCounter();
@@ -271,6 +293,10 @@ class NoiseTimeTracker implements VehicleEntersTrafficEventHandler, PersonEnters
 		while (this.noiseContext.getCurrentTimeBinEndTime() <= Math.max(24. * 3600., this.noiseContext.getScenario().getConfig().qsim().getEndTime().orElse(0))) {
 			processTimeBin();
 		}
+		// the tolls of this iteration are used for routing from now on
+		this.noiseContext.getTollTable().publish();
+		// the threads are not needed until the next iteration
+		this.receiverPointTiles.shutdown();
 	}
 
 	@Override
@@ -5,8 +5,6 @@ import org.matsim.api.core.v01.population.Person;
 import org.matsim.core.router.util.TravelDisutility;
 import org.matsim.vehicles.Vehicle;
 
-import static org.matsim.contrib.noise.RLS90VehicleType.*;
-
 class NoiseTollCalculator implements TravelDisutility {
 
     private final NoiseContext noiseContext;
@@ -26,50 +24,18 @@ class NoiseTollCalculator implements TravelDisutility {
 		/* The following is an estimate of the tolls that an agent would have to pay if choosing that link in the next
 		iteration i based on the tolls in iteration i-1 */
 
-        double linkExpectedToll = 0.;
-        double timeIntervalEndTime = ((int) (time / this.noiseContext.getNoiseParams().getTimeBinSizeNoiseComputation()) + 1) * this.noiseContext.getNoiseParams().getTimeBinSizeNoiseComputation();
-
-        if (this.noiseContext.getTimeInterval2linkId2noiseLinks().get(timeIntervalEndTime) == null ||
-                this.noiseContext.getTimeInterval2linkId2noiseLinks().get(timeIntervalEndTime).get( link.getId() ) == null) {
-            // expected toll on that link should be zero
+        // the noise allocation approach (average or marginal cost) is already applied when the toll table is filled
+        NoiseTollTable tollTable = this.noiseContext.getTollTable();
+        double linkExpectedToll = tollTable.getToll(link.getId(), time, false);
+        double linkExpectedTollHGV = tollTable.getToll(link.getId(), time, true);
 
-        } else {
-
-            boolean isHGV = false;
+        if (linkExpectedTollHGV != linkExpectedToll) {
             for (String hgvPrefix : this.noiseContext.getNoiseParams().getHgvIdPrefixesArray()) {
                 if ( person.toString().startsWith(hgvPrefix )) {
-                    isHGV = true;
+                    linkExpectedToll = linkExpectedTollHGV;
                     break;
                 }
             }
-
-            if (isHGV) {
-
-                if (this.noiseContext.getNoiseParams().getNoiseAllocationApproach() == NoiseConfigGroup.NoiseAllocationApproach.AverageCost) {
-                    linkExpectedToll = this.noiseContext.getTimeInterval2linkId2noiseLinks().get(timeIntervalEndTime).get( link.getId() ).getAverageDamageCostPerVehicle(hgv);
-
-                } else if (this.noiseContext.getNoiseParams().getNoiseAllocationApproach() == NoiseConfigGroup.NoiseAllocationApproach.MarginalCost) {
-                    linkExpectedToll =
-                                    this.noiseContext.getTimeInterval2linkId2noiseLinks().get(timeIntervalEndTime).get( link.getId() ).getMarginalDamageCostPerVehicle(hgv);
-
-                } else {
-                    throw new RuntimeException("Unknown noise allocation approach. Aborting...");
-                }
-
-            } else {
-
-                if (this.noiseContext.getNoiseParams().getNoiseAllocationApproach() == NoiseConfigGroup.NoiseAllocationApproach.AverageCost) {
-                    linkExpectedToll = this.noiseContext.getTimeInterval2linkId2noiseLinks().get(timeIntervalEndTime).get( link.getId() ).getAverageDamageCostPerVehicle(car);
-
-                } else if (this.noiseContext.getNoiseParams().getNoiseAllocationApproach() == NoiseConfigGroup.NoiseAllocationApproach.MarginalCost) {
-                    linkExpectedToll =
-                                    this.noiseContext.getTimeInterval2linkId2noiseLinks().get(timeIntervalEndTime).get( link.getId() ).getMarginalDamageCostPerVehicle(car);
-
-                } else {
-                    throw new RuntimeException("Unknown noise allocation approach. Aborting...");
-                }
-            }
-
         }
 
         double linkExpectedTollDisutility = this.noiseContext.getNoiseParams().getNoiseTollFactor() * linkExpectedToll;
@@ -0,0 +1,134 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.noise;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.matsim.contrib.noise.RLS90VehicleType.car;
+import static org.matsim.contrib.noise.RLS90VehicleType.hgv;
+
+/**
+ * Expected noise tolls per link and time bin for cars and HGVs, as used for routing by {@link NoiseTollCalculator}.  The tolls are stored
+ * in flat arrays, indexed by time bin and {@link Id#index()} of the link.
+ * <p>
+ * The tolls of the running iteration are collected separately and only published at the end of the iteration, see {@link #publish()}.
+ * Routers thus always see the complete tolls of the previous iteration and read them without locks.
+ * <p>
+ * The table is sized for the time bins up to the end time of the noise computation. Later time bins, e.g. from events after that time, let
+ * it grow.
+ *
+ * @see NoiseConfigGroup#isComputeAvgNoiseCostPerLinkAndTime()
+ */
+final class NoiseTollTable {
+
+	private final double timeBinSize;
+	private final int numberOfLinks;
+	private final NoiseConfigGroup.NoiseAllocationApproach noiseAllocationApproach;
+
+	private volatile Tolls published = new Tolls(0);
+	private Tolls next;
+
+	/**
+	 * @param endTime end time of the noise computation, i.e. of the last time bin
+	 */
+	NoiseTollTable(NoiseConfigGroup noiseParams, int numberOfLinks, double endTime) {
+		this.timeBinSize = noiseParams.getTimeBinSizeNoiseComputation();
+		this.numberOfLinks = numberOfLinks;
+		this.noiseAllocationApproach = noiseParams.getNoiseAllocationApproach();
+		this.next = new Tolls(Math.multiplyExact((int) Math.ceil(endTime / timeBinSize), numberOfLinks));
+	}
+
+	/**
+	 * @return the published toll of the link for the time bin containing {@code time}, or 0 if there is none
+	 */
+	double getToll(Id<Link> linkId, double time, boolean isHGV) {
+		Tolls tolls = this.published;
+		int linkIndex = linkId.index();
+		int timeBin = (int) (time / timeBinSize);
+		if (linkIndex >= numberOfLinks || timeBin < 0 || timeBin >= tolls.numberOfTimeBins(numberOfLinks)) {
+			return 0.;
+		}
+		int i = timeBin * numberOfLinks + linkIndex;
+		return isHGV ? tolls.hgv[i] : tolls.car[i];
+	}
+
+	/**
+	 * Sets the tolls of the time bin ending at {@code timeBinEndTime} from the damage costs of the noise links.  Links without noise link have
+	 * a toll of 0.
+	 */
+	void setTolls(double timeBinEndTime, Map<Id<Link>, NoiseLink> noiseLinks) {
+		int timeBin = (int) Math.round(timeBinEndTime / timeBinSize) - 1;
+		if (timeBin < 0) {
+			return;
+		}
+		int numberOfTimeBins = next.numberOfTimeBins(numberOfLinks);
+		if (timeBin >= numberOfTimeBins) {
+			next = next.withTimeBins(Math.max(timeBin + 1, 2 * numberOfTimeBins), numberOfLinks);
+		}
+
+		Tolls tolls = this.next;
+		int offset = timeBin * numberOfLinks;
+		IntStream.range(0, numberOfLinks).parallel().forEach(linkIndex -> {
+			int i = offset + linkIndex;
+			NoiseLink noiseLink = noiseLinks.get(Id.get(linkIndex, Link.class));
+			if (noiseLink == null) {
+				tolls.car[i] = 0.;
+				tolls.hgv[i] = 0.;
+			} else if (noiseAllocationApproach == NoiseConfigGroup.NoiseAllocationApproach.AverageCost) {
+				tolls.car[i] = noiseLink.getAverageDamageCostPerVehicle(car);
+				tolls.hgv[i] = noiseLink.getAverageDamageCostPerVehicle(hgv);
+			} else if (noiseAllocationApproach == NoiseConfigGroup.NoiseAllocationApproach.MarginalCost) {
+				tolls.car[i] = noiseLink.getMarginalDamageCostPerVehicle(car);
+				tolls.hgv[i] = noiseLink.getMarginalDamageCostPerVehicle(hgv);
+			} else {
+				throw new RuntimeException("Unknown noise allocation approach. Aborting...");
+			}
+		});
+	}
+
+	/**
+	 * Makes the tolls set since the last call available to {@link #getToll(Id, double, boolean)}.
+	 */
+	void publish() {
+		this.published = this.next;
+		this.next = new Tolls(this.published.car.length);
+	}
+
+	private record Tolls(double[] car, double[] hgv) {
+
+		Tolls(int size) {
+			this(new double[size], new double[size]);
+		}
+
+		int numberOfTimeBins(int numberOfLinks) {
+			return numberOfLinks == 0 ? 0 : car.length / numberOfLinks;
+		}
+
+		Tolls withTimeBins(int numberOfTimeBins, int numberOfLinks) {
+			int size = Math.multiplyExact(numberOfTimeBins, numberOfLinks);
+			return new Tolls(Arrays.copyOf(car, size), Arrays.copyOf(hgv, size));
+		}
+	}
+}
@@ -14,6 +14,8 @@ import org.matsim.api.core.v01.network.Network;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.ConfigUtils;
 
+import java.util.Collection;
+
 import static org.matsim.contrib.noise.RLS19VehicleType.*;
 
 /**
@@ -81,6 +83,88 @@ class RLS19NoiseEmission implements NoiseEmission {
         noiseLink.setEmissionPlusOneVehicle(lkw2, emissionPlusLkw2);
     }
 
+    /**
+     * Same results as {@link #calculateEmission(NoiseLink)} for each link. The vehicle counts of all links and the term
+     * 10^(0.1 * L_W,FzG) / v of a single vehicle per vehicle group are stored in primitive arrays first, so the single vehicle emissions
+     * (including the gradient of the link) are computed once per link instead of once for the emission and each of the emissions plus
+     * one vehicle. Then the emission equations are evaluated in a loop over these arrays, see {@link #calculateEmissions(int[], int[], int[],
+     * double[], double[], double[], int, int, int, double[])}.
+     */
+    @Override
+    public void calculateEmissions(Collection<NoiseLink> noiseLinks) {
+        NoiseLink[] links = noiseLinks.toArray(new NoiseLink[0]);
+        int size = links.length;
+
+        double scaleFactor = noiseParams.getScaleFactor();
+        double timeBinFactor = 3600. / noiseParams.getTimeBinSizeNoiseComputation();
+
+        int[] nPkw = new int[size];
+        int[] nLkw1 = new int[size];
+        int[] nLkw2 = new int[size];
+        double[] termPkw = new double[size];
+        double[] termLkw1 = new double[size];
+        double[] termLkw2 = new double[size];
+        for (int l = 0; l < size; l++) {
+            NoiseLink noiseLink = links[l];
+            double g = getGradient(noiseLink);
+            nPkw[l] = (int) ((noiseLink.getAgentsEntering(pkw) * scaleFactor) * timeBinFactor);
+            nLkw1[l] = (int) ((noiseLink.getAgentsEntering(lkw1) * scaleFactor) * timeBinFactor);
+            nLkw2[l] = (int) ((noiseLink.getAgentsEntering(lkw2) * scaleFactor) * timeBinFactor);
+            termPkw[l] = calculateSingleVehicleTerm(noiseLink, pkw, g);
+            termLkw1[l] = calculateSingleVehicleTerm(noiseLink, lkw1, g);
+            termLkw2[l] = calculateSingleVehicleTerm(noiseLink, lkw2, g);
+        }
+
+        double[] result = new double[size];
+        calculateEmissions(nPkw, nLkw1, nLkw2, termPkw, termLkw1, termLkw2, 0, 0, 0, result);
+        for (int l = 0; l < size; l++) {
+            links[l].setEmission(result[l]);
+        }
+        calculateEmissions(nPkw, nLkw1, nLkw2, termPkw, termLkw1, termLkw2, 1, 0, 0, result);
+        for (int l = 0; l < size; l++) {
+            links[l].setEmissionPlusOneVehicle(pkw, result[l]);
+        }
+        calculateEmissions(nPkw, nLkw1, nLkw2, termPkw, termLkw1, termLkw2, 0, 1, 0, result);
+        for (int l = 0; l < size; l++) {
+            links[l].setEmissionPlusOneVehicle(lkw1, result[l]);
+        }
+        calculateEmissions(nPkw, nLkw1, nLkw2, termPkw, termLkw1, termLkw2, 0, 0, 1, result);
+        for (int l = 0; l < size; l++) {
+            links[l].setEmissionPlusOneVehicle(lkw2, result[l]);
+        }
+    }
+
+    /**
+     * @return 10^(0.1 * L_W,FzG) / v of a single vehicle of the given type, see {@link #calculateVehicleTypeNoise(double, double, double)}
+     */
+    private double calculateSingleVehicleTerm(NoiseLink noiseLink, RLS19VehicleType vehicleType, double g) {
+        double v = getV(noiseLink, vehicleType);
+        double singleVehicleEmission = calculateBaseVehicleTypeEmission(vehicleType, v)
+                + calculateSurfaceCorrection(vehicleType, noiseLink, v)
+                + calculateGradientCorrection(g, v, vehicleType);
+        return Math.pow(10, 0.1 * singleVehicleEmission) / v;
+    }
+
+    /**
+     * Evaluates {@link #calculateEmission(NoiseLink, double, double, double, int, int, int)} for all links, with the given number of
+     * additional vehicles per vehicle group.
+     */
+    static void calculateEmissions(int[] nPkw, int[] nLkw1, int[] nLkw2,
+                                   double[] termPkw, double[] termLkw1, double[] termLkw2,
+                                   int plusPkw, int plusLkw1, int plusLkw2, double[] result) {
+        for (int l = 0; l < result.length; l++) {
+            int m = nPkw[l] + plusPkw + nLkw1[l] + plusLkw1 + nLkw2[l] + plusLkw2;
+            if (m == 0) {
+                result[l] = 0;
+                continue;
+            }
+            double pLkw1 = ((double) (nLkw1[l] + plusLkw1)) / m;
+            double pLkw2 = ((double) (nLkw2[l] + plusLkw2)) / m;
+            double sum = (1 - pLkw1 - pLkw2) * termPkw[l] + pLkw1 * termLkw1[l] + pLkw2 * termLkw2[l];
+            result[l] = 10 * Math.log10(m) + 10 * Math.log10(sum) - 30;
+        }
+    }
+
     @Override
     public double calculateSingleVehicleLevel(NoiseVehicleType type, NoiseLink noiseLink) {
         int nPkw = 0;
@@ -157,6 +241,13 @@ class RLS19NoiseEmission implements NoiseEmission {
      * @return gradient correction in dB(A)
      */
     double calculateGradientCorrection(NoiseLink link, double v, RLS19VehicleType vehicleType) {
+        return calculateGradientCorrection(getGradient(link), v, vehicleType);
+    }
+
+    /**
+     * @return gradient of the link in percent
+     */
+    private double getGradient(NoiseLink link) {
         double g = 0;
         Link matsimLink = network.getLinks().get(link.getId());
         if(noiseParams.isUseDEM()) {
@@ -177,7 +268,10 @@ class RLS19NoiseEmission implements NoiseEmission {
                 g = (Double) gradient;
             }
         }
+        return g;
+    }
 
+    static double calculateGradientCorrection(double g, double v, RLS19VehicleType vehicleType) {
         double correction = 0;
         switch (vehicleType) {
             case pkw:
@@ -9,6 +9,8 @@ import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.core.config.ConfigUtils;
 
+import java.util.Collection;
+
 import static org.matsim.contrib.noise.RLS90VehicleType.car;
 import static org.matsim.contrib.noise.RLS90VehicleType.hgv;
 
@@ -85,6 +87,74 @@ class RLS90NoiseEmission implements NoiseEmission {
         noiseLink.setEmissionPlusOneVehicle(RLS90VehicleType.hgv, noiseEmissionPlusOneHgv);
     }
 
+    /**
+     * Same results as {@link #calculateEmission(NoiseLink)} for each link. The vehicle counts and speeds of all links are copied into
+     * primitive arrays first, then the emission equations are evaluated in one loop over these arrays. The speed dependent terms are
+     * computed once per link instead of once for the emission and each of the emissions plus one vehicle.
+     */
+    @Override
+    public void calculateEmissions(Collection<NoiseLink> noiseLinks) {
+        NoiseLink[] links = noiseLinks.toArray(new NoiseLink[0]);
+        int size = links.length;
+
+        int[] nCar = new int[size];
+        int[] nHgv = new int[size];
+        double[] vCar = new double[size];
+        double[] vHgv = new double[size];
+        for (int l = 0; l < size; l++) {
+            nCar[l] = links[l].getAgentsEntering(car);
+            nHgv[l] = links[l].getAgentsEntering(hgv);
+            vCar[l] = getV(links[l], car);
+            vHgv[l] = getV(links[l], hgv);
+        }
+
+        double scaleFactor = noiseParams.getScaleFactor();
+        double timeBinFactor = 3600. / noiseParams.getTimeBinSizeNoiseComputation();
+        double[] emission = new double[size];
+        double[] emissionPlusOneCar = new double[size];
+        double[] emissionPlusOneHgv = new double[size];
+        for (int l = 0; l < size; l++) {
+            int n = nCar[l] + nHgv[l];
+            double p = n == 0 ? 0. : nHgv[l] / ((double) n);
+            int nPlusOneCarOrHGV = n + 1;
+            double pPlusOneHgv = (nHgv[l] + 1.) / ((double) nPlusOneCarOrHGV);
+            double pPlusOneCar = nHgv[l] / ((double) nPlusOneCarOrHGV);
+
+            // correction for a sample and for intervals unequal to 3600 seconds, as in calculateEmission
+            n = (int) ((int) (n * scaleFactor) * timeBinFactor);
+            nPlusOneCarOrHGV = (int) ((int) (nPlusOneCarOrHGV * scaleFactor) * timeBinFactor);
+
+            double lCar = calculateLCar(vCar[l]);
+            double speedCorrectionTerm = Math.pow(10.0, (0.1 * (calculateLHdv(vHgv[l]) - lCar))) - 1;
+
+            emission[l] = n == 0 ? 0. : calculateEmission(n, p, lCar, speedCorrectionTerm);
+            emissionPlusOneCar[l] = calculateEmission(nPlusOneCarOrHGV, pPlusOneCar, lCar, speedCorrectionTerm);
+            emissionPlusOneHgv[l] = calculateEmission(nPlusOneCarOrHGV, pPlusOneHgv, lCar, speedCorrectionTerm);
+        }
+
+        for (int l = 0; l < size; l++) {
+            if (emissionPlusOneCar[l] < emission[l] || emissionPlusOneHgv[l] < emission[l]) {
+                log.warn("vCar: " + vCar[l] + " - vHGV: " + vHgv[l] + " - n_car: " + nCar[l] + " - n_hgv: " + nHgv[l] + " - noise emission: " + emission[l] + " - noise emission plus one car: " + emissionPlusOneCar[l] + " - noise emission plus one hgv: " + emissionPlusOneHgv[l] + ". This should not happen. Aborting...");
+            }
+            links[l].setEmission(emission[l]);
+            links[l].setEmissionPlusOneVehicle(car, emissionPlusOneCar[l]);
+            links[l].setEmissionPlusOneVehicle(hgv, emissionPlusOneHgv[l]);
+        }
+    }
+
+    /**
+     * Mittelungspegel plus Geschwindigkeitskorrektur, i.e. {@link #calculateMittelungspegelLm(int, double)} +
+     * {@link #calculateGeschwindigkeitskorrekturDv(double, double, double)}, with the speed dependent terms already computed.
+     *
+     * @param speedCorrectionTerm 10^(0.1 * (L_Lkw - L_Pkw)) - 1
+     */
+    private static double calculateEmission(int n, double p, double lCar, double speedCorrectionTerm) {
+        double pInPercentagePoints = p * 100.;
+        double mittelungspegel = 37.3 + 10* Math.log10(n * (1 + (0.082 * pInPercentagePoints)));
+        double geschwindigkeitskorrekturDv = lCar - 37.3 + 10* Math.log10( (100.0 + speedCorrectionTerm * pInPercentagePoints ) / (100 + 8.23 * pInPercentagePoints));
+        return mittelungspegel + geschwindigkeitskorrekturDv;
+    }
+
     @Override
     public double calculateSingleVehicleLevel(NoiseVehicleType type, NoiseLink noiseLink) {
         double v = getV(noiseLink, type);
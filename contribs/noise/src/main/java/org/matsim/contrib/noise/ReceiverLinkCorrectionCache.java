@@ -0,0 +1,290 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.noise;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * File cache for the relevant links of the receiver points and their (static) correction terms, see {@link NoiseImmission#calculateCorrection}.
+ * <p>
+ * The relations are stored in compressed sparse row (CSR) layout: one row per receiver point, given by an offset into a link index column
+ * and a correction column.  The file name contains a hash of everything the relations depend on (receiver points, network incl. intersection
+ * types, computation method, relevant radius, barrier, reflection and DEM settings incl. the content of the barrier and DEM files), so a changed
+ * input leads to a new file.  When reading, the numeric columns are memory-mapped and copied directly into the receiver points.  A file that
+ * cannot be read (e.g. truncated by a killed run) is ignored, so the relations are calculated again.
+ * <p>
+ * Layout: header ({@code magic, version, rows, links, entries}), row offsets ({@code int[rows + 1]}), link indices ({@code int[entries]}),
+ * corrections ({@code double[entries]}), link ids and receiver point ids (as modified UTF-8).
+ */
+final class ReceiverLinkCorrectionCache {
+	private static final Logger log = LogManager.getLogger(ReceiverLinkCorrectionCache.class);
+
+	private static final int MAGIC = 0x4e524c43; // "NRLC"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 5 * Integer.BYTES;
+
+	private final Path file;
+
+	ReceiverLinkCorrectionCache(Path directory, Network network, Collection<NoiseReceiverPoint> receiverPoints, NoiseConfigGroup noiseParams) {
+		this.file = directory.resolve("noise_receiver_links_" + computeKey(network, receiverPoints, noiseParams) + ".bin");
+	}
+
+	Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Sets the relevant links and corrections of all given receiver points from the cache file, if it exists and matches the receiver points.
+	 * The receiver points are only modified if the whole file could be read.
+	 *
+	 * @return {@code true} if the receiver points were initialized from the cache
+	 */
+	boolean read(Map<Id<ReceiverPoint>, NoiseReceiverPoint> receiverPoints) {
+		if (!Files.exists(file)) {
+			return false;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_BYTES) {
+				log.warn("Ignoring receiver link cache {}: the file is incomplete.", file);
+				return false;
+			}
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+			if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+				log.warn("Ignoring receiver link cache {} with unknown format.", file);
+				return false;
+			}
+			int rows = header.getInt();
+			int links = header.getInt();
+			int entries = header.getInt();
+			if (rows != receiverPoints.size()) {
+				log.warn("Ignoring receiver link cache {}: it contains {} receiver points instead of {}.", file, rows, receiverPoints.size());
+				return false;
+			}
+
+			long position = HEADER_BYTES;
+			if (links < 0 || entries < 0 || channel.size() < position + (long) (rows + 1 + entries) * Integer.BYTES + (long) entries * Double.BYTES) {
+				log.warn("Ignoring receiver link cache {}: the file is incomplete.", file);
+				return false;
+			}
+			IntBuffer rowOffsets = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) (rows + 1) * Integer.BYTES).asIntBuffer();
+			position += (long) (rows + 1) * Integer.BYTES;
+			IntBuffer linkIndices = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) entries * Integer.BYTES).asIntBuffer();
+			position += (long) entries * Integer.BYTES;
+			DoubleBuffer corrections = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) entries * Double.BYTES).asDoubleBuffer();
+			position += (long) entries * Double.BYTES;
+
+			channel.position(position);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+			List<Id<Link>> linkIds = new ArrayList<>(links);
+			for (int i = 0; i < links; i++) {
+				linkIds.add(Id.createLinkId(in.readUTF()));
+			}
+			NoiseReceiverPoint[] rowReceiverPoints = new NoiseReceiverPoint[rows];
+			for (int r = 0; r < rows; r++) {
+				rowReceiverPoints[r] = receiverPoints.get(Id.create(in.readUTF(), ReceiverPoint.class));
+				if (rowReceiverPoints[r] == null) {
+					log.warn("Ignoring receiver link cache {}: it contains unknown receiver points.", file);
+					return false;
+				}
+			}
+
+			if (!isValid(rowOffsets, linkIndices, rows, links, entries)) {
+				log.warn("Ignoring receiver link cache {}: the file is corrupt.", file);
+				return false;
+			}
+
+			for (int r = 0; r < rows; r++) {
+				NoiseReceiverPoint rp = rowReceiverPoints[r];
+				for (int e = rowOffsets.get(r); e < rowOffsets.get(r + 1); e++) {
+					rp.setLinkId2Correction(linkIds.get(linkIndices.get(e)), corrections.get(e));
+				}
+				rp.setInitialized();
+			}
+			log.info("Read relevant links of {} receiver points ({} relations) from {}", rows, entries, file);
+			return true;
+		} catch (IOException e) {
+			log.warn("Could not read receiver link cache {}, the relevant links will be calculated.", file, e);
+			return false;
+		}
+	}
+
+	private static boolean isValid(IntBuffer rowOffsets, IntBuffer linkIndices, int rows, int links, int entries) {
+		if (rowOffsets.get(0) != 0 || rowOffsets.get(rows) != entries) {
+			return false;
+		}
+		for (int r = 0; r < rows; r++) {
+			if (rowOffsets.get(r) > rowOffsets.get(r + 1)) {
+				return false;
+			}
+		}
+		for (int e = 0; e < entries; e++) {
+			if (linkIndices.get(e) < 0 || linkIndices.get(e) >= links) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the relevant links and corrections of the given (initialized) receiver points.  The file is written under a temporary name and then
+	 * moved, so that concurrent runs never see a partially written cache.
+	 */
+	void write(Collection<NoiseReceiverPoint> receiverPoints) {
+		Map<Id<Link>, Integer> linkIndex = new LinkedHashMap<>();
+		int entries = 0;
+		for (NoiseReceiverPoint rp : receiverPoints) {
+			for (Id<Link> linkId : rp.getRelevantLinks()) {
+				linkIndex.putIfAbsent(linkId, linkIndex.size());
+			}
+			entries += rp.getRelevantLinks().size();
+		}
+
+		try {
+			Files.createDirectories(file.getParent());
+			Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(receiverPoints.size());
+				out.writeInt(linkIndex.size());
+				out.writeInt(entries);
+
+				int offset = 0;
+				out.writeInt(offset);
+				for (NoiseReceiverPoint rp : receiverPoints) {
+					offset += rp.getRelevantLinks().size();
+					out.writeInt(offset);
+				}
+				for (NoiseReceiverPoint rp : receiverPoints) {
+					for (Id<Link> linkId : rp.getRelevantLinks()) {
+						out.writeInt(linkIndex.get(linkId));
+					}
+				}
+				// iterate again in the same order as for the link indices
+				for (NoiseReceiverPoint rp : receiverPoints) {
+					for (Id<Link> linkId : rp.getRelevantLinks()) {
+						out.writeDouble(rp.getLinkCorrection(linkId));
+					}
+				}
+
+				for (Id<Link> linkId : linkIndex.keySet()) {
+					out.writeUTF(linkId.toString());
+				}
+				for (NoiseReceiverPoint rp : receiverPoints) {
+					out.writeUTF(rp.getId().toString());
+				}
+			}
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			log.info("Wrote relevant links of {} receiver points ({} relations) to {}", receiverPoints.size(), entries, file);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	static String computeKey(Network network, Collection<NoiseReceiverPoint> receiverPoints, NoiseConfigGroup noiseParams) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+
+		update(digest, VERSION + ";" + noiseParams.getNoiseComputationMethod() + ";" + noiseParams.getRelevantRadius() + ";"
+				+ noiseParams.isConsiderNoiseBarriers() + ";" + noiseParams.getNoiseBarriersFilePath() + ";" + noiseParams.getNoiseBarriersSourceCRS() + ";"
+				+ noiseParams.isConsiderNoiseReflection() + ";" + noiseParams.isUseDEM() + ";" + noiseParams.getDEMFile());
+		// the files may be changed in place
+		if (noiseParams.isConsiderNoiseBarriers()) {
+			updateWithContent(digest, noiseParams.getNoiseBarriersFilePath());
+		}
+		if (noiseParams.isUseDEM()) {
+			updateWithContent(digest, noiseParams.getDEMFile());
+		}
+
+		List<NoiseReceiverPoint> sortedReceiverPoints = new ArrayList<>(receiverPoints);
+		sortedReceiverPoints.sort(Comparator.comparing(rp -> rp.getId().toString()));
+		for (NoiseReceiverPoint rp : sortedReceiverPoints) {
+			update(digest, rp.getId().toString(), rp.getCoord());
+		}
+
+		List<Link> sortedLinks = new ArrayList<>(network.getLinks().values());
+		sortedLinks.sort(Comparator.comparing(link -> link.getId().toString()));
+		for (Link link : sortedLinks) {
+			update(digest, link.getId().toString(), link.getFromNode().getCoord());
+			update(digest, "", link.getToNode().getCoord());
+		}
+
+		// intersection types are used for the RLS-19 corrections
+		List<Node> sortedNodes = new ArrayList<>(network.getNodes().values());
+		sortedNodes.sort(Comparator.comparing(node -> node.getId().toString()));
+		for (Node node : sortedNodes) {
+			Object intersectionType = node.getAttributes().getAttribute(IntersectionContext.INTERSECTION_TYPE);
+			if (intersectionType != null) {
+				update(digest, node.getId() + "=" + intersectionType, node.getCoord());
+			}
+		}
+
+		return HexFormat.of().formatHex(digest.digest(), 0, 12);
+	}
+
+	private static void updateWithContent(MessageDigest digest, String file) {
+		if (file == null || !Files.isRegularFile(Path.of(file))) {
+			return;
+		}
+		try (InputStream in = new DigestInputStream(new BufferedInputStream(Files.newInputStream(Path.of(file)), 1 << 16), digest)) {
+			in.transferTo(OutputStream.nullOutputStream());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private static void update(MessageDigest digest, String value, Coord coord) {
+		update(digest, value);
+		ByteBuffer buffer = ByteBuffer.allocate(2 * Double.BYTES);
+		buffer.putDouble(coord.getX()).putDouble(coord.getY());
+		digest.update(buffer.array());
+	}
+}
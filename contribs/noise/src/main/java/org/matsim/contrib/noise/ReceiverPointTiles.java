@@ -0,0 +1,113 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.noise;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Groups receiver points into square spatial tiles, which are the unit of work for the parallel computation of noise immissions and
+ * damages.  Receiver points of one tile are close to each other and mostly share their relevant links, so a tile is processed by one
+ * thread.  Tiles are handed out to the threads dynamically, largest first.
+ * <p>
+ * The threads are created on first use and kept for all following calls until {@link #shutdown()}.
+ */
+final class ReceiverPointTiles {
+
+	private final List<List<NoiseReceiverPoint>> tiles;
+	private final int numberOfThreads;
+	private ExecutorService executor;
+
+	ReceiverPointTiles(Collection<NoiseReceiverPoint> receiverPoints, double tileSize, int numberOfThreads) {
+		Map<Long, List<NoiseReceiverPoint>> tilesByIndex = new HashMap<>();
+		for (NoiseReceiverPoint rp : receiverPoints) {
+			long x = (long) Math.floor(rp.getCoord().getX() / tileSize);
+			long y = (long) Math.floor(rp.getCoord().getY() / tileSize);
+			tilesByIndex.computeIfAbsent((x << 32) ^ (y & 0xffffffffL), k -> new ArrayList<>()).add(rp);
+		}
+		this.tiles = new ArrayList<>(tilesByIndex.values());
+		this.tiles.sort(Comparator.comparingInt((List<NoiseReceiverPoint> tile) -> tile.size()).reversed());
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	int getNumberOfTiles() {
+		return tiles.size();
+	}
+
+	/**
+	 * Applies the action to each receiver point, tile by tile, and returns once all tiles are processed.
+	 */
+	void forEachReceiverPoint(Consumer<NoiseReceiverPoint> action) {
+		forEachTile(tile -> tile.forEach(action));
+	}
+
+	void forEachTile(Consumer<List<NoiseReceiverPoint>> action) {
+		if (numberOfThreads == 1 || tiles.size() <= 1) {
+			tiles.forEach(action);
+			return;
+		}
+
+		AtomicInteger nextTile = new AtomicInteger();
+		Runnable worker = () -> {
+			int i;
+			while ((i = nextTile.getAndIncrement()) < tiles.size()) {
+				action.accept(tiles.get(i));
+			}
+		};
+
+		int threads = Math.min(numberOfThreads, tiles.size());
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(threads, runnable -> {
+				Thread thread = new Thread(runnable, "noise-receiver-points");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		try {
+			List<Future<?>> futures = new ArrayList<>(threads);
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(worker));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	/**
+	 * Stops the threads. They are created again if tiles are processed afterwards.
+	 */
+	void shutdown() {
+		if (executor != null) {
+			executor.shutdown();
+			executor = null;
+		}
+	}
+}
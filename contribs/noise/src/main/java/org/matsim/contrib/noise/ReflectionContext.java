@@ -21,14 +21,18 @@ public final class ReflectionContext {
 
     private final static Logger logger = LogManager.getLogger(ReflectionContext.class);
 
-    private Set<LineSegment> visibleEdges;
-    private Coordinate receiver;
+    /**
+     * The current receiver is kept per thread, so that receiver points can be processed in parallel.
+     */
+    private final ThreadLocal<CurrentReceiver> currentReceiver = new ThreadLocal<>();
 
     private final BarrierContext barrierContext;
     private final GeometryFactory geomFactory = new GeometryFactory();
 
     record ReflectionTuple(LineSegment facade, LineSegment reflectionLink) { }
 
+    private record CurrentReceiver(Coordinate receiver, Set<LineSegment> visibleEdges) { }
+
     @Inject
     ReflectionContext(BarrierContext barrierContext) {
         this.barrierContext = barrierContext;
@@ -40,12 +44,12 @@ public final class ReflectionContext {
 
     void setCurrentReceiver(NoiseReceiverPoint nrp) {
 
-        receiver = new Coordinate(nrp.getCoord().getX(), nrp.getCoord().getY());
+        Coordinate receiver = new Coordinate(nrp.getCoord().getX(), nrp.getCoord().getY());
 
         final Collection<NoiseBarrier> candidates =
                 barrierContext.query(new GeometryFactory().createPoint(receiver).buffer(200).getEnvelopeInternal());
 
-        visibleEdges = new HashSet<>();
+        Set<LineSegment> visibleEdges = new HashSet<>();
 
         for (NoiseBarrier noiseBarrier : candidates) {
             if (noiseBarrier.getGeometry().contains(geomFactory.createPoint(receiver))) {
@@ -59,6 +63,7 @@ public final class ReflectionContext {
             }
             visibleEdges.addAll(findVisibleEdgesOfPolygon(edges, receiver));
         }
+        currentReceiver.set(new CurrentReceiver(receiver, visibleEdges));
     }
 
 
@@ -119,14 +124,16 @@ public final class ReflectionContext {
     }
 
     Set<ReflectionTuple> getReflections(LineSegment originalLink) {
-        if (receiver == null) {
+        CurrentReceiver current = currentReceiver.get();
+        if (current == null) {
             return Collections.emptySet();
         }
+        Coordinate receiver = current.receiver();
 
         final LineString temp = originalLink.toGeometry(geomFactory);
 
         Set<ReflectionTuple> reflections = new HashSet<>();
-        for (LineSegment facade : visibleEdges) {
+        for (LineSegment facade : current.visibleEdges()) {
             if (hit(facade, originalLink)) {
                 final AffineTransformation transformation = AffineTransformation.reflectionInstance(facade.p0.x, facade.p0.y, facade.p1.x, facade.p1.y);
 
@@ -56,7 +56,7 @@ public class NoiseContextStub implements NoiseContext {
     }
 
     @Override
-    public Map<Double, Map<Id<Link>, NoiseLink>> getTimeInterval2linkId2noiseLinks() {
+    public NoiseTollTable getTollTable() {
         return null;
     }
 
@@ -32,6 +32,8 @@ import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.matsim.api.core.v01.Coord;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.Scenario;
@@ -41,6 +43,8 @@ import org.matsim.api.core.v01.events.Event;
 import org.matsim.api.core.v01.events.handler.ActivityEndEventHandler;
 import org.matsim.api.core.v01.events.handler.ActivityStartEventHandler;
 import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
 import org.matsim.api.core.v01.population.Activity;
 import org.matsim.api.core.v01.population.Person;
 import org.matsim.core.api.experimental.events.EventsManager;
@@ -58,6 +62,7 @@ import org.matsim.core.events.EventsUtils;
 import org.matsim.core.events.MatsimEventsReader;
 import org.matsim.core.events.ParallelEventsManager;
 import org.matsim.core.gbl.Gbl;
+import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.scenario.ScenarioByInstanceModule;
 import org.matsim.core.scenario.ScenarioUtils;
 import org.matsim.core.utils.io.IOUtils;
@@ -1471,4 +1476,58 @@ public class NoiseIT {
 		double emissionPlusOneHGV = mittelungspegelPlusOneHGV + dVPlusOneHGV;
 		Assertions.assertEquals(61.9518310976080, emissionPlusOneHGV, MatsimTestUtils.EPSILON, "Wrong emission!");
 	}
+
+	@ParameterizedTest
+	@EnumSource(NoiseConfigGroup.NoiseComputationMethod.class)
+	final void testBatchEmissionMatchesLinkEmission(NoiseConfigGroup.NoiseComputationMethod computationMethod) {
+		Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		Network network = scenario.getNetwork();
+		Node from = NetworkUtils.createAndAddNode(network, Id.createNodeId("from"), new Coord(0, 0));
+		Node to = NetworkUtils.createAndAddNode(network, Id.createNodeId("to"), new Coord(400, 0));
+
+		// the light vehicle type first, the heaviest last
+		NoiseEmission emission;
+		NoiseVehicleType[] types;
+		switch (computationMethod) {
+			case RLS90 -> {
+				emission = new RLS90NoiseEmission(scenario);
+				types = RLS90VehicleType.values();
+			}
+			case RLS19 -> {
+				emission = new RLS19NoiseEmission(scenario, new RoadSurfaceContext(network), new DEMContextImpl(scenario.getConfig()));
+				types = RLS19VehicleType.values();
+			}
+			default -> throw new IllegalStateException("Unknown noise computation method: " + computationMethod);
+		}
+
+		List<NoiseLink> batchLinks = new ArrayList<>();
+		List<NoiseLink> singleLinks = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Link link = NetworkUtils.createAndAddLink(network, Id.createLinkId(i), from, to, 400, (30 + 10 * i) / 3.6, 0, 0);
+			// only used by RLS-19
+			link.getAttributes().putAttribute(RLS19NoiseEmission.GRADIENT, -8. + 4 * i);
+			NoiseLink batchLink = new NoiseLink(link.getId());
+			NoiseLink singleLink = new NoiseLink(link.getId());
+			// the first link has no traffic
+			for (int n = 0; n < 100 * i; n++) {
+				NoiseVehicleType type = n % 10 == 0 ? types[types.length - 1] : n % 7 == 0 ? types[1] : types[0];
+				batchLink.addEnteringAgent(type);
+				singleLink.addEnteringAgent(type);
+			}
+			batchLinks.add(batchLink);
+			singleLinks.add(singleLink);
+		}
+
+		emission.calculateEmissions(batchLinks);
+		for (int i = 0; i < batchLinks.size(); i++) {
+			NoiseLink singleLink = singleLinks.get(i);
+			emission.calculateEmission(singleLink);
+			Assertions.assertEquals(singleLink.getEmission(), batchLinks.get(i).getEmission(), 0., "Wrong batch emission!");
+			for (NoiseVehicleType type : types) {
+				Assertions.assertEquals(singleLink.getEmissionPlusOneVehicle(type), batchLinks.get(i).getEmissionPlusOneVehicle(type), 0.,
+						"Wrong batch emission plus one " + type + "!");
+			}
+		}
+		Assertions.assertEquals(0., batchLinks.get(0).getEmission(), 0.);
+	}
 }
@@ -0,0 +1,65 @@
+package org.matsim.contrib.noise;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+
+import java.util.Map;
+
+public class NoiseTollTableTest {
+
+	@Test
+	void testTollsArePublishedAtTheEndOfTheIteration() {
+		Id<Link> linkId = Id.createLinkId("noiseTollTableTest_1");
+		NoiseConfigGroup noiseParams = new NoiseConfigGroup();
+		noiseParams.setNoiseAllocationApproach(NoiseConfigGroup.NoiseAllocationApproach.AverageCost);
+		NoiseTollTable table = new NoiseTollTable(noiseParams, Id.getNumberOfIds(Link.class), 24 * 3600.);
+
+		NoiseLink noiseLink = createNoiseLink(linkId, 10, 2., 5.);
+		table.setTolls(2 * 3600., Map.of(linkId, noiseLink));
+		Assertions.assertEquals(0., table.getToll(linkId, 3600. + 10., false), 0.);
+
+		table.publish();
+		Assertions.assertEquals(2., table.getToll(linkId, 3600. + 10., false), 0.);
+		Assertions.assertEquals(5., table.getToll(linkId, 3600. + 10., true), 0.);
+		Assertions.assertEquals(0., table.getToll(linkId, 10., false), 0.);
+		Assertions.assertEquals(0., table.getToll(linkId, 5 * 3600., false), 0.);
+
+		// a link without traffic in the next iteration has no toll
+		table.setTolls(2 * 3600., Map.of());
+		table.publish();
+		Assertions.assertEquals(0., table.getToll(linkId, 3600. + 10., false), 0.);
+	}
+
+	@Test
+	void testTollsAfterTheEndTime() {
+		Id<Link> linkId = Id.createLinkId("noiseTollTableTest_2");
+		NoiseConfigGroup noiseParams = new NoiseConfigGroup();
+		noiseParams.setNoiseAllocationApproach(NoiseConfigGroup.NoiseAllocationApproach.AverageCost);
+		NoiseTollTable table = new NoiseTollTable(noiseParams, Id.getNumberOfIds(Link.class), 2 * 3600.);
+
+		table.setTolls(3600., Map.of(linkId, createNoiseLink(linkId, 100, 2., 5.)));
+		table.setTolls(30 * 3600., Map.of(linkId, createNoiseLink(linkId, 100, 3., 6.)));
+		table.publish();
+		Assertions.assertEquals(2., table.getToll(linkId, 10., false), 0.);
+		Assertions.assertEquals(6., table.getToll(linkId, 29 * 3600. + 10., true), 0.);
+		Assertions.assertEquals(0., table.getToll(linkId, 10 * 3600., false), 0.);
+
+		// the next iteration starts with a table of the same size
+		table.setTolls(30 * 3600., Map.of(linkId, createNoiseLink(linkId, 100, 4., 7.)));
+		table.publish();
+		Assertions.assertEquals(0., table.getToll(linkId, 10., false), 0.);
+		Assertions.assertEquals(4., table.getToll(linkId, 29 * 3600. + 10., false), 0.);
+	}
+
+	private static NoiseLink createNoiseLink(Id<Link> linkId, int vehicles, double carToll, double hgvToll) {
+		NoiseLink noiseLink = new NoiseLink(linkId);
+		for (int i = 0; i < vehicles; i++) {
+			noiseLink.addEnteringAgent(RLS90VehicleType.car);
+		}
+		noiseLink.setAverageDamageCostPerVehicle(RLS90VehicleType.car, carToll);
+		noiseLink.setAverageDamageCostPerVehicle(RLS90VehicleType.hgv, hgvToll);
+		return noiseLink;
+	}
+}
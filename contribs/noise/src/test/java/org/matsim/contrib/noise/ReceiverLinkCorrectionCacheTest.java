@@ -0,0 +1,138 @@
+package org.matsim.contrib.noise;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.network.NetworkUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ReceiverLinkCorrectionCacheTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void testWriteAndRead() {
+		Network network = createNetwork();
+		NoiseConfigGroup noiseParams = new NoiseConfigGroup();
+
+		Map<Id<ReceiverPoint>, NoiseReceiverPoint> receiverPoints = createReceiverPoints();
+		int i = 0;
+		for (NoiseReceiverPoint rp : receiverPoints.values()) {
+			for (Id<Link> linkId : network.getLinks().keySet()) {
+				if (i++ % 3 != 0) {
+					rp.setLinkId2Correction(linkId, i * 0.5);
+				}
+			}
+			rp.setInitialized();
+		}
+
+		ReceiverLinkCorrectionCache cache = new ReceiverLinkCorrectionCache(tempDir, network, receiverPoints.values(), noiseParams);
+		cache.write(receiverPoints.values());
+		Assertions.assertTrue(Files.exists(cache.getFile()));
+
+		Map<Id<ReceiverPoint>, NoiseReceiverPoint> readReceiverPoints = createReceiverPoints();
+		ReceiverLinkCorrectionCache readCache = new ReceiverLinkCorrectionCache(tempDir, network, readReceiverPoints.values(), noiseParams);
+		Assertions.assertEquals(cache.getFile(), readCache.getFile());
+		Assertions.assertTrue(readCache.read(readReceiverPoints));
+
+		for (NoiseReceiverPoint expected : receiverPoints.values()) {
+			NoiseReceiverPoint actual = readReceiverPoints.get(expected.getId());
+			Assertions.assertTrue(actual.isInitialized());
+			Assertions.assertEquals(expected.getRelevantLinks().size(), actual.getRelevantLinks().size());
+			for (Id<Link> linkId : expected.getRelevantLinks()) {
+				Assertions.assertEquals(expected.getLinkCorrection(linkId), actual.getLinkCorrection(linkId), 0.);
+			}
+		}
+	}
+
+	@Test
+	void testIncompleteFileIsIgnored() throws IOException {
+		Network network = createNetwork();
+		NoiseConfigGroup noiseParams = new NoiseConfigGroup();
+		Map<Id<ReceiverPoint>, NoiseReceiverPoint> receiverPoints = createReceiverPoints();
+		for (NoiseReceiverPoint rp : receiverPoints.values()) {
+			for (Id<Link> linkId : network.getLinks().keySet()) {
+				rp.setLinkId2Correction(linkId, 1.);
+			}
+			rp.setInitialized();
+		}
+		ReceiverLinkCorrectionCache cache = new ReceiverLinkCorrectionCache(tempDir, network, receiverPoints.values(), noiseParams);
+		cache.write(receiverPoints.values());
+
+		// a run killed while writing the file
+		byte[] content = Files.readAllBytes(cache.getFile());
+		for (int length : new int[]{10, content.length / 2, content.length - 1}) {
+			Files.write(cache.getFile(), Arrays.copyOf(content, length));
+			Map<Id<ReceiverPoint>, NoiseReceiverPoint> readReceiverPoints = createReceiverPoints();
+			Assertions.assertFalse(cache.read(readReceiverPoints), "truncated to " + length + " bytes");
+			for (NoiseReceiverPoint rp : readReceiverPoints.values()) {
+				Assertions.assertFalse(rp.isInitialized());
+				Assertions.assertTrue(rp.getRelevantLinks().isEmpty());
+			}
+		}
+	}
+
+	@Test
+	void testKeyDependsOnBarrierFileContent() throws IOException {
+		Network network = createNetwork();
+		Map<Id<ReceiverPoint>, NoiseReceiverPoint> receiverPoints = createReceiverPoints();
+		Path barriers = tempDir.resolve("barriers.geojson");
+		Files.writeString(barriers, "{\"type\": \"FeatureCollection\", \"features\": []}");
+
+		NoiseConfigGroup noiseParams = new NoiseConfigGroup();
+		noiseParams.setConsiderNoiseBarriers(true);
+		noiseParams.setNoiseBarriersFilePath(barriers.toString());
+		String key = ReceiverLinkCorrectionCache.computeKey(network, receiverPoints.values(), noiseParams);
+		Assertions.assertEquals(key, ReceiverLinkCorrectionCache.computeKey(network, receiverPoints.values(), noiseParams));
+
+		Files.writeString(barriers, "{\"type\": \"FeatureCollection\", \"features\": [{}]}");
+		Assertions.assertNotEquals(key, ReceiverLinkCorrectionCache.computeKey(network, receiverPoints.values(), noiseParams));
+	}
+
+	@Test
+	void testKeyDependsOnParameters() {
+		Network network = createNetwork();
+		Map<Id<ReceiverPoint>, NoiseReceiverPoint> receiverPoints = createReceiverPoints();
+
+		NoiseConfigGroup noiseParams = new NoiseConfigGroup();
+		String key = ReceiverLinkCorrectionCache.computeKey(network, receiverPoints.values(), noiseParams);
+		Assertions.assertEquals(key, ReceiverLinkCorrectionCache.computeKey(network, createReceiverPoints().values(), noiseParams));
+
+		noiseParams.setRelevantRadius(noiseParams.getRelevantRadius() + 100.);
+		Assertions.assertNotEquals(key, ReceiverLinkCorrectionCache.computeKey(network, receiverPoints.values(), noiseParams));
+	}
+
+	private static Network createNetwork() {
+		Network network = NetworkUtils.createNetwork();
+		Node n0 = NetworkUtils.createAndAddNode(network, Id.createNodeId(0), new Coord(0, 0));
+		Node n1 = NetworkUtils.createAndAddNode(network, Id.createNodeId(1), new Coord(500, 0));
+		Node n2 = NetworkUtils.createAndAddNode(network, Id.createNodeId(2), new Coord(500, 500));
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("0_1"), n0, n1, 500, 13.9, 1000, 1);
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("1_2"), n1, n2, 500, 13.9, 1000, 1);
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("2_0"), n2, n0, 707, 13.9, 1000, 1);
+		return network;
+	}
+
+	private static Map<Id<ReceiverPoint>, NoiseReceiverPoint> createReceiverPoints() {
+		Map<Id<ReceiverPoint>, NoiseReceiverPoint> receiverPoints = new LinkedHashMap<>();
+		for (int x = 0; x < 5; x++) {
+			for (int y = 0; y < 5; y++) {
+				Id<ReceiverPoint> id = Id.create(x + "_" + y, ReceiverPoint.class);
+				receiverPoints.put(id, new NoiseReceiverPoint(id, new Coord(x * 100., y * 100.)));
+			}
+		}
+		return receiverPoints;
+	}
+}
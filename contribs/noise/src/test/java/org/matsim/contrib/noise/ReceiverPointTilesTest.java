@@ -0,0 +1,71 @@
+package org.matsim.contrib.noise;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ReceiverPointTilesTest {
+
+	@Test
+	void testEachReceiverPointIsProcessedOnce() {
+		List<NoiseReceiverPoint> receiverPoints = new ArrayList<>();
+		for (int x = -10; x < 10; x++) {
+			for (int y = -10; y < 10; y++) {
+				receiverPoints.add(new NoiseReceiverPoint(Id.create(x + "_" + y, ReceiverPoint.class), new Coord(x * 100., y * 100.)));
+			}
+		}
+
+		ReceiverPointTiles tiles = new ReceiverPointTiles(receiverPoints, 500, 4);
+		Assertions.assertEquals(16, tiles.getNumberOfTiles());
+
+		Map<NoiseReceiverPoint, Integer> visits = new ConcurrentHashMap<>();
+		tiles.forEachReceiverPoint(rp -> visits.merge(rp, 1, Integer::sum));
+
+		Assertions.assertEquals(receiverPoints.size(), visits.size());
+		visits.values().forEach(count -> Assertions.assertEquals(1, count));
+	}
+
+	@Test
+	void testThreadsAreReused() {
+		List<NoiseReceiverPoint> receiverPoints = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			receiverPoints.add(new NoiseReceiverPoint(Id.create(i, ReceiverPoint.class), new Coord(i * 10., 0)));
+		}
+
+		// e.g. one call per time bin
+		ReceiverPointTiles tiles = new ReceiverPointTiles(receiverPoints, 100, 2);
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		for (int i = 0; i < 50; i++) {
+			tiles.forEachTile(tile -> threads.add(Thread.currentThread()));
+		}
+		Assertions.assertTrue(threads.size() <= 2, threads.size() + " threads were used.");
+
+		tiles.shutdown();
+		Set<NoiseReceiverPoint> visited = ConcurrentHashMap.newKeySet();
+		tiles.forEachReceiverPoint(visited::add);
+		Assertions.assertEquals(receiverPoints.size(), visited.size());
+		tiles.shutdown();
+	}
+
+	@Test
+	void testTilesAreSpatiallyCompact() {
+		List<NoiseReceiverPoint> receiverPoints = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			receiverPoints.add(new NoiseReceiverPoint(Id.create(i, ReceiverPoint.class), new Coord(i * 10., 0)));
+		}
+
+		ReceiverPointTiles tiles = new ReceiverPointTiles(receiverPoints, 250, 2);
+		tiles.forEachTile(tile -> {
+			double minX = tile.stream().mapToDouble(rp -> rp.getCoord().getX()).min().orElseThrow();
+			double maxX = tile.stream().mapToDouble(rp -> rp.getCoord().getX()).max().orElseThrow();
+			Assertions.assertTrue(maxX - minX < 250);
+		});
+	}
+}
@@ -19,11 +19,12 @@
 
 package ch.sbb.matsim.contrib.railsim.qsimengine;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.PriorityQueue;
-import java.util.Queue;
-import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -69,7 +70,13 @@ final class RailsimEngine implements Steppable {
 	private static final Logger log = LogManager.getLogger(RailsimEngine.class);
 	private final EventsManager eventsManager;
 	private final RailsimConfigGroup config;
-	private final Queue<UpdateEvent> updateQueue = new PriorityQueue<>();
+	private final UpdateEventQueue updateQueue = new UpdateEventQueue();
+
+	/**
+	 * Rail links of network routes, without the start link. Transit routes share the same network route for all departures,
+	 * so these need to be looked up only once per route.
+	 */
+	private final Map<NetworkRoute, RailLink[]> routeCache = new IdentityHashMap<>();
 	private final RailResourceManager resources;
 	private final TrainManager trainManager;
 	private final TrainDisposition disposition;
@@ -100,6 +107,8 @@ final class RailsimEngine implements Steppable {
 			// Add the update event again
 			if (update.type != UpdateEvent.Type.IDLE) {
 				updateQueue.add(update);
+			} else {
+				updateQueue.release(update);
 			}
 
 			update = updateQueue.peek();
@@ -123,12 +132,20 @@ final class RailsimEngine implements Steppable {
 	}
 
 	private List<RailLink> createRoute(Id<Link> currentLinkId, NetworkRoute route) {
-		List<RailLink> list = route.getLinkIds().stream()
-			.map(resources::getLink)
-			.collect(Collectors.toList());
-
-		list.addFirst(resources.getLink(currentLinkId));
-		list.add(resources.getLink(route.getEndLinkId()));
+		RailLink[] links = routeCache.computeIfAbsent(route, r -> {
+			List<Id<Link>> linkIds = r.getLinkIds();
+			RailLink[] result = new RailLink[linkIds.size() + 1];
+			for (int i = 0; i < linkIds.size(); i++) {
+				result[i] = resources.getLink(linkIds.get(i));
+			}
+			result[linkIds.size()] = resources.getLink(r.getEndLinkId());
+			return result;
+		});
+
+		// the list is modified by detours, so each train gets its own copy
+		List<RailLink> list = new ArrayList<>(links.length + 1);
+		list.add(resources.getLink(currentLinkId));
+		Collections.addAll(list, links);
 		return list;
 	}
 
@@ -153,7 +170,7 @@ final class RailsimEngine implements Steppable {
 
 		disposition.onDeparture(now, state.driver, state.route);
 
-		updateQueue.add(new UpdateEvent(state, UpdateEvent.Type.DEPARTURE));
+		updateQueue.add(updateQueue.obtain(state, UpdateEvent.Type.DEPARTURE));
 
 		return true;
 	}
@@ -231,8 +248,11 @@ final class RailsimEngine implements Steppable {
 
 	private void updateAllPositions(double time) {
 		for (TrainState train : trainManager.getActiveTrains()) {
-			if (train.timestamp < time)
-				updateState(time, new UpdateEvent(train, UpdateEvent.Type.POSITION));
+			if (train.timestamp < time) {
+				UpdateEvent update = updateQueue.obtain(train, UpdateEvent.Type.POSITION);
+				updateState(time, update);
+				updateQueue.release(update);
+			}
 		}
 	}
 
@@ -711,7 +731,7 @@ final class RailsimEngine implements Steppable {
 		if (tailLink.minimumHeadwayTime == 0)
 			unblockTrack(time, state, tailLink);
 		else
-			updateQueue.add(new UpdateEvent(state, tailLink, time));
+			updateQueue.add(updateQueue.obtainUnblock(state, tailLink, time));
 	}
 
 	/**
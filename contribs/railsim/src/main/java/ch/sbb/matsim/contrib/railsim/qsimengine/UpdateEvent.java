@@ -28,7 +28,7 @@ import java.util.Objects;
  */
 final class UpdateEvent implements Comparable<UpdateEvent> {
 
-	final TrainState state;
+	TrainState state;
 	double plannedTime;
 	Type type;
 
@@ -50,24 +50,36 @@ final class UpdateEvent implements Comparable<UpdateEvent> {
 	/**
 	 * Stores a link that is to be released.
 	 */
-	final RailLink unblockLink;
+	RailLink unblockLink;
 
 	UpdateEvent(TrainState state, Type type) {
-		this.state = state;
-		this.plannedTime = state.timestamp;
-		this.type = type;
-		this.waitingForLink = false;
-		this.unblockLink = null;
+		init(state, type);
 	}
 
 	/**
 	 * Update event to unblock a link after minimum headway time.
 	 */
 	UpdateEvent(TrainState state, RailLink unblockLink, double time) {
+		initUnblock(state, unblockLink, time);
+	}
+
+	/**
+	 * Reset all fields, so that this event can be reused, see {@link UpdateEventQueue}.
+	 */
+	void init(TrainState state, Type type) {
 		this.state = state;
+		this.plannedTime = state != null ? state.timestamp : 0;
+		this.type = type;
+		this.checkReservation = -1;
+		this.lastArrivalTime = -1;
+		this.waitingForLink = false;
+		this.unblockLink = null;
+	}
+
+	void initUnblock(TrainState state, RailLink unblockLink, double time) {
+		init(state, Type.UNBLOCK_LINK);
 		this.unblockLink = unblockLink;
 		this.plannedTime = time + unblockLink.minimumHeadwayTime;
-		this.type = Type.UNBLOCK_LINK;
 	}
 
 	@Override
@@ -0,0 +1,156 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package ch.sbb.matsim.contrib.railsim.qsimengine;
+
+import ch.sbb.matsim.contrib.railsim.qsimengine.resources.RailLink;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Priority queue of {@link UpdateEvent}s, ordered by {@link UpdateEvent#compareTo(UpdateEvent)}.
+ * <p>
+ * The heap works exactly like the one of {@link java.util.PriorityQueue}, so events are processed in the same order. The planned times
+ * are kept in a primitive array next to the events, so that most comparisons do not need to access the events themselves. The planned
+ * time of an event must not be changed while it is in the queue.
+ * <p>
+ * Events that are not needed anymore can be given back with {@link #release(UpdateEvent)} and are reused by {@link #obtain(TrainState, UpdateEvent.Type)}
+ * and {@link #obtainUnblock(TrainState, RailLink, double)}, so that no events need to be allocated once the pool is filled.
+ */
+final class UpdateEventQueue {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private UpdateEvent[] events = new UpdateEvent[INITIAL_CAPACITY];
+	private double[] times = new double[INITIAL_CAPACITY];
+	private int size = 0;
+
+	private final ArrayDeque<UpdateEvent> pool = new ArrayDeque<>();
+
+	/**
+	 * Get an update event of given type for a train, with the current timestamp of the train as planned time.
+	 */
+	UpdateEvent obtain(TrainState state, UpdateEvent.Type type) {
+		UpdateEvent event = pool.poll();
+		if (event == null)
+			return new UpdateEvent(state, type);
+
+		event.init(state, type);
+		return event;
+	}
+
+	/**
+	 * Get an update event to unblock a link after minimum headway time.
+	 */
+	UpdateEvent obtainUnblock(TrainState state, RailLink unblockLink, double time) {
+		UpdateEvent event = pool.poll();
+		if (event == null)
+			return new UpdateEvent(state, unblockLink, time);
+
+		event.initUnblock(state, unblockLink, time);
+		return event;
+	}
+
+	/**
+	 * Give back an event that is not in the queue and not used anymore.
+	 */
+	void release(UpdateEvent event) {
+		event.init(null, UpdateEvent.Type.IDLE);
+		pool.add(event);
+	}
+
+	void add(UpdateEvent event) {
+		int k = size;
+		if (k >= events.length) {
+			events = Arrays.copyOf(events, k * 2);
+			times = Arrays.copyOf(times, k * 2);
+		}
+		size = k + 1;
+		siftUp(k, event, event.plannedTime);
+	}
+
+	UpdateEvent peek() {
+		return size == 0 ? null : events[0];
+	}
+
+	UpdateEvent poll() {
+		if (size == 0)
+			return null;
+
+		UpdateEvent result = events[0];
+		int n = --size;
+		UpdateEvent last = events[n];
+		double lastTime = times[n];
+		events[n] = null;
+		if (n > 0)
+			siftDown(0, last, lastTime);
+
+		return result;
+	}
+
+	int size() {
+		return size;
+	}
+
+	private void siftUp(int k, UpdateEvent event, double time) {
+		while (k > 0) {
+			int parent = (k - 1) >>> 1;
+			if (compare(event, time, events[parent], times[parent]) >= 0)
+				break;
+
+			events[k] = events[parent];
+			times[k] = times[parent];
+			k = parent;
+		}
+		events[k] = event;
+		times[k] = time;
+	}
+
+	private void siftDown(int k, UpdateEvent event, double time) {
+		int half = size >>> 1;
+		while (k < half) {
+			int child = (k << 1) + 1;
+			int right = child + 1;
+			if (right < size && compare(events[child], times[child], events[right], times[right]) > 0)
+				child = right;
+
+			if (compare(event, time, events[child], times[child]) <= 0)
+				break;
+
+			events[k] = events[child];
+			times[k] = times[child];
+			k = child;
+		}
+		events[k] = event;
+		times[k] = time;
+	}
+
+	/**
+	 * Same order as {@link UpdateEvent#compareTo(UpdateEvent)}.
+	 */
+	private static int compare(UpdateEvent e1, double t1, UpdateEvent e2, double t2) {
+		int compare = Double.compare(t1, t2);
+
+		if (compare == 0)
+			return e1.state.driver.getId().compareTo(e2.state.driver.getId());
+
+		return compare;
+	}
+}
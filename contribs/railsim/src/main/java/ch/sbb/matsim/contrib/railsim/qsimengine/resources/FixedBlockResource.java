@@ -43,9 +43,9 @@ final class FixedBlockResource implements RailResourceInternal {
 	private final List<RailLink> links;
 
 	/**
-	 * Reservations per link and per track.
+	 * Reservations per link and per track, indexed by {@link RailLink#resourceIndex}.
 	 */
-	private final Map<RailLink, MobsimDriverAgent[]> tracks;
+	private final MobsimDriverAgent[][] tracks;
 
 	/**
 	 * Tracks drivers that have at least one reservation on any link os this resource.
@@ -63,10 +63,12 @@ final class FixedBlockResource implements RailResourceInternal {
 		this.links = links;
 		this.capacity = links.stream().mapToInt(l -> l.tracks).min().orElseThrow();
 		this.reservations = new HashMap<>(capacity);
-		this.tracks = new HashMap<>(links.size());
+		this.tracks = new MobsimDriverAgent[links.size()][];
 
-		for (RailLink link : links) {
-			tracks.put(link, new MobsimDriverAgent[link.tracks]);
+		for (int i = 0; i < links.size(); i++) {
+			RailLink link = links.get(i);
+			link.resourceIndex = i;
+			tracks[i] = new MobsimDriverAgent[link.tracks];
 		}
 	}
 
@@ -134,17 +136,16 @@ final class FixedBlockResource implements RailResourceInternal {
 		this.capacity = capacity;
 
 		// Create new arrays with new capacity if necessary
-		for (RailLink link : links) {
-			MobsimDriverAgent[] tracks = this.tracks.get(link);
-			if (tracks.length < capacity) {
-				this.tracks.put(link, Arrays.copyOf(tracks, capacity));
+		for (int i = 0; i < tracks.length; i++) {
+			if (tracks[i].length < capacity) {
+				tracks[i] = Arrays.copyOf(tracks[i], capacity);
 			}
 		}
 	}
 
 	@Override
 	public double getReservedDist(RailLink link, TrainPosition position) {
-		MobsimDriverAgent[] state = tracks.get(link);
+		MobsimDriverAgent[] state = tracks[link.resourceIndex];
 		for (MobsimDriverAgent reserved : state) {
 			if (reserved == position.getDriver()) {
 				return link.length;
@@ -170,13 +171,13 @@ final class FixedBlockResource implements RailResourceInternal {
 			throw new IllegalStateException("Too many reservations. Capacity needs to be checked before calling reserve.");
 		} else if (force && reservations.size() > capacity) {
 			// Increase the internal array size without increasing capacity
-			MobsimDriverAgent[] tracks = this.tracks.get(link);
-			if (tracks.length < reservations.size()) {
-				this.tracks.put(link, Arrays.copyOf(tracks, reservations.size()));
+			MobsimDriverAgent[] state = tracks[link.resourceIndex];
+			if (state.length < reservations.size()) {
+				tracks[link.resourceIndex] = Arrays.copyOf(state, reservations.size());
 			}
 		}
 
-		MobsimDriverAgent[] state = tracks.get(link);
+		MobsimDriverAgent[] state = tracks[link.resourceIndex];
 		for (int i = 0; i < state.length; i++) {
 			if (state[i] == null) {
 				state[i] = position.getDriver();
@@ -190,7 +191,7 @@ final class FixedBlockResource implements RailResourceInternal {
 	@Override
 	public boolean release(RailLink link, MobsimDriverAgent driver) {
 
-		MobsimDriverAgent[] state = tracks.get(link);
+		MobsimDriverAgent[] state = tracks[link.resourceIndex];
 		int track = -1;
 		for (int i = 0; i < state.length; i++) {
 			if (state[i] == driver) {
@@ -205,7 +206,7 @@ final class FixedBlockResource implements RailResourceInternal {
 //			log.warn("Driver {} released {} multiple times.", driver, link.getLinkId());
 
 		boolean allFree = true;
-		for (MobsimDriverAgent[] others : tracks.values()) {
+		for (MobsimDriverAgent[] others : tracks) {
 			for (MobsimDriverAgent other : others) {
 				if (other == driver) {
 					allFree = false;
@@ -2,8 +2,6 @@ package ch.sbb.matsim.contrib.railsim.qsimengine.resources;
 
 import ch.sbb.matsim.contrib.railsim.qsimengine.RailsimCalc;
 import ch.sbb.matsim.contrib.railsim.qsimengine.TrainPosition;
-import it.unimi.dsi.fastutil.ints.Int2DoubleArrayMap;
-import it.unimi.dsi.fastutil.ints.Int2DoubleMap;
 import org.matsim.api.core.v01.Id;
 import org.matsim.core.mobsim.framework.MobsimDriverAgent;
 
@@ -21,9 +19,9 @@ final class MovingBlockResource implements RailResourceInternal {
 	private int capacity;
 
 	/**
-	 * Links that are reserved by trains.
+	 * Trains that reserved a link, indexed by {@link RailLink#resourceIndex}.
 	 */
-	private final Map<RailLink, Set<MobsimDriverAgent>> moving = new HashMap<>();
+	private final List<Set<MobsimDriverAgent>> moving;
 
 	/**
 	 * Map driver on segment to their incoming link.
@@ -42,9 +40,11 @@ final class MovingBlockResource implements RailResourceInternal {
 		}
 
 		this.reservations = new HashMap<>();
+		this.moving = new ArrayList<>(links.size());
 
-		for (RailLink link : links) {
-			moving.put(link, new HashSet<>());
+		for (int i = 0; i < links.size(); i++) {
+			links.get(i).resourceIndex = i;
+			moving.add(new HashSet<>());
 		}
 	}
 
@@ -128,13 +128,13 @@ final class MovingBlockResource implements RailResourceInternal {
 		if (entry == null)
 			return NO_RESERVATION;
 
-		return entry.reservedDistance.getOrDefault(link.getLinkId().index(), NO_RESERVATION);
+		return entry.reservedDistance[link.resourceIndex];
 	}
 
 	@Override
 	public double reserve(double time, RailLink link, int track, TrainPosition position, boolean force) {
 
-		moving.get(link).add(position.getDriver());
+		boolean added = moving.get(link.resourceIndex).add(position.getDriver());
 
 		// store trains incoming link
 		if (!reservations.containsKey(position.getDriver())) {
@@ -155,9 +155,11 @@ final class MovingBlockResource implements RailResourceInternal {
 		}
 
 		TrainEntry self = reservations.get(position.getDriver());
+		if (added)
+			self.movingLinks++;
 
 		double dist = checkReserve(time, link, self.track, self, position);
-		self.reservedDistance.put(link.getLinkId().index(), dist);
+		self.reservedDistance[link.resourceIndex] = dist;
 
 		return dist;
 	}
@@ -219,7 +221,7 @@ final class MovingBlockResource implements RailResourceInternal {
 		}
 
 		// if no train is on it, whole link is available
-		if (moving.get(link).isEmpty())
+		if (moving.get(link.resourceIndex).isEmpty())
 			return link.length;
 
 		// assume link is fully occupied
@@ -231,18 +233,16 @@ final class MovingBlockResource implements RailResourceInternal {
 	@Override
 	public boolean release(RailLink link, MobsimDriverAgent driver) {
 
-		moving.get(link).remove(driver);
-
-		boolean allFree = true;
-		for (Set<MobsimDriverAgent> others : moving.values()) {
-			if (others.contains(driver)) {
-				allFree = false;
-				break;
-			}
-		}
+		boolean removed = moving.get(link.resourceIndex).remove(driver);
 
 		assert reservations.containsKey(driver) : "Driver does not has a reservation.";
 
+		TrainEntry reservation = reservations.get(driver);
+		if (removed)
+			reservation.movingLinks--;
+
+		boolean allFree = reservation.movingLinks == 0;
+
 		// Remove this train from the incoming map
 		if (allFree) {
 
@@ -278,14 +278,20 @@ final class MovingBlockResource implements RailResourceInternal {
 		final TrainPosition position;
 
 		/**
-		 * Stores the reserved distance per link. (index of link id)
+		 * Stores the reserved distance per link, indexed by {@link RailLink#resourceIndex}.
+		 */
+		final double[] reservedDistance;
+
+		/**
+		 * Number of links of this resource the train has reserved.
 		 */
-		final Int2DoubleMap reservedDistance;
+		int movingLinks;
 
 		public TrainEntry(int track, TrainPosition position, int links) {
 			this.track = track;
 			this.position = position;
-			this.reservedDistance = new Int2DoubleArrayMap(links);
+			this.reservedDistance = new double[links];
+			Arrays.fill(this.reservedDistance, NO_RESERVATION);
 		}
 	}
 
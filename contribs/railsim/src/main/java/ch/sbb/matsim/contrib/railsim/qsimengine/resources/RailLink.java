@@ -66,6 +66,11 @@ public final class RailLink implements HasLinkId {
 	 */
 	RailResourceInternal resource;
 
+	/**
+	 * Index of this link in the links of its resource, used by the resources to store their state per link in arrays.
+	 */
+	int resourceIndex;
+
 	public RailLink(Link link, Link opposite) {
 		this(link, opposite, Object2DoubleMap.ofEntries(), null);
 	}
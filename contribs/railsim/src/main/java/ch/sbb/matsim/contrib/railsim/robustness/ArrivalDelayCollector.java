@@ -0,0 +1,88 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package ch.sbb.matsim.contrib.railsim.robustness;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.events.TransitDriverStartsEvent;
+import org.matsim.api.core.v01.events.handler.TransitDriverStartsEventHandler;
+import org.matsim.core.api.experimental.events.VehicleArrivesAtFacilityEvent;
+import org.matsim.core.api.experimental.events.handler.VehicleArrivesAtFacilityEventHandler;
+import org.matsim.pt.transitSchedule.api.Departure;
+import org.matsim.pt.transitSchedule.api.TransitLine;
+import org.matsim.pt.transitSchedule.api.TransitRoute;
+import org.matsim.pt.transitSchedule.api.TransitStopFacility;
+import org.matsim.vehicles.Vehicle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the arrivals of all trains of one sample. The delay of each arrival is relative to the (delayed) departure of the sample.
+ */
+final class ArrivalDelayCollector implements TransitDriverStartsEventHandler, VehicleArrivesAtFacilityEventHandler {
+
+	private final Map<Id<Vehicle>, Trip> trips = new HashMap<>();
+	private final List<Arrival> arrivals = new ArrayList<>();
+
+	@Override
+	public void handleEvent(TransitDriverStartsEvent event) {
+		DepartureKey departure = new DepartureKey(event.getTransitLineId(), event.getTransitRouteId(), event.getDepartureId());
+		trips.put(event.getVehicleId(), new Trip(departure));
+	}
+
+	@Override
+	public void handleEvent(VehicleArrivesAtFacilityEvent event) {
+		Trip trip = trips.get(event.getVehicleId());
+		if (trip == null)
+			return;
+
+		arrivals.add(new Arrival(new ArrivalKey(trip.departure, trip.stops++), event.getFacilityId(), event.getDelay()));
+	}
+
+	List<Arrival> getArrivals() {
+		return arrivals;
+	}
+
+	/**
+	 * Identifies a departure within the schedule.
+	 */
+	record DepartureKey(Id<TransitLine> line, Id<TransitRoute> route, Id<Departure> departure) {
+	}
+
+	/**
+	 * Identifies the n-th stop of a departure.
+	 */
+	record ArrivalKey(DepartureKey departure, int stop) {
+	}
+
+	record Arrival(ArrivalKey key, Id<TransitStopFacility> facility, double delay) {
+	}
+
+	private static final class Trip {
+		private final DepartureKey departure;
+		private int stops;
+
+		private Trip(DepartureKey departure) {
+			this.departure = departure;
+		}
+	}
+}
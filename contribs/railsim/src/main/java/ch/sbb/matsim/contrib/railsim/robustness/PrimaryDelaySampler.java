@@ -0,0 +1,52 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package ch.sbb.matsim.contrib.railsim.robustness;
+
+import org.matsim.pt.transitSchedule.api.Departure;
+import org.matsim.pt.transitSchedule.api.TransitLine;
+import org.matsim.pt.transitSchedule.api.TransitRoute;
+
+import java.util.Random;
+
+/**
+ * Draws the primary (initial) delay of a departure for one disturbance sample of the {@link RailsimRobustnessRunner}.
+ */
+@FunctionalInterface
+public interface PrimaryDelaySampler {
+
+	/**
+	 * Return the delay in seconds by which the departure is postponed in this sample, or 0 if it departs on time.
+	 *
+	 * @param rnd random number generator of the sample, which must be the only source of randomness
+	 */
+	double sample(TransitLine line, TransitRoute route, Departure departure, Random rnd);
+
+	/**
+	 * Delays each departure with given probability by an exponentially distributed delay.
+	 */
+	static PrimaryDelaySampler exponential(double probability, double meanDelay) {
+		return (line, route, departure, rnd) -> {
+			// always draw both numbers, so that the random sequence does not depend on the outcome
+			double p = rnd.nextDouble();
+			double delay = -meanDelay * Math.log(1 - rnd.nextDouble());
+			return p < probability ? delay : 0;
+		};
+	}
+}
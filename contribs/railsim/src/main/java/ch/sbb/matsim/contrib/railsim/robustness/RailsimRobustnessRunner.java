@@ -0,0 +1,239 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package ch.sbb.matsim.contrib.railsim.robustness;
+
+import ch.sbb.matsim.contrib.railsim.config.RailsimConfigGroup;
+import ch.sbb.matsim.contrib.railsim.qsimengine.RailsimQSimModule;
+import ch.sbb.matsim.contrib.railsim.robustness.ArrivalDelayCollector.Arrival;
+import ch.sbb.matsim.contrib.railsim.robustness.ArrivalDelayCollector.ArrivalKey;
+import ch.sbb.matsim.contrib.railsim.robustness.ArrivalDelayCollector.DepartureKey;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.mobsim.qsim.QSimBuilder;
+import org.matsim.core.scenario.MutableScenario;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.pt.transitSchedule.api.Departure;
+import org.matsim.pt.transitSchedule.api.TransitLine;
+import org.matsim.pt.transitSchedule.api.TransitRoute;
+import org.matsim.pt.transitSchedule.api.TransitSchedule;
+import org.matsim.pt.transitSchedule.api.TransitScheduleFactory;
+import org.matsim.pt.transitSchedule.api.TransitStopFacility;
+import org.matsim.utils.objectattributes.attributable.AttributesUtils;
+
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many independent disturbance samples of a railsim scenario, to analyze how primary delays propagate through the timetable.
+ * <p>
+ * The scenario is loaded only once. Each sample runs its own QSim on a separate thread. The network, stop facilities, network routes and
+ * vehicles are shared between all samples and only read. Only the departures are copied per sample, with their primary delay applied.
+ * All railsim state, e.g. of the {@link ch.sbb.matsim.contrib.railsim.qsimengine.resources.RailResourceManager}, is created by the QSim of each
+ * sample. Events are not written, but only aggregated in memory into {@link RobustnessStatistics}.
+ * <p>
+ * The samples only contain the trains of the transit schedule, the population of the scenario is not simulated.
+ */
+public final class RailsimRobustnessRunner {
+
+	private static final Logger log = LogManager.getLogger(RailsimRobustnessRunner.class);
+
+	private final Scenario scenario;
+
+	public RailsimRobustnessRunner(Scenario scenario) {
+		if (!scenario.getConfig().transit().isUseTransit()) {
+			throw new IllegalArgumentException("Transit needs to be enabled to simulate the transit schedule.");
+		}
+
+		// Added once here, the QSims of the samples only read the config
+		ConfigUtils.addOrGetModule(scenario.getConfig(), RailsimConfigGroup.class);
+		this.scenario = scenario;
+	}
+
+	/**
+	 * Run the samples and aggregate their delays.
+	 *
+	 * @param samples number of disturbance samples
+	 * @param threads number of samples that are simulated concurrently
+	 * @param seed    random seed, sample i uses {@code seed + i}
+	 * @param sampler primary delay of each departure in a sample
+	 */
+	public RobustnessStatistics run(int samples, int threads, long seed, PrimaryDelaySampler sampler) {
+
+		log.info("Running undisturbed reference simulation");
+		Map<ArrivalKey, Double> reference = new HashMap<>();
+		for (Arrival arrival : simulate((line, route, departure, rnd) -> 0, new Random(seed), new HashMap<>())) {
+			reference.put(arrival.key(), arrival.delay());
+		}
+
+		log.info("Running {} disturbance samples on {} threads", samples, threads);
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<SampleResult>> futures = new ArrayList<>(samples);
+			for (int i = 0; i < samples; i++) {
+				int index = i;
+				futures.add(executor.submit(() -> runSample(index, new Random(seed + index), sampler, reference)));
+			}
+
+			// Merged in sample order, so that the result does not depend on the number of threads
+			List<RobustnessStatistics.Sample> results = new ArrayList<>(samples);
+			Map<Id<TransitStopFacility>, DoubleSummaryStatistics> stopDelays = new LinkedHashMap<>();
+			for (Future<SampleResult> future : futures) {
+				SampleResult result = future.get();
+				results.add(result.sample);
+				result.stopDelays.forEach((stop, stats) -> stopDelays.computeIfAbsent(stop, k -> new DoubleSummaryStatistics()).combine(stats));
+			}
+
+			return new RobustnessStatistics(results, stopDelays);
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Disturbance sample failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private SampleResult runSample(int index, Random rnd, PrimaryDelaySampler sampler, Map<ArrivalKey, Double> reference) {
+
+		Map<DepartureKey, Double> primaryDelays = new HashMap<>();
+		List<Arrival> arrivals = simulate(sampler, rnd, primaryDelays);
+
+		Map<Id<TransitStopFacility>, DoubleSummaryStatistics> stopDelays = new LinkedHashMap<>();
+
+		double arrivalDelay = 0;
+		double maxArrivalDelay = 0;
+		double propagatedDelay = 0;
+		int affectedArrivals = 0;
+
+		for (Arrival arrival : arrivals) {
+			// Arrival delays are relative to the delayed departure, which also makes them comparable to the reference
+			double delay = arrival.delay() + primaryDelays.getOrDefault(arrival.key().departure(), 0.0);
+			double propagated = arrival.delay() - reference.getOrDefault(arrival.key(), 0.0);
+
+			arrivalDelay += delay;
+			maxArrivalDelay = Math.max(maxArrivalDelay, delay);
+			if (propagated > 0) {
+				propagatedDelay += propagated;
+				affectedArrivals++;
+			}
+
+			stopDelays.computeIfAbsent(arrival.facility(), k -> new DoubleSummaryStatistics()).accept(delay);
+		}
+
+		double primaryDelay = primaryDelays.values().stream().mapToDouble(Double::doubleValue).sum();
+
+		RobustnessStatistics.Sample sample = new RobustnessStatistics.Sample(index, primaryDelays.size(), primaryDelay,
+			arrivals.size(), arrivalDelay, maxArrivalDelay, affectedArrivals, propagatedDelay);
+
+		log.info("Finished sample {}: primary delay {}, propagated delay {}", index, primaryDelay, propagatedDelay);
+
+		return new SampleResult(sample, stopDelays);
+	}
+
+	/**
+	 * Simulate the schedule with primary delays drawn by the sampler.
+	 *
+	 * @param primaryDelays will be filled with the primary delays that are not zero
+	 */
+	private List<Arrival> simulate(PrimaryDelaySampler sampler, Random rnd, Map<DepartureKey, Double> primaryDelays) {
+
+		MutableScenario sample = ScenarioUtils.createMutableScenario(scenario.getConfig());
+		sample.setNetwork(scenario.getNetwork());
+		sample.setTransitVehicles(scenario.getTransitVehicles());
+		sample.setTransitSchedule(createDelayedSchedule(sampler, rnd, primaryDelays));
+
+		ArrivalDelayCollector collector = new ArrivalDelayCollector();
+		EventsManager events = EventsUtils.createEventsManager();
+		events.addHandler(collector);
+
+		new QSimBuilder(scenario.getConfig())
+			.useDefaults()
+			.addQSimModule(new RailsimQSimModule())
+			.configureQSimComponents(components -> new RailsimQSimModule().configure(components))
+			.build(sample, events)
+			.run();
+
+		return collector.getArrivals();
+	}
+
+	/**
+	 * Copy of the schedule with delayed departures. Everything below the departures, i.e. the stops and network routes, is shared.
+	 */
+	private TransitSchedule createDelayedSchedule(PrimaryDelaySampler sampler, Random rnd, Map<DepartureKey, Double> primaryDelays) {
+
+		TransitSchedule schedule = scenario.getTransitSchedule();
+		TransitScheduleFactory f = schedule.getFactory();
+
+		TransitSchedule copy = f.createTransitSchedule();
+		AttributesUtils.copyAttributesFromTo(schedule, copy);
+		schedule.getFacilities().values().forEach(copy::addStopFacility);
+
+		for (TransitLine line : schedule.getTransitLines().values()) {
+			TransitLine lineCopy = f.createTransitLine(line.getId());
+			lineCopy.setName(line.getName());
+			AttributesUtils.copyAttributesFromTo(line, lineCopy);
+
+			for (TransitRoute route : line.getRoutes().values()) {
+				TransitRoute routeCopy = f.createTransitRoute(route.getId(), route.getRoute(), route.getStops(), route.getTransportMode());
+				routeCopy.setDescription(route.getDescription());
+				AttributesUtils.copyAttributesFromTo(route, routeCopy);
+
+				for (Departure departure : route.getDepartures().values()) {
+					double delay = sampler.sample(line, route, departure, rnd);
+
+					Departure departureCopy = f.createDeparture(departure.getId(), departure.getDepartureTime() + delay);
+					departureCopy.setVehicleId(departure.getVehicleId());
+					departureCopy.setChainedDepartures(departure.getChainedDepartures());
+					AttributesUtils.copyAttributesFromTo(departure, departureCopy);
+					routeCopy.addDeparture(departureCopy);
+
+					if (delay != 0)
+						primaryDelays.put(new DepartureKey(line.getId(), route.getId(), departure.getId()), delay);
+				}
+
+				lineCopy.addRoute(routeCopy);
+			}
+
+			copy.addTransitLine(lineCopy);
+		}
+
+		return copy;
+	}
+
+	private record SampleResult(RobustnessStatistics.Sample sample, Map<Id<TransitStopFacility>, DoubleSummaryStatistics> stopDelays) {
+	}
+}
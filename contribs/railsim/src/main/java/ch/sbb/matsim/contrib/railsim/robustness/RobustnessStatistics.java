@@ -0,0 +1,90 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package ch.sbb.matsim.contrib.railsim.robustness;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.pt.transitSchedule.api.TransitStopFacility;
+
+import java.util.Collections;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delay propagation statistics of all disturbance samples of a {@link RailsimRobustnessRunner}.
+ * <p>
+ * Arrival delays are relative to the original timetable. The propagated delay of an arrival is the part of its delay that is neither
+ * caused by the primary delay of the train itself nor already present in the undisturbed run, i.e. the delay caused by other trains.
+ */
+public final class RobustnessStatistics {
+
+	private final List<Sample> samples;
+	private final Map<Id<TransitStopFacility>, DoubleSummaryStatistics> stopDelays;
+
+	RobustnessStatistics(List<Sample> samples, Map<Id<TransitStopFacility>, DoubleSummaryStatistics> stopDelays) {
+		this.samples = Collections.unmodifiableList(samples);
+		this.stopDelays = Collections.unmodifiableMap(stopDelays);
+	}
+
+	/**
+	 * Results of the individual samples, ordered by sample index.
+	 */
+	public List<Sample> getSamples() {
+		return samples;
+	}
+
+	/**
+	 * Arrival delays per stop facility over all samples.
+	 */
+	public Map<Id<TransitStopFacility>, DoubleSummaryStatistics> getStopDelays() {
+		return stopDelays;
+	}
+
+	/**
+	 * Average propagated delay per sample.
+	 */
+	public double getMeanPropagatedDelay() {
+		return samples.stream().mapToDouble(Sample::propagatedDelay).average().orElse(0);
+	}
+
+	/**
+	 * Ratio of propagated delay to primary delay over all samples.
+	 */
+	public double getPropagationFactor() {
+		double primary = samples.stream().mapToDouble(Sample::primaryDelay).sum();
+		return primary > 0 ? samples.stream().mapToDouble(Sample::propagatedDelay).sum() / primary : 0;
+	}
+
+	/**
+	 * Results of one disturbance sample.
+	 *
+	 * @param index              index of the sample
+	 * @param delayedDepartures  number of departures with a primary delay
+	 * @param primaryDelay       sum of all primary delays
+	 * @param arrivals           number of arrivals at stops
+	 * @param arrivalDelay       sum of all arrival delays
+	 * @param maxArrivalDelay    largest arrival delay
+	 * @param affectedArrivals   number of arrivals with propagated delay
+	 * @param propagatedDelay    sum of propagated delays
+	 */
+	public record Sample(int index, int delayedDepartures, double primaryDelay, int arrivals, double arrivalDelay, double maxArrivalDelay,
+	                     int affectedArrivals, double propagatedDelay) {
+	}
+}
@@ -0,0 +1,76 @@
+package ch.sbb.matsim.contrib.railsim.qsimengine;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.core.mobsim.framework.MobsimDriverAgent;
+import org.matsim.vehicles.VehicleType;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UpdateEventQueueTest {
+
+	@Test
+	void sameOrderAsPriorityQueue() {
+
+		List<TrainState> trains = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			MobsimDriverAgent driver = Mockito.mock(MobsimDriverAgent.class);
+			Mockito.when(driver.getId()).thenReturn(Id.createPersonId("train" + i));
+			trains.add(new TrainState(driver, new TrainInfo(Id.create("type", VehicleType.class), 100, 10, 1, 1, 1, 60),
+				0, null, new ArrayList<>()));
+		}
+
+		UpdateEventQueue queue = new UpdateEventQueue();
+		PriorityQueue<UpdateEvent> expected = new PriorityQueue<>();
+
+		Random rnd = new Random(1);
+		for (int i = 0; i < 1000; i++) {
+
+			// many events with the same time to check the tie-breaking
+			if (rnd.nextInt(3) > 0 || queue.size() == 0) {
+				UpdateEvent event = queue.obtain(trains.get(rnd.nextInt(trains.size())), UpdateEvent.Type.POSITION);
+				event.plannedTime = rnd.nextInt(20);
+				queue.add(event);
+				expected.add(event);
+			} else {
+				UpdateEvent event = queue.poll();
+				assertThat(event).isSameAs(expected.poll());
+				queue.release(event);
+			}
+		}
+
+		while (queue.size() > 0) {
+			assertThat(queue.poll()).isSameAs(expected.poll());
+		}
+
+		assertThat(expected).isEmpty();
+		assertThat(queue.peek()).isNull();
+	}
+
+	@Test
+	void releasedEventsAreReused() {
+		MobsimDriverAgent driver = Mockito.mock(MobsimDriverAgent.class);
+		TrainState state = new TrainState(driver, new TrainInfo(Id.create("type", VehicleType.class), 100, 10, 1, 1, 1, 60),
+			10, null, new ArrayList<>());
+
+		UpdateEventQueue queue = new UpdateEventQueue();
+		UpdateEvent event = queue.obtain(state, UpdateEvent.Type.DEPARTURE);
+		event.checkReservation = 20;
+		event.waitingForLink = true;
+		queue.release(event);
+
+		UpdateEvent reused = queue.obtain(state, UpdateEvent.Type.POSITION);
+		assertThat(reused).isSameAs(event);
+		assertThat(reused.type).isEqualTo(UpdateEvent.Type.POSITION);
+		assertThat(reused.plannedTime).isEqualTo(10);
+		assertThat(reused.isAwaitingReservation()).isFalse();
+		assertThat(reused.waitingForLink).isFalse();
+		assertThat(reused.unblockLink).isNull();
+	}
+}
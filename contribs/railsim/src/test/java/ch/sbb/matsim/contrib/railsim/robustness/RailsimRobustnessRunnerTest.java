@@ -0,0 +1,50 @@
+package ch.sbb.matsim.contrib.railsim.robustness;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.scenario.ScenarioUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RailsimRobustnessRunnerTest {
+
+	private static final String CONFIG = "test/input/ch/sbb/matsim/contrib/railsim/integration/microTrackOppositeTrafficMany/config.xml";
+
+	@Test
+	void withoutDelaysNothingPropagates() {
+		RailsimRobustnessRunner runner = new RailsimRobustnessRunner(loadScenario());
+
+		RobustnessStatistics stats = runner.run(2, 2, 1, (line, route, departure, rnd) -> 0);
+
+		assertThat(stats.getSamples()).hasSize(2);
+		assertThat(stats.getSamples()).allSatisfy(sample -> {
+			assertThat(sample.delayedDepartures()).isZero();
+			assertThat(sample.arrivals()).isPositive();
+			assertThat(sample.propagatedDelay()).isZero();
+		});
+		assertThat(stats.getStopDelays()).isNotEmpty();
+	}
+
+	@Test
+	void resultsDoNotDependOnThreads() {
+		Scenario scenario = loadScenario();
+		PrimaryDelaySampler sampler = PrimaryDelaySampler.exponential(0.5, 300);
+
+		RobustnessStatistics single = new RailsimRobustnessRunner(scenario).run(4, 1, 42, sampler);
+		RobustnessStatistics parallel = new RailsimRobustnessRunner(scenario).run(4, 4, 42, sampler);
+
+		assertThat(parallel.getSamples()).isEqualTo(single.getSamples());
+		assertThat(single.getSamples()).anySatisfy(sample -> assertThat(sample.primaryDelay()).isPositive());
+
+		// the shared scenario must not be changed by the samples
+		RobustnessStatistics again = new RailsimRobustnessRunner(scenario).run(4, 2, 42, sampler);
+		assertThat(again.getSamples()).isEqualTo(single.getSamples());
+	}
+
+	private static Scenario loadScenario() {
+		Config config = ConfigUtils.loadConfig(CONFIG);
+		return ScenarioUtils.loadScenario(config);
+	}
+}
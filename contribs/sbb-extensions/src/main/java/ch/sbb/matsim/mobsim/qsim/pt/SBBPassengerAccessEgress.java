@@ -240,7 +240,7 @@ public class SBBPassengerAccessEgress implements PassengerAccessEgress {
 	 */
 	private List<PTPassengerAgent> findPassengersEntering(TransitRoute transitRoute, TransitLine transitLine, TransitVehicle vehicle,
 		final TransitStopFacility stop, List<TransitRouteStop> stopsToCome, int freeCapacity, double now) {
-		List<PTPassengerAgent> passengers = this.agentTracker.getAgentsAtStop().get(stop.getId());
+		List<PTPassengerAgent> passengers = this.agentTracker.getAgentsAtFacility(stop.getId(), transitLine.getId());
 		if (passengers != null) {
 			ArrayList<PTPassengerAgent> passengersEntering = new ArrayList<>();
 			for (PTPassengerAgent agent : passengers) {
@@ -259,7 +259,7 @@ public class SBBPassengerAccessEgress implements PassengerAccessEgress {
 
 	private List<PTPassengerAgent> findAllPassengersWaiting(TransitRoute transitRoute, TransitLine transitLine, TransitVehicle vehicle,
 		final TransitStopFacility stop, List<TransitRouteStop> stopsToCome, double now) {
-		List<PTPassengerAgent> passengers = this.agentTracker.getAgentsAtStop().get(stop.getId());
+		List<PTPassengerAgent> passengers = this.agentTracker.getAgentsAtFacility(stop.getId(), transitLine.getId());
 		if (passengers != null) {
 			ArrayList<PTPassengerAgent> passengersEntering = new ArrayList<>();
 			for (PTPassengerAgent agent : passengers) {
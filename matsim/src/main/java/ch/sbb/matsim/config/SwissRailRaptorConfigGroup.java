@@ -66,6 +66,9 @@ public class SwissRailRaptorConfigGroup extends ReflectiveConfigGroup {
     private static final String PARAM_TRANSFER_CALCULATION = "transferCalculation";
     private static final String PARAM_TRANFER_CALCULATION_DESC = "Defines whether all potential transfers are precomputed at the beginning of the simulation (Initial) or whether they are constructed on-demand when needed (Adaptive). The former incurs potentially long up-front caclulations, but quicker routing. The latter avoids any initial computation, but may require longer routing time. Additionally, you may use Online, which will not cache adaptively calculated transfers. This will lead to largely reduced memory use, but drastically increased routing times.";
 
+    private static final String PARAM_TRANSFER_CACHE_DIRECTORY = "transferCacheDirectory";
+    private static final String PARAM_TRANSFER_CACHE_DIRECTORY_DESC = "Optional directory where the transfers precomputed with transferCalculation=Initial are stored. The file is named after a hash of the schedule and the transfer settings, so later runs with the same schedule load the transfers instead of computing them again.";
+
     private boolean useRangeQuery = false;
     private boolean useIntermodality = false;
     private IntermodalAccessEgressModeSelection intermodalAccessEgressModeSelection = IntermodalAccessEgressModeSelection.CalcLeastCostModePerStop;
@@ -79,6 +82,7 @@ public class SwissRailRaptorConfigGroup extends ReflectiveConfigGroup {
     private double transferWalkMargin = 5;
 	private IntermodalLegOnlyHandling intermodalLegOnlyHandling = IntermodalLegOnlyHandling.forbid;
 	private RaptorTransferCalculation transferCalculation = RaptorTransferCalculation.Initial;
+	private String transferCacheDirectory = null;
 
     private ScoringParameters scoringParameters = ScoringParameters.Default;
 
@@ -148,6 +152,16 @@ public class SwissRailRaptorConfigGroup extends ReflectiveConfigGroup {
 		return transferCalculation;
 	}
 
+	@StringSetter(PARAM_TRANSFER_CACHE_DIRECTORY)
+	public void setTransferCacheDirectory(String transferCacheDirectory) {
+		this.transferCacheDirectory = transferCacheDirectory;
+	}
+
+	@StringGetter(PARAM_TRANSFER_CACHE_DIRECTORY)
+	public String getTransferCacheDirectory() {
+		return transferCacheDirectory;
+	}
+
 	@StringGetter(PARAM_USE_RANGE_QUERY)
     public boolean isUseRangeQuery() {
         return this.useRangeQuery;
@@ -728,6 +742,7 @@ public class SwissRailRaptorConfigGroup extends ReflectiveConfigGroup {
         comments.put(PARAM_USE_CAPACITY_CONSTRAINTS, PARAM_USE_CAPACITY_CONSTRAINTS_DESC);
         comments.put(PARAM_TRANSFER_WALK_MARGIN, PARAM_TRANSFER_WALK_MARGIN_DESC);
 		comments.put(PARAM_TRANSFER_CALCULATION, PARAM_TRANFER_CALCULATION_DESC);
+		comments.put(PARAM_TRANSFER_CACHE_DIRECTORY, PARAM_TRANSFER_CACHE_DIRECTORY_DESC);
         return comments;
     }
 
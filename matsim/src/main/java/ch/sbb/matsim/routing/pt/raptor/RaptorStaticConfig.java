@@ -96,6 +96,19 @@ public class RaptorStaticConfig {
     private RaptorOptimization optimization = RaptorOptimization.OneToOneRouting;
     private RaptorTransferCalculation transferCalculation = RaptorTransferCalculation.Initial;
 
+    /**
+     * Number of threads used to calculate the transfers with {@link RaptorTransferCalculation#Initial}.
+     */
+    private int numberOfThreads = 1;
+    /**
+     * Number of stop facilities for which the transfers are calculated in one task.
+     */
+    private int transferChunkSize = 256;
+    /**
+     * Directory to store and load the transfers calculated with {@link RaptorTransferCalculation#Initial}, or <code>null</code>.
+     */
+    private String transferCacheDirectory = null;
+
 	private SwissRailRaptorConfigGroup.IntermodalLegOnlyHandling intermodalLegOnlyHandling = SwissRailRaptorConfigGroup.IntermodalLegOnlyHandling.forbid;
 
     public double getBeelineWalkConnectionDistance() {
@@ -199,4 +212,28 @@ public class RaptorStaticConfig {
     public void setTransferCalculation(RaptorTransferCalculation transferCalculation) {
         this.transferCalculation = transferCalculation;
     }
+
+    public int getNumberOfThreads() {
+        return this.numberOfThreads;
+    }
+
+    public void setNumberOfThreads(int numberOfThreads) {
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    public int getTransferChunkSize() {
+        return this.transferChunkSize;
+    }
+
+    public void setTransferChunkSize(int transferChunkSize) {
+        this.transferChunkSize = transferChunkSize;
+    }
+
+    public String getTransferCacheDirectory() {
+        return this.transferCacheDirectory;
+    }
+
+    public void setTransferCacheDirectory(String transferCacheDirectory) {
+        this.transferCacheDirectory = transferCacheDirectory;
+    }
 }
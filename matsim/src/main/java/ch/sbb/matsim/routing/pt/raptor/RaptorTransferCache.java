@@ -0,0 +1,191 @@
+/* *********************************************************************** *
+ * project: org.matsim.* 												   *
+ *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2025 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package ch.sbb.matsim.routing.pt.raptor;
+
+import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorData.RRouteStop;
+import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorData.RTransfer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.pt.transitSchedule.api.Departure;
+import org.matsim.pt.transitSchedule.api.MinimalTransferTimes;
+import org.matsim.pt.transitSchedule.api.TransitSchedule;
+import org.matsim.pt.transitSchedule.api.TransitStopFacility;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Stores the transfers calculated by {@link SwissRailRaptorData} in a binary file, so that they do not need to be calculated again in later runs.
+ * <p>
+ * The file name contains a hash of everything the transfers depend on, i.e. the route stops with their facilities, coordinates and offsets,
+ * the first and last departure of each route, the minimal transfer times and the transfer settings. A changed schedule or configuration thus
+ * leads to a new file instead of wrong transfers.
+ */
+final class RaptorTransferCache {
+
+	private static final Logger log = LogManager.getLogger(RaptorTransferCache.class);
+
+	private static final int MAGIC = 0x52545243; // "RTRC"
+	private static final int VERSION = 1;
+
+	private RaptorTransferCache() {
+	}
+
+	static Path getFile(String directory, TransitSchedule schedule, RRouteStop[] routeStops, RaptorStaticConfig config) {
+		return Path.of(directory, "raptorTransfers_" + hash(schedule, routeStops, config) + ".bin");
+	}
+
+	/**
+	 * @return the transfers per route stop, or <code>null</code> if the file does not exist or cannot be read
+	 */
+	static RTransfer[][] read(Path file, int routeStopCount) {
+		if (!Files.exists(file)) {
+			return null;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != routeStopCount) {
+				log.warn("Ignoring transfer cache {}, it was written for a different schedule or version.", file);
+				return null;
+			}
+
+			RTransfer[][] transfers = new RTransfer[routeStopCount][];
+			for (int fromRouteStop = 0; fromRouteStop < routeStopCount; fromRouteStop++) {
+				int count = in.readInt();
+				if (count < 0) {
+					continue;
+				}
+				RTransfer[] stopTransfers = new RTransfer[count];
+				for (int i = 0; i < count; i++) {
+					stopTransfers[i] = new RTransfer(fromRouteStop, in.readInt(), in.readInt(), in.readInt());
+				}
+				transfers[fromRouteStop] = stopTransfers;
+			}
+			return transfers;
+		} catch (IOException e) {
+			log.warn("Could not read transfer cache {}, transfers will be calculated.", file, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the transfers to a temporary file first, which is then moved, so that concurrent runs never read an incomplete file.
+	 */
+	static void write(Path file, RTransfer[][] transfers) {
+		try {
+			Files.createDirectories(file.toAbsolutePath().getParent());
+			Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), "raptorTransfers", ".tmp");
+
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(transfers.length);
+				for (RTransfer[] stopTransfers : transfers) {
+					if (stopTransfers == null) {
+						out.writeInt(-1);
+						continue;
+					}
+					out.writeInt(stopTransfers.length);
+					for (RTransfer transfer : stopTransfers) {
+						out.writeInt(transfer.toRouteStop);
+						out.writeInt(transfer.transferTime);
+						out.writeInt(transfer.transferDistance);
+					}
+				}
+			}
+
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			// the cache is only an optimization, the run can continue without it
+			log.warn("Could not write transfer cache {}.", file, e);
+		}
+	}
+
+	static String hash(TransitSchedule schedule, RRouteStop[] routeStops, RaptorStaticConfig config) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+
+		try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+			out.writeInt(VERSION);
+			out.writeDouble(config.getBeelineWalkConnectionDistance());
+			out.writeDouble(config.getBeelineWalkSpeed());
+			out.writeDouble(config.getBeelineWalkDistanceFactor());
+			out.writeDouble(config.getMinimalTransferTime());
+			out.writeUTF(config.getOptimization().name());
+
+			out.writeInt(routeStops.length);
+			int lastRoute = -1;
+			for (RRouteStop routeStop : routeStops) {
+				if (routeStop.transitRouteIndex != lastRoute) {
+					// the transfers depend on the time range in which a route is served
+					lastRoute = routeStop.transitRouteIndex;
+					out.writeInt(lastRoute);
+					out.writeInt(routeStop.route.getStops().size());
+					out.writeDouble(routeStop.route.getDepartures().values().stream().mapToDouble(Departure::getDepartureTime).min().orElse(Double.NaN));
+					out.writeDouble(routeStop.route.getDepartures().values().stream().mapToDouble(Departure::getDepartureTime).max().orElse(Double.NaN));
+				}
+				TransitStopFacility stop = routeStop.routeStop.getStopFacility();
+				out.writeUTF(stop.getId().toString());
+				out.writeDouble(stop.getCoord().getX());
+				out.writeDouble(stop.getCoord().getY());
+				out.writeInt(routeStop.arrivalOffset);
+				out.writeInt(routeStop.departureOffset);
+				out.writeBoolean(routeStop.routeStop.isAllowBoarding());
+				out.writeBoolean(routeStop.routeStop.isAllowAlighting());
+			}
+
+			// the iteration order of the minimal transfer times is not defined
+			List<String> minimalTransferTimes = new ArrayList<>();
+			MinimalTransferTimes.MinimalTransferTimesIterator iter = schedule.getMinimalTransferTimes().iterator();
+			while (iter.hasNext()) {
+				iter.next();
+				minimalTransferTimes.add(iter.getFromStopId() + "\t" + iter.getToStopId() + "\t" + iter.getSeconds());
+			}
+			minimalTransferTimes.sort(null);
+			out.writeInt(minimalTransferTimes.size());
+			for (String mtt : minimalTransferTimes) {
+				out.writeUTF(mtt);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return HexFormat.of().formatHex(digest.digest(), 0, 16);
+	}
+}
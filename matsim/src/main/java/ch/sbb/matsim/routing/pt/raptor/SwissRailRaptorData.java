@@ -20,7 +20,12 @@
 
 package ch.sbb.matsim.routing.pt.raptor;
 
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
 
 import it.unimi.dsi.fastutil.Pair;
@@ -258,18 +263,31 @@ public class SwissRailRaptorData {
         int countStopFacilities = stops.size();
 
         // if cached transfer calculation is active, don't generate any transfers here
-		final Map<Integer, RTransfer[]> allTransfers;
+		RTransfer[][] allTransfers = new RTransfer[routeStops.length][];
 
 		if (staticConfig.getTransferCalculation().equals(RaptorTransferCalculation.Initial)) {
-			allTransfers = calculateRouteStopTransfers(schedule, stopsQT, routeStopsPerStopFacility, routeStops,
-					staticConfig);
-		} else {
-			allTransfers = Collections.emptyMap();
+			Path cacheFile = null;
+			RTransfer[][] cachedTransfers = null;
+			if (staticConfig.getTransferCacheDirectory() != null) {
+				cacheFile = RaptorTransferCache.getFile(staticConfig.getTransferCacheDirectory(), schedule, routeStops, staticConfig);
+				cachedTransfers = RaptorTransferCache.read(cacheFile, routeStops.length);
+			}
+			if (cachedTransfers != null) {
+				log.info("SwissRailRaptor transfers loaded from {}", cacheFile);
+				allTransfers = cachedTransfers;
+			} else {
+				allTransfers = calculateRouteStopTransfers(schedule, stopsQT, routeStopsPerStopFacility, routeStops, staticConfig);
+				if (cacheFile != null) {
+					RaptorTransferCache.write(cacheFile, allTransfers);
+				}
+			}
 		}
 
         long countTransfers = 0;
-        for (RTransfer[] transfers : allTransfers.values()) {
-            countTransfers += transfers.length;
+        for (RTransfer[] transfers : allTransfers) {
+            if (transfers != null) {
+                countTransfers += transfers.length;
+            }
         }
         if (countTransfers > Integer.MAX_VALUE) {
             throw new RuntimeException("TransitSchedule has too many Transfers: " + countTransfers);
@@ -277,7 +295,7 @@ public class SwissRailRaptorData {
         RTransfer[] transfers = new RTransfer[(int) countTransfers];
         int indexTransfer = 0;
         for (int routeStopIndex = 0; routeStopIndex < routeStops.length; routeStopIndex++) {
-            RTransfer[] stopTransfers = allTransfers.get(routeStopIndex);
+            RTransfer[] stopTransfers = allTransfers[routeStopIndex];
             int transferCount = stopTransfers == null ? 0 : stopTransfers.length;
             if (transferCount > 0) {
                 RRouteStop routeStop = routeStops[routeStopIndex];
@@ -320,86 +338,145 @@ public class SwissRailRaptorData {
         return data;
     }
 
-    // calculate possible transfers between TransitRouteStops
-    private static Map<Integer, RTransfer[]> calculateRouteStopTransfers(TransitSchedule schedule, QuadTree<TransitStopFacility> stopsQT, Map<TransitStopFacility, int[]> routeStopsPerStopFacility, RRouteStop[] routeStops, RaptorStaticConfig config) {
-        Map<Integer, RTransfer[]> transfers = new HashMap<>(stopsQT.size() * 5);
-        double maxBeelineWalkConnectionDistance = config.getBeelineWalkConnectionDistance();
-        double beelineWalkSpeed = config.getBeelineWalkSpeed();
-        double beelineDistanceFactor = config.getBeelineWalkDistanceFactor();
-        double minimalTransferTime = config.getMinimalTransferTime();
-
-        Map<TransitStopFacility, List<TransitStopFacility>> stopToStopsTransfers = new HashMap<>();
-
-        // first, add transfers based on distance
-        for (TransitStopFacility fromStop : routeStopsPerStopFacility.keySet()) {
-            Coord fromCoord = fromStop.getCoord();
-            Collection<TransitStopFacility> nearbyStops = stopsQT.getDisk(fromCoord.getX(), fromCoord.getY(), maxBeelineWalkConnectionDistance);
-            stopToStopsTransfers.computeIfAbsent(fromStop, stop -> new ArrayList<>(5)).addAll(nearbyStops);
-        }
-
-        // take the transfers from the schedule into account
+    // calculate possible transfers between TransitRouteStops, indexed by the from route stop
+    private static RTransfer[][] calculateRouteStopTransfers(TransitSchedule schedule, QuadTree<TransitStopFacility> stopsQT, Map<TransitStopFacility, int[]> routeStopsPerStopFacility, RRouteStop[] routeStops, RaptorStaticConfig config) {
+        // the transfers from the schedule are added after the nearby stops, see calculateStopTransfers()
+        Map<TransitStopFacility, List<TransitStopFacility>> scheduleTransfers = new HashMap<>();
         MinimalTransferTimes.MinimalTransferTimesIterator iter = schedule.getMinimalTransferTimes().iterator();
         while (iter.hasNext()) {
             iter.next();
-            Id<TransitStopFacility> fromStopId = iter.getFromStopId();
-            TransitStopFacility fromStop = schedule.getFacilities().get(fromStopId);
-            Id<TransitStopFacility> toStopId = iter.getToStopId();
-            TransitStopFacility toStop = schedule.getFacilities().get(toStopId);
-            List<TransitStopFacility> destinationStops = stopToStopsTransfers.computeIfAbsent(fromStop, stop -> new ArrayList<>(5));
-            if (!destinationStops.contains(toStop)) {
-                destinationStops.add(toStop);
+            TransitStopFacility fromStop = schedule.getFacilities().get(iter.getFromStopId());
+            TransitStopFacility toStop = schedule.getFacilities().get(iter.getToStopId());
+            if (fromStop == null || toStop == null || !routeStopsPerStopFacility.containsKey(fromStop) || !routeStopsPerStopFacility.containsKey(toStop)) {
+                // stops without route stops cannot have transfers
+                continue;
+            }
+            scheduleTransfers.computeIfAbsent(fromStop, stop -> new ArrayList<>(2)).add(toStop);
+        }
+
+        // the earliest and latest departure of each route are needed for every pair of route stops
+        int routeCount = 0;
+        for (RRouteStop routeStop : routeStops) {
+            routeCount = Math.max(routeCount, routeStop.transitRouteIndex + 1);
+        }
+        double[] earliestDepartures = new double[routeCount];
+        double[] latestDepartures = new double[routeCount];
+        Arrays.fill(earliestDepartures, Double.NaN);
+        Arrays.fill(latestDepartures, Double.NaN);
+        for (RRouteStop routeStop : routeStops) {
+            int routeIndex = routeStop.transitRouteIndex;
+            if (Double.isNaN(earliestDepartures[routeIndex])) {
+                Departure earliestDep = getEarliestDeparture(routeStop.route);
+                Departure latestDep = getLatestDeparture(routeStop.route);
+                if (earliestDep != null) {
+                    earliestDepartures[routeIndex] = earliestDep.getDepartureTime();
+                    latestDepartures[routeIndex] = latestDep.getDepartureTime();
+                }
             }
         }
 
-        // now calculate the transfers between the route stops
-        MinimalTransferTimes mtt = schedule.getMinimalTransferTimes();
-        ArrayList<RTransfer> stopTransfers = new ArrayList<>();
-        for (Map.Entry<TransitStopFacility, List<TransitStopFacility>> e : stopToStopsTransfers.entrySet()) {
-            TransitStopFacility fromStop = e.getKey();
-            Coord fromCoord = fromStop.getCoord();
-            int[] fromRouteStopIndices = routeStopsPerStopFacility.get(fromStop);
-            Collection<TransitStopFacility> nearbyStops = e.getValue();
-            for (TransitStopFacility toStop : nearbyStops) {
-                int[] toRouteStopIndices = routeStopsPerStopFacility.get(toStop);
-                double beelineDistance = CoordUtils.calcEuclideanDistance(fromCoord, toStop.getCoord());
-                double transferTime = beelineDistance / beelineWalkSpeed;
-                if (transferTime < minimalTransferTime) {
-                    transferTime = minimalTransferTime;
+        // now calculate the transfers between the route stops. Every route stop belongs to exactly one stop facility,
+        // so the stop facilities can be processed in parallel without synchronization.
+        RTransfer[][] transfers = new RTransfer[routeStops.length][];
+        List<TransitStopFacility> fromStops = new ArrayList<>(routeStopsPerStopFacility.keySet());
+        int chunkSize = Math.max(1, config.getTransferChunkSize());
+        int threads = Math.max(1, Math.min(config.getNumberOfThreads(), (fromStops.size() + chunkSize - 1) / chunkSize));
+        if (threads == 1) {
+            for (TransitStopFacility fromStop : fromStops) {
+                calculateStopTransfers(fromStop, scheduleTransfers.get(fromStop), schedule.getMinimalTransferTimes(), stopsQT, routeStopsPerStopFacility,
+                    routeStops, earliestDepartures, latestDepartures, config, transfers);
+            }
+            return transfers;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int start = 0; start < fromStops.size(); start += chunkSize) {
+                List<TransitStopFacility> chunk = fromStops.subList(start, Math.min(start + chunkSize, fromStops.size()));
+                futures.add(executor.submit(() -> {
+                    for (TransitStopFacility fromStop : chunk) {
+                        calculateStopTransfers(fromStop, scheduleTransfers.get(fromStop), schedule.getMinimalTransferTimes(), stopsQT, routeStopsPerStopFacility,
+                            routeStops, earliestDepartures, latestDepartures, config, transfers);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        return transfers;
+    }
+
+    private static void calculateStopTransfers(TransitStopFacility fromStop, List<TransitStopFacility> scheduleTransfers, MinimalTransferTimes mtt,
+                                               QuadTree<TransitStopFacility> stopsQT, Map<TransitStopFacility, int[]> routeStopsPerStopFacility, RRouteStop[] routeStops,
+                                               double[] earliestDepartures, double[] latestDepartures, RaptorStaticConfig config, RTransfer[][] transfers) {
+        double maxBeelineWalkConnectionDistance = config.getBeelineWalkConnectionDistance();
+        double beelineWalkSpeed = config.getBeelineWalkSpeed();
+        double beelineDistanceFactor = config.getBeelineWalkDistanceFactor();
+        double minimalTransferTime = config.getMinimalTransferTime();
+
+        Coord fromCoord = fromStop.getCoord();
+        List<TransitStopFacility> nearbyStops = new ArrayList<>(stopsQT.getDisk(fromCoord.getX(), fromCoord.getY(), maxBeelineWalkConnectionDistance));
+        if (scheduleTransfers != null) {
+            for (TransitStopFacility toStop : scheduleTransfers) {
+                if (!nearbyStops.contains(toStop)) {
+                    nearbyStops.add(toStop);
                 }
+            }
+        }
 
-                transferTime = mtt.get(fromStop.getId(), toStop.getId(), transferTime);
+        int[] fromRouteStopIndices = routeStopsPerStopFacility.get(fromStop);
+        List<List<RTransfer>> stopTransfers = new ArrayList<>(fromRouteStopIndices.length);
+        for (int i = 0; i < fromRouteStopIndices.length; i++) {
+            stopTransfers.add(new ArrayList<>());
+        }
 
-                final double fixedTransferTime = transferTime; // variables must be effective final to be used in lambdas (below)
+        for (TransitStopFacility toStop : nearbyStops) {
+            int[] toRouteStopIndices = routeStopsPerStopFacility.get(toStop);
+            double beelineDistance = CoordUtils.calcEuclideanDistance(fromCoord, toStop.getCoord());
+            double transferTime = beelineDistance / beelineWalkSpeed;
+            if (transferTime < minimalTransferTime) {
+                transferTime = minimalTransferTime;
+            }
 
-                for (int fromRouteStopIndex : fromRouteStopIndices) {
-                    RRouteStop fromRouteStop = routeStops[fromRouteStopIndex];
-                    stopTransfers.clear();
-                    for (int toRouteStopIndex : toRouteStopIndices) {
-                        RRouteStop toRouteStop = routeStops[toRouteStopIndex];
-                        if (isUsefulTransfer(fromRouteStop, toRouteStop, maxBeelineWalkConnectionDistance, config.getOptimization())
-                            && isTransferAllowed(fromRouteStop, toRouteStop)
-                        ) {
-                            RTransfer newTransfer = new RTransfer(fromRouteStopIndex, toRouteStopIndex, fixedTransferTime, beelineDistance * beelineDistanceFactor);
-                            stopTransfers.add(newTransfer);
-                        }
+            transferTime = mtt.get(fromStop.getId(), toStop.getId(), transferTime);
+
+            for (int i = 0; i < fromRouteStopIndices.length; i++) {
+                int fromRouteStopIndex = fromRouteStopIndices[i];
+                RRouteStop fromRouteStop = routeStops[fromRouteStopIndex];
+                for (int toRouteStopIndex : toRouteStopIndices) {
+                    RRouteStop toRouteStop = routeStops[toRouteStopIndex];
+                    if (isUsefulTransfer(fromRouteStop, toRouteStop, maxBeelineWalkConnectionDistance, config.getOptimization(), earliestDepartures, latestDepartures)
+                        && isTransferAllowed(fromRouteStop, toRouteStop)
+                    ) {
+                        stopTransfers.get(i).add(new RTransfer(fromRouteStopIndex, toRouteStopIndex, transferTime, beelineDistance * beelineDistanceFactor));
                     }
-                    RTransfer[] newTransfers = stopTransfers.toArray(new RTransfer[0]);
-                    transfers.compute(fromRouteStopIndex, (routeStopIndex, currentTransfers) -> {
-                        if (currentTransfers == null) {
-                            return newTransfers;
-                        }
-                        RTransfer[] tmp = new RTransfer[currentTransfers.length + newTransfers.length];
-                        System.arraycopy(currentTransfers, 0, tmp, 0, currentTransfers.length);
-                        System.arraycopy(newTransfers, 0, tmp, currentTransfers.length, newTransfers.length);
-                        return tmp;
-                    });
                 }
             }
         }
-        return transfers;
+
+        for (int i = 0; i < fromRouteStopIndices.length; i++) {
+            transfers[fromRouteStopIndices[i]] = stopTransfers.get(i).toArray(new RTransfer[0]);
+        }
     }
 
     private static boolean isUsefulTransfer(RRouteStop fromRouteStop, RRouteStop toRouteStop, double maxBeelineWalkConnectionDistance, RaptorStaticConfig.RaptorOptimization optimization) {
+        return isUsefulTransfer(fromRouteStop, toRouteStop, maxBeelineWalkConnectionDistance, optimization, null, null);
+    }
+
+    /**
+     * @param earliestDepartures earliest departure time per route index, or <code>null</code> to look them up in the routes
+     */
+    private static boolean isUsefulTransfer(RRouteStop fromRouteStop, RRouteStop toRouteStop, double maxBeelineWalkConnectionDistance, RaptorStaticConfig.RaptorOptimization optimization,
+                                            double[] earliestDepartures, double[] latestDepartures) {
         if (fromRouteStop == toRouteStop) {
             return false;
         }
@@ -413,7 +490,7 @@ public class SwissRailRaptorData {
         }
         // if the first departure at fromRouteStop arrives after the last departure at toRouteStop,
         // we'll never get any connection here
-        if (hasNoPossibleDeparture(fromRouteStop, toRouteStop)) {
+        if (hasNoPossibleDeparture(fromRouteStop, toRouteStop, earliestDepartures, latestDepartures)) {
             return false;
         }
         // if the stop facilities are different, and the destination stop is part
@@ -454,14 +531,22 @@ public class SwissRailRaptorData {
         return routeStop.routeStop == lastRouteStop;
     }
 
-    private static boolean hasNoPossibleDeparture(RRouteStop fromRouteStop, RRouteStop toRouteStop) {
-        Departure earliestDep = getEarliestDeparture(fromRouteStop.route);
-        Departure latestDep = getLatestDeparture(toRouteStop.route);
-        if (earliestDep == null || latestDep == null) {
+    private static boolean hasNoPossibleDeparture(RRouteStop fromRouteStop, RRouteStop toRouteStop, double[] earliestDepartures, double[] latestDepartures) {
+        if (earliestDepartures == null) {
+            Departure earliest = getEarliestDeparture(fromRouteStop.route);
+            Departure latest = getLatestDeparture(toRouteStop.route);
+            if (earliest == null || latest == null) {
+                return true;
+            }
+            return earliest.getDepartureTime() + fromRouteStop.arrivalOffset > latest.getDepartureTime() + toRouteStop.departureOffset;
+        }
+        double earliestDep = earliestDepartures[fromRouteStop.transitRouteIndex];
+        double latestDep = latestDepartures[toRouteStop.transitRouteIndex];
+        if (Double.isNaN(earliestDep) || Double.isNaN(latestDep)) {
             return true;
         }
-        double earliestArrival = earliestDep.getDepartureTime() + fromRouteStop.arrivalOffset;
-        double latestDeparture = latestDep.getDepartureTime() + toRouteStop.departureOffset;
+        double earliestArrival = earliestDep + fromRouteStop.arrivalOffset;
+        double latestDeparture = latestDep + toRouteStop.departureOffset;
         return earliestArrival > latestDeparture;
     }
 
@@ -206,6 +206,11 @@ public final class TransitAgent implements DistributedMobsimAgent, MobsimDriverP
 		return transitAgentDelegate.getEnterTransitRoute(line, transitRoute, stopsToCome, transitVehicle);
 	}
 
+	@Override
+	public Id<TransitLine> getDesiredTransitLineId() {
+		return transitAgentDelegate.getDesiredTransitLineId();
+	}
+
 	@Override
 	public double getWeight() {
 		return transitAgentDelegate.getWeight();
@@ -101,6 +101,16 @@ public final class TransitAgentImpl implements PTPassengerAgent {
 		}
 	}
 
+	@Override
+	public final Id<TransitLine> getDesiredTransitLineId() {
+		// with checkStopOnly, the agent may board any line serving its destination
+		if (boardingAcceptance == BoardingAcceptance.checkLineAndStop
+			&& basicAgentDelegate.getCurrentLeg().getRoute() instanceof TransitPassengerRoute route) {
+			return route.getLineId();
+		}
+		return null;
+	}
+
 	@SuppressWarnings("static-method")
 	private final boolean containsDesiredStop(TransitPassengerRoute route, List<TransitRouteStop> stopsToCome) {
 		for (TransitRouteStop stop : stopsToCome) {
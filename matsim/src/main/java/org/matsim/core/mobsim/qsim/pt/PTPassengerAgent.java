@@ -48,6 +48,18 @@ public interface PTPassengerAgent extends PassengerAgent {
 	public boolean getEnterTransitRoute(final TransitLine line, final TransitRoute transitRoute,
 			final List<TransitRouteStop> stopsToCome, TransitVehicle transitVehicle);
 
+	/**
+	 * Tells the {@link TransitStopAgentTracker} which transit line a passenger waiting at a stop wants to board. The passenger is then only
+	 * asked by {@link #getEnterTransitRoute(TransitLine, TransitRoute, List, TransitVehicle)} when a vehicle of this line arrives. If the line
+	 * changes while the passenger is waiting at the stop, {@link TransitStopAgentTracker#updateDesiredLine(PTPassengerAgent, Id)} must be
+	 * called.
+	 *
+	 * @return the only line the passenger would board, or <code>null</code> if the passenger needs to be asked for every line (default)
+	 */
+	default public Id<TransitLine> getDesiredTransitLineId() {
+		return null;
+	}
+
 	/**
 	 * Informs a passenger in a transit vehicle that the vehicle has
 	 * arrived at the specified stop.
@@ -104,7 +104,7 @@ class PassengerAccessEgressImpl implements PassengerAccessEgress {
 
 		if (this.isGeneratingDeniedBoardingEvents) {
 
-			for (PTPassengerAgent agent : this.agentTracker.getAgentsAtFacility(stop.getId())) {
+			for (PTPassengerAgent agent : this.agentTracker.getAgentsAtFacility(stop.getId(), transitLine.getId())) {
 				if (agent.getEnterTransitRoute(transitLine, transitRoute, stopsToCome, vehicle)) {
 					if (freeCapacity >= 1) {
 						passengersEntering.add(agent);
@@ -117,7 +117,7 @@ class PassengerAccessEgressImpl implements PassengerAccessEgress {
 
 		} else {
 
-			for (PTPassengerAgent agent : this.agentTracker.getAgentsAtFacility(stop.getId())) {
+			for (PTPassengerAgent agent : this.agentTracker.getAgentsAtFacility(stop.getId(), transitLine.getId())) {
 				if (freeCapacity <= 0) {
 					break;
 				}
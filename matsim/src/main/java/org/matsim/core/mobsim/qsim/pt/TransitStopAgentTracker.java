@@ -29,17 +29,35 @@ import org.matsim.core.api.experimental.events.AgentWaitingForPtEvent;
 import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.mobsim.qsim.AgentTracker;
 import org.matsim.pt.transitSchedule.api.Departure;
+import org.matsim.pt.transitSchedule.api.TransitLine;
 import org.matsim.pt.transitSchedule.api.TransitSchedule;
 import org.matsim.pt.transitSchedule.api.TransitStopFacility;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
+ * Keeps track of the agents waiting at transit stops.
+ * <p>
+ * The agents waiting at a stop are additionally indexed by the line they want to board (see {@link PTPassengerAgent#getDesiredTransitLineId()}),
+ * so that only the agents that may board a line need to be checked when a vehicle of this line arrives, see
+ * {@link #getAgentsAtFacility(Id, Id)}. The agents are always returned in the order they arrived at the stop. The returned lists are
+ * immutable snapshots, which are reused until an agent is added to or removed from the stop.
+ * <p>
+ * The line of an agent is only read when it is added to the stop. If it changes while the agent is waiting (e.g. by within-day
+ * replanning), {@link #updateDesiredLine(PTPassengerAgent, Id)} has to be called, otherwise the agent is only offered vehicles of its
+ * previous line.
+ *
  * @author mrieser
  */
 public class TransitStopAgentTracker implements AgentTracker {
@@ -47,7 +65,8 @@ public class TransitStopAgentTracker implements AgentTracker {
 	private final static Logger log = LogManager.getLogger(TransitStopAgentTracker.class);
 
 	private final EventsManager events;
-	private final Map<Id<TransitStopFacility>, List<PTPassengerAgent>> agentsAtStops = new ConcurrentHashMap<>();
+	private final Map<Id<TransitStopFacility>, WaitingAgents> agentsAtStops = new ConcurrentHashMap<>();
+	private final Map<Id<TransitStopFacility>, List<PTPassengerAgent>> agentsAtStopsView = new AgentsAtStopsView();
 
 	/**
 	 * Map of departure ids to the number of chained departures that need to arrive.
@@ -68,11 +87,7 @@ public class TransitStopAgentTracker implements AgentTracker {
 		if (stopId == null) {
 			throw new NullPointerException("stop must not be null.");
 		}
-		List<PTPassengerAgent> agents = this.agentsAtStops.get(stopId);
-		if (agents == null) {
-			agents = new CopyOnWriteArrayList<>();// TODO check again. this might turn out to be slow, but we likely need something thread safe here. marcel/oct2014
-			this.agentsAtStops.put(stopId, agents);
-		}
+		WaitingAgents agents = this.agentsAtStops.computeIfAbsent(stopId, k -> new WaitingAgents());
 		if ( !agents.add(agent) ) {
 			log.error("did NOT add agent " + agent.getId() + " since it was already there.");
 		}
@@ -84,7 +99,7 @@ public class TransitStopAgentTracker implements AgentTracker {
 		if (stopId == null) {
 			throw new NullPointerException("stopId must not be null.");
 		}
-		List<PTPassengerAgent> agents = this.agentsAtStops.get(stopId);
+		WaitingAgents agents = this.agentsAtStops.get(stopId);
 		if (agents != null) {
 			if (!agents.remove(agent)) {
 				log.error("Agent " + agent.getId() + " could not be removed from waiting at stop " + stopId);
@@ -94,25 +109,244 @@ public class TransitStopAgentTracker implements AgentTracker {
 		}
 	}
 
+	/**
+	 * Updates the index of an agent waiting at the stop after its desired line (see {@link PTPassengerAgent#getDesiredTransitLineId()})
+	 * has changed. The agent keeps its position in the order of arrival.
+	 */
+	public void updateDesiredLine(final PTPassengerAgent agent, final Id<TransitStopFacility> stopId) {
+		WaitingAgents agents = this.agentsAtStops.get(stopId);
+		if (agents == null || !agents.updateLine(agent)) {
+			log.error("Agent " + agent.getId() + " could not be updated since it is not waiting at stop " + stopId);
+		}
+	}
+
 	/**
 	 * Tracks the arrival of a vehicle required for a chained departure and decreases the number of chained departures that need to arrive.
+	 * Synchronized, because the arriving vehicles may be handled by different {@link org.matsim.core.mobsim.qsim.qnetsimengine.QNetsimEngineI} threads.
 	 * @return number of chained departures that still need to arrive for this departure.
 	 */
 	public int trackVehicleArrival(Id<Departure> chainedDepartureId) {
-		return waitingDepartures.mergeInt(chainedDepartureId, -1, Integer::sum);
+		synchronized (waitingDepartures) {
+			return waitingDepartures.mergeInt(chainedDepartureId, -1, Integer::sum);
+		}
 	}
 
 
 	@Override
 	public List<PTPassengerAgent> getAgentsAtFacility(final Id<TransitStopFacility> stopId) {
-		List<PTPassengerAgent> agents = this.agentsAtStops.get(stopId);
+		WaitingAgents agents = this.agentsAtStops.get(stopId);
+		if (agents == null) {
+			return Collections.emptyList();
+		}
+		return agents.getAll();
+	}
+
+	/**
+	 * Returns the agents waiting at a stop which may board the given line, i.e. those waiting for this line and those waiting for any line.
+	 * All other agents waiting at the stop would not board a vehicle of this line anyway.
+	 */
+	public List<PTPassengerAgent> getAgentsAtFacility(final Id<TransitStopFacility> stopId, final Id<TransitLine> lineId) {
+		WaitingAgents agents = this.agentsAtStops.get(stopId);
 		if (agents == null) {
 			return Collections.emptyList();
 		}
-		return Collections.unmodifiableList(agents);
+		return agents.getBoarding(lineId);
 	}
 
+	/**
+	 * @return number of agents waiting at the stop
+	 */
+	public int getNumberOfAgentsAtFacility(final Id<TransitStopFacility> stopId) {
+		WaitingAgents agents = this.agentsAtStops.get(stopId);
+		return agents == null ? 0 : agents.size();
+	}
+
+	/**
+	 * Returns a view of the agents waiting at each stop. Clearing the map removes all waiting agents.
+	 */
 	public Map<Id<TransitStopFacility>, List<PTPassengerAgent>> getAgentsAtStop() {
-		return this.agentsAtStops;
+		return this.agentsAtStopsView;
+	}
+
+	/**
+	 * Agents waiting at one stop, in the order they arrived at the stop. The counter gives the order across the indices.
+	 */
+	private static final class WaitingAgents {
+
+		private final Map<PTPassengerAgent, Waiting> all = new LinkedHashMap<>();
+		private final Map<PTPassengerAgent, Long> anyLine = new LinkedHashMap<>();
+		private final Map<Id<TransitLine>, Map<PTPassengerAgent, Long>> byLine = new HashMap<>();
+		private long counter = 0;
+
+		// snapshots returned until the next change, since usually several vehicles arrive before the waiting agents change
+		private List<PTPassengerAgent> allSnapshot;
+		private final Map<Id<TransitLine>, List<PTPassengerAgent>> boardingSnapshots = new HashMap<>();
+
+		synchronized boolean add(PTPassengerAgent agent) {
+			if (all.containsKey(agent)) {
+				return false;
+			}
+			Waiting waiting = new Waiting(counter++, agent.getDesiredTransitLineId());
+			all.put(agent, waiting);
+			getIndex(waiting.lineId, true).put(agent, waiting.order);
+			invalidateSnapshots();
+			return true;
+		}
+
+		synchronized boolean remove(PTPassengerAgent agent) {
+			Waiting waiting = all.remove(agent);
+			if (waiting == null) {
+				return false;
+			}
+			removeFromIndex(agent, waiting.lineId);
+			invalidateSnapshots();
+			return true;
+		}
+
+		synchronized boolean updateLine(PTPassengerAgent agent) {
+			Waiting waiting = all.get(agent);
+			if (waiting == null) {
+				return false;
+			}
+			Id<TransitLine> lineId = agent.getDesiredTransitLineId();
+			if (Objects.equals(lineId, waiting.lineId)) {
+				return true;
+			}
+			removeFromIndex(agent, waiting.lineId);
+			all.put(agent, new Waiting(waiting.order, lineId));
+
+			// rebuilt, since the indices must stay in the order of arrival
+			Map<PTPassengerAgent, Long> index = getIndex(lineId, true);
+			index.clear();
+			for (Map.Entry<PTPassengerAgent, Waiting> e : all.entrySet()) {
+				if (Objects.equals(lineId, e.getValue().lineId)) {
+					index.put(e.getKey(), e.getValue().order);
+				}
+			}
+			invalidateSnapshots();
+			return true;
+		}
+
+		synchronized int size() {
+			return all.size();
+		}
+
+		synchronized List<PTPassengerAgent> getAll() {
+			if (allSnapshot == null) {
+				allSnapshot = Collections.unmodifiableList(new ArrayList<>(all.keySet()));
+			}
+			return allSnapshot;
+		}
+
+		synchronized List<PTPassengerAgent> getBoarding(Id<TransitLine> lineId) {
+			return boardingSnapshots.computeIfAbsent(lineId, this::createBoarding);
+		}
+
+		private List<PTPassengerAgent> createBoarding(Id<TransitLine> lineId) {
+			Map<PTPassengerAgent, Long> line = lineId == null ? null : byLine.get(lineId);
+			if (line == null) {
+				return Collections.unmodifiableList(new ArrayList<>(anyLine.keySet()));
+			}
+			if (anyLine.isEmpty()) {
+				return Collections.unmodifiableList(new ArrayList<>(line.keySet()));
+			}
+
+			// Merge both indices by arrival order
+			List<PTPassengerAgent> agents = new ArrayList<>(line.size() + anyLine.size());
+			Iterator<Map.Entry<PTPassengerAgent, Long>> it1 = line.entrySet().iterator();
+			Iterator<Map.Entry<PTPassengerAgent, Long>> it2 = anyLine.entrySet().iterator();
+			Map.Entry<PTPassengerAgent, Long> e1 = it1.next();
+			Map.Entry<PTPassengerAgent, Long> e2 = it2.next();
+			while (e1 != null || e2 != null) {
+				if (e2 == null || (e1 != null && e1.getValue() < e2.getValue())) {
+					agents.add(e1.getKey());
+					e1 = it1.hasNext() ? it1.next() : null;
+				} else {
+					agents.add(e2.getKey());
+					e2 = it2.hasNext() ? it2.next() : null;
+				}
+			}
+			return Collections.unmodifiableList(agents);
+		}
+
+		private void removeFromIndex(PTPassengerAgent agent, Id<TransitLine> lineId) {
+			Map<PTPassengerAgent, Long> index = getIndex(lineId, false);
+			index.remove(agent);
+			if (index.isEmpty() && lineId != null) {
+				byLine.remove(lineId);
+			}
+		}
+
+		private void invalidateSnapshots() {
+			allSnapshot = null;
+			boardingSnapshots.clear();
+		}
+
+		private Map<PTPassengerAgent, Long> getIndex(Id<TransitLine> lineId, boolean create) {
+			if (lineId == null) {
+				return anyLine;
+			}
+			return create ? byLine.computeIfAbsent(lineId, k -> new LinkedHashMap<>()) : byLine.get(lineId);
+		}
+
+		/**
+		 * The line is remembered, so that the agent is removed from the same index it was added to.
+		 */
+		private record Waiting(long order, Id<TransitLine> lineId) {
+		}
+	}
+
+	/**
+	 * Keeps {@link #getAgentsAtStop()} working as before, as a map of stop ids to the waiting agents.
+	 */
+	private final class AgentsAtStopsView extends AbstractMap<Id<TransitStopFacility>, List<PTPassengerAgent>> {
+
+		@Override
+		public List<PTPassengerAgent> get(Object key) {
+			WaitingAgents agents = agentsAtStops.get(key);
+			return agents == null ? null : agents.getAll();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return agentsAtStops.containsKey(key);
+		}
+
+		@Override
+		public void clear() {
+			agentsAtStops.clear();
+		}
+
+		@Override
+		public Set<Entry<Id<TransitStopFacility>, List<PTPassengerAgent>>> entrySet() {
+			return new AbstractSet<>() {
+				@Override
+				public Iterator<Entry<Id<TransitStopFacility>, List<PTPassengerAgent>>> iterator() {
+					Iterator<Entry<Id<TransitStopFacility>, WaitingAgents>> it = agentsAtStops.entrySet().iterator();
+					return new Iterator<>() {
+						@Override
+						public boolean hasNext() {
+							return it.hasNext();
+						}
+
+						@Override
+						public Entry<Id<TransitStopFacility>, List<PTPassengerAgent>> next() {
+							Entry<Id<TransitStopFacility>, WaitingAgents> e = it.next();
+							return new SimpleImmutableEntry<>(e.getKey(), e.getValue().getAll());
+						}
+
+						@Override
+						public void remove() {
+							it.remove();
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return agentsAtStops.size();
+				}
+			};
+		}
 	}
 }
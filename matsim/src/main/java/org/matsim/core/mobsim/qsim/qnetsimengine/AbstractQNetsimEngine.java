@@ -26,6 +26,7 @@ import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.Scenario;
 import org.matsim.api.core.v01.events.PersonLeavesVehicleEvent;
 import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Node;
 import org.matsim.api.core.v01.population.Person;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.groups.QSimConfigGroup;
@@ -39,10 +40,17 @@ import org.matsim.core.mobsim.qsim.QSim;
 import org.matsim.core.mobsim.qsim.interfaces.MobsimVehicle;
 import org.matsim.core.mobsim.qsim.interfaces.NetsimNetwork;
 import org.matsim.core.utils.misc.Time;
+import org.matsim.pt.transitSchedule.api.TransitLine;
+import org.matsim.pt.transitSchedule.api.TransitRoute;
+import org.matsim.pt.transitSchedule.api.TransitRouteStop;
+import org.matsim.pt.transitSchedule.api.TransitSchedule;
 import org.matsim.vehicles.Vehicle;
 import org.matsim.vis.snapshotwriters.SnapshotLinkWidthCalculator;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -389,9 +397,38 @@ abstract class AbstractQNetsimEngine<A extends AbstractQNetsimEngineRunner> impl
 		int nodes[] = new int[this.engines.size()];
 		int links[] = new int[this.engines.size()];
 
-		int roundRobin = 0;
+		// nodes with transit stops on their out links are balanced separately, so that the stop handling is spread over all threads
+		Scenario scenario = this.qsim.getScenario();
+		Map<Id<Link>, Long> stopsPerLink = this.engines.size() > 1 && scenario.getConfig().transit().isUseTransit() ?
+			countTransitStopsPerLink(scenario.getTransitSchedule()) : Collections.emptyMap();
+		List<Node> networkNodes = new ArrayList<>();
 		for (QNodeI node : qNetwork.getNetsimNodes().values()) {
-			int i = roundRobin % this.engines.size();
+			networkNodes.add(node.getNode());
+		}
+		Map<Id<Node>, Integer> transitNodes = assignTransitStopNodes(networkNodes, stopsPerLink, this.engines.size());
+		long[] transitStops = new long[this.engines.size()];
+
+		// the other nodes go to the runner with the fewest nodes so far, including the transit nodes. Without transit, this is round robin.
+		int[] assignedNodes = new int[this.engines.size()];
+		for (int runner : transitNodes.values()) {
+			assignedNodes[runner]++;
+		}
+
+		for (QNodeI node : qNetwork.getNetsimNodes().values()) {
+			Integer transitRunner = transitNodes.get(node.getNode().getId());
+			int i;
+			if (transitRunner != null) {
+				i = transitRunner;
+				transitStops[i] += getTransitStopLoad(node.getNode(), stopsPerLink);
+			} else {
+				i = 0;
+				for (int j = 1; j < assignedNodes.length; j++) {
+					if (assignedNodes[j] < assignedNodes[i]) {
+						i = j;
+					}
+				}
+				assignedNodes[i]++;
+			}
 			if (node instanceof AbstractQNode) {
 				((AbstractQNode) node).setNetElementActivationRegistry(this.engines.get(i));
 			}
@@ -418,18 +455,83 @@ abstract class AbstractQNetsimEngine<A extends AbstractQNetsimEngineRunner> impl
 				links[i]++;
 
 			}
-
-			roundRobin++;
 		}
 
 		// print some statistics
 		for (int i = 0; i < this.engines.size(); i++) {
-			log.info("Assigned " + nodes[i] + " nodes and " + links[i] + " links to QSimEngineRunner #" + i);
+			log.info("Assigned " + nodes[i] + " nodes and " + links[i] + " links to QSimEngineRunner #" + i
+				+ (transitNodes.isEmpty() ? "" : " (with " + transitStops[i] + " scheduled transit stops)"));
 		}
 
 //		this.linksToActivateInitially.clear();
 	}
 
+	/**
+	 * @return number of scheduled transit stops per link, i.e. the departures of all routes stopping there
+	 */
+	static Map<Id<Link>, Long> countTransitStopsPerLink(TransitSchedule schedule) {
+		Map<Id<Link>, Long> stopsPerLink = new HashMap<>();
+		for (TransitLine line : schedule.getTransitLines().values()) {
+			for (TransitRoute route : line.getRoutes().values()) {
+				int departures = route.getDepartures().size();
+				for (TransitRouteStop stop : route.getStops()) {
+					Id<Link> linkId = stop.getStopFacility().getLinkId();
+					if (linkId != null) {
+						stopsPerLink.merge(linkId, (long) departures, Long::sum);
+					}
+				}
+			}
+		}
+		return stopsPerLink;
+	}
+
+	/**
+	 * Transit stops are handled by the runner of the stop's link. Stops of the same hub are often on links of few nodes, which the round robin
+	 * assignment may put on the same runner. Thus, the nodes with transit stops on their out links are assigned beforehand, largest number of
+	 * scheduled stops first, each to the runner with the least stops so far.
+	 *
+	 * @return the runner index for each node with transit stops
+	 */
+	static Map<Id<Node>, Integer> assignTransitStopNodes(Collection<Node> nodes, Map<Id<Link>, Long> stopsPerLink, int numberOfRunners) {
+		if (stopsPerLink.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		List<Node> transitNodes = new ArrayList<>();
+		for (Node node : nodes) {
+			if (getTransitStopLoad(node, stopsPerLink) > 0) {
+				transitNodes.add(node);
+			}
+		}
+		transitNodes.sort(Comparator.comparingLong((Node node) -> getTransitStopLoad(node, stopsPerLink)).reversed().thenComparing(Node::getId));
+
+		long[] load = new long[numberOfRunners];
+		Map<Id<Node>, Integer> assignment = new HashMap<>();
+		for (Node node : transitNodes) {
+			int runner = 0;
+			for (int i = 1; i < load.length; i++) {
+				if (load[i] < load[runner]) {
+					runner = i;
+				}
+			}
+			load[runner] += getTransitStopLoad(node, stopsPerLink);
+			assignment.put(node.getId(), runner);
+		}
+
+		return assignment;
+	}
+
+	/**
+	 * @return number of scheduled transit stops on the out links of a node
+	 */
+	static long getTransitStopLoad(Node node, Map<Id<Link>, Long> stopsPerLink) {
+		long load = 0;
+		for (Id<Link> linkId : node.getOutLinks().keySet()) {
+			load += stopsPerLink.getOrDefault(linkId, 0L);
+		}
+		return load;
+	}
+
 	private final void arrangeNextAgentState(MobsimAgent pp) {
 		internalInterface.arrangeNextAgentState(pp);
 	}
@@ -177,6 +177,17 @@ public class CHLeastCostPathTree implements ShortestPathTree {
         calculateForward(startNode, startTime, stopCriterion);
     }
 
+    /**
+     * Forward search starting at a node, e.g. for one-to-all sweeps from aggregated
+     * origins.  Turn restrictions are not accounted for; use the link based method
+     * if the graph contains them.
+     */
+    public void calculate(Node startNode, double startTime, Person person, Vehicle vehicle) {
+        lastForwardSearch = true;
+        calculateForward(baseGraph.getNodeIndex(startNode), startTime,
+                (node, arrTime, cost, distance, depTime) -> false);
+    }
+
     private void calculateForward(int startNode, double startTime,
                                   LeastCostPathTree.StopCriterion stopCriterion) {
         advanceIteration();
@@ -302,6 +302,10 @@ public final class EditTrips {
 						newTripElements.removeFirst();
 						wantsToLeaveStop = false;
 						WithinDayAgentUtils.resetCaches(agent);
+						// the agent may wait for another line now
+						if (transitAgentTracker != null) {
+							transitAgentTracker.updateDesiredLine(ptPassengerAgent, currentOrNextStop.getId());
+						}
 					}
 				}
 			}
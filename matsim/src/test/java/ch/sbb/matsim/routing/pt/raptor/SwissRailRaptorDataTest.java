@@ -32,6 +32,8 @@ import org.matsim.pt.transitSchedule.api.TransitScheduleReader;
 import org.matsim.pt.transitSchedule.api.TransitStopFacility;
 import org.matsim.testcases.MatsimTestUtils;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -113,6 +115,52 @@ public class SwissRailRaptorDataTest {
 		Assertions.assertEquals(data2.transfers.length, data4.transfers.length, "number of transfers should have stayed the same.");
 	}
 
+	@Test
+	void testTransferCache() {
+		Fixture f = new Fixture();
+		f.init();
+
+		f.config.transitRouter().setMaxBeelineWalkConnectionDistance(100);
+		RaptorStaticConfig raptorConfig = RaptorUtils.createStaticConfig(f.config);
+		raptorConfig.setNumberOfThreads(1);
+		SwissRailRaptorData expected = SwissRailRaptorData.create(f.schedule, null, raptorConfig, f.network, null);
+
+		// small chunks, so that the transfers of the fixture are calculated by several threads
+		raptorConfig.setNumberOfThreads(4);
+		raptorConfig.setTransferChunkSize(2);
+		Assertions.assertTrue(f.schedule.getFacilities().size() > 4 * raptorConfig.getTransferChunkSize());
+		raptorConfig.setTransferCacheDirectory(utils.getOutputDirectory());
+		SwissRailRaptorData calculated = SwissRailRaptorData.create(f.schedule, null, raptorConfig, f.network, null);
+		Path cacheFile = RaptorTransferCache.getFile(utils.getOutputDirectory(), f.schedule, calculated.routeStops, raptorConfig);
+		Assertions.assertTrue(Files.exists(cacheFile), "transfers should have been written to the cache.");
+
+		SwissRailRaptorData loaded = SwissRailRaptorData.create(f.schedule, null, raptorConfig, f.network, null);
+		assertSameTransfers(expected, calculated);
+		assertSameTransfers(expected, loaded);
+
+		// a changed schedule must not use the cached transfers
+		f.schedule.getMinimalTransferTimes().set(Id.create(19, TransitStopFacility.class), Id.create(9, TransitStopFacility.class), 345);
+		SwissRailRaptorData changed = SwissRailRaptorData.create(f.schedule, null, raptorConfig, f.network, null);
+		Assertions.assertNotEquals(cacheFile, RaptorTransferCache.getFile(utils.getOutputDirectory(), f.schedule, changed.routeStops, raptorConfig));
+		Assertions.assertEquals(expected.transfers.length + 1, changed.transfers.length, "cached transfers of the old schedule were used.");
+	}
+
+	private static void assertSameTransfers(SwissRailRaptorData expected, SwissRailRaptorData actual) {
+		Assertions.assertEquals(expected.transfers.length, actual.transfers.length);
+		for (int i = 0; i < expected.transfers.length; i++) {
+			SwissRailRaptorData.RTransfer e = expected.transfers[i];
+			SwissRailRaptorData.RTransfer a = actual.transfers[i];
+			Assertions.assertEquals(e.fromRouteStop, a.fromRouteStop);
+			Assertions.assertEquals(e.toRouteStop, a.toRouteStop);
+			Assertions.assertEquals(e.transferTime, a.transferTime);
+			Assertions.assertEquals(e.transferDistance, a.transferDistance);
+		}
+		for (int i = 0; i < expected.routeStops.length; i++) {
+			Assertions.assertEquals(expected.routeStops[i].indexFirstTransfer, actual.routeStops[i].indexFirstTransfer);
+			Assertions.assertEquals(expected.routeStops[i].countTransfers, actual.routeStops[i].countTransfers);
+		}
+	}
+
 
 	@Test
 	void testChainedDepartures() {
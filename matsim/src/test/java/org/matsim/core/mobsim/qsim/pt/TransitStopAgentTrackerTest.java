@@ -31,9 +31,13 @@ import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.events.EventsUtils;
 import org.matsim.pt.fakes.FakeAgent;
 import org.matsim.pt.transitSchedule.TransitScheduleFactoryImpl;
+import org.matsim.pt.transitSchedule.api.TransitLine;
 import org.matsim.pt.transitSchedule.api.TransitScheduleFactory;
 import org.matsim.pt.transitSchedule.api.TransitStopFacility;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
 
 /**
  * @author mrieser
@@ -119,4 +123,116 @@ public class TransitStopAgentTrackerTest {
 			log.info("catched expected exception.", e);
 		}
 	}
+
+	@Test
+	void testGetAgentsAtFacilityForLine() {
+		EventsManager events = EventsUtils.createEventsManager();
+		TransitStopAgentTracker tracker = new TransitStopAgentTracker(events);
+		Id<TransitStopFacility> stopId = Id.create(1, TransitStopFacility.class);
+		Id<TransitLine> line1 = Id.create("L1", TransitLine.class);
+		Id<TransitLine> line2 = Id.create("L2", TransitLine.class);
+
+		PTPassengerAgent agent1 = createAgentForLine(line1);
+		PTPassengerAgent agent2 = createAgentForLine(null);
+		PTPassengerAgent agent3 = createAgentForLine(line2);
+		PTPassengerAgent agent4 = createAgentForLine(line1);
+
+		tracker.addAgentToStop(10, agent1, stopId);
+		tracker.addAgentToStop(10, agent2, stopId);
+		tracker.addAgentToStop(10, agent3, stopId);
+		tracker.addAgentToStop(10, agent4, stopId);
+
+		assertEquals(4, tracker.getNumberOfAgentsAtFacility(stopId));
+		assertEquals(List.of(agent1, agent2, agent3, agent4), tracker.getAgentsAtFacility(stopId));
+		assertEquals(List.of(agent1, agent2, agent4), tracker.getAgentsAtFacility(stopId, line1));
+		assertEquals(List.of(agent2, agent3), tracker.getAgentsAtFacility(stopId, line2));
+		assertEquals(List.of(agent2), tracker.getAgentsAtFacility(stopId, Id.create("L3", TransitLine.class)));
+
+		tracker.removeAgentFromStop(agent1, stopId);
+		tracker.removeAgentFromStop(agent2, stopId);
+		assertEquals(2, tracker.getNumberOfAgentsAtFacility(stopId));
+		assertEquals(List.of(agent4), tracker.getAgentsAtFacility(stopId, line1));
+		assertEquals(List.of(agent3), tracker.getAgentsAtFacility(stopId, line2));
+		assertEquals(List.of(agent3, agent4), tracker.getAgentsAtStop().get(stopId));
+
+		tracker.getAgentsAtStop().clear();
+		assertEquals(0, tracker.getNumberOfAgentsAtFacility(stopId));
+		assertTrue(tracker.getAgentsAtFacility(stopId, line1).isEmpty());
+	}
+
+	@Test
+	void testSnapshotsAreReusedUntilChanged() {
+		EventsManager events = EventsUtils.createEventsManager();
+		TransitStopAgentTracker tracker = new TransitStopAgentTracker(events);
+		Id<TransitStopFacility> stopId = Id.create(1, TransitStopFacility.class);
+		Id<TransitLine> line1 = Id.create("L1", TransitLine.class);
+
+		PTPassengerAgent agent1 = createAgentForLine(line1);
+		PTPassengerAgent agent2 = createAgentForLine(null);
+		tracker.addAgentToStop(10, agent1, stopId);
+
+		List<PTPassengerAgent> all = tracker.getAgentsAtFacility(stopId);
+		List<PTPassengerAgent> boarding = tracker.getAgentsAtFacility(stopId, line1);
+		assertSame(all, tracker.getAgentsAtFacility(stopId));
+		assertSame(boarding, tracker.getAgentsAtFacility(stopId, line1));
+
+		// previous snapshots are not changed, e.g. while iterating over them
+		tracker.addAgentToStop(10, agent2, stopId);
+		assertEquals(List.of(agent1), all);
+		assertEquals(List.of(agent1), boarding);
+		assertEquals(List.of(agent1, agent2), tracker.getAgentsAtFacility(stopId));
+		assertEquals(List.of(agent1, agent2), tracker.getAgentsAtFacility(stopId, line1));
+
+		tracker.removeAgentFromStop(agent1, stopId);
+		assertEquals(List.of(agent2), tracker.getAgentsAtFacility(stopId));
+		assertEquals(List.of(agent2), tracker.getAgentsAtFacility(stopId, line1));
+	}
+
+	@Test
+	void testUpdateDesiredLine() {
+		EventsManager events = EventsUtils.createEventsManager();
+		TransitStopAgentTracker tracker = new TransitStopAgentTracker(events);
+		Id<TransitStopFacility> stopId = Id.create(1, TransitStopFacility.class);
+		Id<TransitLine> line1 = Id.create("L1", TransitLine.class);
+		Id<TransitLine> line2 = Id.create("L2", TransitLine.class);
+
+		AtomicReference<Id<TransitLine>> desiredLine = new AtomicReference<>(line1);
+		PTPassengerAgent replanned = new FakeAgent(null, null) {
+			@Override
+			public Id<TransitLine> getDesiredTransitLineId() {
+				return desiredLine.get();
+			}
+		};
+		PTPassengerAgent agent2 = createAgentForLine(line2);
+		PTPassengerAgent agent3 = createAgentForLine(line2);
+
+		tracker.addAgentToStop(10, agent2, stopId);
+		tracker.addAgentToStop(10, replanned, stopId);
+		tracker.addAgentToStop(10, agent3, stopId);
+		assertEquals(List.of(agent2, agent3), tracker.getAgentsAtFacility(stopId, line2));
+
+		// e.g. within-day replanning while waiting
+		desiredLine.set(line2);
+		tracker.updateDesiredLine(replanned, stopId);
+		assertEquals(List.of(agent2, replanned, agent3), tracker.getAgentsAtFacility(stopId, line2));
+		assertTrue(tracker.getAgentsAtFacility(stopId, line1).isEmpty());
+
+		desiredLine.set(null);
+		tracker.updateDesiredLine(replanned, stopId);
+		assertEquals(List.of(replanned), tracker.getAgentsAtFacility(stopId, line1));
+		assertEquals(List.of(agent2, replanned, agent3), tracker.getAgentsAtFacility(stopId, line2));
+
+		tracker.removeAgentFromStop(replanned, stopId);
+		assertEquals(List.of(agent2, agent3), tracker.getAgentsAtFacility(stopId, line2));
+		assertEquals(List.of(agent2, agent3), tracker.getAgentsAtFacility(stopId));
+	}
+
+	private static PTPassengerAgent createAgentForLine(Id<TransitLine> lineId) {
+		return new FakeAgent(null, null) {
+			@Override
+			public Id<TransitLine> getDesiredTransitLineId() {
+				return lineId;
+			}
+		};
+	}
 }
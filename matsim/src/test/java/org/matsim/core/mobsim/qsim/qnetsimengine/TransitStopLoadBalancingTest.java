@@ -0,0 +1,166 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.qsim.qnetsimengine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.config.groups.QSimConfigGroup;
+import org.matsim.core.controler.PrepareForSimUtils;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.handler.BasicEventHandler;
+import org.matsim.core.mobsim.qsim.QSimBuilder;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.examples.ExamplesUtils;
+import org.matsim.pt.transitSchedule.api.Departure;
+import org.matsim.pt.transitSchedule.api.TransitLine;
+import org.matsim.pt.transitSchedule.api.TransitRoute;
+import org.matsim.pt.transitSchedule.api.TransitRouteStop;
+import org.matsim.pt.transitSchedule.api.TransitSchedule;
+import org.matsim.pt.transitSchedule.api.TransitScheduleFactory;
+import org.matsim.pt.transitSchedule.api.TransitStopFacility;
+
+public class TransitStopLoadBalancingTest {
+
+	private static final int NUMBER_OF_NODES = 8;
+
+	@ParameterizedTest
+	@ValueSource(ints = {2, 4})
+	void stopLoadIsSpreadOverRunners(int numberOfRunners) {
+		Scenario scenario = createRingScenario();
+		Map<Id<Link>, Long> stopsPerLink = AbstractQNetsimEngine.countTransitStopsPerLink(scenario.getTransitSchedule());
+		List<Node> nodes = new ArrayList<>(scenario.getNetwork().getNodes().values());
+
+		Map<Id<Node>, Integer> assignment = AbstractQNetsimEngine.assignTransitStopNodes(nodes, stopsPerLink, numberOfRunners);
+
+		long[] load = new long[numberOfRunners];
+		long maxNodeLoad = 0;
+		for (Node node : nodes) {
+			long nodeLoad = AbstractQNetsimEngine.getTransitStopLoad(node, stopsPerLink);
+			load[assignment.get(node.getId())] += nodeLoad;
+			maxNodeLoad = Math.max(maxNodeLoad, nodeLoad);
+		}
+
+		// 10 departures stop on each link, another 30 only at the links of the hub nodes 0 and 1
+		Assertions.assertEquals(NUMBER_OF_NODES, assignment.size());
+		Assertions.assertEquals(40, maxNodeLoad);
+		Assertions.assertEquals(40 + 40 + 10 * (NUMBER_OF_NODES - 2), Arrays.stream(load).sum());
+		long minLoad = Arrays.stream(load).min().orElseThrow();
+		long maxLoad = Arrays.stream(load).max().orElseThrow();
+		Assertions.assertTrue(minLoad > 0, "load per runner: " + Arrays.toString(load));
+		// largest first: no runner gets more than one node above the others
+		Assertions.assertTrue(maxLoad - minLoad <= maxNodeLoad, "load per runner: " + Arrays.toString(load));
+		Assertions.assertNotEquals(assignment.get(Id.createNodeId(0)), assignment.get(Id.createNodeId(1)));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {2, 4})
+	void sameEventsAsSingleThread(int numberOfThreads) {
+		List<String> expected = runQSim(1);
+		List<String> actual = runQSim(numberOfThreads);
+
+		Assertions.assertFalse(expected.isEmpty());
+		Assertions.assertEquals(expected, actual);
+	}
+
+	private static List<String> runQSim(int numberOfThreads) {
+		Scenario scenario = loadScenario(numberOfThreads);
+		// the random node transitions draw from a different random generator with a single thread, see QNodeImpl
+		scenario.getConfig().qsim().setNodeTransitionLogic(QSimConfigGroup.NodeTransition.moveVehByVehDeterministicPriorities_nodeBlockedWhenSingleOutlinkFull);
+		PrepareForSimUtils.createDefaultPrepareForSim(scenario).run();
+
+		List<String> events = Collections.synchronizedList(new ArrayList<>());
+		EventsManager eventsManager = EventsUtils.createEventsManager();
+		eventsManager.addHandler((BasicEventHandler) (Event event) -> events.add(event.toString()));
+
+		new QSimBuilder(scenario.getConfig())
+			.useDefaults()
+			.build(scenario, eventsManager)
+			.run();
+
+		// events of the same time step may be thrown in a different order by several runners
+		List<String> sorted = new ArrayList<>(events);
+		sorted.sort(Comparator.naturalOrder());
+		return sorted;
+	}
+
+	/**
+	 * Ring of nodes with a stop on each link. One route serves all stops, another only the stops of the first two nodes.
+	 */
+	private static Scenario createRingScenario() {
+		Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		Network network = scenario.getNetwork();
+		TransitSchedule schedule = scenario.getTransitSchedule();
+		TransitScheduleFactory factory = schedule.getFactory();
+
+		for (int i = 0; i < NUMBER_OF_NODES; i++) {
+			network.addNode(NetworkUtils.createNode(Id.createNodeId(i), new Coord(100 * i, 0)));
+		}
+		List<TransitRouteStop> stops = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_NODES; i++) {
+			Link link = NetworkUtils.createLink(Id.createLinkId(i), network.getNodes().get(Id.createNodeId(i)),
+				network.getNodes().get(Id.createNodeId((i + 1) % NUMBER_OF_NODES)), network, 100, 10, 1000, 1);
+			network.addLink(link);
+			TransitStopFacility facility = factory.createTransitStopFacility(Id.create(i, TransitStopFacility.class), link.getToNode().getCoord(), false);
+			facility.setLinkId(link.getId());
+			schedule.addStopFacility(facility);
+			stops.add(factory.createTransitRouteStop(facility, 0, 0));
+		}
+
+		TransitLine line = factory.createTransitLine(Id.create("line", TransitLine.class));
+		line.addRoute(createRoute(factory, "ring", stops, 10));
+		line.addRoute(createRoute(factory, "hub", stops.subList(0, 2), 30));
+		schedule.addTransitLine(line);
+		return scenario;
+	}
+
+	private static TransitRoute createRoute(TransitScheduleFactory factory, String id, List<TransitRouteStop> stops, int departures) {
+		TransitRoute route = factory.createTransitRoute(Id.create(id, TransitRoute.class), null, stops, "pt");
+		for (int i = 0; i < departures; i++) {
+			route.addDeparture(factory.createDeparture(Id.create(i, Departure.class), i * 600));
+		}
+		return route;
+	}
+
+	private static Scenario loadScenario(int numberOfThreads) {
+		Config config = ConfigUtils.loadConfig(IOUtils.extendUrl(ExamplesUtils.getTestScenarioURL("pt-tutorial"), "0.config.xml"));
+		config.qsim().setNumberOfThreads(numberOfThreads);
+		return ScenarioUtils.loadScenario(config);
+	}
+}